@@ -0,0 +1,121 @@
+package com.timi.benchmark;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.timi.dao.DatabaseConnection;
+import com.timi.dao.QuizAttemptDAO;
+import com.timi.dao.impl.QuizAttemptDAOImpl;
+import com.timi.exception.DAOException;
+import com.timi.model.QuizAttempt;
+
+/**
+ * Loads quiz attempts with their answered questions through QuizAttemptDAOImpl, against the
+ * embedded database seeded with {@code attempts} attempts of a {@code QUESTIONS}-question quiz.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@State(Scope.Benchmark)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Daudit.file=target/audit_benchmark.csv")
+public class AttemptHydrationBenchmark {
+
+    private static final int QUESTIONS = 10;
+
+    @Param({"100", "1000"})
+    private int attempts;
+
+    private QuizAttemptDAO quizAttemptDAO;
+    private int quizId;
+    private int firstAttemptId;
+
+    @Setup
+    public void setUp() throws SQLException, DAOException {
+        String url = EmbeddedDatabase.start("attempt_hydration");
+        try (Connection connection = EmbeddedDatabase.open(url)) {
+            connection.setAutoCommit(false);
+            quizId = insertAndGetKey(connection, "INSERT INTO Quizzes (title, courseId, duration) VALUES ('Benchmark Quiz', 1, 30)");
+
+            int[] questionIds = new int[QUESTIONS];
+            for (int i = 0; i < QUESTIONS; i++) {
+                questionIds[i] = insertAndGetKey(connection, "INSERT INTO Questions (content, options, correctOptionIndex, quizId) VALUES ('Question " + i
+                        + "', '[\"Option A\", \"Option B\", \"Option C\", \"Option D\"]', " + (i % 4) + ", " + quizId + ")");
+            }
+
+            try (PreparedStatement attemptPs = connection.prepareStatement("INSERT INTO QuizAttempts (userId, quizId, timestamp, score, durationAttempted) VALUES (2, ?, ?, ?, ?)", Statement.RETURN_GENERATED_KEYS);
+                 PreparedStatement answerPs = connection.prepareStatement("INSERT INTO QuizAttemptQuestions (attemptId, questionId, selectedOptionIndex) VALUES (?, ?, ?)")) {
+                for (int i = 0; i < attempts; i++) {
+                    attemptPs.setInt(1, quizId);
+                    attemptPs.setTimestamp(2, Timestamp.valueOf(LocalDateTime.now()));
+                    attemptPs.setInt(3, i % (QUESTIONS + 1));
+                    attemptPs.setFloat(4, 12.5f);
+                    attemptPs.executeUpdate();
+                    int attemptId;
+                    try (ResultSet keys = attemptPs.getGeneratedKeys()) {
+                        keys.next();
+                        attemptId = keys.getInt(1);
+                    }
+                    if (i == 0) {
+                        firstAttemptId = attemptId;
+                    }
+                    for (int j = 0; j < QUESTIONS; j++) {
+                        answerPs.setInt(1, attemptId);
+                        answerPs.setInt(2, questionIds[j]);
+                        answerPs.setInt(3, (i + j) % 4);
+                        answerPs.addBatch();
+                    }
+                }
+                answerPs.executeBatch();
+            }
+            connection.commit();
+        }
+        quizAttemptDAO = new QuizAttemptDAOImpl();
+    }
+
+    @TearDown
+    public void tearDown() {
+        DatabaseConnection.getInstance().closeConnection();
+    }
+
+    private static int insertAndGetKey(Connection connection, String sql) throws SQLException {
+        try (Statement statement = connection.createStatement()) {
+            statement.executeUpdate(sql, Statement.RETURN_GENERATED_KEYS);
+            try (ResultSet keys = statement.getGeneratedKeys()) {
+                keys.next();
+                return keys.getInt(1);
+            }
+        }
+    }
+
+    @Benchmark
+    public List<QuizAttempt> getQuizAttemptsByQuizId() throws DAOException {
+        return quizAttemptDAO.getQuizAttemptsByQuizId(quizId);
+    }
+
+    @Benchmark
+    public QuizAttempt getQuizAttemptById() throws DAOException {
+        return quizAttemptDAO.getQuizAttemptById(firstAttemptId + ThreadLocalRandom.current().nextInt(attempts));
+    }
+}
@@ -0,0 +1,55 @@
+package com.timi.benchmark;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.timi.service.impl.AuditingServiceImpl;
+
+/**
+ * Cost of AuditingServiceImpl.logAction as seen by DAO callers, with one and with four threads
+ * logging at once. The forked JVM writes its entries to target/ instead of the real audit log.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@State(Scope.Benchmark)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Daudit.file=target/audit_benchmark.csv")
+public class AuditLogBenchmark {
+
+    private AuditingServiceImpl auditingService;
+
+    @Setup
+    public void setUp() {
+        auditingService = AuditingServiceImpl.getInstance();
+    }
+
+    @TearDown
+    public void tearDown() {
+        auditingService.close();
+    }
+
+    @Benchmark
+    @Threads(1)
+    public void logAction() {
+        auditingService.logAction("getCourseById");
+    }
+
+    @Benchmark
+    @Threads(4)
+    public void logActionContended() {
+        auditingService.logAction("getCourseById");
+    }
+}
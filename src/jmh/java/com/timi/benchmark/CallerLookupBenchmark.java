@@ -0,0 +1,60 @@
+package com.timi.benchmark;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Compares the caller lookup used by AuditingServiceImpl.logCurrentAction: the old full
+ * getStackTrace() capture against a StackWalker that stops after the caller frame. The extra
+ * {@code depth} frames stand in for the menu/service/DAO call chain above a DAO method.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@State(Scope.Benchmark)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class CallerLookupBenchmark {
+
+    private static final StackWalker STACK_WALKER = StackWalker.getInstance();
+
+    @Param({"10", "50"})
+    private int depth;
+
+    @Benchmark
+    public String stackTrace() {
+        return descend(depth, false);
+    }
+
+    @Benchmark
+    public String stackWalker() {
+        return descend(depth, true);
+    }
+
+    private static String descend(int remaining, boolean useStackWalker) {
+        if (remaining > 0) {
+            return descend(remaining - 1, useStackWalker);
+        }
+        return useStackWalker ? daoMethodWithStackWalker() : daoMethodWithStackTrace();
+    }
+
+    private static String daoMethodWithStackTrace() {
+        return Thread.currentThread().getStackTrace()[1].getMethodName();
+    }
+
+    private static String daoMethodWithStackWalker() {
+        return STACK_WALKER.walk(frames -> frames.findFirst()
+                .map(StackWalker.StackFrame::getMethodName)
+                .orElse("unknown"));
+    }
+}
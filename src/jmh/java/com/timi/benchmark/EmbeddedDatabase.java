@@ -0,0 +1,37 @@
+package com.timi.benchmark;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.sql.Statement;
+
+import com.timi.dao.SchemaMigrator;
+import com.timi.exception.DAOException;
+
+/**
+ * In-process H2 database in MySQL mode, created from the application's db_create.sql and brought up
+ * to date by the schema migrations. Calling {@link #start(String)} before the first DAO is created
+ * points DatabaseConnection at it.
+ */
+public final class EmbeddedDatabase {
+
+    private EmbeddedDatabase() {
+    }
+
+    public static String start(String name) throws SQLException, DAOException {
+        String url = "jdbc:h2:mem:" + name + ";MODE=MySQL;DB_CLOSE_DELAY=-1";
+        System.setProperty("db.url", url);
+        System.setProperty("db.username", "sa");
+        System.setProperty("db.password", "");
+        try (Connection connection = open(url);
+             Statement statement = connection.createStatement()) {
+            statement.execute("RUNSCRIPT FROM 'classpath:/db_create.sql'");
+        }
+        SchemaMigrator.getInstance().migrate();
+        return url;
+    }
+
+    public static Connection open(String url) throws SQLException {
+        return DriverManager.getConnection(url, "sa", "");
+    }
+}
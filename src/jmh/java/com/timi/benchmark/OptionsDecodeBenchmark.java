@@ -0,0 +1,60 @@
+package com.timi.benchmark;
+
+import java.lang.reflect.Type;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.google.gson.Gson;
+import com.google.gson.GsonBuilder;
+import com.google.gson.reflect.TypeToken;
+import com.timi.dao.impl.OptionsCodec;
+
+/**
+ * Per-row cost of decoding the Questions.options column: the previous per-row Gson/TypeToken
+ * allocation, a shared Gson instance, and OptionsCodec.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@State(Scope.Benchmark)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class OptionsDecodeBenchmark {
+
+    private static final Gson SHARED_GSON = new Gson();
+    private static final Type OPTIONS_TYPE = new TypeToken<List<String>>(){}.getType();
+
+    @Param({
+        "[\"Programming Language\", \"Database\", \"Operating System\", \"Web Browser\"]",
+        "[\"A pattern that allows a class to publish changes to its state\", \"A pattern that restricts the instantiation of a class to one object\", \"Say \\\"hi\\\"\", \"Tab\\tseparated\"]"
+    })
+    private String optionsJson;
+
+    @Benchmark
+    public List<String> gsonPerRow() {
+        Gson gson = new GsonBuilder().create();
+        Type listType = new TypeToken<List<String>>(){}.getType();
+        return gson.fromJson(optionsJson, listType);
+    }
+
+    @Benchmark
+    public List<String> sharedGson() {
+        return SHARED_GSON.fromJson(optionsJson, OPTIONS_TYPE);
+    }
+
+    @Benchmark
+    public List<String> optionsCodec() {
+        return OptionsCodec.decode(optionsJson);
+    }
+}
@@ -0,0 +1,53 @@
+package com.timi.benchmark;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.timi.model.Question;
+import com.timi.model.QuizAttempt;
+
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@State(Scope.Benchmark)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class QuizScoreBenchmark {
+
+    @Param({"10", "100"})
+    private int questionCount;
+
+    private QuizAttempt attempt;
+
+    @Setup
+    public void setUp() {
+        Random random = new Random(42);
+        List<Question> questions = new ArrayList<>(questionCount);
+        for (int i = 0; i < questionCount; i++) {
+            Question question = new Question(i + 1, "Question " + i, List.of("A", "B", "C", "D"), random.nextInt(4));
+            question.setSelectedOptionIndex(random.nextInt(4));
+            questions.add(question);
+        }
+        attempt = new QuizAttempt();
+        attempt.setQuestionsAttempted(questions);
+    }
+
+    @Benchmark
+    public int calculateQuizScore() {
+        return attempt.calculateQuizScore();
+    }
+}
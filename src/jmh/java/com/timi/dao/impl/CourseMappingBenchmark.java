@@ -0,0 +1,82 @@
+package com.timi.dao.impl;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.concurrent.TimeUnit;
+
+import javax.sql.rowset.CachedRowSet;
+import javax.sql.rowset.RowSetProvider;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import com.timi.benchmark.EmbeddedDatabase;
+import com.timi.exception.DAOException;
+import com.timi.model.Category;
+import com.timi.model.Level;
+
+/**
+ * Per-row cost of CourseDAOImpl.extractCourseFromResultSet. The Courses rows are read once from
+ * the embedded database into a disconnected row set, so only the mapping itself is measured.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@State(Scope.Benchmark)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class CourseMappingBenchmark {
+
+    private static final int ROWS = 1000;
+
+    private CachedRowSet rows;
+
+    @Setup
+    public void setUp() throws SQLException, DAOException {
+        String url = EmbeddedDatabase.start("course_mapping");
+        try (Connection connection = EmbeddedDatabase.open(url)) {
+            try (PreparedStatement ps = connection.prepareStatement("INSERT INTO Courses (title, description, instructor, level, price, duration, category) VALUES (?, ?, ?, ?, ?, ?, ?)")) {
+                Level[] levels = Level.values();
+                Category[] categories = Category.values();
+                for (int i = 0; i < ROWS; i++) {
+                    ps.setString(1, "Course " + i);
+                    ps.setString(2, "Description of course " + i);
+                    ps.setInt(3, 3);
+                    ps.setString(4, levels[i % levels.length].toString());
+                    ps.setInt(5, 50 + i % 200);
+                    ps.setInt(6, 10 + i % 50);
+                    ps.setString(7, categories[i % categories.length].toString());
+                    ps.addBatch();
+                }
+                ps.executeBatch();
+            }
+            try (Statement statement = connection.createStatement();
+                 ResultSet rs = statement.executeQuery("SELECT * FROM Courses LIMIT " + ROWS)) {
+                rows = RowSetProvider.newFactory().createCachedRowSet();
+                rows.populate(rs);
+            }
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(ROWS)
+    public void extractCourse(Blackhole blackhole) throws SQLException {
+        rows.beforeFirst();
+        while (rows.next()) {
+            blackhole.consume(CourseDAOImpl.extractCourseFromResultSet(rows));
+        }
+    }
+}
@@ -1,22 +1,64 @@
 package com.timi;
 
+import com.timi.dao.IndexChecker;
+import com.timi.dao.SchemaMigrator;
 import com.timi.menu.Menu;
 import com.timi.service.DataService;
+import com.timi.service.impl.CourseSearchServiceImpl;
 import com.timi.service.impl.DataServiceImpl;
+import com.timi.service.impl.LeaderboardServiceImpl;
+import com.timi.service.impl.RecommendationServiceImpl;
 import com.timi.exception.DAOException;
 import com.timi.exception.InvalidEmailException;
 
 public class App {
 
     public static void main(String[] args) throws Exception {
+        try {
+            if (Boolean.parseBoolean(System.getProperty("db.migrate", "true"))) {
+                int applied = SchemaMigrator.getInstance().migrate();
+                if (applied > 0) {
+                    System.out.println("Applied " + applied + " schema migration(s), schema is at version " + SchemaMigrator.getInstance().getCurrentVersion());
+                }
+            }
+            if (Boolean.parseBoolean(System.getProperty("db.checkIndexes", "true"))) {
+                for (String missing : IndexChecker.getInstance().findMissingIndexes()) {
+                    System.out.println("Warning: " + missing);
+                }
+            }
+        } catch (DAOException e) {
+            System.out.println("Error migrating the database schema: " + e.getMessage());
+        }
+
         DataService dataService = new DataServiceImpl();
 
         try {
             dataService.loadDatabase();
+            if (Boolean.getBoolean("data.reportLoadTimes")) {
+                System.out.println("Load times (ms): " + dataService.getLoadTimes());
+            }
         } catch (DAOException e) {
             System.out.println("Error loading data from the database: " + e.getMessage());
         }
 
+        try {
+            LeaderboardServiceImpl.getInstance().rebuild();
+        } catch (DAOException e) {
+            System.out.println("Error building leaderboards: " + e.getMessage());
+        }
+
+        try {
+            CourseSearchServiceImpl.getInstance().rebuild();
+        } catch (DAOException e) {
+            System.out.println("Error building the course search index: " + e.getMessage());
+        }
+
+        try {
+            RecommendationServiceImpl.getInstance().rebuild();
+        } catch (DAOException e) {
+            System.out.println("Error building course recommendations: " + e.getMessage());
+        }
+
         Menu mainMenu = Menu.getInstance();
 
         try {
@@ -9,6 +9,10 @@ public interface ApplicationDAO {
 
     Queue<Application> getAllApplications() throws DAOException;
 
+    Queue<Application> getApplicationsAfter(int applicationId) throws DAOException;
+
+    Page<Application> getApplicationsPage(String pageToken, int pageSize) throws DAOException;
+
     Queue<Application> getApplicationsByUserId(int userId) throws DAOException;
 
     Queue<Application> getApplicationsByCourseId(int courseId) throws DAOException;
@@ -0,0 +1,352 @@
+package com.timi.dao;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.sql.SQLTimeoutException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Properties;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingDeque;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Bounded JDBC connection pool. Callers borrow a connection with {@link #borrow()} and hand it
+ * back by calling {@code close()} on it, so DAOs can use try-with-resources per operation. Each
+ * physical connection keeps its prepared statements in a {@link StatementCache}, and any statement a
+ * borrower leaves open is reclaimed when the connection is returned.
+ */
+public class ConnectionPool {
+
+    private static final long VALIDATION_BYPASS_MS = 500;
+    private static final int VALIDATION_TIMEOUT_SECONDS = 2;
+    private static final long HOUSEKEEPING_PERIOD_MS = 5_000;
+
+    private final String url;
+    private final String username;
+    private final String password;
+    private final int minSize;
+    private final int maxSize;
+    private final long acquireTimeoutMs;
+    private final long idleTimeoutMs;
+    private final long leakDetectionThresholdMs;
+    private final int statementCacheSize;
+
+    private final LinkedBlockingDeque<PooledConnection> idle = new LinkedBlockingDeque<>();
+    private final Set<PooledConnection> active = ConcurrentHashMap.newKeySet();
+    private final Semaphore permits;
+    private final AtomicInteger totalConnections = new AtomicInteger();
+    private final AtomicLong timeouts = new AtomicLong();
+    private final AtomicLong leaksDetected = new AtomicLong();
+    private final StatementCache.Counters statementCounters = new StatementCache.Counters();
+    private final WaitTimeRecorder waitTimes = new WaitTimeRecorder(1024);
+    private final ScheduledExecutorService housekeeper;
+    private volatile boolean shutdown;
+
+    public ConnectionPool(String url, String username, String password, Properties props) throws SQLException {
+        this.url = url;
+        this.username = username;
+        this.password = password;
+        this.minSize = Integer.parseInt(props.getProperty("db.pool.minSize", "2"));
+        this.maxSize = Integer.parseInt(props.getProperty("db.pool.maxSize", "10"));
+        this.acquireTimeoutMs = Long.parseLong(props.getProperty("db.pool.acquireTimeoutMs", "5000"));
+        this.idleTimeoutMs = Long.parseLong(props.getProperty("db.pool.idleTimeoutMs", "600000"));
+        this.leakDetectionThresholdMs = Long.parseLong(props.getProperty("db.pool.leakDetectionThresholdMs", "0"));
+        this.statementCacheSize = Integer.parseInt(props.getProperty("db.pool.statementCacheSize", "64"));
+        if (minSize < 0 || maxSize <= 0 || minSize > maxSize) {
+            throw new IllegalArgumentException("Invalid pool size: min=" + minSize + ", max=" + maxSize);
+        }
+
+        this.permits = new Semaphore(maxSize, true);
+        for (int i = 0; i < minSize; i++) {
+            idle.offerLast(createConnection());
+        }
+
+        housekeeper = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread thread = new Thread(r, "connection-pool-housekeeper");
+            thread.setDaemon(true);
+            return thread;
+        });
+        housekeeper.scheduleWithFixedDelay(this::housekeep, HOUSEKEEPING_PERIOD_MS, HOUSEKEEPING_PERIOD_MS, TimeUnit.MILLISECONDS);
+    }
+
+    public Connection borrow() throws SQLException {
+        if (shutdown) {
+            throw new SQLException("Connection pool has been shut down");
+        }
+
+        long start = System.nanoTime();
+        try {
+            if (!permits.tryAcquire(acquireTimeoutMs, TimeUnit.MILLISECONDS)) {
+                timeouts.incrementAndGet();
+                throw new SQLTimeoutException("Timed out after " + acquireTimeoutMs + "ms waiting for a database connection");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new SQLException("Interrupted while waiting for a database connection", e);
+        }
+
+        try {
+            PooledConnection pooled = takeIdleOrCreate();
+            waitTimes.record(System.nanoTime() - start);
+            pooled.borrowedAt = System.currentTimeMillis();
+            pooled.borrowSite = leakDetectionThresholdMs > 0 ? new Throwable("Connection borrowed here") : null;
+            active.add(pooled);
+            return pooled.newHandle();
+        } catch (SQLException | RuntimeException e) {
+            permits.release();
+            throw e;
+        }
+    }
+
+    private PooledConnection takeIdleOrCreate() throws SQLException {
+        PooledConnection pooled;
+        while ((pooled = idle.pollFirst()) != null) {
+            if (isUsable(pooled)) {
+                return pooled;
+            }
+            discard(pooled);
+        }
+        return createConnection();
+    }
+
+    private boolean isUsable(PooledConnection pooled) {
+        if (System.currentTimeMillis() - pooled.lastReturnedAt < VALIDATION_BYPASS_MS) {
+            return true;
+        }
+        try {
+            return pooled.physical.isValid(VALIDATION_TIMEOUT_SECONDS);
+        } catch (SQLException e) {
+            return false;
+        }
+    }
+
+    private PooledConnection createConnection() throws SQLException {
+        Connection physical = DriverManager.getConnection(url, username, password);
+        totalConnections.incrementAndGet();
+        return new PooledConnection(physical);
+    }
+
+    private void release(PooledConnection pooled) {
+        active.remove(pooled);
+        try {
+            if (shutdown || pooled.physical.isClosed()) {
+                discard(pooled);
+                return;
+            }
+            pooled.closeStatements();
+            if (!pooled.physical.getAutoCommit()) {
+                pooled.physical.rollback();
+                pooled.physical.setAutoCommit(true);
+            }
+            pooled.lastReturnedAt = System.currentTimeMillis();
+            pooled.borrowSite = null;
+            idle.offerFirst(pooled);
+        } catch (SQLException e) {
+            discard(pooled);
+        } finally {
+            permits.release();
+        }
+    }
+
+    private void discard(PooledConnection pooled) {
+        totalConnections.decrementAndGet();
+        try {
+            pooled.physical.close();
+        } catch (SQLException e) {
+            // connection is already unusable, nothing left to clean up
+        }
+    }
+
+    private void housekeep() {
+        long now = System.currentTimeMillis();
+
+        Iterator<PooledConnection> oldestFirst = idle.descendingIterator();
+        while (oldestFirst.hasNext() && totalConnections.get() > minSize) {
+            PooledConnection pooled = oldestFirst.next();
+            if (now - pooled.lastReturnedAt > idleTimeoutMs && idle.remove(pooled)) {
+                discard(pooled);
+            }
+        }
+
+        while (!shutdown && totalConnections.get() < minSize) {
+            try {
+                idle.offerLast(createConnection());
+            } catch (SQLException e) {
+                break;
+            }
+        }
+
+        if (leakDetectionThresholdMs > 0) {
+            for (PooledConnection pooled : active) {
+                if (!pooled.leakReported && now - pooled.borrowedAt > leakDetectionThresholdMs) {
+                    pooled.leakReported = true;
+                    leaksDetected.incrementAndGet();
+                    System.err.println("Possible connection leak: connection held for " + (now - pooled.borrowedAt) + "ms");
+                    if (pooled.borrowSite != null) {
+                        pooled.borrowSite.printStackTrace();
+                    }
+                }
+            }
+        }
+    }
+
+    public ConnectionPoolMetrics getMetrics() {
+        long[] samples = waitTimes.snapshot();
+        Arrays.sort(samples);
+        return new ConnectionPoolMetrics(active.size(), idle.size(), totalConnections.get(), maxSize,
+                permits.getQueueLength(), timeouts.get(), leaksDetected.get(),
+                percentileMillis(samples, 0.50), percentileMillis(samples, 0.95),
+                percentileMillis(samples, 0.99), percentileMillis(samples, 1.0),
+                statementCounters.hits.get(), statementCounters.misses.get(),
+                statementCounters.evictions.get(), statementCounters.reclaimed.get());
+    }
+
+    private static double percentileMillis(long[] sortedNanos, double percentile) {
+        if (sortedNanos.length == 0) {
+            return 0;
+        }
+        int index = (int) Math.ceil(percentile * sortedNanos.length) - 1;
+        return sortedNanos[Math.max(0, index)] / 1_000_000.0;
+    }
+
+    public void shutdown() {
+        shutdown = true;
+        housekeeper.shutdownNow();
+        PooledConnection pooled;
+        while ((pooled = idle.pollFirst()) != null) {
+            discard(pooled);
+        }
+    }
+
+    private final class PooledConnection {
+        private final Connection physical;
+        private final StatementCache statementCache;
+        // statements created outside the cache during the current borrow
+        private final List<Statement> uncachedStatements = new ArrayList<>();
+        private volatile long borrowedAt;
+        private volatile long lastReturnedAt = System.currentTimeMillis();
+        private volatile Throwable borrowSite;
+        private volatile boolean leakReported;
+
+        private PooledConnection(Connection physical) {
+            this.physical = physical;
+            this.statementCache = statementCacheSize > 0 ? new StatementCache(physical, statementCacheSize, statementCounters) : null;
+        }
+
+        private void closeStatements() throws SQLException {
+            if (statementCache != null) {
+                statementCache.reclaim();
+            }
+            for (Statement statement : uncachedStatements) {
+                if (!statement.isClosed()) {
+                    statementCounters.reclaimed.incrementAndGet();
+                    statement.close();
+                }
+            }
+            uncachedStatements.clear();
+        }
+
+        private Connection newHandle() {
+            leakReported = false;
+            return (Connection) Proxy.newProxyInstance(Connection.class.getClassLoader(),
+                    new Class<?>[] { Connection.class }, new Handle(this));
+        }
+    }
+
+    /**
+     * Logical connection handed out to callers; {@code close()} returns the physical connection
+     * to the pool instead of closing it.
+     */
+    private final class Handle implements InvocationHandler {
+        private final PooledConnection pooled;
+        private boolean closed;
+
+        private Handle(PooledConnection pooled) {
+            this.pooled = pooled;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            switch (method.getName()) {
+                case "close":
+                    if (!closed) {
+                        closed = true;
+                        release(pooled);
+                    }
+                    return null;
+                case "isClosed":
+                    return closed || pooled.physical.isClosed();
+                case "equals":
+                    return proxy == args[0];
+                case "hashCode":
+                    return System.identityHashCode(proxy);
+                case "toString":
+                    return "PooledConnection[" + pooled.physical + "]";
+                default:
+                    if (closed) {
+                        throw new SQLException("Connection has already been returned to the pool");
+                    }
+                    if (pooled.statementCache != null && isCacheablePrepare(method)) {
+                        int autoGeneratedKeys = args.length == 2 ? (Integer) args[1] : Statement.NO_GENERATED_KEYS;
+                        return pooled.statementCache.prepare((Connection) proxy, (String) args[0], autoGeneratedKeys);
+                    }
+                    Object result;
+                    try {
+                        result = method.invoke(pooled.physical, args);
+                    } catch (InvocationTargetException e) {
+                        throw e.getCause();
+                    }
+                    if (result instanceof Statement) {
+                        pooled.uncachedStatements.add((Statement) result);
+                    }
+                    return result;
+            }
+        }
+
+        /**
+         * {@code prepareStatement(String)} and {@code prepareStatement(String, int autoGeneratedKeys)};
+         * statements with other result set types or key columns are not cached.
+         */
+        private boolean isCacheablePrepare(Method method) {
+            if (!method.getName().equals("prepareStatement")) {
+                return false;
+            }
+            Class<?>[] types = method.getParameterTypes();
+            return types.length == 1 || (types.length == 2 && types[1] == int.class);
+        }
+    }
+
+    private static final class WaitTimeRecorder {
+        private final long[] samples;
+        private final AtomicLong count = new AtomicLong();
+
+        private WaitTimeRecorder(int capacity) {
+            samples = new long[capacity];
+        }
+
+        private void record(long nanos) {
+            long index = count.getAndIncrement();
+            samples[(int) (index % samples.length)] = nanos;
+        }
+
+        private long[] snapshot() {
+            int size = (int) Math.min(count.get(), samples.length);
+            return Arrays.copyOf(samples, size);
+        }
+    }
+}
@@ -0,0 +1,117 @@
+package com.timi.dao;
+
+public class ConnectionPoolMetrics {
+    private final int active;
+    private final int idle;
+    private final int total;
+    private final int maxSize;
+    private final int waitingThreads;
+    private final long timeouts;
+    private final long leaksDetected;
+    private final double waitP50Millis;
+    private final double waitP95Millis;
+    private final double waitP99Millis;
+    private final double waitMaxMillis;
+    private final long statementCacheHits;
+    private final long statementCacheMisses;
+    private final long statementCacheEvictions;
+    private final long statementsReclaimed;
+
+    public ConnectionPoolMetrics(int active, int idle, int total, int maxSize, int waitingThreads, long timeouts,
+            long leaksDetected, double waitP50Millis, double waitP95Millis, double waitP99Millis, double waitMaxMillis,
+            long statementCacheHits, long statementCacheMisses, long statementCacheEvictions, long statementsReclaimed) {
+        this.active = active;
+        this.idle = idle;
+        this.total = total;
+        this.maxSize = maxSize;
+        this.waitingThreads = waitingThreads;
+        this.timeouts = timeouts;
+        this.leaksDetected = leaksDetected;
+        this.waitP50Millis = waitP50Millis;
+        this.waitP95Millis = waitP95Millis;
+        this.waitP99Millis = waitP99Millis;
+        this.waitMaxMillis = waitMaxMillis;
+        this.statementCacheHits = statementCacheHits;
+        this.statementCacheMisses = statementCacheMisses;
+        this.statementCacheEvictions = statementCacheEvictions;
+        this.statementsReclaimed = statementsReclaimed;
+    }
+
+    public int getActive() {
+        return active;
+    }
+
+    public int getIdle() {
+        return idle;
+    }
+
+    public int getTotal() {
+        return total;
+    }
+
+    public int getMaxSize() {
+        return maxSize;
+    }
+
+    public int getWaitingThreads() {
+        return waitingThreads;
+    }
+
+    public long getTimeouts() {
+        return timeouts;
+    }
+
+    public long getLeaksDetected() {
+        return leaksDetected;
+    }
+
+    public double getWaitP50Millis() {
+        return waitP50Millis;
+    }
+
+    public double getWaitP95Millis() {
+        return waitP95Millis;
+    }
+
+    public double getWaitP99Millis() {
+        return waitP99Millis;
+    }
+
+    public double getWaitMaxMillis() {
+        return waitMaxMillis;
+    }
+
+    public long getStatementCacheHits() {
+        return statementCacheHits;
+    }
+
+    public long getStatementCacheMisses() {
+        return statementCacheMisses;
+    }
+
+    public long getStatementCacheEvictions() {
+        return statementCacheEvictions;
+    }
+
+    /**
+     * Statements the pool had to close (or check back in) because the borrower left them open.
+     */
+    public long getStatementsReclaimed() {
+        return statementsReclaimed;
+    }
+
+    public double getStatementCacheHitRate() {
+        long lookups = statementCacheHits + statementCacheMisses;
+        return lookups == 0 ? 0 : (double) statementCacheHits / lookups;
+    }
+
+    @Override
+    public String toString() {
+        return "ConnectionPoolMetrics [active=" + active + ", idle=" + idle + ", total=" + total + ", maxSize=" + maxSize
+                + ", waitingThreads=" + waitingThreads + ", timeouts=" + timeouts + ", leaksDetected=" + leaksDetected
+                + ", waitP50=" + waitP50Millis + "ms, waitP95=" + waitP95Millis + "ms, waitP99=" + waitP99Millis
+                + "ms, waitMax=" + waitMaxMillis + "ms, statementCacheHits=" + statementCacheHits
+                + ", statementCacheMisses=" + statementCacheMisses + ", statementCacheEvictions=" + statementCacheEvictions
+                + ", statementsReclaimed=" + statementsReclaimed + "]";
+    }
+}
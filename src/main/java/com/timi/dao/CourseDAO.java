@@ -4,6 +4,7 @@ import com.timi.exception.DAOException;
 import com.timi.model.Course;
 
 import java.util.List;
+import java.util.Map;
 
 public interface CourseDAO {
     void addCourse(Course course) throws DAOException;
@@ -12,6 +13,8 @@ public interface CourseDAO {
 
     List<Course> getAllCourses() throws DAOException;
 
+    Page<Course> getCoursesPage(String pageToken, int pageSize) throws DAOException;
+
     List<Course> getCoursesByInstructor(String instructor) throws DAOException;
 
     List<Course> getCoursesByLevel(String level) throws DAOException;
@@ -20,6 +23,8 @@ public interface CourseDAO {
 
     List<Course> getUserCourses(int userId) throws DAOException;
 
+    Map<Integer, Integer> getCoursePopularity() throws DAOException;
+
     void updateCourse(Course course) throws DAOException;
 
     void deleteCourse(int courseId) throws DAOException;
@@ -1,24 +1,27 @@
 package com.timi.dao;
 
 import java.io.IOException;
+import java.io.InputStream;
 import java.sql.Connection;
-import java.sql.DriverManager;
 import java.sql.SQLException;
 import java.util.Properties;
 
 public class DatabaseConnection {
 
     private static DatabaseConnection instance;
-    private Connection connection;
+    private ConnectionPool pool;
 
     private DatabaseConnection() {
         Properties props = new Properties();
-        try {
-            props.load(DatabaseConnection.class.getClassLoader().getResourceAsStream("db.properties"));
-            String url = props.getProperty("db.url");
-            String username = props.getProperty("db.username");
-            String password = props.getProperty("db.password");
-            connection = DriverManager.getConnection(url, username, password);
+        try (InputStream in = DatabaseConnection.class.getClassLoader().getResourceAsStream("db.properties")) {
+            if (in != null) {
+                props.load(in);
+            }
+            // system properties win, so benchmarks and tools can point the app at another database
+            String url = System.getProperty("db.url", props.getProperty("db.url"));
+            String username = System.getProperty("db.username", props.getProperty("db.username"));
+            String password = System.getProperty("db.password", props.getProperty("db.password"));
+            pool = new ConnectionPool(url, username, password, props);
         } catch (IOException | SQLException e) {
             e.printStackTrace();
         }
@@ -31,17 +34,23 @@ public class DatabaseConnection {
         return instance;
     }
 
-    public Connection getConnection() {
-        return connection;
+    /**
+     * Borrows a connection from the pool. Closing the returned connection hands it back.
+     */
+    public Connection getConnection() throws SQLException {
+        if (pool == null) {
+            throw new SQLException("Connection pool is not initialized, check db.properties");
+        }
+        return pool.borrow();
+    }
+
+    public ConnectionPoolMetrics getPoolMetrics() {
+        return pool != null ? pool.getMetrics() : null;
     }
 
     public void closeConnection() {
-        if (connection != null) {
-            try {
-                connection.close();
-            } catch (SQLException e) {
-                e.printStackTrace();
-            }
+        if (pool != null) {
+            pool.shutdown();
         }
     }
 }
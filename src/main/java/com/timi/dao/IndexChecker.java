@@ -0,0 +1,108 @@
+package com.timi.dao;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.ResultSetMetaData;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import com.timi.exception.DAOException;
+
+/**
+ * Runs {@code EXPLAIN} on the application's hot lookup queries and reports the ones the database
+ * would answer with a full table scan. MySQL plans are judged by their {@code type} column
+ * ({@code ALL} is a full scan); for other databases the plan text is searched for a table scan.
+ */
+public class IndexChecker {
+
+    private static final Map<String, Object[]> HOT_QUERIES = new LinkedHashMap<>();
+
+    static {
+        // query -> sample parameters; the values only need the right type
+        HOT_QUERIES.put("SELECT * FROM Courses WHERE title = ?", new Object[] {"Java for beginners"});
+        HOT_QUERIES.put("SELECT * FROM Applications WHERE status = ?", new Object[] {"PENDING"});
+        HOT_QUERIES.put("SELECT * FROM Users WHERE email = ? AND password = ?", new Object[] {"student@test.com", "student"});
+        HOT_QUERIES.put("SELECT qa.* FROM QuizAttempts qa WHERE qa.userId = ? AND qa.quizId = ? ORDER BY qa.attemptId", new Object[] {1, 1});
+        HOT_QUERIES.put("SELECT attemptId, submissionKey FROM QuizAttempts WHERE submissionKey IN (?)", new Object[] {"key"});
+    }
+
+    private static IndexChecker instance;
+
+    private DatabaseConnection dbConnection;
+
+    private IndexChecker() {
+        dbConnection = DatabaseConnection.getInstance();
+    }
+
+    public static synchronized IndexChecker getInstance() {
+        if (instance == null) {
+            instance = new IndexChecker();
+        }
+        return instance;
+    }
+
+    /**
+     * One line per hot query that has no usable index, with the query and its {@code EXPLAIN}
+     * output. Empty if every query can use an index.
+     */
+    public List<String> findMissingIndexes() throws DAOException {
+        List<String> report = new ArrayList<>();
+
+        try (Connection connection = dbConnection.getConnection()) {
+            for (Map.Entry<String, Object[]> query : HOT_QUERIES.entrySet()) {
+                List<String> plan = new ArrayList<>();
+                boolean fullScan = explain(connection, query.getKey(), query.getValue(), plan);
+                if (fullScan) {
+                    report.add("No index used by \"" + query.getKey() + "\": " + String.join(" | ", plan));
+                }
+            }
+        } catch (SQLException e) {
+            throw new DAOException("Error checking indexes", e);
+        }
+
+        return report;
+    }
+
+    /**
+     * Adds the plan rows to {@code plan} and returns whether any of them scans a whole table.
+     */
+    private boolean explain(Connection connection, String sql, Object[] params, List<String> plan) throws SQLException {
+        boolean fullScan = false;
+        try (PreparedStatement ps = connection.prepareStatement("EXPLAIN " + sql)) {
+            for (int i = 0; i < params.length; i++) {
+                ps.setObject(i + 1, params[i]);
+            }
+            try (ResultSet rs = ps.executeQuery()) {
+                ResultSetMetaData meta = rs.getMetaData();
+                boolean mysqlPlan = hasColumn(meta, "type");
+                while (rs.next()) {
+                    if (mysqlPlan) {
+                        String type = rs.getString("type");
+                        String key = rs.getString("key");
+                        plan.add("table=" + rs.getString("table") + ", type=" + type + ", key=" + key + ", rows=" + rs.getString("rows") + ", Extra=" + rs.getString("Extra"));
+                        // a lookup on a unique key that finds nothing has no type or key at all, which is fine
+                        fullScan |= "ALL".equals(type);
+                    } else {
+                        String row = rs.getString(1).replaceAll("\\s+", " ");
+                        plan.add(row);
+                        fullScan |= row.contains("tableScan");
+                    }
+                }
+            }
+        }
+        return fullScan;
+    }
+
+    private static boolean hasColumn(ResultSetMetaData meta, String column) throws SQLException {
+        for (int i = 1; i <= meta.getColumnCount(); i++) {
+            if (column.equalsIgnoreCase(meta.getColumnLabel(i))) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
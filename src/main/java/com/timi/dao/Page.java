@@ -0,0 +1,83 @@
+package com.timi.dao;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.List;
+import java.util.function.ToIntFunction;
+
+/**
+ * One page of a keyset-paginated listing. Pages are ordered by primary key; the continuation token
+ * is an opaque string that encodes the last key returned and is null on the last page.
+ */
+public class Page<T> {
+    public static final int MAX_PAGE_SIZE = 1000;
+
+    private static final String TOKEN_PREFIX = "k1:";
+
+    private final List<T> items;
+    private final String nextPageToken;
+
+    public Page(List<T> items, String nextPageToken) {
+        this.items = items;
+        this.nextPageToken = nextPageToken;
+    }
+
+    public List<T> getItems() {
+        return items;
+    }
+
+    public String getNextPageToken() {
+        return nextPageToken;
+    }
+
+    public boolean hasNextPage() {
+        return nextPageToken != null;
+    }
+
+    /**
+     * Builds a page from up to {@code pageSize + 1} rows read in key order; the extra row only
+     * tells whether another page follows.
+     */
+    public static <T> Page<T> of(List<T> rows, int pageSize, ToIntFunction<T> key) {
+        if (rows.size() <= pageSize) {
+            return new Page<>(rows, null);
+        }
+        List<T> items = new ArrayList<>(rows.subList(0, pageSize));
+        return new Page<>(items, encodeToken(key.applyAsInt(items.get(pageSize - 1))));
+    }
+
+    public static String encodeToken(int lastKey) {
+        return Base64.getUrlEncoder().withoutPadding().encodeToString((TOKEN_PREFIX + lastKey).getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Last key of the previous page, or 0 for a null or empty token (the first page).
+     */
+    public static int decodeToken(String pageToken) {
+        if (pageToken == null || pageToken.isEmpty()) {
+            return 0;
+        }
+        try {
+            String decoded = new String(Base64.getUrlDecoder().decode(pageToken), StandardCharsets.UTF_8);
+            if (decoded.startsWith(TOKEN_PREFIX)) {
+                return Integer.parseInt(decoded.substring(TOKEN_PREFIX.length()));
+            }
+        } catch (IllegalArgumentException e) {
+            // falls through to the error below
+        }
+        throw new IllegalArgumentException("Invalid page token: " + pageToken);
+    }
+
+    public static int checkPageSize(int pageSize) {
+        if (pageSize <= 0 || pageSize > MAX_PAGE_SIZE) {
+            throw new IllegalArgumentException("Page size must be between 1 and " + MAX_PAGE_SIZE + ": " + pageSize);
+        }
+        return pageSize;
+    }
+
+    @Override
+    public String toString() {
+        return "Page [items=" + items + ", nextPageToken=" + nextPageToken + "]";
+    }
+}
@@ -1,6 +1,7 @@
 package com.timi.dao;
 
 import java.util.List;
+import java.util.stream.Stream;
 
 import com.timi.exception.DAOException;
 import com.timi.model.Question;
@@ -9,6 +10,8 @@ public interface QuestionDAO {
     void addQuestion(Question question) throws DAOException;
     Question getQuestionById(int questionId) throws DAOException;
     List<Question> getAllQuestions() throws DAOException;
+    Page<Question> getQuestionsPage(String pageToken, int pageSize) throws DAOException;
+    Stream<Question> streamAllQuestions() throws DAOException;
     List<Question> getQuestionsByQuizId(int quizId) throws DAOException;
     void updateQuestion(Question question) throws DAOException;
     void deleteQuestion(int questionId) throws DAOException;
@@ -1,6 +1,9 @@
 package com.timi.dao;
 
+import java.util.Collection;
 import java.util.List;
+import java.util.Map;
+import java.util.stream.Stream;
 
 import com.timi.exception.DAOException;
 import com.timi.model.Question;
@@ -8,12 +11,19 @@ import com.timi.model.QuizAttempt;
 
 public interface QuizAttemptDAO {
     void addQuizAttempt(QuizAttempt quizAttempt) throws DAOException;
+    void addQuizAttempts(List<QuizAttempt> quizAttempts) throws DAOException;
     QuizAttempt getQuizAttemptById(int attemptId) throws DAOException;
     List<QuizAttempt> getAllQuizAttempts() throws DAOException;
+    List<QuizAttempt> getQuizAttemptsAfter(int attemptId) throws DAOException;
+    Page<QuizAttempt> getQuizAttemptsPage(String pageToken, int pageSize) throws DAOException;
+    Stream<QuizAttempt> streamAllQuizAttempts() throws DAOException;
+    Stream<QuizAttempt> streamQuizAttemptScores() throws DAOException;
     List<QuizAttempt> getQuizAttemptsByUserId(int userId) throws DAOException;
     List<QuizAttempt> getQuizAttemptsByQuizId(int quizId) throws DAOException;
     List<QuizAttempt> getQuizAttemptsByUserIdAndQuizId(int userId, int quizId) throws DAOException;
     List<Question> getQuestionsByAttemptId(int attemptId) throws DAOException;
+    Map<Integer, List<Question>> getQuestionsByAttemptIds(Collection<Integer> attemptIds) throws DAOException;
     void updateQuizAttempt(QuizAttempt quizAttempt) throws DAOException;
     void deleteQuizAttempt(int attemptId) throws DAOException;
+    void deleteQuizAttemptsByUserId(int userId) throws DAOException;
 }
@@ -0,0 +1,11 @@
+package com.timi.dao;
+
+/**
+ * Invalidation side of a quiz cache, for writes that change quizzes without going through it.
+ */
+public interface QuizCache {
+    void invalidateQuiz(int quizId);
+    void invalidateQuestion(int questionId);
+    void invalidateCourse(int courseId);
+    void invalidateAll();
+}
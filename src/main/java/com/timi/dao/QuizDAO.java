@@ -9,6 +9,7 @@ public interface QuizDAO {
     void addQuiz(Quiz quiz) throws DAOException;
     Quiz getQuizById(int quizId) throws DAOException;
     List<Quiz> getAllQuizzes() throws DAOException;
+    Page<Quiz> getQuizzesPage(String pageToken, int pageSize) throws DAOException;
     List<Quiz> getQuizzesByCourseId(int courseId) throws DAOException;
     void updateQuiz(Quiz quiz) throws DAOException;
     void deleteQuiz(int quizId) throws DAOException;
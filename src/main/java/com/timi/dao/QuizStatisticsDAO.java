@@ -0,0 +1,9 @@
+package com.timi.dao;
+
+import com.timi.exception.DAOException;
+import com.timi.model.QuizStatistics;
+
+public interface QuizStatisticsDAO {
+    QuizStatistics getQuizStatistics(int quizId) throws DAOException;
+    void evict(int quizId);
+}
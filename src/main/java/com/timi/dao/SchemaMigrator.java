@@ -0,0 +1,181 @@
+package com.timi.dao;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import com.timi.exception.DAOException;
+
+/**
+ * Applies the versioned SQL scripts listed in {@code db/migration/migrations.txt} on startup. The
+ * version reached so far is kept in the {@code schema_version} table; a database created by
+ * {@code db_create.sql} has no such table yet and is recorded as version 1 before anything newer
+ * is applied. Scripts are named {@code V<version>__<description>.sql}. Their statements run one at
+ * a time outside a transaction, since MySQL commits DDL implicitly, so a column or index left
+ * behind by an interrupted run is tolerated when the script is retried.
+ */
+public class SchemaMigrator {
+
+    private static final String MIGRATION_DIR = "db/migration/";
+    private static final String MIGRATION_INDEX = MIGRATION_DIR + "migrations.txt";
+    private static final int BASELINE_VERSION = 1;
+    // MySQL ER_DUP_FIELDNAME and ER_DUP_KEYNAME: the column or index was created by an earlier,
+    // interrupted run
+    private static final int DUPLICATE_COLUMN_NAME = 1060;
+    private static final int DUPLICATE_KEY_NAME = 1061;
+
+    private static SchemaMigrator instance;
+
+    private DatabaseConnection dbConnection;
+
+    private SchemaMigrator() {
+        dbConnection = DatabaseConnection.getInstance();
+    }
+
+    public static synchronized SchemaMigrator getInstance() {
+        if (instance == null) {
+            instance = new SchemaMigrator();
+        }
+        return instance;
+    }
+
+    /**
+     * Brings the schema up to the latest version and returns how many migrations were applied.
+     */
+    public synchronized int migrate() throws DAOException {
+        List<String> migrations = readLines(MIGRATION_INDEX);
+        int applied = 0;
+
+        try (Connection connection = dbConnection.getConnection()) {
+            int current = currentVersion(connection);
+            for (String script : migrations) {
+                int version = versionOf(script);
+                if (version <= current) {
+                    continue;
+                }
+                for (String sql : splitStatements(String.join("\n", readLines(MIGRATION_DIR + script)))) {
+                    execute(connection, sql);
+                }
+                recordVersion(connection, version, descriptionOf(script));
+                current = version;
+                applied++;
+            }
+        } catch (SQLException e) {
+            throw new DAOException("Error migrating database schema", e);
+        }
+
+        return applied;
+    }
+
+    public int getCurrentVersion() throws DAOException {
+        try (Connection connection = dbConnection.getConnection()) {
+            return currentVersion(connection);
+        } catch (SQLException e) {
+            throw new DAOException("Error reading schema version", e);
+        }
+    }
+
+    private int currentVersion(Connection connection) throws SQLException {
+        try (Statement stmt = connection.createStatement()) {
+            stmt.executeUpdate("CREATE TABLE IF NOT EXISTS schema_version (version INT PRIMARY KEY, description VARCHAR(255) NOT NULL, appliedAt TIMESTAMP NOT NULL)");
+            try (ResultSet rs = stmt.executeQuery("SELECT MAX(version) FROM schema_version")) {
+                rs.next();
+                int version = rs.getInt(1);
+                if (!rs.wasNull()) {
+                    return version;
+                }
+            }
+        }
+        recordVersion(connection, BASELINE_VERSION, "baseline db_create.sql");
+        return BASELINE_VERSION;
+    }
+
+    private void recordVersion(Connection connection, int version, String description) throws SQLException {
+        try (PreparedStatement ps = connection.prepareStatement("INSERT INTO schema_version (version, description, appliedAt) VALUES (?, ?, ?)")) {
+            ps.setInt(1, version);
+            ps.setString(2, description);
+            ps.setTimestamp(3, Timestamp.valueOf(LocalDateTime.now()));
+            ps.executeUpdate();
+        }
+    }
+
+    private void execute(Connection connection, String sql) throws SQLException {
+        try (Statement stmt = connection.createStatement()) {
+            stmt.execute(sql);
+        } catch (SQLException e) {
+            if (e.getErrorCode() != DUPLICATE_COLUMN_NAME && e.getErrorCode() != DUPLICATE_KEY_NAME) {
+                throw e;
+            }
+        }
+    }
+
+    private static int versionOf(String script) throws DAOException {
+        int separator = script.indexOf("__");
+        if (!script.startsWith("V") || separator < 2) {
+            throw new DAOException("Invalid migration name: " + script);
+        }
+        try {
+            return Integer.parseInt(script.substring(1, separator));
+        } catch (NumberFormatException e) {
+            throw new DAOException("Invalid migration name: " + script, e);
+        }
+    }
+
+    private static String descriptionOf(String script) {
+        String description = script.substring(script.indexOf("__") + 2);
+        if (description.endsWith(".sql")) {
+            description = description.substring(0, description.length() - 4);
+        }
+        return description.replace('_', ' ');
+    }
+
+    /**
+     * Splits a script on semicolons after dropping {@code --} comment lines.
+     */
+    private static List<String> splitStatements(String script) {
+        String withoutComments = script.lines()
+                .filter(line -> !line.trim().startsWith("--"))
+                .collect(Collectors.joining("\n"));
+        List<String> statements = new ArrayList<>();
+        for (String statement : withoutComments.split(";")) {
+            if (!statement.isBlank()) {
+                statements.add(statement.trim());
+            }
+        }
+        return statements;
+    }
+
+    /**
+     * Non-blank, non-comment lines of a classpath resource.
+     */
+    private static List<String> readLines(String resource) throws DAOException {
+        try (InputStream in = SchemaMigrator.class.getClassLoader().getResourceAsStream(resource)) {
+            if (in == null) {
+                throw new DAOException("Migration resource not found: " + resource);
+            }
+            List<String> lines = new ArrayList<>();
+            BufferedReader reader = new BufferedReader(new InputStreamReader(in, StandardCharsets.UTF_8));
+            String line;
+            while ((line = reader.readLine()) != null) {
+                if (!line.isBlank() && !line.trim().startsWith("#")) {
+                    lines.add(line);
+                }
+            }
+            return lines;
+        } catch (IOException e) {
+            throw new DAOException("Error reading migration resource " + resource, e);
+        }
+    }
+}
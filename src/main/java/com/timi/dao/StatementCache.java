@@ -0,0 +1,185 @@
+package com.timi.dao;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * LRU cache of prepared statements for one physical connection, keyed by SQL text. A statement is
+ * checked out while a caller holds it and checked back in, with its parameters cleared, when the
+ * caller closes it; only checked-in statements live in the map, so two callers never share one.
+ * Statements a caller forgets to close are checked in when the connection goes back to the pool.
+ */
+final class StatementCache {
+
+    private final Connection physical;
+    private final Map<StatementKey, PreparedStatement> idle;
+    private final List<CachedStatement> checkedOut = new ArrayList<>();
+    private final Counters counters;
+
+    StatementCache(Connection physical, int maxSize, Counters counters) {
+        this.physical = physical;
+        this.counters = counters;
+        this.idle = new LinkedHashMap<StatementKey, PreparedStatement>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<StatementKey, PreparedStatement> eldest) {
+                if (size() <= maxSize) {
+                    return false;
+                }
+                counters.evictions.incrementAndGet();
+                closeQuietly(eldest.getValue());
+                return true;
+            }
+        };
+    }
+
+    /**
+     * Returns a logical statement for {@code sql}, reusing an idle physical one when possible.
+     * {@code connectionHandle} is what the statement reports from {@code getConnection()}.
+     */
+    PreparedStatement prepare(Connection connectionHandle, String sql, int autoGeneratedKeys) throws SQLException {
+        StatementKey key = new StatementKey(sql, autoGeneratedKeys);
+        PreparedStatement statement = idle.remove(key);
+        if (statement != null) {
+            counters.hits.incrementAndGet();
+        } else {
+            counters.misses.incrementAndGet();
+            statement = physical.prepareStatement(sql, autoGeneratedKeys);
+        }
+
+        CachedStatement cached = new CachedStatement(key, statement, connectionHandle);
+        checkedOut.add(cached);
+        return (PreparedStatement) Proxy.newProxyInstance(PreparedStatement.class.getClassLoader(),
+                new Class<?>[] { PreparedStatement.class }, cached);
+    }
+
+    /**
+     * Checks in every statement the last borrower left open.
+     */
+    void reclaim() {
+        for (CachedStatement cached : new ArrayList<>(checkedOut)) {
+            counters.reclaimed.incrementAndGet();
+            checkIn(cached);
+        }
+    }
+
+    private void checkIn(CachedStatement cached) {
+        cached.closed = true;
+        checkedOut.remove(cached);
+        try {
+            cached.statement.clearParameters();
+            cached.statement.clearBatch();
+            cached.statement.clearWarnings();
+        } catch (SQLException e) {
+            closeQuietly(cached.statement);
+            return;
+        }
+        PreparedStatement replaced = idle.put(cached.key, cached.statement);
+        if (replaced != null && replaced != cached.statement) {
+            // the same SQL was checked out twice at once; keep only one copy
+            closeQuietly(replaced);
+        }
+    }
+
+    private static void closeQuietly(Statement statement) {
+        try {
+            statement.close();
+        } catch (SQLException e) {
+            // the statement is being dropped, nothing left to clean up
+        }
+    }
+
+    /**
+     * Pool-wide statement cache counters, shared by the caches of all connections.
+     */
+    static final class Counters {
+        final AtomicLong hits = new AtomicLong();
+        final AtomicLong misses = new AtomicLong();
+        final AtomicLong evictions = new AtomicLong();
+        final AtomicLong reclaimed = new AtomicLong();
+    }
+
+    private static final class StatementKey {
+        private final String sql;
+        private final int autoGeneratedKeys;
+
+        private StatementKey(String sql, int autoGeneratedKeys) {
+            this.sql = sql;
+            this.autoGeneratedKeys = autoGeneratedKeys;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (!(o instanceof StatementKey)) {
+                return false;
+            }
+            StatementKey other = (StatementKey) o;
+            return autoGeneratedKeys == other.autoGeneratedKeys && sql.equals(other.sql);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(sql, autoGeneratedKeys);
+        }
+    }
+
+    /**
+     * Logical statement handed to callers; {@code close()} checks the physical statement back in.
+     */
+    private final class CachedStatement implements InvocationHandler {
+        private final StatementKey key;
+        private final PreparedStatement statement;
+        private final Connection connectionHandle;
+        private boolean closed;
+
+        private CachedStatement(StatementKey key, PreparedStatement statement, Connection connectionHandle) {
+            this.key = key;
+            this.statement = statement;
+            this.connectionHandle = connectionHandle;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            switch (method.getName()) {
+                case "close":
+                    if (!closed) {
+                        checkIn(this);
+                    }
+                    return null;
+                case "isClosed":
+                    return closed;
+                case "getConnection":
+                    return connectionHandle;
+                case "equals":
+                    return proxy == args[0];
+                case "hashCode":
+                    return System.identityHashCode(proxy);
+                case "toString":
+                    return "CachedStatement[" + statement + "]";
+                default:
+                    if (closed) {
+                        throw new SQLException("Statement has already been closed");
+                    }
+                    try {
+                        return method.invoke(statement, args);
+                    } catch (InvocationTargetException e) {
+                        throw e.getCause();
+                    }
+            }
+        }
+    }
+}
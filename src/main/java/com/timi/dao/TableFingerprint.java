@@ -0,0 +1,49 @@
+package com.timi.dao;
+
+/**
+ * Row count, highest key and content checksum of a table (or of the rows up to a given key).
+ * Two equal fingerprints mean the rows they cover have not changed.
+ */
+public class TableFingerprint {
+    private final long rowCount;
+    private final int maxKey;
+    private final long checksum;
+
+    public TableFingerprint(long rowCount, int maxKey, long checksum) {
+        this.rowCount = rowCount;
+        this.maxKey = maxKey;
+        this.checksum = checksum;
+    }
+
+    public long getRowCount() {
+        return rowCount;
+    }
+
+    public int getMaxKey() {
+        return maxKey;
+    }
+
+    public long getChecksum() {
+        return checksum;
+    }
+
+    @Override
+    public boolean equals(Object obj) {
+        if (this == obj)
+            return true;
+        if (!(obj instanceof TableFingerprint))
+            return false;
+        TableFingerprint other = (TableFingerprint) obj;
+        return rowCount == other.rowCount && maxKey == other.maxKey && checksum == other.checksum;
+    }
+
+    @Override
+    public int hashCode() {
+        return Long.hashCode(rowCount) * 31 * 31 + maxKey * 31 + Long.hashCode(checksum);
+    }
+
+    @Override
+    public String toString() {
+        return "TableFingerprint [rowCount=" + rowCount + ", maxKey=" + maxKey + ", checksum=" + checksum + "]";
+    }
+}
@@ -0,0 +1,10 @@
+package com.timi.dao;
+
+import java.util.Map;
+
+import com.timi.exception.DAOException;
+
+public interface TableFingerprintDAO {
+    Map<String, TableFingerprint> getFingerprints() throws DAOException;
+    TableFingerprint getFingerprint(String table, int maxKey) throws DAOException;
+}
@@ -1,11 +1,14 @@
 package com.timi.dao.impl;
 
 import java.sql.*;
+import java.util.ArrayList;
 import java.util.LinkedList;
+import java.util.List;
 import java.util.Queue;
 
 import com.timi.dao.ApplicationDAO;
 import com.timi.dao.DatabaseConnection;
+import com.timi.dao.Page;
 import com.timi.exception.DAOException;
 import com.timi.model.Application;
 import com.timi.service.AuditingService;
@@ -23,8 +26,7 @@ public class ApplicationDAOImpl implements ApplicationDAO {
 
     @Override
     public void addApplication(Application application) throws DAOException {
-        Connection connection = dbConnection.getConnection();
-        try {
+        try (Connection connection = dbConnection.getConnection()) {
             PreparedStatement ps = null;
             if (application.getApplicationId() == 0) {
                 ps = connection.prepareStatement("INSERT INTO Applications (userId, courseId, applicationLetter, status, applicationDate) VALUES (?, ?, ?, ?, ?)");
@@ -51,8 +53,7 @@ public class ApplicationDAOImpl implements ApplicationDAO {
     @Override
     public Queue<Application> getAllApplications() throws DAOException {
         Queue<Application> applications = new LinkedList<>();
-        Connection connection = dbConnection.getConnection();
-        try {
+        try (Connection connection = dbConnection.getConnection()) {
             Statement stmt = connection.createStatement();
             ResultSet rs = stmt.executeQuery("SELECT * FROM Applications");
             while (rs.next()) {
@@ -68,6 +69,45 @@ public class ApplicationDAOImpl implements ApplicationDAO {
         return applications;
     }
 
+    @Override
+    public Queue<Application> getApplicationsAfter(int applicationId) throws DAOException {
+        Queue<Application> applications = new LinkedList<>();
+        try (Connection connection = dbConnection.getConnection()) {
+            PreparedStatement ps = connection.prepareStatement("SELECT * FROM Applications WHERE applicationId > ? ORDER BY applicationId");
+            ps.setInt(1, applicationId);
+            ResultSet rs = ps.executeQuery();
+            while (rs.next()) {
+                applications.offer(extractApplicationFromResultSet(rs));
+            }
+            rs.close();
+            ps.close();
+            auditingService.logCurrentAction();
+        } catch (SQLException e) {
+            throw new DAOException("Error fetching applications after ID", e);
+        }
+        return applications;
+    }
+
+    @Override
+    public Page<Application> getApplicationsPage(String pageToken, int pageSize) throws DAOException {
+        List<Application> applications = new ArrayList<>();
+        try (Connection connection = dbConnection.getConnection()) {
+            PreparedStatement ps = connection.prepareStatement("SELECT * FROM Applications WHERE applicationId > ? ORDER BY applicationId LIMIT ?");
+            ps.setInt(1, Page.decodeToken(pageToken));
+            ps.setInt(2, Page.checkPageSize(pageSize) + 1);
+            ResultSet rs = ps.executeQuery();
+            while (rs.next()) {
+                applications.add(extractApplicationFromResultSet(rs));
+            }
+            rs.close();
+            ps.close();
+            auditingService.logCurrentAction();
+        } catch (SQLException e) {
+            throw new DAOException("Error fetching applications page", e);
+        }
+        return Page.of(applications, pageSize, Application::getApplicationId);
+    }
+
     private Application extractApplicationFromResultSet(ResultSet rs) throws SQLException {
         return new Application(rs.getInt("applicationId"), rs.getInt("userId"), rs.getInt("courseId"), rs.getString("applicationLetter"), rs.getString("status"), rs.getTimestamp("applicationDate"));
     }
@@ -75,8 +115,7 @@ public class ApplicationDAOImpl implements ApplicationDAO {
     @Override
     public Queue<Application> getApplicationsByUserId(int userId) throws DAOException {
         Queue<Application> applications = new LinkedList<>();
-        Connection connection = dbConnection.getConnection();
-        try {
+        try (Connection connection = dbConnection.getConnection()) {
             PreparedStatement ps = connection.prepareStatement("SELECT * FROM Applications WHERE userId = ?");
             ps.setInt(1, userId);
             ResultSet rs = ps.executeQuery();
@@ -96,8 +135,7 @@ public class ApplicationDAOImpl implements ApplicationDAO {
     @Override
     public Queue<Application> getApplicationsByCourseId(int courseId) throws DAOException {
         Queue<Application> applications = new LinkedList<>();
-        Connection connection = dbConnection.getConnection();
-        try {
+        try (Connection connection = dbConnection.getConnection()) {
             PreparedStatement ps = connection.prepareStatement("SELECT * FROM Applications WHERE courseId = ?");
             ps.setInt(1, courseId);
             ResultSet rs = ps.executeQuery();
@@ -116,8 +154,7 @@ public class ApplicationDAOImpl implements ApplicationDAO {
 
     @Override
     public void updateApplicationStatus(int applicationId, String status) throws DAOException {
-        Connection connection = dbConnection.getConnection();
-        try {
+        try (Connection connection = dbConnection.getConnection()) {
             PreparedStatement ps = connection.prepareStatement("UPDATE Applications SET status = ? WHERE applicationId = ?");
             ps.setString(1, status);
             ps.setInt(2, applicationId);
@@ -131,8 +168,7 @@ public class ApplicationDAOImpl implements ApplicationDAO {
 
     @Override
     public void updateApprovalDate(int applicationId) throws DAOException {
-        Connection connection = dbConnection.getConnection();
-        try {
+        try (Connection connection = dbConnection.getConnection()) {
             PreparedStatement ps = connection.prepareStatement("UPDATE Applications SET approvalDate = ? WHERE applicationId = ?");
             ps.setTimestamp(1, new Timestamp(System.currentTimeMillis()));
             ps.setInt(2, applicationId);
@@ -146,8 +182,7 @@ public class ApplicationDAOImpl implements ApplicationDAO {
 
     @Override
     public void deleteApplication(int applicationId) throws DAOException {
-        Connection connection = dbConnection.getConnection();
-        try {
+        try (Connection connection = dbConnection.getConnection()) {
             PreparedStatement ps = connection.prepareStatement("DELETE FROM Applications WHERE applicationId = ?");
             ps.setInt(1, applicationId);
             ps.executeUpdate();
@@ -161,8 +196,7 @@ public class ApplicationDAOImpl implements ApplicationDAO {
     @Override
     public Queue<Application> getPendingApplications() throws DAOException {
         Queue<Application> applications = new LinkedList<>();
-        Connection connection = dbConnection.getConnection();
-        try {
+        try (Connection connection = dbConnection.getConnection()) {
             Statement stmt = connection.createStatement();
             ResultSet rs = stmt.executeQuery("SELECT * FROM Applications WHERE status = 'PENDING'");
             while (rs.next()) {
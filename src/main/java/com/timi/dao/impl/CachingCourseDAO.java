@@ -0,0 +1,276 @@
+package com.timi.dao.impl;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+import com.timi.dao.CacheStats;
+import com.timi.dao.CourseDAO;
+import com.timi.dao.Page;
+import com.timi.exception.DAOException;
+import com.timi.model.Course;
+
+/**
+ * Read-through cache in front of a {@link CourseDAO}. Courses are kept in a size-bounded LRU map
+ * with a time-to-live; catalog queries (all courses, by title, level and category) are cached as
+ * lists of course ids pointing into that map, unless a result holds more courses than the map does.
+ * Every write goes to the database first and then invalidates the affected entries. Callers always
+ * receive copies, so mutating a returned course never changes the cached one.
+ */
+public class CachingCourseDAO implements CourseDAO {
+
+    private static final String ALL_COURSES_KEY = "all";
+
+    private static CachingCourseDAO instance;
+
+    private final CourseDAO delegate;
+    private final int maxEntries;
+    private final long ttlMillis;
+
+    private final Map<Integer, CacheEntry<Course>> coursesById;
+    private final Map<String, CacheEntry<List<Integer>>> courseIdsByQuery;
+
+    // bumped on every write so results loaded before an invalidation are not cached afterwards
+    private long version;
+    private long hits;
+    private long misses;
+    private long evictions;
+    private long invalidations;
+
+    public CachingCourseDAO(CourseDAO delegate, int maxEntries, long ttlMillis) {
+        this.delegate = delegate;
+        this.maxEntries = maxEntries;
+        this.ttlMillis = ttlMillis;
+        this.coursesById = new LinkedHashMap<Integer, CacheEntry<Course>>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Integer, CacheEntry<Course>> eldest) {
+                return evictIfFull(size());
+            }
+        };
+        this.courseIdsByQuery = new LinkedHashMap<String, CacheEntry<List<Integer>>>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, CacheEntry<List<Integer>>> eldest) {
+                return evictIfFull(size());
+            }
+        };
+    }
+
+    public static synchronized CachingCourseDAO getInstance() {
+        if (instance == null) {
+            instance = new CachingCourseDAO(new CourseDAOImpl(),
+                    Integer.getInteger("cache.course.maxEntries", 10_000),
+                    Long.getLong("cache.course.ttlMs", 300_000));
+        }
+        return instance;
+    }
+
+    private boolean evictIfFull(int size) {
+        if (size > maxEntries) {
+            evictions++;
+            return true;
+        }
+        return false;
+    }
+
+    @Override
+    public Course getCourseById(int courseId) throws DAOException {
+        long loadVersion;
+        synchronized (this) {
+            Course cached = freshCourse(courseId);
+            if (cached != null) {
+                hits++;
+                return new Course(cached);
+            }
+            misses++;
+            loadVersion = version;
+        }
+
+        Course course = delegate.getCourseById(courseId);
+        if (course != null) {
+            synchronized (this) {
+                if (loadVersion == version) {
+                    putCourse(course);
+                }
+            }
+        }
+        return course;
+    }
+
+    @Override
+    public List<Course> getAllCourses() throws DAOException {
+        return cachedQuery(ALL_COURSES_KEY, delegate::getAllCourses);
+    }
+
+    @Override
+    public Page<Course> getCoursesPage(String pageToken, int pageSize) throws DAOException {
+        return delegate.getCoursesPage(pageToken, pageSize);
+    }
+
+    @Override
+    public Course getCourseByName(String name) throws DAOException {
+        if (name == null) {
+            return delegate.getCourseByName(name);
+        }
+        List<Course> courses = cachedQuery("title:" + name.toLowerCase(Locale.ROOT), () -> {
+            Course course = delegate.getCourseByName(name);
+            return course == null ? new ArrayList<>() : new ArrayList<>(List.of(course));
+        });
+        return courses.isEmpty() ? null : courses.get(0);
+    }
+
+    @Override
+    public List<Course> getCoursesByLevel(String level) throws DAOException {
+        if (level == null) {
+            return delegate.getCoursesByLevel(level);
+        }
+        return cachedQuery("level:" + level.toUpperCase(Locale.ROOT), () -> delegate.getCoursesByLevel(level));
+    }
+
+    @Override
+    public List<Course> getCoursesByCategory(String category) throws DAOException {
+        if (category == null) {
+            return delegate.getCoursesByCategory(category);
+        }
+        return cachedQuery("category:" + category.toUpperCase(Locale.ROOT), () -> delegate.getCoursesByCategory(category));
+    }
+
+    @Override
+    public List<Course> getCoursesByInstructor(String instructor) throws DAOException {
+        return delegate.getCoursesByInstructor(instructor);
+    }
+
+    @Override
+    public List<Course> getUserCourses(int userId) throws DAOException {
+        return delegate.getUserCourses(userId);
+    }
+
+    @Override
+    public Map<Integer, Integer> getCoursePopularity() throws DAOException {
+        return delegate.getCoursePopularity();
+    }
+
+    @Override
+    public void addCourse(Course course) throws DAOException {
+        delegate.addCourse(course);
+        invalidate(course.getCourseId());
+    }
+
+    @Override
+    public void updateCourse(Course course) throws DAOException {
+        delegate.updateCourse(course);
+        invalidate(course.getCourseId());
+    }
+
+    @Override
+    public void deleteCourse(int courseId) throws DAOException {
+        delegate.deleteCourse(courseId);
+        invalidate(courseId);
+    }
+
+    public synchronized void invalidateAll() {
+        version++;
+        invalidations++;
+        coursesById.clear();
+        courseIdsByQuery.clear();
+    }
+
+    public synchronized CacheStats getStats() {
+        return new CacheStats(hits, misses, evictions, invalidations, coursesById.size());
+    }
+
+    private synchronized void invalidate(int courseId) {
+        version++;
+        invalidations++;
+        coursesById.remove(courseId);
+        // any query result may gain, lose or reorder this course
+        courseIdsByQuery.clear();
+    }
+
+    private List<Course> cachedQuery(String key, CourseListLoader loader) throws DAOException {
+        long loadVersion;
+        synchronized (this) {
+            List<Course> cached = resolve(courseIdsByQuery.get(key));
+            if (cached != null) {
+                hits++;
+                return cached;
+            }
+            courseIdsByQuery.remove(key);
+            misses++;
+            loadVersion = version;
+        }
+
+        List<Course> courses = loader.load();
+        synchronized (this) {
+            // a result bigger than the cache would evict its own courses and every other entry
+            if (loadVersion == version && courses.size() <= maxEntries) {
+                List<Integer> courseIds = new ArrayList<>(courses.size());
+                for (Course course : courses) {
+                    putCourse(course);
+                    courseIds.add(course.getCourseId());
+                }
+                courseIdsByQuery.put(key, new CacheEntry<>(Collections.unmodifiableList(courseIds), expiry()));
+            }
+        }
+        return courses;
+    }
+
+    /**
+     * Copies of the cached courses behind an id list, or null if the list or any of its courses
+     * has expired or been evicted.
+     */
+    private List<Course> resolve(CacheEntry<List<Integer>> entry) {
+        if (entry == null || entry.isExpired()) {
+            return null;
+        }
+        List<Course> courses = new ArrayList<>(entry.value.size());
+        for (int courseId : entry.value) {
+            Course cached = freshCourse(courseId);
+            if (cached == null) {
+                return null;
+            }
+            courses.add(new Course(cached));
+        }
+        return courses;
+    }
+
+    private Course freshCourse(int courseId) {
+        CacheEntry<Course> entry = coursesById.get(courseId);
+        if (entry == null) {
+            return null;
+        }
+        if (entry.isExpired()) {
+            coursesById.remove(courseId);
+            return null;
+        }
+        return entry.value;
+    }
+
+    private void putCourse(Course course) {
+        coursesById.put(course.getCourseId(), new CacheEntry<>(new Course(course), expiry()));
+    }
+
+    private long expiry() {
+        return System.currentTimeMillis() + ttlMillis;
+    }
+
+    private interface CourseListLoader {
+        List<Course> load() throws DAOException;
+    }
+
+    private static final class CacheEntry<T> {
+        private final T value;
+        private final long expiresAt;
+
+        private CacheEntry(T value, long expiresAt) {
+            this.value = value;
+            this.expiresAt = expiresAt;
+        }
+
+        private boolean isExpired() {
+            return System.currentTimeMillis() > expiresAt;
+        }
+    }
+}
@@ -0,0 +1,244 @@
+package com.timi.dao.impl;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.atomic.AtomicLong;
+
+import com.timi.dao.CacheStats;
+import com.timi.dao.Page;
+import com.timi.dao.QuizCache;
+import com.timi.dao.QuizDAO;
+import com.timi.exception.DAOException;
+import com.timi.model.Question;
+import com.timi.model.Quiz;
+
+/**
+ * Cache of fully hydrated quiz definitions in front of a {@link QuizDAO}. The cached graph is never
+ * handed out: every read returns a fresh copy of the quiz and its questions, so answering a quiz
+ * (which sets {@code selectedOptionIndex} on its questions) cannot leak into other attempts. Option
+ * lists are parsed once and shared as unmodifiable lists. Concurrent misses on the same quiz share a
+ * single database load.
+ */
+public class CachingQuizDAO implements QuizDAO, QuizCache {
+
+    private static CachingQuizDAO instance;
+
+    private final QuizDAO delegate;
+    private final Map<Integer, Quiz> quizzesById = new ConcurrentHashMap<>();
+    private final Map<Integer, List<Integer>> quizIdsByCourse = new ConcurrentHashMap<>();
+    private final Map<Integer, CompletableFuture<Quiz>> inFlight = new ConcurrentHashMap<>();
+
+    // bumped on every invalidation so results loaded before it are not cached afterwards
+    private final AtomicLong version = new AtomicLong();
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+    private final AtomicLong invalidations = new AtomicLong();
+
+    public CachingQuizDAO(QuizDAO delegate) {
+        this.delegate = delegate;
+    }
+
+    public static synchronized CachingQuizDAO getInstance() {
+        if (instance == null) {
+            instance = new CachingQuizDAO(new QuizDAOImpl());
+        }
+        return instance;
+    }
+
+    @Override
+    public Quiz getQuizById(int quizId) throws DAOException {
+        Quiz cached = quizzesById.get(quizId);
+        if (cached != null) {
+            hits.incrementAndGet();
+            return new Quiz(cached);
+        }
+        misses.incrementAndGet();
+        Quiz loaded = loadQuiz(quizId);
+        return loaded == null ? null : new Quiz(loaded);
+    }
+
+    @Override
+    public List<Quiz> getQuizzesByCourseId(int courseId) throws DAOException {
+        List<Quiz> cached = resolve(quizIdsByCourse.get(courseId));
+        if (cached != null) {
+            hits.incrementAndGet();
+            return cached;
+        }
+        misses.incrementAndGet();
+
+        long loadVersion = version.get();
+        List<Quiz> quizzes = delegate.getQuizzesByCourseId(courseId);
+        List<Integer> quizIds = new ArrayList<>(quizzes.size());
+        List<Quiz> frozen = new ArrayList<>(quizzes.size());
+        for (Quiz quiz : quizzes) {
+            frozen.add(freeze(quiz));
+            quizIds.add(quiz.getQuizId());
+        }
+        synchronized (this) {
+            if (loadVersion == version.get()) {
+                for (Quiz quiz : frozen) {
+                    quizzesById.put(quiz.getQuizId(), quiz);
+                }
+                quizIdsByCourse.put(courseId, List.copyOf(quizIds));
+            }
+        }
+        return quizzes;
+    }
+
+    @Override
+    public List<Quiz> getAllQuizzes() throws DAOException {
+        return delegate.getAllQuizzes();
+    }
+
+    @Override
+    public Page<Quiz> getQuizzesPage(String pageToken, int pageSize) throws DAOException {
+        return delegate.getQuizzesPage(pageToken, pageSize);
+    }
+
+    @Override
+    public void addQuiz(Quiz quiz) throws DAOException {
+        delegate.addQuiz(quiz);
+        invalidateCourse(quiz.getCourseId());
+    }
+
+    @Override
+    public void updateQuiz(Quiz quiz) throws DAOException {
+        delegate.updateQuiz(quiz);
+        invalidateQuiz(quiz.getQuizId());
+        invalidateCourse(quiz.getCourseId());
+    }
+
+    @Override
+    public void deleteQuiz(int quizId) throws DAOException {
+        delegate.deleteQuiz(quizId);
+        invalidateQuiz(quizId);
+    }
+
+    /**
+     * Drops a quiz definition and every per-course list that references it.
+     */
+    @Override
+    public synchronized void invalidateQuiz(int quizId) {
+        version.incrementAndGet();
+        invalidations.incrementAndGet();
+        quizzesById.remove(quizId);
+        quizIdsByCourse.values().removeIf(quizIds -> quizIds.contains(quizId));
+    }
+
+    /**
+     * Drops every cached quiz that contains the given question, for callers that only know the
+     * question id.
+     */
+    @Override
+    public synchronized void invalidateQuestion(int questionId) {
+        for (Quiz quiz : quizzesById.values()) {
+            for (Question question : quiz.getQuestions()) {
+                if (question.getQuestionId() == questionId) {
+                    invalidateQuiz(quiz.getQuizId());
+                    break;
+                }
+            }
+        }
+    }
+
+    /**
+     * Drops the course's quiz list and every cached quiz of the course.
+     */
+    @Override
+    public synchronized void invalidateCourse(int courseId) {
+        version.incrementAndGet();
+        invalidations.incrementAndGet();
+        quizIdsByCourse.remove(courseId);
+        quizzesById.values().removeIf(quiz -> quiz.getCourseId() == courseId);
+    }
+
+    @Override
+    public synchronized void invalidateAll() {
+        version.incrementAndGet();
+        invalidations.incrementAndGet();
+        quizzesById.clear();
+        quizIdsByCourse.clear();
+    }
+
+    public CacheStats getStats() {
+        return new CacheStats(hits.get(), misses.get(), 0, invalidations.get(), quizzesById.size());
+    }
+
+    private Quiz loadQuiz(int quizId) throws DAOException {
+        CompletableFuture<Quiz> future = new CompletableFuture<>();
+        CompletableFuture<Quiz> existing = inFlight.putIfAbsent(quizId, future);
+        if (existing != null) {
+            return await(existing);
+        }
+
+        try {
+            long loadVersion = version.get();
+            Quiz quiz = delegate.getQuizById(quizId);
+            Quiz frozen = quiz == null ? null : freeze(quiz);
+            if (frozen != null) {
+                synchronized (this) {
+                    if (loadVersion == version.get()) {
+                        quizzesById.put(quizId, frozen);
+                    }
+                }
+            }
+            future.complete(frozen);
+            return frozen;
+        } catch (DAOException | RuntimeException e) {
+            future.completeExceptionally(e);
+            throw e;
+        } finally {
+            inFlight.remove(quizId, future);
+        }
+    }
+
+    private static Quiz await(CompletableFuture<Quiz> future) throws DAOException {
+        try {
+            return future.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new DAOException("Interrupted while waiting for quiz to load", e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof DAOException) {
+                throw (DAOException) e.getCause();
+            }
+            throw new DAOException("Error loading quiz", e.getCause());
+        }
+    }
+
+    private List<Quiz> resolve(List<Integer> quizIds) {
+        if (quizIds == null) {
+            return null;
+        }
+        List<Quiz> quizzes = new ArrayList<>(quizIds.size());
+        for (int quizId : quizIds) {
+            Quiz cached = quizzesById.get(quizId);
+            if (cached == null) {
+                return null;
+            }
+            quizzes.add(new Quiz(cached));
+        }
+        return quizzes;
+    }
+
+    /**
+     * Private copy of a loaded quiz with unmodifiable question and option lists, safe to share.
+     */
+    private static Quiz freeze(Quiz quiz) {
+        List<Question> questions = new ArrayList<>();
+        if (quiz.getQuestions() != null) {
+            for (Question question : quiz.getQuestions()) {
+                Question copy = new Question(question);
+                copy.setQuizId(quiz.getQuizId());
+                copy.setOptions(question.getOptions() == null ? null : Collections.unmodifiableList(new ArrayList<>(question.getOptions())));
+                questions.add(copy);
+            }
+        }
+        return new Quiz(quiz.getQuizId(), quiz.getTitle(), Collections.unmodifiableList(questions), quiz.getCourseId(), quiz.getDuration());
+    }
+}
@@ -2,10 +2,13 @@ package com.timi.dao.impl;
 
 import java.sql.*;
 import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 
 import com.timi.dao.CourseDAO;
 import com.timi.dao.DatabaseConnection;
+import com.timi.dao.Page;
 import com.timi.exception.DAOException;
 import com.timi.model.Category;
 import com.timi.model.Course;
@@ -25,12 +28,10 @@ public class CourseDAOImpl implements CourseDAO{
 
     @Override
     public void addCourse(Course course) throws DAOException {
-        Connection connection = dbConnection.getConnection();
-
-        try {
+        try (Connection connection = dbConnection.getConnection()) {
             PreparedStatement ps = null;
             if (course.getCourseId() == 0) {
-                ps = connection.prepareStatement("INSERT INTO Courses (title, description, instructor, level, price, duration, category) VALUES (?, ?, ?, ?, ?, ?, ?)");
+                ps = connection.prepareStatement("INSERT INTO Courses (title, description, instructor, level, price, duration, category) VALUES (?, ?, ?, ?, ?, ?, ?)", Statement.RETURN_GENERATED_KEYS);
             } else {
                 ps = connection.prepareStatement("INSERT INTO Courses (courseId, title, description, instructor, level, price, duration, category) VALUES (?, ?, ?, ?, ?, ?, ?, ?)");
                 ps.setInt(1, course.getCourseId());
@@ -45,6 +46,14 @@ public class CourseDAOImpl implements CourseDAO{
             ps.setInt(6 + cnt, course.getDuration());
             ps.setString(7 + cnt, course.getCategory().toString());
             ps.executeUpdate();
+
+            if (course.getCourseId() == 0) {
+                ResultSet keys = ps.getGeneratedKeys();
+                if (keys.next()) {
+                    course.setCourseId(keys.getInt(1));
+                }
+                keys.close();
+            }
             ps.close();
             auditingService.logCurrentAction();
         } catch (SQLException e) {
@@ -52,7 +61,7 @@ public class CourseDAOImpl implements CourseDAO{
         }
     }
 
-    private Course extractCourseFromResultSet(ResultSet rs) throws SQLException {
+    static Course extractCourseFromResultSet(ResultSet rs) throws SQLException {
         Course course = new Course();
         course.setCourseId(rs.getInt("courseId"));
         course.setTitle(rs.getString("title"));
@@ -71,9 +80,8 @@ public class CourseDAOImpl implements CourseDAO{
 
     @Override
     public Course getCourseById(int courseId) throws DAOException {
-        Connection connection = dbConnection.getConnection();
         Course course = null;
-        try {
+        try (Connection connection = dbConnection.getConnection()) {
             PreparedStatement ps = connection.prepareStatement("SELECT * FROM Courses WHERE courseId = ?");
             ps.setInt(1, courseId);
             ResultSet rs = ps.executeQuery();
@@ -92,9 +100,8 @@ public class CourseDAOImpl implements CourseDAO{
     @Override
     public List<Course> getAllCourses() throws DAOException {
 
-        Connection connection = dbConnection.getConnection();
         List<Course> courses = new ArrayList<>();
-        try {
+        try (Connection connection = dbConnection.getConnection()) {
             Statement stmt = connection.createStatement();
             ResultSet rs = stmt.executeQuery("SELECT * FROM Courses");
             while (rs.next()) {
@@ -110,12 +117,31 @@ public class CourseDAOImpl implements CourseDAO{
         return courses;
     }
 
+    @Override
+    public Page<Course> getCoursesPage(String pageToken, int pageSize) throws DAOException {
+        List<Course> courses = new ArrayList<>();
+        try (Connection connection = dbConnection.getConnection()) {
+            PreparedStatement ps = connection.prepareStatement("SELECT * FROM Courses WHERE courseId > ? ORDER BY courseId LIMIT ?");
+            ps.setInt(1, Page.decodeToken(pageToken));
+            ps.setInt(2, Page.checkPageSize(pageSize) + 1);
+            ResultSet rs = ps.executeQuery();
+            while (rs.next()) {
+                courses.add(extractCourseFromResultSet(rs));
+            }
+            rs.close();
+            ps.close();
+            auditingService.logCurrentAction();
+        } catch (SQLException e) {
+            throw new DAOException("Error fetching courses page", e);
+        }
+        return Page.of(courses, pageSize, Course::getCourseId);
+    }
+
     @Override
     public List<Course> getUserCourses(int userId) throws DAOException {
 
-        Connection connection = dbConnection.getConnection();
         List<Course> courses = new ArrayList<>();
-        try {
+        try (Connection connection = dbConnection.getConnection()) {
             PreparedStatement ps = connection.prepareStatement("SELECT * FROM Courses WHERE courseId IN (SELECT courseId FROM UserCourses WHERE userId = ?)");
             ps.setInt(1, userId);
             ResultSet rs = ps.executeQuery();
@@ -133,12 +159,32 @@ public class CourseDAOImpl implements CourseDAO{
     }
 
 
+    /**
+     * Enrolled students plus applications per course; courses with neither are left out.
+     */
+    @Override
+    public Map<Integer, Integer> getCoursePopularity() throws DAOException {
+        Map<Integer, Integer> popularity = new HashMap<>();
+        try (Connection connection = dbConnection.getConnection()) {
+            Statement stmt = connection.createStatement();
+            ResultSet rs = stmt.executeQuery("SELECT courseId, COUNT(*) AS interested FROM (SELECT courseId FROM UserCourses UNION ALL SELECT courseId FROM Applications) interest GROUP BY courseId");
+            while (rs.next()) {
+                popularity.put(rs.getInt("courseId"), rs.getInt("interested"));
+            }
+            rs.close();
+            stmt.close();
+            auditingService.logCurrentAction();
+        } catch (SQLException e) {
+            throw new DAOException("Error fetching course popularity", e);
+        }
+        return popularity;
+    }
+
     @Override
     public List<Course> getCoursesByInstructor(String instructor) throws DAOException {
 
-        Connection connection = dbConnection.getConnection();
         List<Course> courses = new ArrayList<>();
-        try {
+        try (Connection connection = dbConnection.getConnection()) {
             PreparedStatement ps = connection.prepareStatement("SELECT * FROM Courses WHERE instructor = ?");
             ps.setString(1, instructor);
             ResultSet rs = ps.executeQuery();
@@ -158,9 +204,8 @@ public class CourseDAOImpl implements CourseDAO{
     @Override
     public List<Course> getCoursesByLevel(String level) throws DAOException {
 
-        Connection connection = dbConnection.getConnection();
         List<Course> courses = new ArrayList<>();
-        try {
+        try (Connection connection = dbConnection.getConnection()) {
             PreparedStatement ps = connection.prepareStatement("SELECT * FROM Courses WHERE level = ?");
             ps.setString(1, level);
             ResultSet rs = ps.executeQuery();
@@ -180,9 +225,8 @@ public class CourseDAOImpl implements CourseDAO{
     @Override
     public List<Course> getCoursesByCategory(String category) throws DAOException {
 
-        Connection connection = dbConnection.getConnection();
         List<Course> courses = new ArrayList<>();
-        try {
+        try (Connection connection = dbConnection.getConnection()) {
             PreparedStatement ps = connection.prepareStatement("SELECT * FROM Courses WHERE category = ?");
             ps.setString(1, category);
             ResultSet rs = ps.executeQuery();
@@ -201,9 +245,7 @@ public class CourseDAOImpl implements CourseDAO{
 
     @Override
     public void updateCourse(Course course) throws DAOException {
-
-        Connection connection = dbConnection.getConnection();
-        try {
+        try (Connection connection = dbConnection.getConnection()) {
             PreparedStatement ps = connection.prepareStatement("UPDATE Courses SET title = ?, description = ?, instructor = ?, level = ?, price = ?, duration = ?, category = ? WHERE courseId = ?");
             ps.setString(1, course.getTitle());
             ps.setString(2, course.getDescription());
@@ -211,8 +253,8 @@ public class CourseDAOImpl implements CourseDAO{
             ps.setString(4, course.getLevel().toString());
             ps.setDouble(5, course.getPrice());
             ps.setInt(6, course.getDuration());
-            ps.setInt(7, course.getCourseId());
-            ps.setString(8, course.getCategory().toString());
+            ps.setString(7, course.getCategory().toString());
+            ps.setInt(8, course.getCourseId());
             ps.executeUpdate();
             ps.close();
             auditingService.logCurrentAction();
@@ -223,9 +265,7 @@ public class CourseDAOImpl implements CourseDAO{
 
     @Override
     public void deleteCourse(int courseId) throws DAOException {
-
-        Connection connection = dbConnection.getConnection();
-        try {
+        try (Connection connection = dbConnection.getConnection()) {
             PreparedStatement ps = connection.prepareStatement("DELETE FROM Courses WHERE courseId = ?");
             ps.setInt(1, courseId);
             ps.executeUpdate();
@@ -238,9 +278,8 @@ public class CourseDAOImpl implements CourseDAO{
 
     @Override
     public Course getCourseByName(String name) throws DAOException {
-        Connection connection = dbConnection.getConnection();
         Course course = null;
-        try {
+        try (Connection connection = dbConnection.getConnection()) {
             PreparedStatement ps = connection.prepareStatement("SELECT * FROM Courses WHERE title = ?");
             ps.setString(1, name);
             ResultSet rs = ps.executeQuery();
@@ -0,0 +1,167 @@
+package com.timi.dao.impl;
+
+import java.lang.reflect.Type;
+import java.util.ArrayList;
+import java.util.List;
+
+import com.google.gson.Gson;
+import com.google.gson.reflect.TypeToken;
+
+/**
+ * Converts the {@code Questions.options} column between its JSON text form and a list of strings.
+ * Decoding handles the flat {@code ["a", "b"]} shape with a hand-written scanner and falls back to
+ * Gson for anything else, so rows are parsed without reflection or per-call allocations beyond the
+ * result itself.
+ */
+public final class OptionsCodec {
+
+    private static final Gson GSON = new Gson();
+    private static final Type OPTIONS_TYPE = new TypeToken<List<String>>(){}.getType();
+
+    private OptionsCodec() {
+    }
+
+    public static String encode(List<String> options) {
+        return GSON.toJson(options, OPTIONS_TYPE);
+    }
+
+    public static List<String> decode(String json) {
+        if (json == null) {
+            return null;
+        }
+        List<String> options = decodeStringArray(json);
+        return options != null ? options : GSON.fromJson(json, OPTIONS_TYPE);
+    }
+
+    /**
+     * Parses a JSON array whose elements are all strings. Returns null if the input has any other
+     * shape, leaving it to the Gson fallback.
+     */
+    private static List<String> decodeStringArray(String json) {
+        int length = json.length();
+        int pos = skipWhitespace(json, 0);
+        if (pos >= length || json.charAt(pos) != '[') {
+            return null;
+        }
+        List<String> options = new ArrayList<>(4);
+        pos = skipWhitespace(json, pos + 1);
+        if (pos < length && json.charAt(pos) == ']') {
+            return skipWhitespace(json, pos + 1) == length ? options : null;
+        }
+
+        StringBuilder escaped = null;
+        while (pos < length) {
+            if (json.charAt(pos) != '"') {
+                return null;
+            }
+            int start = ++pos;
+            boolean hasEscapes = false;
+            while (pos < length && json.charAt(pos) != '"') {
+                char c = json.charAt(pos);
+                if (c == '\\') {
+                    hasEscapes = true;
+                    pos += 2;
+                } else if (c < 0x20) {
+                    return null;
+                } else {
+                    pos++;
+                }
+            }
+            if (pos >= length) {
+                return null;
+            }
+
+            if (hasEscapes) {
+                if (escaped == null) {
+                    escaped = new StringBuilder();
+                }
+                escaped.setLength(0);
+                if (!unescape(json, start, pos, escaped)) {
+                    return null;
+                }
+                options.add(escaped.toString());
+            } else {
+                options.add(json.substring(start, pos));
+            }
+
+            pos = skipWhitespace(json, pos + 1);
+            if (pos >= length) {
+                return null;
+            }
+            char separator = json.charAt(pos);
+            if (separator == ']') {
+                return skipWhitespace(json, pos + 1) == length ? options : null;
+            }
+            if (separator != ',') {
+                return null;
+            }
+            pos = skipWhitespace(json, pos + 1);
+        }
+        return null;
+    }
+
+    private static boolean unescape(String json, int start, int end, StringBuilder out) {
+        int pos = start;
+        while (pos < end) {
+            char c = json.charAt(pos++);
+            if (c != '\\') {
+                out.append(c);
+                continue;
+            }
+            if (pos >= end) {
+                return false;
+            }
+            char escape = json.charAt(pos++);
+            switch (escape) {
+                case '"':
+                case '\\':
+                case '/':
+                    out.append(escape);
+                    break;
+                case 'b':
+                    out.append('\b');
+                    break;
+                case 'f':
+                    out.append('\f');
+                    break;
+                case 'n':
+                    out.append('\n');
+                    break;
+                case 'r':
+                    out.append('\r');
+                    break;
+                case 't':
+                    out.append('\t');
+                    break;
+                case 'u':
+                    if (pos + 4 > end) {
+                        return false;
+                    }
+                    int codeUnit = 0;
+                    for (int i = 0; i < 4; i++) {
+                        int digit = Character.digit(json.charAt(pos++), 16);
+                        if (digit < 0) {
+                            return false;
+                        }
+                        codeUnit = (codeUnit << 4) | digit;
+                    }
+                    out.append((char) codeUnit);
+                    break;
+                default:
+                    return false;
+            }
+        }
+        return true;
+    }
+
+    private static int skipWhitespace(String json, int pos) {
+        while (pos < json.length()) {
+            char c = json.charAt(pos);
+            if (c != ' ' && c != '\n' && c != '\r' && c != '\t') {
+                break;
+            }
+            pos++;
+        }
+        return pos;
+    }
+}
@@ -2,19 +2,16 @@ package com.timi.dao.impl;
 
 import com.timi.model.*;
 
-import com.google.gson.Gson;
-import com.google.gson.GsonBuilder;
-import com.google.gson.reflect.TypeToken;
-
-import java.lang.reflect.Type;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.stream.Stream;
 import java.sql.Connection;
 import java.sql.PreparedStatement;
 import java.sql.ResultSet;
 import java.sql.SQLException;
 
 import com.timi.dao.DatabaseConnection;
+import com.timi.dao.Page;
 import com.timi.dao.QuestionDAO;
 import com.timi.exception.DAOException;
 import com.timi.service.AuditingService;
@@ -33,13 +30,11 @@ public class QuestionDAOImpl implements QuestionDAO {
 
     @Override
     public void addQuestion(Question question) throws DAOException {
-        Connection connection = dbConnection.getConnection();
-
-        try {
+        try (Connection connection = dbConnection.getConnection()) {
             PreparedStatement ps = connection.prepareStatement("INSERT INTO Questions (content, options, correctOptionIndex, selectedOptionIndex, quizId) VALUES (?, ?, ?, ?, ?)");
             ps.setString(1, question.getContent());
             // Convert options list to JSON string and set it to the PreparedStatement
-            String optionsJson = convertOptionsToJson(question.getOptions());
+            String optionsJson = OptionsCodec.encode(question.getOptions());
             ps.setString(2, optionsJson);
             ps.setInt(3, question.getCorrectOptionIndex());
             ps.setInt(4, question.getSelectedOptionIndex());
@@ -52,18 +47,11 @@ public class QuestionDAOImpl implements QuestionDAO {
         }
     }
 
-    private String convertOptionsToJson(List<String> options) {
-        Gson gson = new GsonBuilder().create();
-        Type listType = new TypeToken<List<String>>(){}.getType();
-        return gson.toJson(options, listType);
-    }
-
     @Override
     public Question getQuestionById(int questionId) throws DAOException {
-        Connection connection = dbConnection.getConnection();
         Question question = null;
 
-        try {
+        try (Connection connection = dbConnection.getConnection()) {
             PreparedStatement ps = connection.prepareStatement("SELECT * FROM Questions WHERE questionId = ?");
             ps.setInt(1, questionId);
             question = new Question();
@@ -79,30 +67,16 @@ public class QuestionDAOImpl implements QuestionDAO {
 
     @Override
     public List<Question> getAllQuestions() throws DAOException {
-        Connection connection = dbConnection.getConnection();
         List<Question> questions = new ArrayList<>();
 
-        try {
+        try (Connection connection = dbConnection.getConnection()) {
             PreparedStatement ps = connection.prepareStatement("SELECT * FROM Questions");
             
             // Execute the query to obtain the result set
             ResultSet rs = ps.executeQuery();
-            
-            // Convert options JSON string to list and set it to the Question object
-            Gson gson = new GsonBuilder().create();
 
             while (rs.next()) {
-                Question question = new Question();
-                question.setQuestionId(rs.getInt("questionId"));
-                question.setContent(rs.getString("content"));
-                String optionsJson = rs.getString("options");
-                Type listType = new TypeToken<List<String>>(){}.getType();
-                List<String> options = gson.fromJson(optionsJson, listType);
-                question.setOptions(options);
-                question.setCorrectOptionIndex(rs.getInt("correctOptionIndex"));
-                question.setSelectedOptionIndex(rs.getInt("selectedOptionIndex"));
-                question.setQuizId(rs.getInt("quizId"));
-                questions.add(question);
+                questions.add(extractQuestionFromResultSet(rs));
             }
 
             rs.close();
@@ -115,28 +89,59 @@ public class QuestionDAOImpl implements QuestionDAO {
         return questions;
     }
 
+    @Override
+    public Page<Question> getQuestionsPage(String pageToken, int pageSize) throws DAOException {
+        List<Question> questions = new ArrayList<>();
+
+        try (Connection connection = dbConnection.getConnection()) {
+            PreparedStatement ps = connection.prepareStatement("SELECT * FROM Questions WHERE questionId > ? ORDER BY questionId LIMIT ?");
+            ps.setInt(1, Page.decodeToken(pageToken));
+            ps.setInt(2, Page.checkPageSize(pageSize) + 1);
+            ResultSet rs = ps.executeQuery();
+            while (rs.next()) {
+                questions.add(extractQuestionFromResultSet(rs));
+            }
+            rs.close();
+            ps.close();
+            auditingService.logCurrentAction();
+        } catch (SQLException e) {
+            throw new DAOException("Error getting questions page", e);
+        }
+
+        return Page.of(questions, pageSize, Question::getQuestionId);
+    }
+
+    @Override
+    public Stream<Question> streamAllQuestions() throws DAOException {
+        Stream<Question> questions = ResultSetStream.open(dbConnection, "Error streaming questions",
+                "SELECT * FROM Questions ORDER BY questionId",
+                rs -> rs.next() ? extractQuestionFromResultSet(rs) : null);
+        auditingService.logCurrentAction();
+        return questions;
+    }
+
+    static Question extractQuestionFromResultSet(ResultSet rs) throws SQLException {
+        Question question = new Question();
+        question.setQuestionId(rs.getInt("questionId"));
+        question.setContent(rs.getString("content"));
+        question.setOptions(OptionsCodec.decode(rs.getString("options")));
+        question.setCorrectOptionIndex(rs.getInt("correctOptionIndex"));
+        question.setSelectedOptionIndex(rs.getInt("selectedOptionIndex"));
+        question.setQuizId(rs.getInt("quizId"));
+        return question;
+    }
+
     @Override
     public List<Question> getQuestionsByQuizId(int quizId) throws DAOException {
-        Connection connection = dbConnection.getConnection();
         List<Question> questions = new ArrayList<>();
 
-        try {
+        try (Connection connection = dbConnection.getConnection()) {
             PreparedStatement ps = connection.prepareStatement("SELECT * FROM Questions WHERE quizId = ?");
             ps.setInt(1, quizId);
             ResultSet rs = ps.executeQuery();
-            Gson gson = new GsonBuilder().create();
 
             while (rs.next()) {
-                Question question = new Question();
-                question.setQuestionId(rs.getInt("questionId"));
-                question.setContent(rs.getString("content"));
-                String optionsJson = rs.getString("options");
-                Type listType = new TypeToken<List<String>>(){}.getType();
-                List<String> options = gson.fromJson(optionsJson, listType);
-                question.setOptions(options);
-                question.setCorrectOptionIndex(rs.getInt("correctOptionIndex"));
-                question.setSelectedOptionIndex(rs.getInt("selectedOptionIndex"));
-                questions.add(question);
+                questions.add(extractQuestionFromResultSet(rs));
             }
 
             rs.close();
@@ -150,13 +155,11 @@ public class QuestionDAOImpl implements QuestionDAO {
 
     @Override
     public void updateQuestion(Question question) throws DAOException {
-        Connection connection = dbConnection.getConnection();
-
-        try {
+        try (Connection connection = dbConnection.getConnection()) {
             PreparedStatement ps = connection.prepareStatement("UPDATE Questions SET content = ?, options = ?, correctOptionIndex = ?, selectedOptionIndex=?, quizId=? WHERE questionId = ?");
             ps.setString(1, question.getContent());
             // Convert options list to JSON string and set it to the PreparedStatement
-            String optionsJson = convertOptionsToJson(question.getOptions());
+            String optionsJson = OptionsCodec.encode(question.getOptions());
             ps.setString(2, optionsJson);
             ps.setInt(3, question.getCorrectOptionIndex());
             ps.setInt(4, question.getSelectedOptionIndex());
@@ -173,9 +176,8 @@ public class QuestionDAOImpl implements QuestionDAO {
     @Override
     public void deleteQuestion(int questionId) throws DAOException {
     
-        Connection connection = dbConnection.getConnection();
 
-        try {
+        try (Connection connection = dbConnection.getConnection()) {
             PreparedStatement ps = connection.prepareStatement("DELETE FROM Questions WHERE questionId = ?");
             ps.setInt(1, questionId);
             ps.executeUpdate();
@@ -1,19 +1,26 @@
 package com.timi.dao.impl;
 
 
-import com.google.gson.Gson;
-import com.google.gson.reflect.TypeToken;
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
-import java.lang.reflect.Type;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.stream.Stream;
 import java.sql.Connection;
 import java.sql.PreparedStatement;
 import java.sql.ResultSet;
 import java.sql.SQLException;
+import java.sql.Statement;
 import java.sql.Timestamp;
 
 import com.timi.dao.DatabaseConnection;
+import com.timi.dao.Page;
 import com.timi.dao.QuizAttemptDAO;
+import com.timi.dao.impl.QuizStatisticsDAOImpl.LockedStatistics;
 import com.timi.exception.DAOException;
 import com.timi.model.Question;
 import com.timi.model.QuizAttempt;
@@ -21,86 +28,195 @@ import com.timi.service.AuditingService;
 import com.timi.service.impl.AuditingServiceImpl;
 
 public class QuizAttemptDAOImpl implements QuizAttemptDAO {
-    
+
+    private static final String ATTEMPT_QUESTIONS_QUERY = "SELECT qaq.attemptId, qaq.selectedOptionIndex, q.questionId, q.content, q.options, q.correctOptionIndex, q.quizId FROM QuizAttemptQuestions qaq JOIN Questions q ON q.questionId = qaq.questionId";
+    private static final int MAX_IN_CLAUSE_SIZE = 1000;
+
     private DatabaseConnection dbConnection;
     private AuditingService auditingService;
+    private QuizStatisticsDAOImpl quizStatistics;
 
     public QuizAttemptDAOImpl() {
         dbConnection = DatabaseConnection.getInstance();
         auditingService = AuditingServiceImpl.getInstance();
+        quizStatistics = QuizStatisticsDAOImpl.getInstance();
     }
 
     @Override
     public void addQuizAttempt(QuizAttempt quizAttempt) throws DAOException {
-        Connection connection = dbConnection.getConnection();
-
-        try {
-            PreparedStatement ps = null;
-            if (quizAttempt.getAttemptId() == 0) {
-                ps = connection.prepareStatement("INSERT INTO QuizAttempts (userId, quizId, timestamp, score, durationAttempted) VALUES (?, ?, ?, ?, ?)");
-            } else {
-                ps = connection.prepareStatement("INSERT INTO QuizAttempts (attemptId, userId, quizId, timestamp, score, durationAttempted) VALUES (?, ?, ?, ?, ?, ?)");
-                ps.setInt(1, quizAttempt.getAttemptId());
+        try (Connection connection = dbConnection.getConnection()) {
+            storeQuizAttempts(connection, List.of(quizAttempt));
+            auditingService.logCurrentAction();
+        } catch (SQLException e) {
+            throw new DAOException("Error adding quiz attempt", e);
+        }
+    }
+
+    /**
+     * Inserts all attempts in a single transaction, so a group of submissions costs one commit.
+     * Either every attempt is stored or none is.
+     */
+    @Override
+    public void addQuizAttempts(List<QuizAttempt> quizAttempts) throws DAOException {
+        try (Connection connection = dbConnection.getConnection()) {
+            storeQuizAttempts(connection, quizAttempts);
+            auditingService.logCurrentAction();
+        } catch (SQLException e) {
+            throw new DAOException("Error adding quiz attempts", e);
+        }
+    }
+
+    /**
+     * Inserts the attempts in one transaction, skipping any whose submission key is already
+     * stored: those are retried submissions and only get the id of the stored attempt. If a
+     * concurrent submission with the same key commits first, the unique key on
+     * {@code submissionKey} fails the insert and a second round finds the stored row. The statistics
+     * rows of the quizzes involved are locked in quiz id order before anything is inserted; a round
+     * chosen as a deadlock victim is run again.
+     */
+    private void storeQuizAttempts(Connection connection, List<QuizAttempt> quizAttempts) throws SQLException {
+        int[] originalAttemptIds = new int[quizAttempts.size()];
+        for (int i = 0; i < originalAttemptIds.length; i++) {
+            originalAttemptIds[i] = quizAttempts.get(i).getAttemptId();
+        }
+
+        connection.setAutoCommit(false);
+        boolean retriedDuplicate = false;
+        int deadlocks = 0;
+        while (true) {
+            try {
+                Map<String, Integer> storedIds = findStoredSubmissions(connection, quizAttempts);
+                Map<Integer, LockedStatistics> statistics = new TreeMap<>();
+                for (QuizAttempt quizAttempt : quizAttempts) {
+                    if (quizAttempt.getSubmissionKey() == null || !storedIds.containsKey(quizAttempt.getSubmissionKey())) {
+                        statistics.put(quizAttempt.getQuizId(), null);
+                    }
+                }
+                for (Map.Entry<Integer, LockedStatistics> entry : statistics.entrySet()) {
+                    entry.setValue(quizStatistics.lock(connection, entry.getKey()));
+                }
+
+                for (QuizAttempt quizAttempt : quizAttempts) {
+                    String submissionKey = quizAttempt.getSubmissionKey();
+                    Integer storedId = submissionKey == null ? null : storedIds.get(submissionKey);
+                    if (storedId != null) {
+                        quizAttempt.setAttemptId(storedId);
+                        continue;
+                    }
+                    insertQuizAttempt(connection, quizAttempt);
+                    statistics.get(quizAttempt.getQuizId()).statistics.addAttempt(quizAttempt.getScore(), quizAttempt.getDurationAttempted());
+                    if (submissionKey != null) {
+                        storedIds.put(submissionKey, quizAttempt.getAttemptId());
+                    }
+                }
+                for (LockedStatistics locked : statistics.values()) {
+                    quizStatistics.save(connection, locked);
+                }
+                connection.commit();
+                for (LockedStatistics locked : statistics.values()) {
+                    quizStatistics.publish(locked);
+                }
+                return;
+            } catch (SQLException e) {
+                connection.rollback();
+                for (int i = 0; i < originalAttemptIds.length; i++) {
+                    quizAttempts.get(i).setAttemptId(originalAttemptIds[i]);
+                }
+                if (QuizStatisticsDAOImpl.isDeadlock(e) && deadlocks < QuizStatisticsDAOImpl.MAX_DEADLOCK_RETRIES) {
+                    deadlocks++;
+                    continue;
+                }
+                boolean constraintViolation = e.getSQLState() != null && e.getSQLState().startsWith("23");
+                if (retriedDuplicate || !constraintViolation) {
+                    throw e;
+                }
+                retriedDuplicate = true;
             }
+        }
+    }
 
-            int cnt = (quizAttempt.getAttemptId() != 0) ? 1 : 0;
-            ps.setInt(1 + cnt, quizAttempt.getUserId());
-            ps.setInt(2 + cnt, quizAttempt.getQuizId());
-            ps.setTimestamp(3 + cnt, Timestamp.valueOf(quizAttempt.getTimestamp()));
-            ps.setInt(4 + cnt, quizAttempt.getScore());
-            ps.setFloat(5 + cnt, quizAttempt.getDurationAttempted());
-            ps.executeUpdate();
+    /**
+     * Attempt ids of the submission keys among {@code quizAttempts} that are already stored.
+     */
+    private Map<String, Integer> findStoredSubmissions(Connection connection, List<QuizAttempt> quizAttempts) throws SQLException {
+        Map<String, Integer> storedIds = new HashMap<>();
+        List<String> keys = new ArrayList<>();
+        for (QuizAttempt quizAttempt : quizAttempts) {
+            if (quizAttempt.getSubmissionKey() != null) {
+                keys.add(quizAttempt.getSubmissionKey());
+            }
+        }
+
+        for (int from = 0; from < keys.size(); from += MAX_IN_CLAUSE_SIZE) {
+            List<String> chunk = keys.subList(from, Math.min(from + MAX_IN_CLAUSE_SIZE, keys.size()));
+            String placeholders = String.join(", ", Collections.nCopies(chunk.size(), "?"));
+            PreparedStatement ps = connection.prepareStatement("SELECT attemptId, submissionKey FROM QuizAttempts WHERE submissionKey IN (" + placeholders + ")");
+            for (int i = 0; i < chunk.size(); i++) {
+                ps.setString(i + 1, chunk.get(i));
+            }
+            ResultSet rs = ps.executeQuery();
+            while (rs.next()) {
+                storedIds.put(rs.getString("submissionKey"), rs.getInt("attemptId"));
+            }
+            rs.close();
             ps.close();
+        }
+        return storedIds;
+    }
 
-            if (quizAttempt.getAttemptId() == 0) {
-                PreparedStatement psGetId = connection.prepareStatement("SELECT LAST_INSERT_ID()");
-                ResultSet rs = psGetId.executeQuery();
-                if (rs.next()) {
-                    quizAttempt.setAttemptId(rs.getInt(1));
-                }
-                rs.close();
-                psGetId.close();
+    /**
+     * Inserts the attempt row and all of its answers on the given connection. The caller owns the
+     * transaction.
+     */
+    private void insertQuizAttempt(Connection connection, QuizAttempt quizAttempt) throws SQLException {
+        PreparedStatement ps = null;
+        if (quizAttempt.getAttemptId() == 0) {
+            ps = connection.prepareStatement("INSERT INTO QuizAttempts (userId, quizId, timestamp, score, durationAttempted, submissionKey) VALUES (?, ?, ?, ?, ?, ?)", Statement.RETURN_GENERATED_KEYS);
+        } else {
+            ps = connection.prepareStatement("INSERT INTO QuizAttempts (attemptId, userId, quizId, timestamp, score, durationAttempted, submissionKey) VALUES (?, ?, ?, ?, ?, ?, ?)");
+            ps.setInt(1, quizAttempt.getAttemptId());
+        }
+
+        int cnt = (quizAttempt.getAttemptId() != 0) ? 1 : 0;
+        ps.setInt(1 + cnt, quizAttempt.getUserId());
+        ps.setInt(2 + cnt, quizAttempt.getQuizId());
+        ps.setTimestamp(3 + cnt, Timestamp.valueOf(quizAttempt.getTimestamp()));
+        ps.setInt(4 + cnt, quizAttempt.getScore());
+        ps.setFloat(5 + cnt, quizAttempt.getDurationAttempted());
+        ps.setString(6 + cnt, quizAttempt.getSubmissionKey());
+        ps.executeUpdate();
+
+        if (quizAttempt.getAttemptId() == 0) {
+            ResultSet keys = ps.getGeneratedKeys();
+            if (keys.next()) {
+                quizAttempt.setAttemptId(keys.getInt(1));
             }
+            keys.close();
+        }
+        ps.close();
 
+        if (quizAttempt.getQuestionsAttempted() != null && !quizAttempt.getQuestionsAttempted().isEmpty()) {
+            PreparedStatement psQuestions = connection.prepareStatement("INSERT INTO QuizAttemptQuestions (attemptId, questionId, selectedOptionIndex) VALUES (?, ?, ?)");
             for (Question question : quizAttempt.getQuestionsAttempted()) {
-                PreparedStatement psQuestions = connection.prepareStatement("INSERT INTO QuizAttemptQuestions (attemptId, questionId, selectedOptionIndex) VALUES (?, ?, ?)");
                 psQuestions.setInt(1, quizAttempt.getAttemptId());
                 psQuestions.setInt(2, question.getQuestionId());
                 psQuestions.setInt(3, question.getSelectedOptionIndex());
-                psQuestions.executeUpdate();
-                psQuestions.close();
+                psQuestions.addBatch();
             }
-            
-            auditingService.logCurrentAction();
-        } catch (SQLException e) {
-            e.printStackTrace();
-            throw new DAOException("Error adding quiz attempt", e);
+            psQuestions.executeBatch();
+            psQuestions.close();
         }
     }
 
     @Override
     public QuizAttempt getQuizAttemptById(int attemptId) throws DAOException {
-        Connection connection = dbConnection.getConnection();
         QuizAttempt quizAttempt = null;
 
-        try {
-            PreparedStatement ps = connection.prepareStatement("SELECT * FROM QuizAttempts WHERE attemptId = ?");
-            ps.setInt(1, attemptId);
-            ResultSet rs = ps.executeQuery();
-            if (rs.next()) {
-                quizAttempt = new QuizAttempt();
-                quizAttempt.setAttemptId(rs.getInt("attemptId"));
-                quizAttempt.setUserId(rs.getInt("userId"));
-                quizAttempt.setQuizId(rs.getInt("quizId"));
-                quizAttempt.setTimestamp(rs.getTimestamp("timestamp").toLocalDateTime());
-                quizAttempt.setScore(rs.getInt("score"));
-                quizAttempt.setDurationAttempted(rs.getFloat("durationAttempted"));
-                
-                List<Question> questionsAttempted = getQuestionsByAttemptId(quizAttempt.getAttemptId());
-                quizAttempt.setQuestionsAttempted(questionsAttempted);
+        try (Connection connection = dbConnection.getConnection()) {
+            List<QuizAttempt> quizAttempts = loadQuizAttempts(connection, " WHERE qa.attemptId = ?", attemptId);
+            if (!quizAttempts.isEmpty()) {
+                quizAttempt = quizAttempts.get(0);
             }
-            rs.close();
-            ps.close();
             auditingService.logCurrentAction();
         } catch (SQLException e) {
             throw new DAOException("Error getting quiz attempt by ID", e);
@@ -111,68 +227,186 @@ public class QuizAttemptDAOImpl implements QuizAttemptDAO {
 
     @Override
     public List<QuizAttempt> getAllQuizAttempts() throws DAOException {
-        Connection connection = dbConnection.getConnection();
         List<QuizAttempt> quizAttempts = new ArrayList<>();
     
-        try {
-            PreparedStatement ps = connection.prepareStatement("SELECT * FROM QuizAttempts");
+        try (Connection connection = dbConnection.getConnection()) {
+            quizAttempts = loadQuizAttempts(connection, "");
+            auditingService.logCurrentAction();
+        } catch (SQLException e) {
+            throw new DAOException("Error getting all quiz attempts", e);
+        }
+    
+        return quizAttempts;
+    }
+
+    @Override
+    public List<QuizAttempt> getQuizAttemptsAfter(int attemptId) throws DAOException {
+        List<QuizAttempt> quizAttempts = new ArrayList<>();
+
+        try (Connection connection = dbConnection.getConnection()) {
+            quizAttempts = loadQuizAttempts(connection, " WHERE qa.attemptId > ?", attemptId);
+            auditingService.logCurrentAction();
+        } catch (SQLException e) {
+            throw new DAOException("Error getting quiz attempts after ID", e);
+        }
+
+        return quizAttempts;
+    }
+
+    @Override
+    public Page<QuizAttempt> getQuizAttemptsPage(String pageToken, int pageSize) throws DAOException {
+        List<QuizAttempt> quizAttempts = new ArrayList<>();
+        String nextPageToken = null;
+
+        try (Connection connection = dbConnection.getConnection()) {
+            int afterId = Page.decodeToken(pageToken);
+            // find the key range of the page first, so its questions can be fetched by range too
+            PreparedStatement ps = connection.prepareStatement("SELECT attemptId FROM QuizAttempts WHERE attemptId > ? ORDER BY attemptId LIMIT ?");
+            ps.setInt(1, afterId);
+            ps.setInt(2, Page.checkPageSize(pageSize) + 1);
             ResultSet rs = ps.executeQuery();
+            List<Integer> attemptIds = new ArrayList<>();
             while (rs.next()) {
-                QuizAttempt quizAttempt = new QuizAttempt();
-                quizAttempt.setAttemptId(rs.getInt("attemptId"));
-                quizAttempt.setUserId(rs.getInt("userId"));
-                quizAttempt.setQuizId(rs.getInt("quizId"));
-                quizAttempt.setTimestamp(rs.getTimestamp("timestamp").toLocalDateTime());
-                quizAttempt.setScore(rs.getInt("score"));
-                quizAttempt.setDurationAttempted(rs.getFloat("durationAttempted"));
-                
-                // Fetch questions attempted for this quiz attempt
-                List<Question> questionsAttempted = getQuestionsByAttemptId(quizAttempt.getAttemptId());
-                quizAttempt.setQuestionsAttempted(questionsAttempted);
-                
-                quizAttempts.add(quizAttempt);
+                attemptIds.add(rs.getInt("attemptId"));
             }
             rs.close();
             ps.close();
+
+            if (!attemptIds.isEmpty()) {
+                int lastId = attemptIds.get(Math.min(attemptIds.size(), pageSize) - 1);
+                if (attemptIds.size() > pageSize) {
+                    nextPageToken = Page.encodeToken(lastId);
+                }
+                quizAttempts = loadQuizAttempts(connection, " WHERE qa.attemptId > ? AND qa.attemptId <= ?", afterId, lastId);
+            }
             auditingService.logCurrentAction();
         } catch (SQLException e) {
-            throw new DAOException("Error getting all quiz attempts", e);
+            throw new DAOException("Error getting quiz attempts page", e);
         }
-    
+
+        return new Page<>(quizAttempts, nextPageToken);
+    }
+
+    @Override
+    public Stream<QuizAttempt> streamAllQuizAttempts() throws DAOException {
+        Stream<QuizAttempt> quizAttempts = ResultSetStream.open(dbConnection, "Error streaming quiz attempts",
+                "SELECT qa.attemptId, qa.userId, qa.quizId, qa.timestamp, qa.score, qa.durationAttempted, qa.submissionKey, qaq.selectedOptionIndex, q.questionId, q.content, q.options, q.correctOptionIndex"
+                        + " FROM QuizAttempts qa LEFT JOIN QuizAttemptQuestions qaq ON qaq.attemptId = qa.attemptId LEFT JOIN Questions q ON q.questionId = qaq.questionId"
+                        + " ORDER BY qa.attemptId, qaq.questionId",
+                new AttemptRowReader());
+        auditingService.logCurrentAction();
         return quizAttempts;
     }
 
+    /**
+     * Streams every attempt without its questions, for callers that only need the scores.
+     */
+    @Override
+    public Stream<QuizAttempt> streamQuizAttemptScores() throws DAOException {
+        Stream<QuizAttempt> quizAttempts = ResultSetStream.open(dbConnection, "Error streaming quiz attempt scores",
+                "SELECT attemptId, userId, quizId, timestamp, score, durationAttempted, submissionKey FROM QuizAttempts",
+                rs -> rs.next() ? extractQuizAttemptFromResultSet(rs) : null);
+        auditingService.logCurrentAction();
+        return quizAttempts;
+    }
+
+    /**
+     * Folds the rows of one attempt (one per answered question, or a single row with null question
+     * columns if it has none) into a single {@link QuizAttempt}, reading one row past it to find
+     * where the next attempt starts.
+     */
+    private final class AttemptRowReader implements ResultSetStream.RowReader<QuizAttempt> {
+        private boolean started;
+        private boolean onRow;
+
+        @Override
+        public QuizAttempt read(ResultSet rs) throws SQLException {
+            if (!started) {
+                started = true;
+                onRow = rs.next();
+            }
+            if (!onRow) {
+                return null;
+            }
+
+            QuizAttempt quizAttempt = extractQuizAttemptFromResultSet(rs);
+            quizAttempt.setQuestionsAttempted(new ArrayList<>());
+            do {
+                rs.getInt("questionId");
+                if (!rs.wasNull()) {
+                    // answered questions always belong to the attempt's quiz, whose id is in the row
+                    quizAttempt.getQuestionsAttempted().add(extractAttemptQuestionFromResultSet(rs));
+                }
+                onRow = rs.next();
+            } while (onRow && rs.getInt("attemptId") == quizAttempt.getAttemptId());
+            return quizAttempt;
+        }
+    }
+
+    /**
+     * Loads the attempts matching {@code whereClause} (written against the alias {@code qa}) together
+     * with their questions using two queries in total, regardless of how many attempts match.
+     */
+    private List<QuizAttempt> loadQuizAttempts(Connection connection, String whereClause, int... params) throws SQLException {
+        Map<Integer, QuizAttempt> attemptsById = new LinkedHashMap<>();
+
+        PreparedStatement ps = connection.prepareStatement("SELECT qa.* FROM QuizAttempts qa" + whereClause + " ORDER BY qa.attemptId");
+        for (int i = 0; i < params.length; i++) {
+            ps.setInt(i + 1, params[i]);
+        }
+        ResultSet rs = ps.executeQuery();
+        while (rs.next()) {
+            QuizAttempt quizAttempt = extractQuizAttemptFromResultSet(rs);
+            quizAttempt.setQuestionsAttempted(new ArrayList<>());
+            attemptsById.put(quizAttempt.getAttemptId(), quizAttempt);
+        }
+        rs.close();
+        ps.close();
+
+        if (attemptsById.isEmpty()) {
+            return new ArrayList<>();
+        }
+
+        PreparedStatement psQuestions = connection.prepareStatement(ATTEMPT_QUESTIONS_QUERY + " JOIN QuizAttempts qa ON qa.attemptId = qaq.attemptId" + whereClause + " ORDER BY qaq.attemptId, qaq.questionId");
+        for (int i = 0; i < params.length; i++) {
+            psQuestions.setInt(i + 1, params[i]);
+        }
+        ResultSet rsQuestions = psQuestions.executeQuery();
+        while (rsQuestions.next()) {
+            // attempts inserted between the two queries are not in the map and are skipped
+            QuizAttempt quizAttempt = attemptsById.get(rsQuestions.getInt("attemptId"));
+            if (quizAttempt != null) {
+                quizAttempt.getQuestionsAttempted().add(extractAttemptQuestionFromResultSet(rsQuestions));
+            }
+        }
+        rsQuestions.close();
+        psQuestions.close();
+
+        return new ArrayList<>(attemptsById.values());
+    }
+
+    private QuizAttempt extractQuizAttemptFromResultSet(ResultSet rs) throws SQLException {
+        QuizAttempt quizAttempt = new QuizAttempt();
+        quizAttempt.setAttemptId(rs.getInt("attemptId"));
+        quizAttempt.setUserId(rs.getInt("userId"));
+        quizAttempt.setQuizId(rs.getInt("quizId"));
+        quizAttempt.setTimestamp(rs.getTimestamp("timestamp").toLocalDateTime());
+        quizAttempt.setScore(rs.getInt("score"));
+        quizAttempt.setDurationAttempted(rs.getFloat("durationAttempted"));
+        quizAttempt.setSubmissionKey(rs.getString("submissionKey"));
+        return quizAttempt;
+    }
+
     @Override
     public List<Question> getQuestionsByAttemptId(int attemptId) throws DAOException {
-        Connection connection = dbConnection.getConnection();
         List<Question> questions = new ArrayList<>();
 
-        try {
-            PreparedStatement ps = connection.prepareStatement("SELECT * FROM QuizAttemptQuestions WHERE attemptId = ?");
+        try (Connection connection = dbConnection.getConnection()) {
+            PreparedStatement ps = connection.prepareStatement(ATTEMPT_QUESTIONS_QUERY + " WHERE qaq.attemptId = ? ORDER BY qaq.questionId");
             ps.setInt(1, attemptId);
             ResultSet rs = ps.executeQuery();
             while (rs.next()) {
-                int questionId = rs.getInt("questionId");
-                QuestionDAOImpl questionDAO = new QuestionDAOImpl();
-                Question question = questionDAO.getQuestionById(questionId);
-                question.setSelectedOptionIndex(rs.getInt("selectedOptionIndex"));
-                
-                // get the other information of the question from the Questions table
-                PreparedStatement psQuestion = connection.prepareStatement("SELECT * FROM Questions WHERE questionId = ?");
-                psQuestion.setInt(1, questionId);
-                ResultSet rsQuestion = psQuestion.executeQuery();
-                if (rsQuestion.next()) {
-                    question.setContent(rsQuestion.getString("content"));
-                    String optionsJson = rsQuestion.getString("options");
-                    Type listType = new TypeToken<List<String>>(){}.getType();
-                    List<String> options = new Gson().fromJson(optionsJson, listType);
-                    question.setOptions(options);
-                    question.setCorrectOptionIndex(rsQuestion.getInt("correctOptionIndex"));
-                    question.setQuizId(rsQuestion.getInt("quizId"));
-                }
-                rsQuestion.close();
-                psQuestion.close();
-                questions.add(question);
+                questions.add(extractAttemptQuestionFromResultSet(rs));
             }
             rs.close();
             ps.close();
@@ -184,31 +418,57 @@ public class QuizAttemptDAOImpl implements QuizAttemptDAO {
         return questions;
     }
 
+    @Override
+    public Map<Integer, List<Question>> getQuestionsByAttemptIds(Collection<Integer> attemptIds) throws DAOException {
+        Map<Integer, List<Question>> questionsByAttempt = new LinkedHashMap<>();
+        for (Integer attemptId : attemptIds) {
+            questionsByAttempt.put(attemptId, new ArrayList<>());
+        }
+        if (questionsByAttempt.isEmpty()) {
+            return questionsByAttempt;
+        }
+
+        List<Integer> ids = new ArrayList<>(questionsByAttempt.keySet());
+        try (Connection connection = dbConnection.getConnection()) {
+            for (int from = 0; from < ids.size(); from += MAX_IN_CLAUSE_SIZE) {
+                List<Integer> chunk = ids.subList(from, Math.min(from + MAX_IN_CLAUSE_SIZE, ids.size()));
+                String placeholders = String.join(", ", Collections.nCopies(chunk.size(), "?"));
+                PreparedStatement ps = connection.prepareStatement(ATTEMPT_QUESTIONS_QUERY + " WHERE qaq.attemptId IN (" + placeholders + ") ORDER BY qaq.attemptId, qaq.questionId");
+                for (int i = 0; i < chunk.size(); i++) {
+                    ps.setInt(i + 1, chunk.get(i));
+                }
+                ResultSet rs = ps.executeQuery();
+                while (rs.next()) {
+                    questionsByAttempt.get(rs.getInt("attemptId")).add(extractAttemptQuestionFromResultSet(rs));
+                }
+                rs.close();
+                ps.close();
+            }
+            auditingService.logCurrentAction();
+        } catch (SQLException e) {
+            throw new DAOException("Error getting questions by attempt IDs", e);
+        }
+
+        return questionsByAttempt;
+    }
+
+    private Question extractAttemptQuestionFromResultSet(ResultSet rs) throws SQLException {
+        Question question = new Question();
+        question.setQuestionId(rs.getInt("questionId"));
+        question.setContent(rs.getString("content"));
+        question.setOptions(OptionsCodec.decode(rs.getString("options")));
+        question.setCorrectOptionIndex(rs.getInt("correctOptionIndex"));
+        question.setSelectedOptionIndex(rs.getInt("selectedOptionIndex"));
+        question.setQuizId(rs.getInt("quizId"));
+        return question;
+    }
 
     @Override
     public List<QuizAttempt> getQuizAttemptsByUserId(int userId) throws DAOException {
-        Connection connection = dbConnection.getConnection();
         List<QuizAttempt> quizAttempts = new ArrayList<>();
 
-        try {
-            PreparedStatement ps = connection.prepareStatement("SELECT * FROM QuizAttempts WHERE userId = ?");
-            ps.setInt(1, userId);
-            ResultSet rs = ps.executeQuery();
-            while (rs.next()) {
-                QuizAttempt quizAttempt = new QuizAttempt();
-                quizAttempt.setAttemptId(rs.getInt("attemptId"));
-                quizAttempt.setUserId(rs.getInt("userId"));
-                quizAttempt.setQuizId(rs.getInt("quizId"));
-                quizAttempt.setTimestamp(rs.getTimestamp("timestamp").toLocalDateTime());
-                quizAttempt.setScore(rs.getInt("score"));
-                quizAttempt.setDurationAttempted(rs.getFloat("durationAttempted"));
-                quizAttempts.add(quizAttempt);
-
-                List<Question> questionsAttempted = getQuestionsByAttemptId(quizAttempt.getAttemptId());
-                quizAttempt.setQuestionsAttempted(questionsAttempted);
-            }
-            rs.close();
-            ps.close();
+        try (Connection connection = dbConnection.getConnection()) {
+            quizAttempts = loadQuizAttempts(connection, " WHERE qa.userId = ?", userId);
             auditingService.logCurrentAction();
         } catch (SQLException e) {
             throw new DAOException("Error getting quiz attempts by user ID", e);
@@ -219,28 +479,10 @@ public class QuizAttemptDAOImpl implements QuizAttemptDAO {
 
     @Override
     public List<QuizAttempt> getQuizAttemptsByQuizId(int quizId) throws DAOException {
-        Connection connection = dbConnection.getConnection();
         List<QuizAttempt> quizAttempts = new ArrayList<>();
 
-        try {
-            PreparedStatement ps = connection.prepareStatement("SELECT * FROM QuizAttempts WHERE quizId = ?");
-            ps.setInt(1, quizId);
-            ResultSet rs = ps.executeQuery();
-            while (rs.next()) {
-                QuizAttempt quizAttempt = new QuizAttempt();
-                quizAttempt.setAttemptId(rs.getInt("attemptId"));
-                quizAttempt.setUserId(rs.getInt("userId"));
-                quizAttempt.setQuizId(rs.getInt("quizId"));
-                quizAttempt.setTimestamp(rs.getTimestamp("timestamp").toLocalDateTime());
-                quizAttempt.setScore(rs.getInt("score"));
-                quizAttempt.setDurationAttempted(rs.getFloat("durationAttempted"));
-                quizAttempts.add(quizAttempt);
-
-                List<Question> questionsAttempted = getQuestionsByAttemptId(quizAttempt.getAttemptId());
-                quizAttempt.setQuestionsAttempted(questionsAttempted);
-            }
-            rs.close();
-            ps.close();
+        try (Connection connection = dbConnection.getConnection()) {
+            quizAttempts = loadQuizAttempts(connection, " WHERE qa.quizId = ?", quizId);
             auditingService.logCurrentAction();
         } catch (SQLException e) {
             throw new DAOException("Error getting quiz attempts by quiz ID", e);
@@ -251,29 +493,10 @@ public class QuizAttemptDAOImpl implements QuizAttemptDAO {
 
     @Override
     public List<QuizAttempt> getQuizAttemptsByUserIdAndQuizId(int userId, int quizId) throws DAOException {
-        Connection connection = dbConnection.getConnection();
         List<QuizAttempt> quizAttempts = new ArrayList<>();
 
-        try {
-            PreparedStatement ps = connection.prepareStatement("SELECT * FROM QuizAttempts WHERE userId = ? AND quizId = ?");
-            ps.setInt(1, userId);
-            ps.setInt(2, quizId);
-            ResultSet rs = ps.executeQuery();
-            while (rs.next()) {
-                QuizAttempt quizAttempt = new QuizAttempt();
-                quizAttempt.setAttemptId(rs.getInt("attemptId"));
-                quizAttempt.setUserId(rs.getInt("userId"));
-                quizAttempt.setQuizId(rs.getInt("quizId"));
-                quizAttempt.setTimestamp(rs.getTimestamp("timestamp").toLocalDateTime());
-                quizAttempt.setScore(rs.getInt("score"));
-                quizAttempt.setDurationAttempted(rs.getFloat("durationAttempted"));
-                quizAttempts.add(quizAttempt);
-
-                List<Question> questionsAttempted = getQuestionsByAttemptId(quizAttempt.getAttemptId());
-                quizAttempt.setQuestionsAttempted(questionsAttempted);
-            }
-            rs.close();
-            ps.close();
+        try (Connection connection = dbConnection.getConnection()) {
+            quizAttempts = loadQuizAttempts(connection, " WHERE qa.userId = ? AND qa.quizId = ?", userId, quizId);
             auditingService.logCurrentAction();
         } catch (SQLException e) {
             throw new DAOException("Error getting quiz attempts by user ID and quiz ID", e);
@@ -284,15 +507,23 @@ public class QuizAttemptDAOImpl implements QuizAttemptDAO {
     
     @Override
     public void updateQuizAttempt(QuizAttempt quizAttempt) throws DAOException {
-        Connection connection = dbConnection.getConnection();
-
-        try {
-            PreparedStatement ps = connection.prepareStatement("UPDATE QuizAttempts SET score = ?, durationAttempted = ? WHERE attemptId = ?");
-            ps.setInt(1, quizAttempt.getScore());
-            ps.setFloat(2, quizAttempt.getDurationAttempted());
-            ps.setInt(3, quizAttempt.getAttemptId());
-            ps.executeUpdate();
-            ps.close();
+        try (Connection connection = dbConnection.getConnection()) {
+            changeStatistics(connection, c -> {
+                LockedStatistics locked = lockStoredAttempt(c, quizAttempt.getAttemptId());
+                if (locked == null) {
+                    return List.of();
+                }
+                locked.statistics.addAttempt(quizAttempt.getScore(), quizAttempt.getDurationAttempted());
+                quizStatistics.save(c, locked);
+
+                PreparedStatement ps = c.prepareStatement("UPDATE QuizAttempts SET score = ?, durationAttempted = ? WHERE attemptId = ?");
+                ps.setInt(1, quizAttempt.getScore());
+                ps.setFloat(2, quizAttempt.getDurationAttempted());
+                ps.setInt(3, quizAttempt.getAttemptId());
+                ps.executeUpdate();
+                ps.close();
+                return List.of(locked);
+            });
             auditingService.logCurrentAction();
         } catch (SQLException e) {
             throw new DAOException("Error updating quiz attempt", e);
@@ -301,25 +532,161 @@ public class QuizAttemptDAOImpl implements QuizAttemptDAO {
 
     @Override
     public void deleteQuizAttempt(int attemptId) throws DAOException {
-        Connection connection = dbConnection.getConnection();
+        try (Connection connection = dbConnection.getConnection()) {
+            changeStatistics(connection, c -> {
+                LockedStatistics locked = lockStoredAttempt(c, attemptId);
+                if (locked == null) {
+                    return List.of();
+                }
+                quizStatistics.save(c, locked);
+
+                String deleteQuizAttemptQuestionsQuery = "DELETE FROM QuizAttemptQuestions WHERE attemptId = ?";
+                PreparedStatement psQuizAttemptQuestions = c.prepareStatement(deleteQuizAttemptQuestionsQuery);
+                psQuizAttemptQuestions.setInt(1, attemptId);
+                psQuizAttemptQuestions.executeUpdate();
+
+                String deleteQuizAttemptQuery = "DELETE FROM QuizAttempts WHERE attemptId = ?";
+                PreparedStatement psQuizAttempt = c.prepareStatement(deleteQuizAttemptQuery);
+                psQuizAttempt.setInt(1, attemptId);
+                psQuizAttempt.executeUpdate();
+
+                psQuizAttemptQuestions.close();
+                psQuizAttempt.close();
+                return List.of(locked);
+            });
+            auditingService.logCurrentAction();
+        } catch (SQLException e) {
+            throw new DAOException("Error deleting quiz attempt", e);
+        }
+    }
 
-        try {
-            String deleteQuizAttemptQuestionsQuery = "DELETE FROM QuizAttemptQuestions WHERE attemptId = ?";
-            PreparedStatement psQuizAttemptQuestions = connection.prepareStatement(deleteQuizAttemptQuestionsQuery);
-            psQuizAttemptQuestions.setInt(1, attemptId);
-            psQuizAttemptQuestions.executeUpdate();
+    /**
+     * Deletes every attempt of the user and takes them out of their quizzes' statistics, which the
+     * cascade from {@code Users} would leave untouched. The statistics rows are locked in quiz id
+     * order before the attempts, as in {@link #storeQuizAttempts}.
+     */
+    @Override
+    public void deleteQuizAttemptsByUserId(int userId) throws DAOException {
+        try (Connection connection = dbConnection.getConnection()) {
+            changeStatistics(connection, c -> {
+                Map<Integer, LockedStatistics> statistics = new TreeMap<>();
+                PreparedStatement ps = c.prepareStatement("SELECT DISTINCT quizId FROM QuizAttempts WHERE userId = ?");
+                ps.setInt(1, userId);
+                ResultSet rs = ps.executeQuery();
+                while (rs.next()) {
+                    statistics.put(rs.getInt("quizId"), null);
+                }
+                rs.close();
+                ps.close();
+                for (Map.Entry<Integer, LockedStatistics> entry : statistics.entrySet()) {
+                    entry.setValue(quizStatistics.lock(c, entry.getKey()));
+                }
 
-            String deleteQuizAttemptQuery = "DELETE FROM QuizAttempts WHERE attemptId = ?";
-            PreparedStatement psQuizAttempt = connection.prepareStatement(deleteQuizAttemptQuery);
-            psQuizAttempt.setInt(1, attemptId);
-            psQuizAttempt.executeUpdate();
+                List<QuizAttempt> quizAttempts = new ArrayList<>();
+                ps = c.prepareStatement("SELECT quizId, score, durationAttempted FROM QuizAttempts WHERE userId = ? FOR UPDATE");
+                ps.setInt(1, userId);
+                rs = ps.executeQuery();
+                while (rs.next()) {
+                    QuizAttempt quizAttempt = new QuizAttempt();
+                    quizAttempt.setQuizId(rs.getInt("quizId"));
+                    quizAttempt.setScore(rs.getInt("score"));
+                    quizAttempt.setDurationAttempted(rs.getFloat("durationAttempted"));
+                    quizAttempts.add(quizAttempt);
+                }
+                rs.close();
+                ps.close();
+                for (QuizAttempt quizAttempt : quizAttempts) {
+                    LockedStatistics locked = statistics.get(quizAttempt.getQuizId());
+                    if (locked == null) {
+                        // submitted to another quiz since the first read
+                        locked = quizStatistics.lock(c, quizAttempt.getQuizId());
+                        statistics.put(quizAttempt.getQuizId(), locked);
+                    }
+                    locked.statistics.removeAttempt(quizAttempt.getScore(), quizAttempt.getDurationAttempted());
+                }
+                for (LockedStatistics locked : statistics.values()) {
+                    quizStatistics.save(c, locked);
+                }
 
-            psQuizAttemptQuestions.close();
-            psQuizAttempt.close();
+                ps = c.prepareStatement("DELETE FROM QuizAttemptQuestions WHERE attemptId IN (SELECT attemptId FROM QuizAttempts WHERE userId = ?)");
+                ps.setInt(1, userId);
+                ps.executeUpdate();
+                ps.close();
+                ps = c.prepareStatement("DELETE FROM QuizAttempts WHERE userId = ?");
+                ps.setInt(1, userId);
+                ps.executeUpdate();
+                ps.close();
+                return statistics.values();
+            });
             auditingService.logCurrentAction();
         } catch (SQLException e) {
-            throw new DAOException("Error deleting quiz attempt", e);
+            throw new DAOException("Error deleting quiz attempts by user ID", e);
         }
     }
-    
+
+    /**
+     * Runs {@code change} as one transaction and publishes the statistics rows it returns once it
+     * has committed. A transaction chosen as a deadlock victim is run again.
+     */
+    private void changeStatistics(Connection connection, StatisticsChange change) throws SQLException {
+        connection.setAutoCommit(false);
+        int deadlocks = 0;
+        while (true) {
+            try {
+                Collection<LockedStatistics> changed = change.apply(connection);
+                connection.commit();
+                for (LockedStatistics locked : changed) {
+                    quizStatistics.publish(locked);
+                }
+                return;
+            } catch (SQLException e) {
+                connection.rollback();
+                if (!QuizStatisticsDAOImpl.isDeadlock(e) || deadlocks == QuizStatisticsDAOImpl.MAX_DEADLOCK_RETRIES) {
+                    throw e;
+                }
+                deadlocks++;
+            }
+        }
+    }
+
+    /**
+     * Locks a stored attempt's quiz statistics and then the attempt itself, the same order
+     * {@link #storeQuizAttempts} takes them in, with the attempt's current score and duration
+     * already taken out of the statistics. Null if there is no such attempt.
+     */
+    private LockedStatistics lockStoredAttempt(Connection connection, int attemptId) throws SQLException {
+        PreparedStatement ps = connection.prepareStatement("SELECT quizId FROM QuizAttempts WHERE attemptId = ?");
+        ps.setInt(1, attemptId);
+        ResultSet rs = ps.executeQuery();
+        boolean found = rs.next();
+        int quizId = found ? rs.getInt("quizId") : 0;
+        rs.close();
+        ps.close();
+        if (!found) {
+            return null;
+        }
+
+        // an attempt never moves to another quiz, so the row locked here stays the right one
+        LockedStatistics locked = quizStatistics.lock(connection, quizId);
+        ps = connection.prepareStatement("SELECT score, durationAttempted FROM QuizAttempts WHERE attemptId = ? FOR UPDATE");
+        ps.setInt(1, attemptId);
+        rs = ps.executeQuery();
+        found = rs.next();
+        int score = found ? rs.getInt("score") : 0;
+        float durationAttempted = found ? rs.getFloat("durationAttempted") : 0;
+        rs.close();
+        ps.close();
+        if (!found) {
+            return null;
+        }
+        locked.statistics.removeAttempt(score, durationAttempted);
+        return locked;
+    }
+
+    /**
+     * Statements of a transaction that changes quiz statistics; returns the rows it changed.
+     */
+    private interface StatisticsChange {
+        Collection<LockedStatistics> apply(Connection connection) throws SQLException;
+    }
 }
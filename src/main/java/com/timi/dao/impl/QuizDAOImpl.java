@@ -5,10 +5,12 @@ import java.sql.PreparedStatement;
 import java.sql.ResultSet;
 import java.sql.SQLException;
 import java.util.ArrayList;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 
 import com.timi.dao.DatabaseConnection;
-import com.timi.dao.QuestionDAO;
+import com.timi.dao.Page;
 import com.timi.dao.QuizDAO;
 import com.timi.exception.DAOException;
 import com.timi.model.Quiz;
@@ -18,20 +20,16 @@ import com.timi.service.impl.AuditingServiceImpl;
 public class QuizDAOImpl implements QuizDAO{
                                 
         private DatabaseConnection dbConnection;
-        private QuestionDAO questionDAO;
         private AuditingService auditingService;
     
         public QuizDAOImpl() {
             dbConnection = DatabaseConnection.getInstance();
-            questionDAO = new QuestionDAOImpl();
             auditingService = AuditingServiceImpl.getInstance();
         }
 
         @Override
         public void addQuiz(Quiz quiz) throws DAOException {
-            Connection connection = dbConnection.getConnection();
-    
-            try {
+            try (Connection connection = dbConnection.getConnection()) {
                 PreparedStatement ps = connection.prepareStatement("INSERT INTO Quizzes (title, courseId, duration) VALUES (?, ?, ?)");
                 ps.setString(1, quiz.getTitle());
                 ps.setInt(2, quiz.getCourseId());
@@ -46,19 +44,22 @@ public class QuizDAOImpl implements QuizDAO{
 
         @Override
         public Quiz getQuizById(int quizId) throws DAOException {
-            Connection connection = dbConnection.getConnection();
             Quiz quiz = null;
         
-            try {
+            try (Connection connection = dbConnection.getConnection()) {
                 PreparedStatement ps = connection.prepareStatement("SELECT * FROM Quizzes WHERE quizId = ?");
                 ps.setInt(1, quizId);
                 ResultSet rs = ps.executeQuery();
                 if (rs.next()) {
                     quiz = new Quiz(rs.getInt("quizId"), rs.getString("title"), rs.getInt("courseId"), rs.getFloat("duration"));
-                    quiz.setQuestions(questionDAO.getQuestionsByQuizId(quiz.getQuizId())); // Set questions for the quiz
+                    quiz.setQuestions(new ArrayList<>());
                 }
                 rs.close();
                 ps.close();
+
+                if (quiz != null) {
+                    addQuestions(connection, Map.of(quizId, quiz), "SELECT * FROM Questions WHERE quizId = ? ORDER BY questionId", quizId);
+                }
                 auditingService.logCurrentAction();
             } catch (SQLException e) {
                 throw new DAOException("Error getting quiz by ID", e);
@@ -69,56 +70,92 @@ public class QuizDAOImpl implements QuizDAO{
 
         @Override
         public List<Quiz> getAllQuizzes() throws DAOException {
-            Connection connection = dbConnection.getConnection();
-            List<Quiz> quizzes = new ArrayList<>();
+            Map<Integer, Quiz> quizzesById = new LinkedHashMap<>();
         
-            try {
+            try (Connection connection = dbConnection.getConnection()) {
                 PreparedStatement ps = connection.prepareStatement("SELECT * FROM Quizzes");
                 ResultSet rs = ps.executeQuery();
                 while (rs.next()) {
                     Quiz quiz = new Quiz(rs.getInt("quizId"), rs.getString("title"), rs.getInt("courseId"), rs.getFloat("duration"));
-                    quiz.setQuestions(questionDAO.getQuestionsByQuizId(quiz.getQuizId())); // Set questions for the quiz
-                    quizzes.add(quiz);
+                    quiz.setQuestions(new ArrayList<>());
+                    quizzesById.put(quiz.getQuizId(), quiz);
                 }
                 rs.close();
                 ps.close();
+
+                if (!quizzesById.isEmpty()) {
+                    addQuestions(connection, quizzesById, "SELECT * FROM Questions ORDER BY questionId");
+                }
                 auditingService.logCurrentAction();
             } catch (SQLException e) {
                 throw new DAOException("Error getting all quizzes", e);
             }
         
-            return quizzes;
+            return new ArrayList<>(quizzesById.values());
+        }
+
+        @Override
+        public Page<Quiz> getQuizzesPage(String pageToken, int pageSize) throws DAOException {
+            Map<Integer, Quiz> quizzesById = new LinkedHashMap<>();
+
+            try (Connection connection = dbConnection.getConnection()) {
+                PreparedStatement ps = connection.prepareStatement("SELECT * FROM Quizzes WHERE quizId > ? ORDER BY quizId LIMIT ?");
+                ps.setInt(1, Page.decodeToken(pageToken));
+                ps.setInt(2, Page.checkPageSize(pageSize) + 1);
+                ResultSet rs = ps.executeQuery();
+                while (rs.next()) {
+                    Quiz quiz = new Quiz(rs.getInt("quizId"), rs.getString("title"), rs.getInt("courseId"), rs.getFloat("duration"));
+                    quiz.setQuestions(new ArrayList<>());
+                    quizzesById.put(quiz.getQuizId(), quiz);
+                }
+                rs.close();
+                ps.close();
+
+                if (!quizzesById.isEmpty()) {
+                    // questions of every quiz on the page in one query, over the page's key range
+                    List<Integer> quizIds = new ArrayList<>(quizzesById.keySet());
+                    addQuestions(connection, quizzesById, "SELECT * FROM Questions WHERE quizId BETWEEN ? AND ? ORDER BY questionId",
+                            quizIds.get(0), quizIds.get(quizIds.size() - 1));
+                }
+                auditingService.logCurrentAction();
+            } catch (SQLException e) {
+                throw new DAOException("Error getting quizzes page", e);
+            }
+
+            return Page.of(new ArrayList<>(quizzesById.values()), pageSize, Quiz::getQuizId);
         }
 
         @Override
         public List<Quiz> getQuizzesByCourseId(int courseId) throws DAOException {
-            Connection connection = dbConnection.getConnection();
-            List<Quiz> quizzes = new ArrayList<>();
+            Map<Integer, Quiz> quizzesById = new LinkedHashMap<>();
         
-            try {
+            try (Connection connection = dbConnection.getConnection()) {
                 PreparedStatement ps = connection.prepareStatement("SELECT * FROM Quizzes WHERE courseId = ?");
                 ps.setInt(1, courseId);
                 ResultSet rs = ps.executeQuery();
                 while (rs.next()) {
                     Quiz quiz = new Quiz(rs.getInt("quizId"), rs.getString("title"), rs.getInt("courseId"), rs.getFloat("duration"));
-                    quiz.setQuestions(questionDAO.getQuestionsByQuizId(quiz.getQuizId())); // Set questions for the quiz
-                    quizzes.add(quiz);
+                    quiz.setQuestions(new ArrayList<>());
+                    quizzesById.put(quiz.getQuizId(), quiz);
                 }
                 rs.close();
                 ps.close();
+
+                if (!quizzesById.isEmpty()) {
+                    addQuestions(connection, quizzesById,
+                            "SELECT * FROM Questions WHERE quizId IN (SELECT quizId FROM Quizzes WHERE courseId = ?) ORDER BY questionId", courseId);
+                }
                 auditingService.logCurrentAction();
             } catch (SQLException e) {
                 throw new DAOException("Error getting quizzes by course ID", e);
             }
         
-            return quizzes;
+            return new ArrayList<>(quizzesById.values());
         }
 
         @Override
         public void updateQuiz(Quiz quiz) throws DAOException {
-            Connection connection = dbConnection.getConnection();
-    
-            try {
+            try (Connection connection = dbConnection.getConnection()) {
                 PreparedStatement ps = connection.prepareStatement("UPDATE Quizzes SET title = ?, courseId = ?, duration = ? WHERE quizId = ?");
                 ps.setString(1, quiz.getTitle());
                 ps.setInt(2, quiz.getCourseId());
@@ -134,9 +171,7 @@ public class QuizDAOImpl implements QuizDAO{
 
         @Override
         public void deleteQuiz(int quizId) throws DAOException {
-            Connection connection = dbConnection.getConnection();
-    
-            try {
+            try (Connection connection = dbConnection.getConnection()) {
                 PreparedStatement ps = connection.prepareStatement("DELETE FROM Quizzes WHERE quizId = ?");
                 ps.setInt(1, quizId);
                 ps.executeUpdate();
@@ -146,5 +181,25 @@ public class QuizDAOImpl implements QuizDAO{
                 throw new DAOException("Error deleting quiz", e);
             }
         }
+
+        /**
+         * Adds the questions the query returns to their quizzes. Runs on the caller's connection,
+         * so a quiz lookup never holds one pooled connection while waiting for a second.
+         */
+        private static void addQuestions(Connection connection, Map<Integer, Quiz> quizzesById, String sql, int... params) throws SQLException {
+            try (PreparedStatement ps = connection.prepareStatement(sql)) {
+                for (int i = 0; i < params.length; i++) {
+                    ps.setInt(i + 1, params[i]);
+                }
+                try (ResultSet rs = ps.executeQuery()) {
+                    while (rs.next()) {
+                        Quiz quiz = quizzesById.get(rs.getInt("quizId"));
+                        if (quiz != null) {
+                            quiz.getQuestions().add(QuestionDAOImpl.extractQuestionFromResultSet(rs));
+                        }
+                    }
+                }
+            }
+        }
     
 }
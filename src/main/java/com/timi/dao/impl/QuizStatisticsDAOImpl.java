@@ -0,0 +1,255 @@
+package com.timi.dao.impl;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Types;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+
+import com.timi.dao.DatabaseConnection;
+import com.timi.dao.QuizStatisticsDAO;
+import com.timi.exception.DAOException;
+import com.timi.model.QuizStatistics;
+import com.timi.service.AuditingService;
+import com.timi.service.impl.AuditingServiceImpl;
+
+/**
+ * Per-quiz aggregates kept in the {@code QuizStatistics} table and mirrored in memory, so reading
+ * them costs no query once a quiz has been seen. {@link QuizAttemptDAOImpl} changes a quiz's row
+ * under a row lock in the same transaction as the attempts themselves and publishes the new value
+ * here after commit; every change bumps the row's revision, so a publish that arrives late cannot
+ * overwrite a newer one. A quiz without a row is summarised from its attempts the first time it is
+ * locked.
+ * <p>
+ * Holding the row lock until commit serialises every submission to the same quiz, which is what
+ * keeps the aggregates exact; submissions to different quizzes do not wait on each other.
+ */
+public class QuizStatisticsDAOImpl implements QuizStatisticsDAO {
+
+    static final int MAX_DEADLOCK_RETRIES = 3;
+    // revision of a row created only so there is something to lock; its columns are not filled in yet
+    private static final long UNSUMMARISED = -1;
+
+    private static QuizStatisticsDAOImpl instance;
+
+    private DatabaseConnection dbConnection;
+    private AuditingService auditingService;
+    private final Map<Integer, LockedStatistics> statisticsByQuiz = new ConcurrentHashMap<>();
+
+    private QuizStatisticsDAOImpl() {
+        dbConnection = DatabaseConnection.getInstance();
+        auditingService = AuditingServiceImpl.getInstance();
+    }
+
+    public static synchronized QuizStatisticsDAOImpl getInstance() {
+        if (instance == null) {
+            instance = new QuizStatisticsDAOImpl();
+        }
+        return instance;
+    }
+
+    @Override
+    public QuizStatistics getQuizStatistics(int quizId) throws DAOException {
+        LockedStatistics cached = statisticsByQuiz.get(quizId);
+        if (cached == null) {
+            try (Connection connection = dbConnection.getConnection()) {
+                connection.setAutoCommit(false);
+                for (int attempt = 0; ; attempt++) {
+                    try {
+                        LockedStatistics loaded = lock(connection, quizId);
+                        connection.commit();
+                        publish(loaded);
+                        break;
+                    } catch (SQLException e) {
+                        connection.rollback();
+                        if (!isDeadlock(e) || attempt == MAX_DEADLOCK_RETRIES) {
+                            throw e;
+                        }
+                    }
+                }
+                cached = statisticsByQuiz.get(quizId);
+                auditingService.logCurrentAction();
+            } catch (SQLException e) {
+                throw new DAOException("Error getting quiz statistics", e);
+            }
+        }
+        return new QuizStatistics(cached.statistics);
+    }
+
+    /**
+     * Drops the in-memory copy, e.g. after the quiz itself was deleted.
+     */
+    @Override
+    public void evict(int quizId) {
+        statisticsByQuiz.remove(quizId);
+    }
+
+    /**
+     * Locks the quiz's row for the rest of the caller's transaction and returns a private copy of
+     * it to change, creating the row from the quiz's current attempts if there is none yet. The row
+     * is created before it is locked: {@code SELECT ... FOR UPDATE} on a missing key only takes a
+     * gap lock, and two transactions holding it would deadlock on their inserts.
+     */
+    LockedStatistics lock(Connection connection, int quizId) throws SQLException {
+        PreparedStatement insert = connection.prepareStatement("INSERT INTO QuizStatistics (quizId, revision, attemptCount, scoreSum, scoreSumOfSquares, scoreHistogram, durationHistogram) VALUES (?, ?, 0, 0, 0, '', '') ON DUPLICATE KEY UPDATE quizId = quizId");
+        insert.setInt(1, quizId);
+        insert.setLong(2, UNSUMMARISED);
+        insert.executeUpdate();
+        insert.close();
+
+        LockedStatistics locked = selectForUpdate(connection, quizId);
+        if (locked.revision != UNSUMMARISED) {
+            return locked;
+        }
+
+        LockedStatistics built = new LockedStatistics(0, summariseAttempts(connection, quizId));
+        PreparedStatement update = connection.prepareStatement("UPDATE QuizStatistics SET revision = ?, attemptCount = ?, scoreSum = ?, scoreSumOfSquares = ?, minScore = ?, maxScore = ?, scoreHistogram = ?, durationHistogram = ? WHERE quizId = ?");
+        bindRow(update, built);
+        update.executeUpdate();
+        update.close();
+        return built;
+    }
+
+    /**
+     * Whether the transaction was rolled back as a deadlock victim and can simply be run again.
+     */
+    static boolean isDeadlock(SQLException e) {
+        return "40001".equals(e.getSQLState());
+    }
+
+    /**
+     * Writes back a row taken with {@link #lock}, as the next revision.
+     */
+    void save(Connection connection, LockedStatistics locked) throws SQLException {
+        locked.revision++;
+        PreparedStatement ps = connection.prepareStatement("UPDATE QuizStatistics SET revision = ?, attemptCount = ?, scoreSum = ?, scoreSumOfSquares = ?, minScore = ?, maxScore = ?, scoreHistogram = ?, durationHistogram = ? WHERE quizId = ?");
+        bindRow(ps, locked);
+        ps.executeUpdate();
+        ps.close();
+    }
+
+    /**
+     * Makes a committed row visible to readers, unless a newer revision already is.
+     */
+    void publish(LockedStatistics committed) {
+        statisticsByQuiz.merge(committed.statistics.getQuizId(), committed,
+                (current, offered) -> offered.revision > current.revision ? offered : current);
+    }
+
+    private LockedStatistics selectForUpdate(Connection connection, int quizId) throws SQLException {
+        LockedStatistics locked = null;
+        PreparedStatement ps = connection.prepareStatement("SELECT * FROM QuizStatistics WHERE quizId = ? FOR UPDATE");
+        ps.setInt(1, quizId);
+        ResultSet rs = ps.executeQuery();
+        if (rs.next()) {
+            QuizStatistics statistics = new QuizStatistics(quizId);
+            statistics.setAttemptCount(rs.getInt("attemptCount"));
+            statistics.setScoreSum(rs.getLong("scoreSum"));
+            statistics.setScoreSumOfSquares(rs.getLong("scoreSumOfSquares"));
+            statistics.setScoreHistogram(decodeScoreHistogram(rs.getString("scoreHistogram")));
+            statistics.setDurationHistogram(decodeDurationHistogram(rs.getString("durationHistogram")));
+            locked = new LockedStatistics(rs.getLong("revision"), statistics);
+        }
+        rs.close();
+        ps.close();
+        return locked;
+    }
+
+    private QuizStatistics summariseAttempts(Connection connection, int quizId) throws SQLException {
+        QuizStatistics statistics = new QuizStatistics(quizId);
+        PreparedStatement ps = connection.prepareStatement("SELECT score, durationAttempted FROM QuizAttempts WHERE quizId = ?");
+        ps.setInt(1, quizId);
+        ResultSet rs = ps.executeQuery();
+        while (rs.next()) {
+            statistics.addAttempt(rs.getInt("score"), rs.getFloat("durationAttempted"));
+        }
+        rs.close();
+        ps.close();
+        return statistics;
+    }
+
+    private static void bindRow(PreparedStatement ps, LockedStatistics locked) throws SQLException {
+        QuizStatistics statistics = locked.statistics;
+        ps.setLong(1, locked.revision);
+        ps.setInt(2, statistics.getAttemptCount());
+        ps.setLong(3, statistics.getScoreSum());
+        ps.setLong(4, statistics.getScoreSumOfSquares());
+        setNullableInt(ps, 5, statistics.getMinScore());
+        setNullableInt(ps, 6, statistics.getMaxScore());
+        ps.setString(7, encodeScoreHistogram(statistics.getScoreHistogram()));
+        ps.setString(8, encodeDurationHistogram(statistics.getDurationHistogram()));
+        ps.setInt(9, statistics.getQuizId());
+    }
+
+    private static void setNullableInt(PreparedStatement ps, int index, Integer value) throws SQLException {
+        if (value == null) {
+            ps.setNull(index, Types.INTEGER);
+        } else {
+            ps.setInt(index, value);
+        }
+    }
+
+    /**
+     * {@code score:count} pairs separated by commas, e.g. {@code 3:10,4:2}.
+     */
+    static String encodeScoreHistogram(Map<Integer, Integer> scoreCounts) {
+        List<String> pairs = new ArrayList<>(scoreCounts.size());
+        for (Map.Entry<Integer, Integer> entry : scoreCounts.entrySet()) {
+            pairs.add(entry.getKey() + ":" + entry.getValue());
+        }
+        return String.join(",", pairs);
+    }
+
+    static Map<Integer, Integer> decodeScoreHistogram(String encoded) {
+        Map<Integer, Integer> scoreCounts = new TreeMap<>();
+        if (encoded == null || encoded.isEmpty()) {
+            return scoreCounts;
+        }
+        for (String pair : encoded.split(",")) {
+            int separator = pair.indexOf(':');
+            scoreCounts.put(Integer.parseInt(pair.substring(0, separator)), Integer.parseInt(pair.substring(separator + 1)));
+        }
+        return scoreCounts;
+    }
+
+    static String encodeDurationHistogram(int[] durationCounts) {
+        StringBuilder encoded = new StringBuilder();
+        for (int i = 0; i < durationCounts.length; i++) {
+            if (i > 0) {
+                encoded.append(',');
+            }
+            encoded.append(durationCounts[i]);
+        }
+        return encoded.toString();
+    }
+
+    static int[] decodeDurationHistogram(String encoded) {
+        int[] durationCounts = new int[QuizStatistics.DURATION_BUCKET_BOUNDS.length + 1];
+        if (encoded == null || encoded.isEmpty()) {
+            return durationCounts;
+        }
+        String[] counts = encoded.split(",");
+        for (int i = 0; i < counts.length && i < durationCounts.length; i++) {
+            durationCounts[i] = Integer.parseInt(counts[i]);
+        }
+        return durationCounts;
+    }
+
+    /**
+     * A quiz's row as read under lock, with the revision it will be written back as.
+     */
+    static final class LockedStatistics {
+        private long revision;
+        final QuizStatistics statistics;
+
+        private LockedStatistics(long revision, QuizStatistics statistics) {
+            this.revision = revision;
+            this.statistics = statistics;
+        }
+    }
+}
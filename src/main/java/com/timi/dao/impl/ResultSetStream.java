@@ -0,0 +1,101 @@
+package com.timi.dao.impl;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+import com.timi.dao.DatabaseConnection;
+import com.timi.exception.DAOException;
+import com.timi.exception.UncheckedDAOException;
+
+/**
+ * Lazily populated {@link Stream} over a forward-only, read-only result set. Rows are fetched from
+ * the server as the stream is consumed, so memory use does not grow with the size of the table. The
+ * stream owns its connection, statement and result set and releases them when it is closed, so it
+ * must be used in a try-with-resources block.
+ */
+final class ResultSetStream {
+
+    private static final int FETCH_SIZE = Integer.getInteger("db.streamFetchSize", 1000);
+
+    /**
+     * Reads the next element from the result set, advancing it as needed. Returns null once the
+     * result set is exhausted.
+     */
+    interface RowReader<T> {
+        T read(ResultSet rs) throws SQLException;
+    }
+
+    private ResultSetStream() {
+    }
+
+    static <T> Stream<T> open(DatabaseConnection dbConnection, String errorMessage, String sql, RowReader<T> reader, int... params) throws DAOException {
+        Connection connection = null;
+        PreparedStatement ps = null;
+        ResultSet rs;
+        try {
+            connection = dbConnection.getConnection();
+            ps = connection.prepareStatement(sql, ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY);
+            ps.setFetchSize(fetchSize(connection));
+            for (int i = 0; i < params.length; i++) {
+                ps.setInt(i + 1, params[i]);
+            }
+            rs = ps.executeQuery();
+        } catch (SQLException e) {
+            DAOException exception = new DAOException(errorMessage, e);
+            try {
+                close(connection, ps, null);
+            } catch (SQLException closeError) {
+                exception.addSuppressed(closeError);
+            }
+            throw exception;
+        }
+
+        Connection streamConnection = connection;
+        PreparedStatement streamStatement = ps;
+        Spliterator<T> spliterator = new Spliterators.AbstractSpliterator<T>(Long.MAX_VALUE, Spliterator.ORDERED | Spliterator.NONNULL) {
+            @Override
+            public boolean tryAdvance(Consumer<? super T> action) {
+                T next;
+                try {
+                    next = reader.read(rs);
+                } catch (SQLException e) {
+                    throw new UncheckedDAOException(new DAOException(errorMessage, e));
+                }
+                if (next == null) {
+                    return false;
+                }
+                action.accept(next);
+                return true;
+            }
+        };
+        return StreamSupport.stream(spliterator, false).onClose(() -> {
+            try {
+                close(streamConnection, streamStatement, rs);
+            } catch (SQLException e) {
+                throw new UncheckedDAOException(new DAOException(errorMessage, e));
+            }
+        });
+    }
+
+    /**
+     * MySQL Connector/J only streams rows one at a time when the fetch size is
+     * {@code Integer.MIN_VALUE}; other drivers fetch in batches of a regular fetch size.
+     */
+    private static int fetchSize(Connection connection) throws SQLException {
+        String url = connection.getMetaData().getURL();
+        return url != null && url.startsWith("jdbc:mysql:") ? Integer.MIN_VALUE : FETCH_SIZE;
+    }
+
+    private static void close(Connection connection, PreparedStatement ps, ResultSet rs) throws SQLException {
+        try (connection; ps; rs) {
+            // closed in reverse order: result set, statement, then the connection goes back to the pool
+        }
+    }
+}
@@ -0,0 +1,85 @@
+package com.timi.dao.impl;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import com.timi.dao.DatabaseConnection;
+import com.timi.dao.TableFingerprint;
+import com.timi.dao.TableFingerprintDAO;
+import com.timi.exception.DAOException;
+
+/**
+ * Computes table fingerprints on the server by summing a 60-bit slice of each row's MD5 over every
+ * column, so only one row per table travels over the wire. The checksum covers whole rows and does
+ * not depend on row order, which lets a caller check that the rows up to a high-water mark are
+ * untouched and only newer rows need fetching. A linear row hash such as CRC32 combined with XOR
+ * would not do: matching edits to rows of equal length, like two users swapping points, cancel out.
+ */
+public class TableFingerprintDAOImpl implements TableFingerprintDAO {
+
+    private static final Map<String, String[]> TRACKED_TABLES = new LinkedHashMap<>();
+
+    static {
+        // first column is the key the high-water mark is kept on
+        TRACKED_TABLES.put("Courses", new String[] {"courseId", "title", "description", "instructor", "level", "price", "duration", "category"});
+        TRACKED_TABLES.put("Quizzes", new String[] {"quizId", "title", "courseId", "duration"});
+        TRACKED_TABLES.put("Questions", new String[] {"questionId", "content", "options", "correctOptionIndex", "quizId"});
+        TRACKED_TABLES.put("QuizAttempts", new String[] {"attemptId", "userId", "quizId", "timestamp", "score", "durationAttempted", "submissionKey"});
+        TRACKED_TABLES.put("QuizAttemptQuestions", new String[] {"attemptId", "questionId", "selectedOptionIndex"});
+        TRACKED_TABLES.put("Users", new String[] {"id", "email", "username", "password", "role", "level", "points", "department", "dateOfEmployment", "telephone"});
+        TRACKED_TABLES.put("UserCourses", new String[] {"userId", "courseId"});
+        TRACKED_TABLES.put("Applications", new String[] {"applicationId", "userId", "courseId", "applicationLetter", "status", "applicationDate", "approvalDate"});
+    }
+
+    private DatabaseConnection dbConnection;
+
+    public TableFingerprintDAOImpl() {
+        dbConnection = DatabaseConnection.getInstance();
+    }
+
+    @Override
+    public Map<String, TableFingerprint> getFingerprints() throws DAOException {
+        Map<String, TableFingerprint> fingerprints = new LinkedHashMap<>();
+        try (Connection connection = dbConnection.getConnection()) {
+            for (String table : TRACKED_TABLES.keySet()) {
+                fingerprints.put(table, fingerprint(connection, table, null));
+            }
+        } catch (SQLException e) {
+            throw new DAOException("Error computing table fingerprints", e);
+        }
+        return fingerprints;
+    }
+
+    @Override
+    public TableFingerprint getFingerprint(String table, int maxKey) throws DAOException {
+        try (Connection connection = dbConnection.getConnection()) {
+            return fingerprint(connection, table, maxKey);
+        } catch (SQLException e) {
+            throw new DAOException("Error computing fingerprint of " + table, e);
+        }
+    }
+
+    private TableFingerprint fingerprint(Connection connection, String table, Integer maxKey) throws SQLException {
+        String[] columns = TRACKED_TABLES.get(table);
+        if (columns == null) {
+            throw new IllegalArgumentException("Unknown table: " + table);
+        }
+
+        String sql = "SELECT COUNT(*), COALESCE(MAX(" + columns[0] + "), 0), COALESCE(SUM(CAST(CONV(LEFT(MD5(CONCAT_WS('|', " + String.join(", ", columns) + ")), 15), 16, 10) AS UNSIGNED)), 0) FROM " + table
+                + (maxKey != null ? " WHERE " + columns[0] + " <= ?" : "");
+        try (PreparedStatement ps = connection.prepareStatement(sql)) {
+            if (maxKey != null) {
+                ps.setInt(1, maxKey);
+            }
+            try (ResultSet rs = ps.executeQuery()) {
+                rs.next();
+                // the sum can outgrow a BIGINT; its low 64 bits are plenty for a checksum
+                return new TableFingerprint(rs.getLong(1), rs.getInt(2), rs.getBigDecimal(3).longValue());
+            }
+        }
+    }
+}
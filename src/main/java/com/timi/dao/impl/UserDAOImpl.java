@@ -7,10 +7,13 @@ import java.sql.SQLException;
 import java.sql.Types;
 import java.util.ArrayList;
 import java.util.Date;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.stream.Stream;
 
-import com.timi.dao.CourseDAO;
 import com.timi.dao.DatabaseConnection;
+import com.timi.dao.Page;
 import com.timi.dao.UserDAO;
 import com.timi.exception.*;
 import com.timi.model.*;
@@ -19,21 +22,18 @@ import com.timi.service.impl.AuditingServiceImpl;
 
 public class UserDAOImpl implements UserDAO {
     private DatabaseConnection dbConnection;
-    private CourseDAO courseDAO;
     private AuditingService auditingService;
 
     public UserDAOImpl() {
         dbConnection = DatabaseConnection.getInstance();
-        courseDAO = new CourseDAOImpl();
         auditingService = AuditingServiceImpl.getInstance();
     }
 
     @Override
     public void addUser(User user) {
-        Connection connection = dbConnection.getConnection();
-        try {
+        try (Connection connection = dbConnection.getConnection()) {
 
-            if (emailExists(user.getEmail())) {
+            if (emailExists(connection, user.getEmail())) {
                 System.out.println("Failed to add user!");
                 throw new EmailAlreadyExistsException("\nEmail already exists: " + user.getEmail());
             }
@@ -101,23 +101,30 @@ public class UserDAOImpl implements UserDAO {
     }
 
     private boolean emailExists(String email) throws SQLException {
-        Connection connection = dbConnection.getConnection();
-        PreparedStatement ps = connection.prepareStatement("SELECT COUNT(*) FROM Users WHERE email = ?");
-        ps.setString(1, email);
-        ResultSet rs = ps.executeQuery();
-        if (rs.next()) {
-            int count = rs.getInt(1);
-            return count > 0;
+        try (Connection connection = dbConnection.getConnection()) {
+            return emailExists(connection, email);
+        }
+    }
+
+    // on the caller's connection, so addUser and updateUser hold only one pooled connection
+    private static boolean emailExists(Connection connection, String email) throws SQLException {
+        try (PreparedStatement ps = connection.prepareStatement("SELECT COUNT(*) FROM Users WHERE email = ?")) {
+            ps.setString(1, email);
+            try (ResultSet rs = ps.executeQuery()) {
+                if (rs.next()) {
+                    int count = rs.getInt(1);
+                    return count > 0;
+                }
+            }
         }
         return false;
     }
 
     @Override
    public User getUserById(int userId) {
-        Connection connection = dbConnection.getConnection();
         User user = null;
 
-        try {
+        try (Connection connection = dbConnection.getConnection()) {
             PreparedStatement preparedStatement = connection.prepareStatement("SELECT * FROM Users WHERE id = ?");
             preparedStatement.setInt(1, userId);
             ResultSet resultSet = preparedStatement.executeQuery();
@@ -151,62 +158,137 @@ public class UserDAOImpl implements UserDAO {
         return user;
     }
 
-   @Override
-public List<User> getAllUsers() throws DAOException {
-    Connection connection = dbConnection.getConnection();
-    List<User> users = new ArrayList<>();
-
-    try {
-        PreparedStatement preparedStatement = connection.prepareStatement("SELECT * FROM Users");
-        ResultSet resultSet = preparedStatement.executeQuery();
-
-        while (resultSet.next()) {
-            int userId = resultSet.getInt("id");
-            String email = resultSet.getString("email");
-            String username = resultSet.getString("username");
-            String password = resultSet.getString("password");
-            String role = resultSet.getString("role");
-
-            if (role.equals("STUDENT")) {
-                int points = resultSet.getInt("points");
-                String level = resultSet.getString("level");
-                Student student = new Student(userId, email, username, password, Level.valueOf(level), points);
-                List<Course> enrolledCourses = courseDAO.getUserCourses(userId);
-                student.setEnrolledCourses(enrolledCourses);
-                users.add(student);
-            } else if (role.equals("INSTRUCTOR")) {
-                String department = resultSet.getString("department");
-                Date dateOfEmployment = resultSet.getDate("dateOfEmployment");
-                Instructor instructor = new Instructor(userId, email, username, password, dateOfEmployment, department);
-                List<Course> teachingCourses = courseDAO.getUserCourses(userId); 
-                instructor.setTeachingCourses(teachingCourses);
-                users.add(instructor);
-            } else if (role.equals("ADMIN")) {
-                String telephone = resultSet.getString("telephone");
-                users.add(new Admin(userId, email, username, password, telephone));
+    @Override
+    public List<User> getAllUsers() throws DAOException {
+        List<User> users = new ArrayList<>();
+
+        try (Connection connection = dbConnection.getConnection()) {
+            Map<Integer, List<Course>> coursesByUser = loadCoursesByUser(connection, "");
+
+            PreparedStatement preparedStatement = connection.prepareStatement("SELECT * FROM Users");
+            ResultSet resultSet = preparedStatement.executeQuery();
+
+            while (resultSet.next()) {
+                User user = extractUserFromResultSet(resultSet, coursesByUser);
+                if (user != null) {
+                    users.add(user);
+                }
             }
+
+            resultSet.close();
+            preparedStatement.close();
+            auditingService.logCurrentAction();
+        } catch (SQLException e) {
+            e.printStackTrace();
         }
 
-        resultSet.close();
-        preparedStatement.close();
-        auditingService.logCurrentAction();
-    } catch (SQLException e) {
-        e.printStackTrace();
+        return users;
     }
 
-    return users;
-}
+    @Override
+    public Page<User> getUsersPage(String pageToken, int pageSize) throws DAOException {
+        List<User> users = new ArrayList<>();
+
+        try (Connection connection = dbConnection.getConnection()) {
+            int afterId = Page.decodeToken(pageToken);
+            PreparedStatement preparedStatement = connection.prepareStatement("SELECT * FROM Users WHERE id > ? ORDER BY id LIMIT ?");
+            preparedStatement.setInt(1, afterId);
+            preparedStatement.setInt(2, Page.checkPageSize(pageSize) + 1);
+            ResultSet resultSet = preparedStatement.executeQuery();
+
+            // courses are attached once the page's id range is known
+            List<User> rows = new ArrayList<>();
+            while (resultSet.next()) {
+                User user = extractUserFromResultSet(resultSet, new HashMap<>());
+                if (user != null) {
+                    rows.add(user);
+                }
+            }
+            resultSet.close();
+            preparedStatement.close();
+
+            if (!rows.isEmpty()) {
+                Map<Integer, List<Course>> coursesByUser = loadCoursesByUser(connection, " WHERE uc.userId > ? AND uc.userId <= ?",
+                        afterId, rows.get(rows.size() - 1).getId());
+                for (User user : rows) {
+                    List<Course> userCourses = coursesByUser.getOrDefault(user.getId(), new ArrayList<>());
+                    if (user instanceof Student) {
+                        ((Student) user).setEnrolledCourses(userCourses);
+                    } else if (user instanceof Instructor) {
+                        ((Instructor) user).setTeachingCourses(userCourses);
+                    }
+                }
+            }
+            users = rows;
+            auditingService.logCurrentAction();
+        } catch (SQLException e) {
+            throw new DAOException("Error getting users page", e);
+        }
+
+        return Page.of(users, pageSize, User::getId);
+    }
+
+    private User extractUserFromResultSet(ResultSet resultSet, Map<Integer, List<Course>> coursesByUser) throws SQLException {
+        int userId = resultSet.getInt("id");
+        String email = resultSet.getString("email");
+        String username = resultSet.getString("username");
+        String password = resultSet.getString("password");
+        String role = resultSet.getString("role");
+
+        if (role.equals("STUDENT")) {
+            int points = resultSet.getInt("points");
+            String level = resultSet.getString("level");
+            Student student = new Student(userId, email, username, password, Level.valueOf(level), points);
+            student.setEnrolledCourses(coursesByUser.getOrDefault(userId, new ArrayList<>()));
+            return student;
+        } else if (role.equals("INSTRUCTOR")) {
+            String department = resultSet.getString("department");
+            Date dateOfEmployment = resultSet.getDate("dateOfEmployment");
+            Instructor instructor = new Instructor(userId, email, username, password, dateOfEmployment, department);
+            instructor.setTeachingCourses(coursesByUser.getOrDefault(userId, new ArrayList<>()));
+            return instructor;
+        } else if (role.equals("ADMIN")) {
+            String telephone = resultSet.getString("telephone");
+            return new Admin(userId, email, username, password, telephone);
+        }
+        return null;
+    }
+
+    /**
+     * Courses of every user from a single UserCourses/Courses join, so getAllUsers does not need
+     * one query per user. A course taken by several users is materialized once and shared.
+     */
+    private Map<Integer, List<Course>> loadCoursesByUser(Connection connection, String whereClause, int... params) throws SQLException {
+        Map<Integer, List<Course>> coursesByUser = new HashMap<>();
+        Map<Integer, Course> coursesById = new HashMap<>();
+        try (PreparedStatement ps = connection.prepareStatement("SELECT uc.userId, c.* FROM UserCourses uc JOIN Courses c ON c.courseId = uc.courseId" + whereClause + " ORDER BY uc.userId, c.courseId")) {
+            for (int i = 0; i < params.length; i++) {
+                ps.setInt(i + 1, params[i]);
+            }
+            try (ResultSet rs = ps.executeQuery()) {
+                while (rs.next()) {
+                    int courseId = rs.getInt("courseId");
+                    Course course = coursesById.get(courseId);
+                    if (course == null) {
+                        course = CourseDAOImpl.extractCourseFromResultSet(rs);
+                        coursesById.put(courseId, course);
+                    }
+                    coursesByUser.computeIfAbsent(rs.getInt("userId"), id -> new ArrayList<>()).add(course);
+                }
+            }
+        }
+        return coursesByUser;
+    }
 
     @Override
     public void updateUser(User user) throws InvalidEmailException {
-        Connection connection = dbConnection.getConnection();
-        try {
-            if (emailExists(user.getEmail())) {
+        try (Connection connection = dbConnection.getConnection();
+             PreparedStatement ps = connection.prepareStatement("UPDATE Users SET email = ?, username = ?, password = ?, role = ?, level = ?, points = ?, department = ?, dateOfEmployment = ?, telephone = ? WHERE id = ?")) {
+            if (emailExists(connection, user.getEmail())) {
                 System.out.println("Failed to update user!");
                 throw new EmailAlreadyExistsException("\nEmail already exists: " + user.getEmail());
             }
 
-            PreparedStatement ps = connection.prepareStatement("UPDATE Users SET email = ?, username = ?, password = ?, role = ?, level = ?, points = ?, department = ?, dateOfEmployment = ?, telephone = ? WHERE id = ?");
             ps.setString(1, user.getEmail());
             ps.setString(2, user.getUsername());
             ps.setString(3, user.getPassword());
@@ -260,9 +342,8 @@ public List<User> getAllUsers() throws DAOException {
 
     @Override
     public void deleteUser(int userId) {
-        Connection connection = dbConnection.getConnection();
-        try {
-            PreparedStatement ps = connection.prepareStatement("DELETE FROM Users WHERE id = ?");
+        try (Connection connection = dbConnection.getConnection();
+             PreparedStatement ps = connection.prepareStatement("DELETE FROM Users WHERE id = ?")) {
             ps.setInt(1, userId);
             ps.executeUpdate();
             auditingService.logCurrentAction();
@@ -273,25 +354,47 @@ public List<User> getAllUsers() throws DAOException {
     }
 
     @Override
-    public void addCourseToUser(int userId, int courseId) {
-        Connection connection = dbConnection.getConnection();
-        try {
-            PreparedStatement ps = connection.prepareStatement("INSERT INTO UserCourses (userId, courseId) VALUES (?, ?)");
+    public void addCourseToUser(int userId, int courseId) throws DAOException {
+        try (Connection connection = dbConnection.getConnection();
+             PreparedStatement ps = connection.prepareStatement("INSERT INTO UserCourses (userId, courseId) VALUES (?, ?)")) {
             ps.setInt(1, userId);
             ps.setInt(2, courseId);
             ps.executeUpdate();
             auditingService.logCurrentAction();
         } catch (SQLException e) {
-            e.printStackTrace();
+            throw new DAOException("Error adding course to user", e);
         }
     }
 
+    /**
+     * Streams every UserCourses row, ordered by user.
+     */
+    @Override
+    public Stream<Enrollment> streamEnrollments() throws DAOException {
+        Stream<Enrollment> enrollments = ResultSetStream.open(dbConnection, "Error streaming enrollments",
+                "SELECT userId, courseId FROM UserCourses ORDER BY userId, courseId",
+                rs -> rs.next() ? new Enrollment(rs.getInt("userId"), rs.getInt("courseId")) : null);
+        auditingService.logCurrentAction();
+        return enrollments;
+    }
+
+    /**
+     * Streams every student with only the id and points set, for callers that only rank them.
+     */
+    @Override
+    public Stream<Student> streamStudentPoints() throws DAOException {
+        Stream<Student> students = ResultSetStream.open(dbConnection, "Error streaming student points",
+                "SELECT id, points FROM Users WHERE role = 'STUDENT'",
+                rs -> rs.next() ? new Student(rs.getInt("id"), null, null, null, null, rs.getInt("points")) : null);
+        auditingService.logCurrentAction();
+        return students;
+    }
+
     @Override
     public User authenticateUser(String email, String password) {
-        Connection connection = dbConnection.getConnection();
         User user = null;
 
-        try {
+        try (Connection connection = dbConnection.getConnection()) {
             PreparedStatement preparedStatement = connection.prepareStatement("SELECT * FROM Users WHERE email = ? AND password = ?");
             preparedStatement.setString(1, email);
             preparedStatement.setString(2, password);
@@ -0,0 +1,17 @@
+package com.timi.exception;
+
+/**
+ * Wraps a {@link DAOException} raised where a checked exception cannot be thrown, such as while a
+ * database-backed stream is being consumed.
+ */
+public class UncheckedDAOException extends RuntimeException {
+
+    public UncheckedDAOException(DAOException cause) {
+        super(cause.getMessage(), cause);
+    }
+
+    @Override
+    public DAOException getCause() {
+        return (DAOException) super.getCause();
+    }
+}
@@ -19,7 +19,8 @@ public class AdminMenu extends Menu {
             System.out.println("1. Create User");
             System.out.println("2. Update User");
             System.out.println("3. Delete User");
-            System.out.println("4. Logout");
+            System.out.println("4. Enroll Student in Course");
+            System.out.println("5. Logout");
 
             int choice = scanner.nextInt();
             scanner.nextLine();  
@@ -35,6 +36,9 @@ public class AdminMenu extends Menu {
                     deleteUser();
                     break;
                 case 4:
+                    enrollStudent();
+                    break;
+                case 5:
                     Menu.setLoggedInUser(null);;
                     return;
                 default:
@@ -120,6 +124,22 @@ public class AdminMenu extends Menu {
         System.out.println("User updated successfully.");
     }
 
+    private static void enrollStudent() {
+        System.out.println("Enrolling a student in a course");
+        System.out.print("Enter user ID: ");
+        int userId = scanner.nextInt();
+        System.out.print("Enter course ID: ");
+        int courseId = scanner.nextInt();
+        scanner.nextLine();
+
+        try {
+            elearningService.enrollInCourse(userId, courseId);
+            System.out.println("Student enrolled successfully.");
+        } catch (DAOException e) {
+            System.out.println("Error enrolling student: " + e.getMessage());
+        }
+    }
+
     private static void deleteUser() {
         System.out.println("Deleting a user");
         System.out.print("Enter user ID: ");
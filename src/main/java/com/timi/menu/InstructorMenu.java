@@ -21,7 +21,8 @@ public class InstructorMenu extends Menu {
             System.out.println("2. Edit Course");
             System.out.println("3. Add Quiz");
             System.out.println("4. Add Question");
-            System.out.println("5. Logout");
+            System.out.println("5. View Quiz Statistics");
+            System.out.println("6. Logout");
 
             int choice = scanner.nextInt();
             scanner.nextLine();  
@@ -40,6 +41,9 @@ public class InstructorMenu extends Menu {
                     addQuestion();
                     break;
                 case 5:
+                    viewQuizStatistics();
+                    break;
+                case 6:
                     Menu.setLoggedInUser(null);
                     return;
                 default:
@@ -159,6 +163,31 @@ public class InstructorMenu extends Menu {
         }
     }
 
+    private static void viewQuizStatistics() {
+        System.out.print("Enter quiz ID: ");
+        int quizId = scanner.nextInt();
+        scanner.nextLine();
+
+        try {
+            QuizStatistics statistics = elearningService.getQuizStatistics(quizId);
+            System.out.println("Attempts: " + statistics.getAttemptCount());
+            if (statistics.getAttemptCount() == 0) {
+                return;
+            }
+            System.out.printf("Average score: %.2f (standard deviation %.2f)%n", statistics.getAverageScore(), statistics.getScoreStandardDeviation());
+            System.out.println("Lowest score: " + statistics.getMinScore() + ", highest score: " + statistics.getMaxScore());
+            System.out.println("Attempts per score: " + statistics.getScoreHistogram());
+            int[] durations = statistics.getDurationHistogram();
+            int[] bounds = QuizStatistics.DURATION_BUCKET_BOUNDS;
+            for (int i = 0; i < durations.length; i++) {
+                String range = i < bounds.length ? "under " + bounds[i] + "s" : bounds[bounds.length - 1] + "s or more";
+                System.out.println("  " + range + ": " + durations[i]);
+            }
+        } catch (DAOException e) {
+            System.out.println("Error getting quiz statistics: " + e.getMessage());
+        }
+    }
+
     private static void addQuestion() {
         Question question = new Question();
         System.out.println("Adding a new question");
@@ -2,11 +2,17 @@ package com.timi.menu;
 
 import java.sql.Date;
 import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.EnumSet;
 import java.util.List;
+import java.util.Locale;
+import java.util.Map;
 import java.util.Scanner;
+import java.util.UUID;
 import java.time.LocalDateTime;
 import java.time.temporal.ChronoUnit;
 
+import com.timi.dao.Page;
 import com.timi.service.ElearningService;
 import com.timi.service.impl.ElearningServiceImpl;
 import com.timi.exception.DAOException;
@@ -16,6 +22,9 @@ public class StudentMenu extends Menu {
 
     private static Scanner scanner = new Scanner(System.in);
     private static ElearningService elearningService = new ElearningServiceImpl();
+    private static final int PAGE_SIZE = 10;
+    private static final int LEADERBOARD_SIZE = 10;
+    private static final int RECOMMENDATIONS = 5;
 
     @Override
     public void show() throws DAOException {
@@ -27,7 +36,9 @@ public class StudentMenu extends Menu {
             System.out.println("4. View your quizzes attempts");
             System.out.println("5. View all courses available");
             System.out.println("6. View all quizzes available");
-            System.out.println("7. Logout");
+            System.out.println("7. View leaderboard");
+            System.out.println("8. View recommended courses");
+            System.out.println("9. Logout");
 
             int choice = scanner.nextInt();
             scanner.nextLine();  
@@ -52,6 +63,12 @@ public class StudentMenu extends Menu {
                     viewQuizzes();
                     break;
                 case 7:
+                    viewLeaderboard();
+                    break;
+                case 8:
+                    viewRecommendedCourses();
+                    break;
+                case 9:
                     Menu.setLoggedInUser(null);
                     return;
                 default:
@@ -64,16 +81,23 @@ public class StudentMenu extends Menu {
         System.out.println("Searching for a course by name");
         System.out.print("Enter course name: ");
         String courseName = scanner.nextLine();
-        scanner.nextLine();
 
-        try{
-            Course course = elearningService.getCourseByName(courseName);
-
-        if (course != null) {
-            System.out.println(course);
-        } else {
-            System.out.println("Course not found.");
-        }
+        try {
+            String pageToken = null;
+            do {
+                Page<Course> page = elearningService.searchCourses(courseName, pageToken, PAGE_SIZE);
+                if (pageToken == null && page.getItems().isEmpty()) {
+                    System.out.println("Course not found.");
+                    List<String> suggestions = elearningService.completeCourseTitle(courseName, 5);
+                    if (!suggestions.isEmpty()) {
+                        System.out.println("Courses starting with \"" + courseName.trim() + "\": " + String.join(", ", suggestions));
+                    }
+                }
+                for (Course course : page.getItems()) {
+                    System.out.println(course);
+                }
+                pageToken = page.getNextPageToken();
+            } while (pageToken != null && showMore());
         } catch (DAOException e) {
             System.out.println("Error searching for course: " + e.getMessage());
         }
@@ -173,14 +197,77 @@ public class StudentMenu extends Menu {
         quizAttempt.setDurationAttempted(duration);
         quizAttempt.setQuestionsAttempted(questionsAttempted);
         quizAttempt.setScore(quizAttempt.calculateQuizScore());
+        // the same key is sent on every retry, so a submission that did reach the database is not saved twice
+        quizAttempt.setSubmissionKey(UUID.randomUUID().toString());
 
         System.out.println("Quizz attempt: ");
         System.out.println(quizAttempt);
+        while (true) {
+            try {
+                elearningService.takeQuiz(quizAttempt);
+                if (quizAttempt.getAttemptId() < 0) {
+                    System.out.println("Quiz received (provisional attempt ID " + quizAttempt.getAttemptId() + "), it will be saved shortly.");
+                } else {
+                    System.out.println("Quiz submitted successfully.");
+                }
+                return;
+            } catch (DAOException e) {
+                System.out.println("Error taking quiz: " + e.getMessage());
+                System.out.print("Retry submission? (y/n): ");
+                if (!scanner.nextLine().trim().equalsIgnoreCase("y")) {
+                    return;
+                }
+            }
+        }
+    }
+
+    private static void viewLeaderboard() {
+        System.out.print("Enter quiz ID, or 0 for the overall points leaderboard: ");
+        int quizId = scanner.nextInt();
+        scanner.nextLine();
+        int userId = Menu.getLoggedInUser().getId();
+
         try {
-            elearningService.takeQuiz(quizAttempt);
-            System.out.println("Quiz submitted successfully.");
+            List<LeaderboardEntry> top = quizId == 0 ? elearningService.getGlobalLeaderboard(LEADERBOARD_SIZE)
+                    : elearningService.getQuizLeaderboard(quizId, LEADERBOARD_SIZE);
+            List<LeaderboardEntry> aroundMe = quizId == 0 ? elearningService.getGlobalLeaderboardAroundUser(userId, 2)
+                    : elearningService.getQuizLeaderboardAroundUser(quizId, userId, 2);
+            if (top.isEmpty()) {
+                System.out.println("Nobody is on this leaderboard yet.");
+                return;
+            }
+            for (LeaderboardEntry entry : top) {
+                System.out.println(entry);
+            }
+            if (aroundMe.isEmpty()) {
+                System.out.println("You are not on this leaderboard yet.");
+            } else if (aroundMe.get(aroundMe.size() - 1).getRank() > LEADERBOARD_SIZE) {
+                System.out.println("Your position:");
+                for (LeaderboardEntry entry : aroundMe) {
+                    System.out.println(entry);
+                }
+            }
         } catch (DAOException e) {
-            System.out.println("Error taking quiz: " + e.getMessage());
+            System.out.println("Error getting leaderboard: " + e.getMessage());
+        }
+    }
+
+    private static void viewRecommendedCourses() {
+        if (!(Menu.getLoggedInUser() instanceof Student)) {
+            System.out.println("Recommendations are only available to students.");
+            return;
+        }
+        System.out.println("Students who took your courses also took:");
+        try {
+            List<Course> courses = elearningService.getRecommendedCourses((Student) Menu.getLoggedInUser(), RECOMMENDATIONS);
+            if (courses.isEmpty()) {
+                System.out.println("No recommendations yet.");
+            }
+            for (Course course : courses) {
+                System.out.println(course);
+            }
+        } catch (DAOException e) {
+            System.out.println("Error getting recommendations: " + e.getMessage());
         }
     }
 
@@ -197,12 +284,30 @@ public class StudentMenu extends Menu {
     }
 
     private static void viewCourses() {
-        System.out.println("All Courses:");
+        CourseFilter filter = new CourseFilter();
         try {
-            List<Course> userCourses = elearningService.getAllCourses();
-            for (Course course : userCourses) {
-                System.out.println(course);
-            }
+            System.out.print("Filter by levels (e.g. BEGINNER,EXPERT; Enter for all): ");
+            filter.setLevels(parseValues(Level.class, scanner.nextLine()));
+            System.out.print("Filter by categories (e.g. JAVA,PYTHON; Enter for all): ");
+            filter.setCategories(parseValues(Category.class, scanner.nextLine()));
+        } catch (IllegalArgumentException e) {
+            System.out.println("Unknown value: " + e.getMessage());
+            return;
+        }
+
+        System.out.println(filter.getLevels().isEmpty() && filter.getCategories().isEmpty() ? "All Courses:" : "Matching Courses:");
+        try {
+            CourseFacetCounts counts = elearningService.countCourseFacets(filter);
+            System.out.println(counts.getTotal() + " courses. By level: " + nonZero(counts.getLevels()) + ", by category: "
+                    + nonZero(counts.getCategories()) + ", by price: " + nonZero(counts.getPriceRanges()));
+            String pageToken = null;
+            do {
+                Page<Course> page = elearningService.filterCourses(filter, pageToken, PAGE_SIZE);
+                for (Course course : page.getItems()) {
+                    System.out.println(course);
+                }
+                pageToken = page.getNextPageToken();
+            } while (pageToken != null && showMore());
         } catch (DAOException e) {
             System.out.println("Error getting courses: " + e.getMessage());
         }
@@ -211,12 +316,37 @@ public class StudentMenu extends Menu {
     private static void viewQuizzes() {
         System.out.println("All Quizzes:");
         try {
-            List<Quiz> quizzes = elearningService.getAllQuizzes();
-            for (Quiz quiz : quizzes) {
-                System.out.println(quiz.showPreview());
-            }
+            String pageToken = null;
+            do {
+                Page<Quiz> page = elearningService.getQuizzesPage(pageToken, PAGE_SIZE);
+                for (Quiz quiz : page.getItems()) {
+                    System.out.println(quiz.showPreview());
+                }
+                pageToken = page.getNextPageToken();
+            } while (pageToken != null && showMore());
         } catch (DAOException e) {
             System.out.println("Error getting quizzes: " + e.getMessage());
         }
     }
+
+    private static <E extends Enum<E>> EnumSet<E> parseValues(Class<E> type, String input) {
+        EnumSet<E> values = EnumSet.noneOf(type);
+        for (String value : input.split(",")) {
+            if (!value.isBlank()) {
+                values.add(Enum.valueOf(type, value.trim().toUpperCase(Locale.ROOT)));
+            }
+        }
+        return values;
+    }
+
+    private static <E extends Enum<E>> Map<E, Integer> nonZero(EnumMap<E, Integer> counts) {
+        Map<E, Integer> nonZero = new EnumMap<>(counts);
+        nonZero.values().removeIf(count -> count == 0);
+        return nonZero;
+    }
+
+    private static boolean showMore() {
+        System.out.print("Press Enter to see more, or type q to stop: ");
+        return !scanner.nextLine().trim().equalsIgnoreCase("q");
+    }
 }
\ No newline at end of file
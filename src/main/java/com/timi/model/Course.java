@@ -1,5 +1,6 @@
 package com.timi.model;
 
+import java.util.ArrayList;
 import java.util.List;
 
 public class Course {
@@ -29,6 +30,11 @@ public class Course {
         this.quizzes = quizzes;
     }
 
+    public Course(Course other) {
+        this(other.courseId, other.title, other.description, other.instructorId, other.level, other.price, other.duration,
+                other.category, other.quizzes == null ? null : new ArrayList<>(other.quizzes));
+    }
+
     public Course(String title, String description, int instructorId, Level level, Double price, int duration, Category category, List<Quiz> quizzes) {
         this.title = title;
         this.description = description;
@@ -0,0 +1,50 @@
+package com.timi.model;
+
+import java.util.EnumMap;
+
+/**
+ * How many catalog courses match a filter, and for every facet value how many would match if that
+ * value were the facet's only selection, keeping the other facets' selections as they are.
+ */
+public class CourseFacetCounts {
+    private int total;
+    private EnumMap<Level, Integer> levels;
+    private EnumMap<Category, Integer> categories;
+    private EnumMap<PriceRange, Integer> priceRanges;
+    private EnumMap<DurationRange, Integer> durationRanges;
+
+    public CourseFacetCounts(int total, EnumMap<Level, Integer> levels, EnumMap<Category, Integer> categories,
+            EnumMap<PriceRange, Integer> priceRanges, EnumMap<DurationRange, Integer> durationRanges) {
+        this.total = total;
+        this.levels = levels;
+        this.categories = categories;
+        this.priceRanges = priceRanges;
+        this.durationRanges = durationRanges;
+    }
+
+    public int getTotal() {
+        return total;
+    }
+
+    public EnumMap<Level, Integer> getLevels() {
+        return levels;
+    }
+
+    public EnumMap<Category, Integer> getCategories() {
+        return categories;
+    }
+
+    public EnumMap<PriceRange, Integer> getPriceRanges() {
+        return priceRanges;
+    }
+
+    public EnumMap<DurationRange, Integer> getDurationRanges() {
+        return durationRanges;
+    }
+
+    @Override
+    public String toString() {
+        return "CourseFacetCounts [total=" + total + ", levels=" + levels + ", categories=" + categories
+                + ", priceRanges=" + priceRanges + ", durationRanges=" + durationRanges + "]";
+    }
+}
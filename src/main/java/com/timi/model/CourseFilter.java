@@ -0,0 +1,63 @@
+package com.timi.model;
+
+import java.util.EnumSet;
+
+/**
+ * Catalog filter: a course matches if it has one of the selected values of every facet. A facet
+ * with nothing selected does not restrict the courses.
+ */
+public class CourseFilter {
+    private EnumSet<Level> levels = EnumSet.noneOf(Level.class);
+    private EnumSet<Category> categories = EnumSet.noneOf(Category.class);
+    private EnumSet<PriceRange> priceRanges = EnumSet.noneOf(PriceRange.class);
+    private EnumSet<DurationRange> durationRanges = EnumSet.noneOf(DurationRange.class);
+
+    public CourseFilter() {
+    }
+
+    public CourseFilter(EnumSet<Level> levels, EnumSet<Category> categories, EnumSet<PriceRange> priceRanges,
+            EnumSet<DurationRange> durationRanges) {
+        this.levels = levels;
+        this.categories = categories;
+        this.priceRanges = priceRanges;
+        this.durationRanges = durationRanges;
+    }
+
+    public EnumSet<Level> getLevels() {
+        return levels;
+    }
+
+    public void setLevels(EnumSet<Level> levels) {
+        this.levels = levels;
+    }
+
+    public EnumSet<Category> getCategories() {
+        return categories;
+    }
+
+    public void setCategories(EnumSet<Category> categories) {
+        this.categories = categories;
+    }
+
+    public EnumSet<PriceRange> getPriceRanges() {
+        return priceRanges;
+    }
+
+    public void setPriceRanges(EnumSet<PriceRange> priceRanges) {
+        this.priceRanges = priceRanges;
+    }
+
+    public EnumSet<DurationRange> getDurationRanges() {
+        return durationRanges;
+    }
+
+    public void setDurationRanges(EnumSet<DurationRange> durationRanges) {
+        this.durationRanges = durationRanges;
+    }
+
+    @Override
+    public String toString() {
+        return "CourseFilter [levels=" + levels + ", categories=" + categories + ", priceRanges=" + priceRanges
+                + ", durationRanges=" + durationRanges + "]";
+    }
+}
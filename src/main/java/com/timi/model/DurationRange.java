@@ -0,0 +1,36 @@
+package com.timi.model;
+
+/**
+ * Course duration buckets, in hours, used to filter the course catalog.
+ */
+public enum DurationRange {
+    UNDER_10(0, 10),
+    FROM_10_TO_30(10, 30),
+    FROM_30_TO_60(30, 60),
+    FROM_60(60, Integer.MAX_VALUE);
+
+    private final int from;
+    private final int to;
+
+    DurationRange(int from, int to) {
+        this.from = from;
+        this.to = to;
+    }
+
+    public int getFrom() {
+        return from;
+    }
+
+    public int getTo() {
+        return to;
+    }
+
+    public static DurationRange of(int duration) {
+        for (DurationRange range : values()) {
+            if (duration < range.to) {
+                return range;
+            }
+        }
+        return FROM_60;
+    }
+}
@@ -0,0 +1,27 @@
+package com.timi.model;
+
+/**
+ * One row of UserCourses: a user taking a course.
+ */
+public class Enrollment {
+    private int userId;
+    private int courseId;
+
+    public Enrollment(int userId, int courseId) {
+        this.userId = userId;
+        this.courseId = courseId;
+    }
+
+    public int getUserId() {
+        return userId;
+    }
+
+    public int getCourseId() {
+        return courseId;
+    }
+
+    @Override
+    public String toString() {
+        return "Enrollment [userId=" + userId + ", courseId=" + courseId + "]";
+    }
+}
@@ -0,0 +1,47 @@
+package com.timi.model;
+
+/**
+ * One user's standing on a leaderboard. On a quiz leaderboard the score, duration and attempt are
+ * those of the user's best attempt; on the global leaderboard the score is the student's points.
+ */
+public class LeaderboardEntry {
+    private int rank;
+    private int userId;
+    private int score;
+    private float durationAttempted;
+    private int attemptId;
+
+    public LeaderboardEntry(int rank, int userId, int score, float durationAttempted, int attemptId) {
+        this.rank = rank;
+        this.userId = userId;
+        this.score = score;
+        this.durationAttempted = durationAttempted;
+        this.attemptId = attemptId;
+    }
+
+    public int getRank() {
+        return rank;
+    }
+
+    public int getUserId() {
+        return userId;
+    }
+
+    public int getScore() {
+        return score;
+    }
+
+    public float getDurationAttempted() {
+        return durationAttempted;
+    }
+
+    public int getAttemptId() {
+        return attemptId;
+    }
+
+    @Override
+    public String toString() {
+        return "LeaderboardEntry [rank=" + rank + ", userId=" + userId + ", score=" + score + ", durationAttempted="
+                + durationAttempted + ", attemptId=" + attemptId + "]";
+    }
+}
@@ -0,0 +1,40 @@
+package com.timi.model;
+
+/**
+ * Price buckets used to filter the course catalog. A course without a price counts as free.
+ */
+public enum PriceRange {
+    FREE(0, 0),
+    UNDER_50(0, 50),
+    FROM_50_TO_100(50, 100),
+    FROM_100_TO_200(100, 200),
+    FROM_200(200, Double.POSITIVE_INFINITY);
+
+    private final double from;
+    private final double to;
+
+    PriceRange(double from, double to) {
+        this.from = from;
+        this.to = to;
+    }
+
+    public double getFrom() {
+        return from;
+    }
+
+    public double getTo() {
+        return to;
+    }
+
+    public static PriceRange of(Double price) {
+        if (price == null || price <= 0) {
+            return FREE;
+        }
+        for (PriceRange range : values()) {
+            if (price < range.to) {
+                return range;
+            }
+        }
+        return FROM_200;
+    }
+}
@@ -21,6 +21,10 @@ public class Question {
         this.quizId = quizId;
     }
 
+    public Question(Question other) {
+        this(other.questionId, other.content, other.options, other.correctOptionIndex, other.selectedOptionIndex, other.quizId);
+    }
+
     public Question(String content, List<String> options, int correctOptionIndex, int quizId) {
         this.content = content;
         this.options = options;
@@ -1,5 +1,6 @@
 package com.timi.model;
 
+import java.util.ArrayList;
 import java.util.List;
 
 public class Quiz {
@@ -20,6 +21,16 @@ public class Quiz {
         this.duration = duration;
     }
 
+    public Quiz(Quiz other) {
+        this(other.quizId, other.title, null, other.courseId, other.duration);
+        if (other.questions != null) {
+            this.questions = new ArrayList<>(other.questions.size());
+            for (Question question : other.questions) {
+                this.questions.add(new Question(question));
+            }
+        }
+    }
+
     public Quiz(String title, List<Question> questions, int courseId, float duration) {
         this.title = title;
         this.questions = questions;
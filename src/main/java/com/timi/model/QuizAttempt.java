@@ -11,6 +11,7 @@ public class QuizAttempt {
     private int score;
     private List<Question> questionsAttempted;
     private float durationAttempted;
+    private String submissionKey;
 
     public QuizAttempt() {
         this.timestamp = LocalDateTime.now();
@@ -43,6 +44,14 @@ public class QuizAttempt {
         this.durationAttempted = durationAttempted;
     }
 
+    public String getSubmissionKey() {
+        return submissionKey;
+    }
+
+    public void setSubmissionKey(String submissionKey) {
+        this.submissionKey = submissionKey;
+    }
+
     public int getAttemptId() {
         return attemptId;
     }
@@ -0,0 +1,150 @@
+package com.timi.model;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Running score and duration aggregates of all attempts at one quiz. Scores are counted exactly,
+ * one entry per distinct score, which keeps the minimum and maximum correct when an attempt is
+ * removed; durations are counted in the fixed buckets of {@link #DURATION_BUCKET_BOUNDS}.
+ */
+public class QuizStatistics {
+
+    /**
+     * Upper bounds, in seconds, of the duration buckets; one more bucket counts longer attempts.
+     */
+    public static final int[] DURATION_BUCKET_BOUNDS = {30, 60, 120, 300, 600, 1200, 1800, 3600};
+
+    private int quizId;
+    private int attemptCount;
+    private long scoreSum;
+    private long scoreSumOfSquares;
+    private TreeMap<Integer, Integer> scoreCounts;
+    private int[] durationCounts;
+
+    public QuizStatistics(int quizId) {
+        this.quizId = quizId;
+        this.scoreCounts = new TreeMap<>();
+        this.durationCounts = new int[DURATION_BUCKET_BOUNDS.length + 1];
+    }
+
+    public QuizStatistics(QuizStatistics other) {
+        this.quizId = other.quizId;
+        this.attemptCount = other.attemptCount;
+        this.scoreSum = other.scoreSum;
+        this.scoreSumOfSquares = other.scoreSumOfSquares;
+        this.scoreCounts = new TreeMap<>(other.scoreCounts);
+        this.durationCounts = other.durationCounts.clone();
+    }
+
+    public void addAttempt(int score, float durationAttempted) {
+        attemptCount++;
+        scoreSum += score;
+        scoreSumOfSquares += (long) score * score;
+        scoreCounts.merge(score, 1, Integer::sum);
+        durationCounts[durationBucket(durationAttempted)]++;
+    }
+
+    public void removeAttempt(int score, float durationAttempted) {
+        if (attemptCount == 0) {
+            return;
+        }
+        attemptCount--;
+        scoreSum -= score;
+        scoreSumOfSquares -= (long) score * score;
+        scoreCounts.computeIfPresent(score, (s, count) -> count == 1 ? null : count - 1);
+        int bucket = durationBucket(durationAttempted);
+        if (durationCounts[bucket] > 0) {
+            durationCounts[bucket]--;
+        }
+    }
+
+    public static int durationBucket(float durationAttempted) {
+        for (int i = 0; i < DURATION_BUCKET_BOUNDS.length; i++) {
+            if (durationAttempted < DURATION_BUCKET_BOUNDS[i]) {
+                return i;
+            }
+        }
+        return DURATION_BUCKET_BOUNDS.length;
+    }
+
+    public int getQuizId() {
+        return quizId;
+    }
+
+    public int getAttemptCount() {
+        return attemptCount;
+    }
+
+    public long getScoreSum() {
+        return scoreSum;
+    }
+
+    public long getScoreSumOfSquares() {
+        return scoreSumOfSquares;
+    }
+
+    public Integer getMinScore() {
+        return scoreCounts.isEmpty() ? null : scoreCounts.firstKey();
+    }
+
+    public Integer getMaxScore() {
+        return scoreCounts.isEmpty() ? null : scoreCounts.lastKey();
+    }
+
+    public double getAverageScore() {
+        return attemptCount == 0 ? 0 : (double) scoreSum / attemptCount;
+    }
+
+    public double getScoreStandardDeviation() {
+        if (attemptCount == 0) {
+            return 0;
+        }
+        double mean = getAverageScore();
+        return Math.sqrt(Math.max(0, (double) scoreSumOfSquares / attemptCount - mean * mean));
+    }
+
+    /**
+     * Number of attempts per score, in score order.
+     */
+    public Map<Integer, Integer> getScoreHistogram() {
+        return Collections.unmodifiableMap(scoreCounts);
+    }
+
+    /**
+     * Number of attempts per duration bucket, see {@link #DURATION_BUCKET_BOUNDS}.
+     */
+    public int[] getDurationHistogram() {
+        return durationCounts.clone();
+    }
+
+    public void setAttemptCount(int attemptCount) {
+        this.attemptCount = attemptCount;
+    }
+
+    public void setScoreSum(long scoreSum) {
+        this.scoreSum = scoreSum;
+    }
+
+    public void setScoreSumOfSquares(long scoreSumOfSquares) {
+        this.scoreSumOfSquares = scoreSumOfSquares;
+    }
+
+    public void setScoreHistogram(Map<Integer, Integer> scoreCounts) {
+        this.scoreCounts = new TreeMap<>(scoreCounts);
+    }
+
+    public void setDurationHistogram(int[] durationCounts) {
+        this.durationCounts = Arrays.copyOf(durationCounts, DURATION_BUCKET_BOUNDS.length + 1);
+    }
+
+    @Override
+    public String toString() {
+        return "QuizStatistics [quizId=" + quizId + ", attempts=" + attemptCount + ", averageScore="
+                + String.format("%.2f", getAverageScore()) + ", standardDeviation=" + String.format("%.2f", getScoreStandardDeviation())
+                + ", minScore=" + getMinScore() + ", maxScore=" + getMaxScore() + ", scoreHistogram=" + scoreCounts
+                + ", durationHistogram=" + Arrays.toString(durationCounts) + "]";
+    }
+}
@@ -0,0 +1,20 @@
+package com.timi.service;
+
+import java.util.List;
+
+import com.timi.dao.Page;
+import com.timi.exception.DAOException;
+import com.timi.model.Course;
+import com.timi.model.CourseFacetCounts;
+import com.timi.model.CourseFilter;
+
+public interface CourseSearchService {
+    Page<Course> searchCourses(String query, String pageToken, int pageSize) throws DAOException;
+    List<String> completeCourseTitle(String prefix, int count) throws DAOException;
+    Page<Course> filterCourses(CourseFilter filter, String pageToken, int pageSize) throws DAOException;
+    CourseFacetCounts countCourseFacets(CourseFilter filter) throws DAOException;
+    void indexCourse(Course course);
+    void recordPopularity(int courseId);
+    void removeCourse(int courseId);
+    void rebuild() throws DAOException;
+}
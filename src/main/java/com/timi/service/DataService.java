@@ -1,6 +1,7 @@
 package com.timi.service;
 
 import java.util.List;
+import java.util.Map;
 import java.util.Queue;
 
 import com.timi.model.*;
@@ -20,4 +21,5 @@ public interface DataService {
     public List<User> getUsers();
     public void setApplications(Queue<Application> applications);
     public Queue<Application> getApplications();
+    public Map<String, Long> getLoadTimes();
 }
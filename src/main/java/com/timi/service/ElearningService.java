@@ -3,6 +3,7 @@ package com.timi.service;
 import java.util.List;
 import java.util.Queue;
 
+import com.timi.dao.Page;
 import com.timi.exception.DAOException;
 import com.timi.exception.InvalidEmailException;
 import com.timi.model.*;
@@ -11,15 +12,24 @@ public interface ElearningService {
 
     List<Course> getAllCourses() throws DAOException;
     List<Quiz> getAllQuizzes() throws DAOException;
+    Page<Course> getCoursesPage(String pageToken, int pageSize) throws DAOException;
+    Page<Quiz> getQuizzesPage(String pageToken, int pageSize) throws DAOException;
     List<Quiz> getQuizzesByCourse(int courseId) throws DAOException;
     List<QuizAttempt> getUserQuizAttempts(int userId) throws DAOException;
     List<Question> getAllQuestions() throws DAOException;
     List<QuizAttempt> getAllQuizAttempts() throws DAOException;
+    List<QuizAttempt> getQuizAttemptsAfter(int attemptId) throws DAOException;
     List<User> getAllUsers() throws DAOException;
     List<Course> getUserCourses(int userId) throws DAOException;
     Queue<Application> getAllApplications() throws DAOException; 
+    Queue<Application> getApplicationsAfter(int applicationId) throws DAOException;
     Queue<Application> getPendingApplications() throws DAOException;
     Quiz getQuizById(int id) throws DAOException;
+    QuizStatistics getQuizStatistics(int quizId) throws DAOException;
+    List<LeaderboardEntry> getQuizLeaderboard(int quizId, int count) throws DAOException;
+    List<LeaderboardEntry> getQuizLeaderboardAroundUser(int quizId, int userId, int radius) throws DAOException;
+    List<LeaderboardEntry> getGlobalLeaderboard(int count) throws DAOException;
+    List<LeaderboardEntry> getGlobalLeaderboardAroundUser(int userId, int radius) throws DAOException;
     User getUserById(int id) throws DAOException;
     Question getQuestionById(int id) throws DAOException;
     Course getCourseByName(String name) throws DAOException;
@@ -32,11 +42,19 @@ public interface ElearningService {
     void updateCourse(Course course) throws DAOException;
     void deleteCourse(int id) throws DAOException;
     void addQuiz(Quiz quiz) throws DAOException;
+    void deleteQuiz(int quizId) throws DAOException;
     void addQuestion(Question question) throws DAOException;
     void editQuestion(Question question) throws DAOException;
     void deleteQuestion(int id) throws DAOException;
-    void searchCoursesByName(String name) throws DAOException;
+    List<Course> searchCoursesByName(String name) throws DAOException;
+    Page<Course> searchCourses(String query, String pageToken, int pageSize) throws DAOException;
+    List<String> completeCourseTitle(String prefix, int count) throws DAOException;
+    Page<Course> filterCourses(CourseFilter filter, String pageToken, int pageSize) throws DAOException;
+    CourseFacetCounts countCourseFacets(CourseFilter filter) throws DAOException;
     void applyForCourse(Application application) throws DAOException;
+    void enrollInCourse(int userId, int courseId) throws DAOException;
+    List<Course> getSimilarCourses(int courseId, int count) throws DAOException;
+    List<Course> getRecommendedCourses(Student student, int count) throws DAOException;
     void takeQuiz(QuizAttempt quizAttempt) throws DAOException;
     
 }
@@ -0,0 +1,22 @@
+package com.timi.service;
+
+import java.util.List;
+
+import com.timi.exception.DAOException;
+import com.timi.model.LeaderboardEntry;
+import com.timi.model.QuizAttempt;
+import com.timi.model.User;
+
+public interface LeaderboardService {
+    void rebuild() throws DAOException;
+    void recordAttempt(QuizAttempt quizAttempt);
+    void recordPoints(User user);
+    void removeUser(int userId);
+
+    List<LeaderboardEntry> getQuizTop(int quizId, int count) throws DAOException;
+    int getQuizRank(int quizId, int userId) throws DAOException;
+    List<LeaderboardEntry> getQuizAroundUser(int quizId, int userId, int radius) throws DAOException;
+    List<LeaderboardEntry> getGlobalTop(int count) throws DAOException;
+    int getGlobalRank(int userId) throws DAOException;
+    List<LeaderboardEntry> getGlobalAroundUser(int userId, int radius) throws DAOException;
+}
@@ -0,0 +1,17 @@
+package com.timi.service;
+
+import java.util.List;
+
+import com.timi.exception.DAOException;
+import com.timi.model.Course;
+import com.timi.model.Student;
+
+public interface RecommendationService {
+    void rebuild() throws DAOException;
+    void recordEnrollment(int userId, int courseId);
+    void indexCourse(Course course);
+    void removeCourse(int courseId);
+
+    List<Course> getSimilarCourses(int courseId, int count) throws DAOException;
+    List<Course> recommendCourses(Student student, int count) throws DAOException;
+}
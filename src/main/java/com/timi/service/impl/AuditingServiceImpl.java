@@ -1,21 +1,57 @@
 package com.timi.service.impl;
 
+import java.io.BufferedWriter;
 import java.io.FileWriter;
 import java.io.IOException;
-import java.io.PrintWriter;
 import java.time.LocalDateTime;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
 import com.timi.service.AuditingService;
 
+/**
+ * Audit log writer. {@link #logAction(String)} only enqueues the entry; a single background thread
+ * appends queued entries to the CSV file in groups and flushes by size or interval.
+ */
 public class AuditingServiceImpl implements AuditingService {
-    private static final String CSV_FILE_PATH = "audit_log.csv";
+    private static final String CSV_FILE_PATH = System.getProperty("audit.file", "audit_log.csv");
     private static final String CSV_SEPARATOR = ",";
 
+    public enum OverflowPolicy {
+        BLOCK,
+        DROP_OLDEST,
+        SAMPLE
+    }
+
+    private static final StackWalker STACK_WALKER = StackWalker.getInstance();
+
     private static AuditingServiceImpl instance;
 
+    private final int capacity = Integer.getInteger("audit.queueCapacity", 8192);
+    private final int flushSize = Integer.getInteger("audit.flushSize", 256);
+    private final long flushIntervalMs = Long.getLong("audit.flushIntervalMs", 200);
+    private final int sampleRate = Integer.getInteger("audit.sampleRate", 10);
+    private final OverflowPolicy overflowPolicy = OverflowPolicy.valueOf(System.getProperty("audit.overflowPolicy", "BLOCK"));
+
+    private final Queue<String> queue = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger size = new AtomicInteger();
+    private final AtomicLong overflowCount = new AtomicLong();
+    private final AtomicLong dropped = new AtomicLong();
+    private final Thread writerThread;
+    private volatile boolean running = true;
+
     private AuditingServiceImpl() {
+        writerThread = new Thread(this::writeLoop, "audit-writer");
+        writerThread.setDaemon(true);
+        writerThread.start();
+        Runtime.getRuntime().addShutdownHook(new Thread(this::close, "audit-writer-shutdown"));
     }
 
-    public static AuditingServiceImpl getInstance() {
+    public static synchronized AuditingServiceImpl getInstance() {
         if (instance == null) {
             instance = new AuditingServiceImpl();
         }
@@ -24,18 +60,138 @@ public class AuditingServiceImpl implements AuditingService {
 
     @Override
     public void logAction(String action) {
-        try (PrintWriter writer = new PrintWriter(new FileWriter(CSV_FILE_PATH, true))) {
-            String logEntry = action + CSV_SEPARATOR + LocalDateTime.now();
-            writer.println(logEntry);
-        } catch (IOException e) {
-            e.printStackTrace();
+        String logEntry = action + CSV_SEPARATOR + LocalDateTime.now();
+        while (true) {
+            int current = size.get();
+            if (current < capacity) {
+                if (size.compareAndSet(current, current + 1)) {
+                    queue.offer(logEntry);
+                    if (current + 1 >= flushSize) {
+                        LockSupport.unpark(writerThread);
+                    }
+                    return;
+                }
+            } else if (!handleOverflow()) {
+                dropped.incrementAndGet();
+                return;
+            }
+        }
+    }
+
+    /**
+     * Makes room for a new entry according to the overflow policy. Returns false if the new entry
+     * should be dropped instead.
+     */
+    private boolean handleOverflow() {
+        switch (overflowPolicy) {
+            case DROP_OLDEST:
+                dropOldest();
+                return true;
+            case SAMPLE:
+                if (overflowCount.incrementAndGet() % sampleRate != 0) {
+                    return false;
+                }
+                dropOldest();
+                return true;
+            case BLOCK:
+            default:
+                if (!running) {
+                    return false;
+                }
+                LockSupport.unpark(writerThread);
+                LockSupport.parkNanos(TimeUnit.MICROSECONDS.toNanos(100));
+                return true;
+        }
+    }
+
+    private void dropOldest() {
+        if (queue.poll() != null) {
+            size.decrementAndGet();
+            dropped.incrementAndGet();
         }
     }
 
     @Override
     public void logCurrentAction() {
-        StackTraceElement[] stackTrace = Thread.currentThread().getStackTrace();
-        String methodName = stackTrace[2].getMethodName();
-        logAction(methodName);
+        logAction(callerMethodName());
+    }
+
+    /**
+     * Name of the method that called {@link #logCurrentAction()}. Only the two topmost frames are
+     * walked, instead of materializing the whole stack trace.
+     */
+    private static String callerMethodName() {
+        return STACK_WALKER.walk(frames -> frames.skip(2)
+                .findFirst()
+                .map(StackWalker.StackFrame::getMethodName)
+                .orElse("unknown"));
+    }
+
+    public long getDroppedCount() {
+        return dropped.get();
+    }
+
+    public int getQueuedCount() {
+        return size.get();
+    }
+
+    private void writeLoop() {
+        BufferedWriter writer = null;
+        int unflushed = 0;
+        long lastFlush = System.currentTimeMillis();
+
+        while (running || size.get() > 0) {
+            try {
+                if (writer == null) {
+                    writer = new BufferedWriter(new FileWriter(CSV_FILE_PATH, true));
+                }
+
+                String logEntry;
+                int written = 0;
+                while (written < flushSize && (logEntry = queue.poll()) != null) {
+                    size.decrementAndGet();
+                    writer.write(logEntry);
+                    writer.newLine();
+                    written++;
+                }
+                unflushed += written;
+
+                long now = System.currentTimeMillis();
+                if (unflushed > 0 && (unflushed >= flushSize || now - lastFlush >= flushIntervalMs || !running)) {
+                    writer.flush();
+                    unflushed = 0;
+                    lastFlush = now;
+                }
+
+                if (written < flushSize && running) {
+                    LockSupport.parkNanos(TimeUnit.MILLISECONDS.toNanos(flushIntervalMs));
+                }
+            } catch (IOException e) {
+                e.printStackTrace();
+                writer = null;
+                LockSupport.parkNanos(TimeUnit.MILLISECONDS.toNanos(flushIntervalMs));
+            }
+        }
+
+        if (writer != null) {
+            try {
+                writer.close();
+            } catch (IOException e) {
+                e.printStackTrace();
+            }
+        }
+    }
+
+    /**
+     * Stops accepting new entries and waits for everything already queued to reach the file.
+     */
+    public void close() {
+        running = false;
+        LockSupport.unpark(writerThread);
+        try {
+            writerThread.join(TimeUnit.SECONDS.toMillis(5));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
     }
 }
@@ -0,0 +1,287 @@
+package com.timi.service.impl;
+
+import java.util.Arrays;
+import java.util.BitSet;
+
+import com.timi.model.Level;
+
+/**
+ * Sparse course-by-course co-enrollment counts: how many students took both courses. Courses are
+ * compared by cosine similarity, {@code both / sqrt(enrolledA * enrolledB)}, which keeps courses
+ * everyone takes from topping every list. Each course caches its {@code k} most similar courses;
+ * an enrollment invalidates the cached lists it affects and they are recomputed on the next read,
+ * so loading millions of enrollments costs one counter update per pair of a student's courses.
+ * Recommendations score every course taken together with the student's courses rather than the
+ * cached lists, so a level filter applied while scoring cannot leave a student without candidates.
+ * All maps are keyed by primitive ints.
+ */
+public class CoEnrollmentIndex {
+
+    private static final int[] NO_COURSES = new int[0];
+
+    private final int k;
+    private final IntIntHashMap userSlots = new IntIntHashMap();
+    private int[][] coursesByUser = new int[64][];
+    private int[] courseCountByUser = new int[64];
+    private int userCount;
+
+    private final IntIntHashMap courseSlots = new IntIntHashMap();
+    private final IntIntHashMap removedCourses = new IntIntHashMap();
+    // level ordinal + 1 by course id; absent when the level is unknown
+    private final IntIntHashMap courseLevels = new IntIntHashMap();
+    private IntIntHashMap[] coEnrollments = new IntIntHashMap[64];
+    private int[] enrollments = new int[64];
+    private int[][] similarIds = new int[64][];
+    private float[][] similarScores = new float[64][];
+    // courses whose cached similar list is still current
+    private final BitSet current = new BitSet();
+    private int courseCount;
+
+    public CoEnrollmentIndex(int k) {
+        this.k = k;
+    }
+
+    /**
+     * Counts the user's enrollment in the course against every course the user took before.
+     * Returns false if it was already counted or the course has been removed.
+     */
+    public synchronized boolean recordEnrollment(int userId, int courseId) {
+        if (removedCourses.containsKey(courseId)) {
+            return false;
+        }
+        int user = userSlot(userId);
+        int[] taken = coursesByUser[user];
+        int takenCount = courseCountByUser[user];
+        for (int i = 0; i < takenCount; i++) {
+            if (taken[i] == courseId) {
+                return false;
+            }
+        }
+
+        int course = courseSlot(courseId);
+        for (int i = 0; i < takenCount; i++) {
+            if (!removedCourses.containsKey(taken[i])) {
+                int other = courseSlots.get(taken[i]);
+                coEnrollments[course].addTo(taken[i], 1);
+                coEnrollments[other].addTo(courseId, 1);
+                current.clear(other);
+            }
+        }
+        enrollments[course]++;
+        current.clear(course);
+        // a new enrollment changes the course's similarity to everything taken with it
+        if (!current.isEmpty()) {
+            coEnrollments[course].forEach((neighbour, both) -> current.clear(courseSlots.get(neighbour)));
+        }
+
+        if (takenCount == taken.length) {
+            taken = coursesByUser[user] = Arrays.copyOf(taken, Math.max(4, takenCount * 2));
+        }
+        taken[takenCount] = courseId;
+        courseCountByUser[user]++;
+        return true;
+    }
+
+    /**
+     * Sets the course's level for the level filter of {@link #recommend}; a course without one
+     * never passes it.
+     */
+    public synchronized void setCourseLevel(int courseId, Level level) {
+        if (level == null) {
+            courseLevels.remove(courseId);
+        } else {
+            courseLevels.put(courseId, level.ordinal() + 1);
+        }
+    }
+
+    /**
+     * Forgets the course; later enrollments in it are ignored.
+     */
+    public synchronized void removeCourse(int courseId) {
+        removedCourses.put(courseId, 1);
+        courseLevels.remove(courseId);
+        if (!courseSlots.containsKey(courseId)) {
+            return;
+        }
+        int course = courseSlots.get(courseId);
+        coEnrollments[course].forEach((neighbour, both) -> {
+            int other = courseSlots.get(neighbour);
+            coEnrollments[other].remove(courseId);
+            current.clear(other);
+        });
+        coEnrollments[course] = new IntIntHashMap();
+        enrollments[course] = 0;
+        current.clear(course);
+    }
+
+    /**
+     * Up to {@code count} (at most {@code k}) ids of the courses most often taken together with
+     * this one, most similar first.
+     */
+    public synchronized int[] similarCourses(int courseId, int count) {
+        if (removedCourses.containsKey(courseId) || !courseSlots.containsKey(courseId)) {
+            return NO_COURSES;
+        }
+        int course = courseSlots.get(courseId);
+        refresh(course);
+        return Arrays.copyOf(similarIds[course], Math.min(count, similarIds[course].length));
+    }
+
+    /**
+     * Up to {@code count} ids of courses taken together with any the user took (or with any of
+     * {@code enrolledCourseIds}), best first, excluding those courses themselves and, unless
+     * {@code level} is null, courses of another level. A course's score is the sum of its
+     * similarity to each of them.
+     */
+    public synchronized int[] recommend(int userId, int[] enrolledCourseIds, Level level, int count) {
+        IntIntHashMap seeds = new IntIntHashMap();
+        if (userSlots.containsKey(userId)) {
+            int user = userSlots.get(userId);
+            for (int i = 0; i < courseCountByUser[user]; i++) {
+                seeds.put(coursesByUser[user][i], 1);
+            }
+        }
+        for (int courseId : enrolledCourseIds) {
+            seeds.put(courseId, 1);
+        }
+
+        int wantedLevel = level == null ? 0 : level.ordinal() + 1;
+        Candidates candidates = new Candidates();
+        for (int seed : seeds.keys()) {
+            if (removedCourses.containsKey(seed) || !courseSlots.containsKey(seed)) {
+                continue;
+            }
+            int course = courseSlots.get(seed);
+            double enrolled = enrollments[course];
+            coEnrollments[course].forEach((candidate, both) -> {
+                if (!seeds.containsKey(candidate) && (wantedLevel == 0 || courseLevels.get(candidate) == wantedLevel)) {
+                    candidates.add(candidate, similarity(both, enrolled, candidate));
+                }
+            });
+        }
+        return candidates.best(count);
+    }
+
+    /**
+     * Students who took the course, as counted by this index.
+     */
+    public synchronized int enrollmentCount(int courseId) {
+        return courseSlots.containsKey(courseId) ? enrollments[courseSlots.get(courseId)] : 0;
+    }
+
+    /**
+     * Students who took both courses, as counted by this index.
+     */
+    public synchronized int coEnrollmentCount(int courseId, int otherCourseId) {
+        return courseSlots.containsKey(courseId) ? coEnrollments[courseSlots.get(courseId)].get(otherCourseId) : 0;
+    }
+
+    /**
+     * Recomputes the course's similar list if an enrollment has invalidated it, keeping the best
+     * {@code k} in a sorted array.
+     */
+    private void refresh(int course) {
+        if (current.get(course)) {
+            return;
+        }
+        int[] ids = new int[k];
+        float[] scores = new float[k];
+        int[] size = {0};
+        double enrolled = enrollments[course];
+        coEnrollments[course].forEach((neighbour, both) -> {
+            float score = similarity(both, enrolled, neighbour);
+            int position = size[0];
+            while (position > 0 && (score > scores[position - 1] || score == scores[position - 1] && neighbour < ids[position - 1])) {
+                position--;
+            }
+            if (position >= k) {
+                return;
+            }
+            int moved = Math.min(size[0], k - 1) - position;
+            System.arraycopy(ids, position, ids, position + 1, moved);
+            System.arraycopy(scores, position, scores, position + 1, moved);
+            ids[position] = neighbour;
+            scores[position] = score;
+            size[0] = Math.min(size[0] + 1, k);
+        });
+        similarIds[course] = Arrays.copyOf(ids, size[0]);
+        similarScores[course] = Arrays.copyOf(scores, size[0]);
+        current.set(course);
+    }
+
+    private float similarity(int both, double enrolled, int neighbour) {
+        return (float) (both / Math.sqrt(enrolled * enrollments[courseSlots.get(neighbour)]));
+    }
+
+    private int userSlot(int userId) {
+        int slot = userSlots.getOrDefault(userId, -1);
+        if (slot >= 0) {
+            return slot;
+        }
+        if (userCount == coursesByUser.length) {
+            coursesByUser = Arrays.copyOf(coursesByUser, userCount * 2);
+            courseCountByUser = Arrays.copyOf(courseCountByUser, userCount * 2);
+        }
+        slot = userCount++;
+        coursesByUser[slot] = NO_COURSES;
+        userSlots.put(userId, slot);
+        return slot;
+    }
+
+    private int courseSlot(int courseId) {
+        int slot = courseSlots.getOrDefault(courseId, -1);
+        if (slot >= 0) {
+            return slot;
+        }
+        if (courseCount == coEnrollments.length) {
+            coEnrollments = Arrays.copyOf(coEnrollments, courseCount * 2);
+            enrollments = Arrays.copyOf(enrollments, courseCount * 2);
+            similarIds = Arrays.copyOf(similarIds, courseCount * 2);
+            similarScores = Arrays.copyOf(similarScores, courseCount * 2);
+        }
+        slot = courseCount++;
+        coEnrollments[slot] = new IntIntHashMap();
+        courseSlots.put(courseId, slot);
+        return slot;
+    }
+
+    /**
+     * Recommendation candidates and their summed scores.
+     */
+    private static final class Candidates {
+        private final IntIntHashMap indexes = new IntIntHashMap();
+        private int[] ids = new int[16];
+        private float[] scores = new float[16];
+        private int size;
+
+        private void add(int id, float score) {
+            int index = indexes.getOrDefault(id, -1);
+            if (index < 0) {
+                if (size == ids.length) {
+                    ids = Arrays.copyOf(ids, size * 2);
+                    scores = Arrays.copyOf(scores, size * 2);
+                }
+                index = size++;
+                ids[index] = id;
+                indexes.put(id, index);
+            }
+            scores[index] += score;
+        }
+
+        /**
+         * Up to {@code count} ids, highest score first and ties by id.
+         */
+        private int[] best(int count) {
+            Integer[] order = new Integer[size];
+            for (int i = 0; i < size; i++) {
+                order[i] = i;
+            }
+            Arrays.sort(order, (a, b) -> scores[a] != scores[b] ? Float.compare(scores[b], scores[a]) : Integer.compare(ids[a], ids[b]));
+            int[] ranked = new int[Math.min(count, size)];
+            for (int i = 0; i < ranked.length; i++) {
+                ranked[i] = ids[order[i]];
+            }
+            return ranked;
+        }
+    }
+}
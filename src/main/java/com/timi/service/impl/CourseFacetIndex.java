@@ -0,0 +1,262 @@
+package com.timi.service.impl;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Function;
+
+import com.timi.model.Category;
+import com.timi.model.Course;
+import com.timi.model.CourseFacetCounts;
+import com.timi.model.CourseFilter;
+import com.timi.model.DurationRange;
+import com.timi.model.Level;
+import com.timi.model.PriceRange;
+
+/**
+ * The course catalog as one bitmap per level, category, price range and duration range. Bit
+ * {@code i} stands for the course in slot {@code i}, so a filter is an OR of the selected values'
+ * bitmaps within each facet and an AND across facets, and facet counts are cardinalities of those
+ * intersections. Slots are kept in course id order, which lets pages resume after a course id.
+ * Removed courses leave empty slots that are compacted away once they outnumber the courses.
+ * Filters share a read lock; indexing takes the write lock.
+ */
+public class CourseFacetIndex {
+
+    private static final int COMPACT_MIN_SLOTS = 64;
+
+    private final Facet<Level> levels = new Facet<>(Level.class, Course::getLevel, CourseFilter::getLevels);
+    private final Facet<Category> categories = new Facet<>(Category.class, Course::getCategory, CourseFilter::getCategories);
+    private final Facet<PriceRange> priceRanges = new Facet<>(PriceRange.class, course -> PriceRange.of(course.getPrice()),
+            CourseFilter::getPriceRanges);
+    private final Facet<DurationRange> durationRanges = new Facet<>(DurationRange.class,
+            course -> DurationRange.of(course.getDuration()), CourseFilter::getDurationRanges);
+    private final List<Facet<?>> facets = List.of(levels, categories, priceRanges, durationRanges);
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private final Map<Integer, Integer> slotsByCourseId = new HashMap<>();
+    private final BitSet live = new BitSet();
+    private Course[] courses = new Course[COMPACT_MIN_SLOTS];
+    // ascending; slots of removed courses keep their old id until compacted
+    private int[] courseIds = new int[COMPACT_MIN_SLOTS];
+    private int slotCount;
+
+    /**
+     * Adds the course, replacing any earlier version with the same id.
+     */
+    public void index(Course course) {
+        Course copy = new Course(course);
+        lock.writeLock().lock();
+        try {
+            Integer slot = slotsByCourseId.get(copy.getCourseId());
+            if (slot != null) {
+                clear(slot);
+                set(slot, copy);
+            } else {
+                boolean ordered = slotCount == 0 || copy.getCourseId() > courseIds[slotCount - 1];
+                append(copy);
+                if (!ordered) {
+                    compact();
+                }
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void remove(int courseId) {
+        lock.writeLock().lock();
+        try {
+            Integer slot = slotsByCourseId.remove(courseId);
+            if (slot == null) {
+                return;
+            }
+            clear(slot);
+            live.clear(slot);
+            courses[slot] = null;
+            if (slotCount > COMPACT_MIN_SLOTS && slotsByCourseId.size() * 2 < slotCount) {
+                compact();
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return slotsByCourseId.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Up to {@code limit} matching courses with ids above {@code afterCourseId}, in id order.
+     * Returns copies of the indexed courses.
+     */
+    public List<Course> filter(CourseFilter filter, int afterCourseId, int limit) {
+        List<Course> results = new ArrayList<>();
+        lock.readLock().lock();
+        try {
+            BitSet matching = matching(filter, null);
+            int first = Arrays.binarySearch(courseIds, 0, slotCount, afterCourseId);
+            first = first < 0 ? -first - 1 : first + 1;
+            for (int slot = matching.nextSetBit(first); slot >= 0 && results.size() < limit; slot = matching.nextSetBit(slot + 1)) {
+                results.add(new Course(courses[slot]));
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+        return results;
+    }
+
+    public CourseFacetCounts count(CourseFilter filter) {
+        lock.readLock().lock();
+        try {
+            BitSet scratch = new BitSet(slotCount);
+            return new CourseFacetCounts(matching(filter, null).cardinality(), levels.count(filter, scratch),
+                    categories.count(filter, scratch), priceRanges.count(filter, scratch), durationRanges.count(filter, scratch));
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Live courses matching every facet of the filter except {@code ignored}.
+     */
+    private BitSet matching(CourseFilter filter, Facet<?> ignored) {
+        BitSet matching = (BitSet) live.clone();
+        for (Facet<?> facet : facets) {
+            if (facet != ignored) {
+                facet.restrict(filter, matching);
+            }
+        }
+        return matching;
+    }
+
+    private void append(Course course) {
+        if (slotCount == courses.length) {
+            courses = Arrays.copyOf(courses, slotCount * 2);
+            courseIds = Arrays.copyOf(courseIds, slotCount * 2);
+        }
+        int slot = slotCount++;
+        courseIds[slot] = course.getCourseId();
+        slotsByCourseId.put(course.getCourseId(), slot);
+        live.set(slot);
+        set(slot, course);
+    }
+
+    private void set(int slot, Course course) {
+        courses[slot] = course;
+        for (Facet<?> facet : facets) {
+            facet.set(slot, course);
+        }
+    }
+
+    private void clear(int slot) {
+        for (Facet<?> facet : facets) {
+            facet.clear(slot, courses[slot]);
+        }
+    }
+
+    /**
+     * Re-slots the courses densely in id order.
+     */
+    private void compact() {
+        Course[] remaining = new Course[slotsByCourseId.size()];
+        int r = 0;
+        for (int slot = live.nextSetBit(0); slot >= 0; slot = live.nextSetBit(slot + 1)) {
+            remaining[r++] = courses[slot];
+        }
+        Arrays.sort(remaining, Comparator.comparingInt(Course::getCourseId));
+
+        int capacity = Math.max(COMPACT_MIN_SLOTS, remaining.length * 2);
+        courses = new Course[capacity];
+        courseIds = new int[capacity];
+        slotCount = 0;
+        slotsByCourseId.clear();
+        live.clear();
+        for (Facet<?> facet : facets) {
+            facet.reset();
+        }
+        for (Course course : remaining) {
+            append(course);
+        }
+    }
+
+    /**
+     * One bitmap per value of an enum-valued course attribute. Courses without a value appear in
+     * none of them.
+     */
+    private final class Facet<E extends Enum<E>> {
+        private final Class<E> type;
+        private final Function<Course, E> valueOf;
+        private final Function<CourseFilter, Set<E>> selection;
+        private final EnumMap<E, BitSet> bitsByValue;
+
+        private Facet(Class<E> type, Function<Course, E> valueOf, Function<CourseFilter, Set<E>> selection) {
+            this.type = type;
+            this.valueOf = valueOf;
+            this.selection = selection;
+            this.bitsByValue = new EnumMap<>(type);
+            reset();
+        }
+
+        private void reset() {
+            for (E value : type.getEnumConstants()) {
+                bitsByValue.put(value, new BitSet());
+            }
+        }
+
+        private void set(int slot, Course course) {
+            E value = valueOf.apply(course);
+            if (value != null) {
+                bitsByValue.get(value).set(slot);
+            }
+        }
+
+        private void clear(int slot, Course course) {
+            E value = valueOf.apply(course);
+            if (value != null) {
+                bitsByValue.get(value).clear(slot);
+            }
+        }
+
+        /**
+         * ANDs the union of the selected values' bitmaps into {@code matching}, unless nothing is
+         * selected.
+         */
+        private void restrict(CourseFilter filter, BitSet matching) {
+            Set<E> selected = filter == null ? null : selection.apply(filter);
+            if (selected == null || selected.isEmpty()) {
+                return;
+            }
+            BitSet union = new BitSet();
+            for (E value : selected) {
+                union.or(bitsByValue.get(value));
+            }
+            matching.and(union);
+        }
+
+        private EnumMap<E, Integer> count(CourseFilter filter, BitSet scratch) {
+            BitSet others = matching(filter, this);
+            EnumMap<E, Integer> counts = new EnumMap<>(type);
+            for (Map.Entry<E, BitSet> entry : bitsByValue.entrySet()) {
+                scratch.clear();
+                scratch.or(others);
+                scratch.and(entry.getValue());
+                counts.put(entry.getKey(), scratch.cardinality());
+            }
+            return counts;
+        }
+    }
+}
@@ -0,0 +1,288 @@
+package com.timi.service.impl;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.PriorityQueue;
+import java.util.TreeMap;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+import com.timi.model.Course;
+
+/**
+ * Inverted index over course titles and descriptions, ranked with BM25. Text is split into
+ * lowercase runs of letters and digits; title terms count {@link #TITLE_WEIGHT} times. The last
+ * query term also matches every indexed term it is a prefix of (the most frequent
+ * {@link #MAX_PREFIX_EXPANSIONS} of them), so results appear while a word is still being typed.
+ * <p>
+ * Courses occupy dense slots, so postings and document lengths are plain int arrays and scoring
+ * touches no boxed values. Searches share a read lock; indexing takes the write lock.
+ */
+public class CourseSearchIndex {
+
+    static final int TITLE_WEIGHT = 2;
+    static final int MAX_PREFIX_EXPANSIONS = 50;
+    private static final float K1 = 1.2f;
+    private static final float B = 0.75f;
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private final TreeMap<String, Postings> postingsByTerm = new TreeMap<>();
+    private final Map<Integer, Integer> slotsByCourseId = new HashMap<>();
+    private Course[] courses = new Course[64];
+    private String[][] termsBySlot = new String[64][];
+    private int[] lengths = new int[64];
+    private int[] freeSlots = new int[16];
+    private int freeSlotCount;
+    private int slotCount;
+    private long totalLength;
+
+    /**
+     * Adds the course, replacing any earlier version with the same id.
+     */
+    public void index(Course course) {
+        Map<String, Integer> frequencies = new HashMap<>();
+        int length = countTerms(course.getTitle(), TITLE_WEIGHT, frequencies) + countTerms(course.getDescription(), 1, frequencies);
+        Course copy = new Course(course);
+
+        lock.writeLock().lock();
+        try {
+            removeLocked(course.getCourseId());
+            int slot = allocateSlot();
+            courses[slot] = copy;
+            lengths[slot] = length;
+            termsBySlot[slot] = frequencies.keySet().toArray(new String[0]);
+            totalLength += length;
+            slotsByCourseId.put(course.getCourseId(), slot);
+            for (Map.Entry<String, Integer> entry : frequencies.entrySet()) {
+                postingsByTerm.computeIfAbsent(entry.getKey(), term -> new Postings()).add(slot, entry.getValue());
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void remove(int courseId) {
+        lock.writeLock().lock();
+        try {
+            removeLocked(courseId);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return slotsByCourseId.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Courses matching any query term, best first, skipping the first {@code offset}. Equal scores
+     * are ordered by course id. Returns copies of the indexed courses.
+     */
+    public List<Course> search(String query, int offset, int limit) {
+        List<String> terms = tokenize(query);
+        List<Course> results = new ArrayList<>();
+        if (terms.isEmpty() || limit <= 0) {
+            return results;
+        }
+
+        lock.readLock().lock();
+        Scratch scratch = SCRATCH.get().ensureCapacity(slotCount);
+        float[] scores = scratch.scores;
+        int[] matched = scratch.matched;
+        int matchedCount = 0;
+        try {
+            float averageLength = slotsByCourseId.isEmpty() ? 1 : (float) totalLength / slotsByCourseId.size();
+
+            for (int i = 0; i < terms.size(); i++) {
+                boolean prefix = i == terms.size() - 1;
+                for (Postings postings : matchingPostings(terms.get(i), prefix)) {
+                    float idf = idf(postings.size);
+                    for (int p = 0; p < postings.size; p++) {
+                        int slot = postings.slots[p];
+                        int frequency = postings.frequencies[p];
+                        if (scores[slot] == 0) {
+                            matched[matchedCount++] = slot;
+                        }
+                        scores[slot] += idf * frequency * (K1 + 1) / (frequency + K1 * (1 - B + B * lengths[slot] / averageLength));
+                    }
+                }
+            }
+
+            // keep only the best offset + limit, worst at the head
+            int wanted = offset + limit;
+            PriorityQueue<Integer> best = new PriorityQueue<>(Math.min(wanted, Math.max(1, matchedCount)) + 1,
+                    (a, b) -> compareSlots(b, a, scores));
+            for (int m = 0; m < matchedCount; m++) {
+                int slot = matched[m];
+                if (best.size() < wanted) {
+                    best.add(slot);
+                } else if (compareSlots(slot, best.peek(), scores) < 0) {
+                    best.poll();
+                    best.add(slot);
+                }
+            }
+            Integer[] ranked = best.toArray(new Integer[0]);
+            Arrays.sort(ranked, (a, b) -> compareSlots(a, b, scores));
+            for (int r = offset; r < ranked.length; r++) {
+                results.add(new Course(courses[ranked[r]]));
+            }
+        } finally {
+            lock.readLock().unlock();
+            for (int m = 0; m < matchedCount; m++) {
+                scores[matched[m]] = 0;
+            }
+        }
+        return results;
+    }
+
+    static List<String> tokenize(String text) {
+        List<String> terms = new ArrayList<>();
+        if (text == null) {
+            return terms;
+        }
+        int start = -1;
+        for (int i = 0; i <= text.length(); i++) {
+            boolean wordChar = i < text.length() && Character.isLetterOrDigit(text.charAt(i));
+            if (wordChar && start < 0) {
+                start = i;
+            } else if (!wordChar && start >= 0) {
+                terms.add(text.substring(start, i).toLowerCase(Locale.ROOT));
+                start = -1;
+            }
+        }
+        return terms;
+    }
+
+    private static int countTerms(String text, int weight, Map<String, Integer> frequencies) {
+        List<String> terms = tokenize(text);
+        for (String term : terms) {
+            frequencies.merge(term, weight, Integer::sum);
+        }
+        return terms.size() * weight;
+    }
+
+    private List<Postings> matchingPostings(String term, boolean prefix) {
+        List<Postings> matching = new ArrayList<>();
+        if (!prefix) {
+            Postings postings = postingsByTerm.get(term);
+            if (postings != null) {
+                matching.add(postings);
+            }
+            return matching;
+        }
+
+        NavigableMap<String, Postings> expansions = postingsByTerm.subMap(term, true, term + Character.MAX_VALUE, false);
+        matching.addAll(expansions.values());
+        if (matching.size() > MAX_PREFIX_EXPANSIONS) {
+            Postings exact = postingsByTerm.get(term);
+            matching.sort((a, b) -> Integer.compare(b.size, a.size));
+            matching = new ArrayList<>(matching.subList(0, MAX_PREFIX_EXPANSIONS));
+            if (exact != null && !matching.contains(exact)) {
+                matching.set(MAX_PREFIX_EXPANSIONS - 1, exact);
+            }
+        }
+        return matching;
+    }
+
+    private float idf(int documentFrequency) {
+        int documents = slotsByCourseId.size();
+        return (float) Math.log(1 + (documents - documentFrequency + 0.5) / (documentFrequency + 0.5));
+    }
+
+    private int compareSlots(int a, int b, float[] scores) {
+        int byScore = Float.compare(scores[b], scores[a]);
+        return byScore != 0 ? byScore : Integer.compare(courses[a].getCourseId(), courses[b].getCourseId());
+    }
+
+    private void removeLocked(int courseId) {
+        Integer slot = slotsByCourseId.remove(courseId);
+        if (slot == null) {
+            return;
+        }
+        for (String term : termsBySlot[slot]) {
+            Postings postings = postingsByTerm.get(term);
+            postings.remove(slot);
+            if (postings.size == 0) {
+                postingsByTerm.remove(term);
+            }
+        }
+        totalLength -= lengths[slot];
+        courses[slot] = null;
+        termsBySlot[slot] = null;
+        lengths[slot] = 0;
+        if (freeSlotCount == freeSlots.length) {
+            freeSlots = Arrays.copyOf(freeSlots, freeSlotCount * 2);
+        }
+        freeSlots[freeSlotCount++] = slot;
+    }
+
+    private int allocateSlot() {
+        if (freeSlotCount > 0) {
+            return freeSlots[--freeSlotCount];
+        }
+        if (slotCount == courses.length) {
+            courses = Arrays.copyOf(courses, slotCount * 2);
+            termsBySlot = Arrays.copyOf(termsBySlot, slotCount * 2);
+            lengths = Arrays.copyOf(lengths, slotCount * 2);
+        }
+        return slotCount++;
+    }
+
+    private static final ThreadLocal<Scratch> SCRATCH = ThreadLocal.withInitial(Scratch::new);
+
+    /**
+     * Per-thread score accumulators, reused across searches; only the matched entries are reset.
+     */
+    private static final class Scratch {
+        private float[] scores = new float[0];
+        private int[] matched = new int[0];
+
+        private Scratch ensureCapacity(int slots) {
+            if (scores.length < slots) {
+                scores = new float[slots];
+                matched = new int[slots];
+            }
+            return this;
+        }
+    }
+
+    /**
+     * Slots containing one term, with the term's weighted frequency in each; unordered.
+     */
+    private static final class Postings {
+        private int[] slots = new int[4];
+        private int[] frequencies = new int[4];
+        private int size;
+
+        private void add(int slot, int frequency) {
+            if (size == slots.length) {
+                slots = Arrays.copyOf(slots, size * 2);
+                frequencies = Arrays.copyOf(frequencies, size * 2);
+            }
+            slots[size] = slot;
+            frequencies[size] = frequency;
+            size++;
+        }
+
+        private void remove(int slot) {
+            for (int i = 0; i < size; i++) {
+                if (slots[i] == slot) {
+                    size--;
+                    slots[i] = slots[size];
+                    frequencies[i] = frequencies[size];
+                    return;
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,167 @@
+package com.timi.service.impl;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+
+import com.timi.dao.CourseDAO;
+import com.timi.dao.Page;
+import com.timi.dao.impl.CachingCourseDAO;
+import com.timi.exception.DAOException;
+import com.timi.model.Course;
+import com.timi.model.CourseFacetCounts;
+import com.timi.model.CourseFilter;
+import com.timi.service.CourseSearchService;
+
+/**
+ * Ranked full-text course search served from a {@link CourseSearchIndex}, title completion
+ * served from a {@link CourseTitleTrie} ranked by popularity (enrolments plus applications), and
+ * catalog filtering served from a {@link CourseFacetIndex}. All three are built from the database on startup (or on first use) and then kept current by
+ * {@link ElearningServiceImpl} as courses are added, updated and deleted and students apply. Page
+ * tokens hold the offset into the ranking, so a page can shift if the index changes between
+ * requests.
+ */
+public class CourseSearchServiceImpl implements CourseSearchService {
+
+    static final int MAX_COMPLETIONS = 10;
+
+    private static CourseSearchServiceImpl instance;
+
+    private CourseDAO courseDAO;
+    // all null until the first build
+    private volatile CourseSearchIndex index;
+    private volatile CourseTitleTrie titles;
+    private volatile CourseFacetIndex facets;
+
+    public CourseSearchServiceImpl(CourseDAO courseDAO) {
+        this.courseDAO = courseDAO;
+    }
+
+    public static synchronized CourseSearchServiceImpl getInstance() {
+        if (instance == null) {
+            instance = new CourseSearchServiceImpl(CachingCourseDAO.getInstance());
+        }
+        return instance;
+    }
+
+    @Override
+    public Page<Course> searchCourses(String query, String pageToken, int pageSize) throws DAOException {
+        CourseSearchIndex current = index;
+        if (current == null) {
+            current = buildOnFirstUse();
+        }
+
+        int offset = Page.decodeToken(pageToken);
+        List<Course> courses = current.search(query, offset, Page.checkPageSize(pageSize) + 1);
+        String nextPageToken = null;
+        if (courses.size() > pageSize) {
+            courses.remove(pageSize);
+            nextPageToken = Page.encodeToken(offset + pageSize);
+        }
+        return new Page<>(courses, nextPageToken);
+    }
+
+    /**
+     * Up to {@code count} (at most {@value #MAX_COMPLETIONS}) course titles starting with
+     * {@code prefix}, most popular first.
+     */
+    @Override
+    public List<String> completeCourseTitle(String prefix, int count) throws DAOException {
+        CourseTitleTrie current = titles;
+        if (current == null) {
+            buildOnFirstUse();
+            current = titles;
+        }
+        return current.complete(prefix, count);
+    }
+
+    /**
+     * Courses matching the filter, in id order; the page token holds the last course id returned.
+     */
+    @Override
+    public Page<Course> filterCourses(CourseFilter filter, String pageToken, int pageSize) throws DAOException {
+        CourseFacetIndex current = facets;
+        if (current == null) {
+            buildOnFirstUse();
+            current = facets;
+        }
+        List<Course> courses = current.filter(filter, Page.decodeToken(pageToken), Page.checkPageSize(pageSize) + 1);
+        return Page.of(courses, pageSize, Course::getCourseId);
+    }
+
+    @Override
+    public CourseFacetCounts countCourseFacets(CourseFilter filter) throws DAOException {
+        CourseFacetIndex current = facets;
+        if (current == null) {
+            buildOnFirstUse();
+            current = facets;
+        }
+        return current.count(filter);
+    }
+
+    @Override
+    public void indexCourse(Course course) {
+        CourseSearchIndex currentIndex = index;
+        CourseTitleTrie currentTitles = titles;
+        CourseFacetIndex currentFacets = facets;
+        // indexes not built yet will pick the course up from the database
+        if (currentIndex != null) {
+            currentIndex.index(course);
+            currentTitles.put(course.getCourseId(), course.getTitle());
+            currentFacets.index(course);
+        }
+    }
+
+    @Override
+    public void removeCourse(int courseId) {
+        CourseSearchIndex currentIndex = index;
+        CourseTitleTrie currentTitles = titles;
+        CourseFacetIndex currentFacets = facets;
+        if (currentIndex != null) {
+            currentIndex.remove(courseId);
+            currentTitles.remove(courseId);
+            currentFacets.remove(courseId);
+        }
+    }
+
+    /**
+     * Counts one more enrollment in or application for the course towards its popularity.
+     */
+    @Override
+    public void recordPopularity(int courseId) {
+        CourseTitleTrie current = titles;
+        if (current != null) {
+            current.addPopularity(courseId, 1);
+        }
+    }
+
+    /**
+     * Replaces all three indexes with ones built from the courses in the database.
+     */
+    @Override
+    public synchronized void rebuild() throws DAOException {
+        CourseSearchIndex rebuiltIndex = new CourseSearchIndex();
+        CourseTitleTrie rebuiltTitles = new CourseTitleTrie(MAX_COMPLETIONS);
+        CourseFacetIndex rebuiltFacets = new CourseFacetIndex();
+        Map<Integer, Integer> popularity = courseDAO.getCoursePopularity();
+        List<Course> courses = new ArrayList<>(courseDAO.getAllCourses());
+        // the facet index appends in id order
+        courses.sort(Comparator.comparingInt(Course::getCourseId));
+        for (Course course : courses) {
+            rebuiltIndex.index(course);
+            rebuiltTitles.put(course.getCourseId(), course.getTitle(), popularity.getOrDefault(course.getCourseId(), 0));
+            rebuiltFacets.index(course);
+        }
+        facets = rebuiltFacets;
+        titles = rebuiltTitles;
+        index = rebuiltIndex;
+    }
+
+    private synchronized CourseSearchIndex buildOnFirstUse() throws DAOException {
+        if (index == null) {
+            rebuild();
+        }
+        return index;
+    }
+}
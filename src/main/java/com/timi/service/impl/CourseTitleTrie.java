@@ -0,0 +1,324 @@
+package com.timi.service.impl;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Radix trie over lowercased course titles for type-ahead completion. Every node keeps the best
+ * {@code k} titles of its subtree (most popular first, then alphabetical), so completing a prefix
+ * is a walk down at most {@code prefix.length()} edges followed by a copy of that node's list; it
+ * never visits the subtree. Children are kept in arrays sorted by their first character. Adding,
+ * removing or re-ranking a course rebuilds the lists on its path only.
+ */
+public class CourseTitleTrie {
+
+    private static final Node[] NO_CHILDREN = new Node[0];
+    private static final Entry[] NO_ENTRIES = new Entry[0];
+    private static final Comparator<Entry> RANKING = Comparator.comparingInt((Entry entry) -> -entry.popularity)
+            .thenComparing(entry -> entry.key)
+            .thenComparingInt(entry -> entry.courseId);
+
+    private final int k;
+    private final Node root = new Node("");
+    private final Map<Integer, Entry> entriesByCourseId = new HashMap<>();
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    public CourseTitleTrie(int k) {
+        this.k = k;
+    }
+
+    /**
+     * Adds the course, replacing any earlier title or popularity it had.
+     */
+    public void put(int courseId, String title, int popularity) {
+        Entry entry = new Entry(courseId, title, popularity);
+        lock.writeLock().lock();
+        try {
+            removeLocked(courseId);
+            insertLocked(entry);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Adds the course or changes its title, keeping the popularity it already had.
+     */
+    public void put(int courseId, String title) {
+        lock.writeLock().lock();
+        try {
+            Entry current = entriesByCourseId.get(courseId);
+            removeLocked(courseId);
+            insertLocked(new Entry(courseId, title, current == null ? 0 : current.popularity));
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void remove(int courseId) {
+        lock.writeLock().lock();
+        try {
+            removeLocked(courseId);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Adds {@code delta} to the popularity of a course already in the trie.
+     */
+    public void addPopularity(int courseId, int delta) {
+        lock.writeLock().lock();
+        try {
+            Entry current = entriesByCourseId.get(courseId);
+            if (current != null) {
+                removeLocked(courseId);
+                insertLocked(new Entry(courseId, current.title, current.popularity + delta));
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Up to {@code count} (at most {@code k}) titles starting with {@code prefix}, ignoring case.
+     */
+    public List<String> complete(String prefix, int count) {
+        String key = normalize(prefix);
+        List<String> titles = new ArrayList<>();
+        lock.readLock().lock();
+        try {
+            Node node = root;
+            int i = 0;
+            while (i < key.length()) {
+                Node child = child(node, key.charAt(i));
+                if (child == null) {
+                    return titles;
+                }
+                int remaining = key.length() - i;
+                if (remaining < child.label.length()) {
+                    // the prefix ends inside this edge
+                    if (!child.label.startsWith(key.substring(i))) {
+                        return titles;
+                    }
+                } else if (!key.startsWith(child.label, i)) {
+                    return titles;
+                }
+                node = child;
+                i += child.label.length();
+            }
+            for (int t = 0; t < node.top.length && t < count; t++) {
+                titles.add(node.top[t].title);
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+        return titles;
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return entriesByCourseId.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private void insertLocked(Entry entry) {
+        List<Node> path = new ArrayList<>();
+        Node node = root;
+        path.add(node);
+        String key = entry.key;
+        int i = 0;
+        while (i < key.length()) {
+            int index = childIndex(node, key.charAt(i));
+            if (index < 0) {
+                Node leaf = new Node(key.substring(i));
+                node.children = insertAt(node.children, -index - 1, leaf);
+                node = leaf;
+                path.add(node);
+                break;
+            }
+
+            Node child = node.children[index];
+            int common = commonPrefixLength(child.label, key, i);
+            if (common < child.label.length()) {
+                // split the edge where the new key leaves it
+                Node middle = new Node(child.label.substring(0, common));
+                child.label = child.label.substring(common);
+                middle.children = new Node[] {child};
+                node.children[index] = middle;
+                child = middle;
+            }
+            node = child;
+            path.add(node);
+            i += common;
+        }
+
+        node.entries = Arrays.copyOf(node.entries, node.entries.length + 1);
+        node.entries[node.entries.length - 1] = entry;
+        entriesByCourseId.put(entry.courseId, entry);
+        for (int p = path.size() - 1; p >= 0; p--) {
+            recomputeTop(path.get(p));
+        }
+    }
+
+    private void removeLocked(int courseId) {
+        Entry entry = entriesByCourseId.remove(courseId);
+        if (entry == null) {
+            return;
+        }
+
+        List<Node> path = new ArrayList<>();
+        Node node = root;
+        path.add(node);
+        for (int i = 0; i < entry.key.length(); i += node.label.length()) {
+            node = child(node, entry.key.charAt(i));
+            path.add(node);
+        }
+
+        Entry[] remaining = new Entry[node.entries.length - 1];
+        int r = 0;
+        for (Entry existing : node.entries) {
+            if (existing != entry) {
+                remaining[r++] = existing;
+            }
+        }
+        node.entries = remaining;
+
+        for (int p = path.size() - 1; p > 0; p--) {
+            Node current = path.get(p);
+            Node parent = path.get(p - 1);
+            if (current.entries.length == 0 && current.children.length == 0) {
+                parent.children = removeAt(parent.children, childIndex(parent, current.label.charAt(0)));
+            } else if (current.entries.length == 0 && current.children.length == 1) {
+                // an empty node with one child is just part of a longer edge
+                Node only = current.children[0];
+                only.label = current.label + only.label;
+                parent.children[childIndex(parent, current.label.charAt(0))] = only;
+            } else {
+                recomputeTop(current);
+            }
+        }
+        recomputeTop(root);
+    }
+
+    /**
+     * Merges the node's own entries with its children's lists, which are already ranked.
+     */
+    private void recomputeTop(Node node) {
+        Entry[] own = node.entries.clone();
+        Arrays.sort(own, RANKING);
+        Entry[] top = new Entry[k];
+        int[] positions = new int[node.children.length];
+        int ownPosition = 0;
+        int size = 0;
+        while (size < k) {
+            Entry best = ownPosition < own.length ? own[ownPosition] : null;
+            int bestChild = -1;
+            for (int c = 0; c < node.children.length; c++) {
+                Entry[] childTop = node.children[c].top;
+                if (positions[c] < childTop.length && (best == null || RANKING.compare(childTop[positions[c]], best) < 0)) {
+                    best = childTop[positions[c]];
+                    bestChild = c;
+                }
+            }
+            if (best == null) {
+                break;
+            }
+            top[size++] = best;
+            if (bestChild < 0) {
+                ownPosition++;
+            } else {
+                positions[bestChild]++;
+            }
+        }
+        node.top = size == k ? top : Arrays.copyOf(top, size);
+    }
+
+    private static Node child(Node node, char first) {
+        int index = childIndex(node, first);
+        return index < 0 ? null : node.children[index];
+    }
+
+    /**
+     * Index of the child whose label starts with {@code first}, or {@code -(insertion point) - 1}.
+     */
+    private static int childIndex(Node node, char first) {
+        int low = 0;
+        int high = node.children.length - 1;
+        while (low <= high) {
+            int middle = (low + high) >>> 1;
+            char c = node.children[middle].label.charAt(0);
+            if (c < first) {
+                low = middle + 1;
+            } else if (c > first) {
+                high = middle - 1;
+            } else {
+                return middle;
+            }
+        }
+        return -low - 1;
+    }
+
+    private static int commonPrefixLength(String label, String key, int offset) {
+        int length = 0;
+        while (length < label.length() && offset + length < key.length() && label.charAt(length) == key.charAt(offset + length)) {
+            length++;
+        }
+        return length;
+    }
+
+    private static Node[] insertAt(Node[] children, int index, Node child) {
+        Node[] result = new Node[children.length + 1];
+        System.arraycopy(children, 0, result, 0, index);
+        result[index] = child;
+        System.arraycopy(children, index, result, index + 1, children.length - index);
+        return result;
+    }
+
+    private static Node[] removeAt(Node[] children, int index) {
+        Node[] result = new Node[children.length - 1];
+        System.arraycopy(children, 0, result, 0, index);
+        System.arraycopy(children, index + 1, result, index, children.length - index - 1);
+        return result;
+    }
+
+    static String normalize(String title) {
+        return title == null ? "" : title.trim().toLowerCase(Locale.ROOT);
+    }
+
+    private static final class Node {
+        private String label;
+        private Node[] children = NO_CHILDREN;
+        // courses whose whole title ends at this node
+        private Entry[] entries = NO_ENTRIES;
+        private Entry[] top = NO_ENTRIES;
+
+        private Node(String label) {
+            this.label = label;
+        }
+    }
+
+    private static final class Entry {
+        private final int courseId;
+        private final String title;
+        private final String key;
+        private final int popularity;
+
+        private Entry(int courseId, String title, int popularity) {
+            this.courseId = courseId;
+            this.title = title;
+            this.key = normalize(title);
+            this.popularity = popularity;
+        }
+    }
+}
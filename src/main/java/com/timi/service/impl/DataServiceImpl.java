@@ -1,71 +1,254 @@
 package com.timi.service.impl;
 
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Collection;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Queue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
 
+import com.timi.dao.TableFingerprint;
+import com.timi.dao.TableFingerprintDAO;
+import com.timi.dao.impl.TableFingerprintDAOImpl;
+import com.timi.exception.DAOException;
 import com.timi.model.*;
 import com.timi.service.DataService;
 import com.timi.service.ElearningService;
 
+/**
+ * Loads every entity collection at startup. The collections do not depend on each other, so
+ * {@link #loadDatabase()} fetches them concurrently, each on its own pooled connection, and the
+ * total time is that of the slowest one. In lazy mode ({@code -Ddata.lazyLoad=true}) nothing is
+ * fetched up front and each collection is loaded on first access instead.
+ * <p>
+ * After an eager load the collections are saved to a local snapshot ({@code data.snapshotFile},
+ * disable with {@code -Ddata.snapshot=false}) along with the fingerprints of the tables they came
+ * from. On the next start a collection whose tables are unchanged is taken from the snapshot;
+ * attempts and applications whose existing rows are unchanged only fetch the rows added since.
+ */
 public class DataServiceImpl implements DataService{
 
-    private List<Course> courses;
-    private List<Quiz> quizzes;
-    private List<Question> questions;
-    private List<QuizAttempt> quizAttempts;
-    private List<User> users;
-    private Queue<Application> applications;
-    private ElearningService elearningService;
+    private final ElearningService elearningService;
+    private final TableFingerprintDAO fingerprintDAO;
+    private final boolean lazy;
+    private final Path snapshotFile;
+
+    private final Entity<List<Course>> courses;
+    private final Entity<List<Quiz>> quizzes;
+    private final Entity<List<Question>> questions;
+    private final Entity<List<QuizAttempt>> quizAttempts;
+    private final Entity<List<User>> users;
+    private final Entity<Queue<Application>> applications;
+    private final List<Entity<?>> entities;
 
     public DataServiceImpl() {
+        this(Boolean.getBoolean("data.lazyLoad"));
+    }
+
+    public DataServiceImpl(boolean lazy) {
         this.elearningService = new ElearningServiceImpl();
+        this.fingerprintDAO = new TableFingerprintDAOImpl();
+        this.lazy = lazy;
+        this.snapshotFile = Boolean.parseBoolean(System.getProperty("data.snapshot", "true"))
+                ? Paths.get(System.getProperty("data.snapshotFile", "data_snapshot.bin"))
+                : null;
+        this.courses = new Entity<>("courses", elearningService::getAllCourses);
+        this.quizzes = new Entity<>("quizzes", elearningService::getAllQuizzes);
+        this.questions = new Entity<>("questions", elearningService::getAllQuestions);
+        this.quizAttempts = new Entity<>("quizAttempts", elearningService::getAllQuizAttempts);
+        this.users = new Entity<>("users", elearningService::getAllUsers);
+        this.applications = new Entity<>("applications", elearningService::getAllApplications);
+        this.entities = List.of(courses, quizzes, questions, quizAttempts, users, applications);
     }
 
     public List<Course> getCourses() {
-        return courses;
+        return courses.get();
     }
     public void setCourses(List<Course> courses) {
-        this.courses = courses;
+        this.courses.set(courses);
     }
     public List<Quiz> getQuizzes() {
-        return quizzes;
+        return quizzes.get();
     }
     public void setQuizzes(List<Quiz> quizzes) {
-        this.quizzes = quizzes;
+        this.quizzes.set(quizzes);
     }
     public List<Question> getQuestions() {
-        return questions;
+        return questions.get();
     }
     public void setQuestions(List<Question> questions) {
-        this.questions = questions;
+        this.questions.set(questions);
     }
     public List<QuizAttempt> getQuizAttempts() {
-        return quizAttempts;
+        return quizAttempts.get();
     }
     public void setQuizAttempts(List<QuizAttempt> quizAttempts) {
-        this.quizAttempts = quizAttempts;
+        this.quizAttempts.set(quizAttempts);
     }
     public List<User> getUsers() {
-        return users;
+        return users.get();
     }
     public void setUsers(List<User> users) {
-        this.users = users;
+        this.users.set(users);
     }
     public Queue<Application> getApplications() {
-        return applications;
+        return applications.get();
     }
     public void setApplications(Queue<Application> applications) {
-        this.applications = applications;
+        this.applications.set(applications);
+    }
+
+    @Override
+    public Map<String, Long> getLoadTimes() {
+        Map<String, Long> loadTimes = new LinkedHashMap<>();
+        for (Entity<?> entity : entities) {
+            if (entity.loadMillis >= 0) {
+                loadTimes.put(entity.name, entity.loadMillis);
+            }
+        }
+        return loadTimes;
     }
 
     @Override
     public void loadDatabase() throws Exception {
-        this.setCourses(elearningService.getAllCourses());
-        this.setQuizzes(elearningService.getAllQuizzes());
-        this.setQuestions(elearningService.getAllQuestions());
-        this.setQuizAttempts(elearningService.getAllQuizAttempts());
-        this.setUsers(elearningService.getAllUsers());
-        this.setApplications(elearningService.getAllApplications());
+        if (lazy) {
+            return;
+        }
+
+        Map<String, TableFingerprint> fingerprints = snapshotFile != null ? currentFingerprints() : null;
+        if (fingerprints != null) {
+            restoreFromSnapshot(fingerprints);
+        }
+
+        AtomicInteger threadCount = new AtomicInteger();
+        ExecutorService executor = Executors.newFixedThreadPool(entities.size(), r -> {
+            Thread thread = new Thread(r, "data-loader-" + threadCount.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        try {
+            CompletableFuture<?>[] loads = new CompletableFuture<?>[entities.size()];
+            for (int i = 0; i < loads.length; i++) {
+                Entity<?> entity = entities.get(i);
+                loads[i] = CompletableFuture.runAsync(() -> {
+                    try {
+                        entity.loadIfNeeded();
+                    } catch (DAOException e) {
+                        throw new CompletionException(e);
+                    }
+                }, executor);
+            }
+            CompletableFuture.allOf(loads).join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof DAOException) {
+                throw (DAOException) e.getCause();
+            }
+            throw e;
+        } finally {
+            executor.shutdown();
+            executor.awaitTermination(1, TimeUnit.MINUTES);
+        }
+
+        if (fingerprints != null) {
+            writeSnapshot(fingerprints);
+        }
+    }
+
+    /**
+     * Fingerprints are taken before anything is loaded, so the saved data is never older than
+     * the fingerprints stored with it. Null if the database cannot compute them.
+     */
+    private Map<String, TableFingerprint> currentFingerprints() {
+        try {
+            return fingerprintDAO.getFingerprints();
+        } catch (DAOException e) {
+            System.out.println("Table fingerprints unavailable, skipping data snapshot: " + e.getMessage());
+            return null;
+        }
+    }
+
+    private void restoreFromSnapshot(Map<String, TableFingerprint> current) throws DAOException {
+        if (!Files.exists(snapshotFile)) {
+            return;
+        }
+        DataSnapshot snapshot;
+        try {
+            snapshot = DataSnapshot.read(snapshotFile);
+        } catch (IOException e) {
+            System.out.println("Ignoring data snapshot: " + e.getMessage());
+            return;
+        }
+        Map<String, TableFingerprint> saved = snapshot.fingerprints;
+
+        if (unchanged(saved, current, "Courses")) {
+            courses.restore(snapshot.courses);
+        }
+        if (unchanged(saved, current, "Quizzes", "Questions")) {
+            quizzes.restore(snapshot.quizzes);
+        }
+        if (unchanged(saved, current, "Questions")) {
+            questions.restore(snapshot.questions);
+        }
+        if (unchanged(saved, current, "Users", "UserCourses", "Courses")) {
+            users.restore(snapshot.users);
+        }
+
+        if (unchanged(saved, current, "QuizAttempts", "QuizAttemptQuestions", "Questions")) {
+            quizAttempts.restore(snapshot.quizAttempts);
+        } else if (unchanged(saved, current, "Questions")
+                && unchangedUpTo(saved, "QuizAttempts", "QuizAttempts")
+                && unchangedUpTo(saved, "QuizAttemptQuestions", "QuizAttempts")) {
+            int mark = saved.get("QuizAttempts").getMaxKey();
+            quizAttempts.restoreAndAppend(snapshot.quizAttempts, () -> elearningService.getQuizAttemptsAfter(mark));
+        }
+
+        if (unchanged(saved, current, "Applications")) {
+            applications.restore(snapshot.applications);
+        } else if (unchangedUpTo(saved, "Applications", "Applications")) {
+            int mark = saved.get("Applications").getMaxKey();
+            applications.restoreAndAppend(snapshot.applications, () -> elearningService.getApplicationsAfter(mark));
+        }
+    }
+
+    private static boolean unchanged(Map<String, TableFingerprint> saved, Map<String, TableFingerprint> current, String... tables) {
+        for (String table : tables) {
+            if (saved.get(table) == null || !saved.get(table).equals(current.get(table))) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * True if the rows of {@code table} keyed at or below the high-water mark saved for
+     * {@code markTable} are exactly the rows that were saved, i.e. the table only grew since.
+     */
+    private boolean unchangedUpTo(Map<String, TableFingerprint> saved, String table, String markTable) throws DAOException {
+        TableFingerprint savedTable = saved.get(table);
+        TableFingerprint savedMark = saved.get(markTable);
+        if (savedTable == null || savedMark == null) {
+            return false;
+        }
+        TableFingerprint prefix = fingerprintDAO.getFingerprint(table, savedMark.getMaxKey());
+        return prefix.getRowCount() == savedTable.getRowCount() && prefix.getChecksum() == savedTable.getChecksum();
+    }
+
+    private void writeSnapshot(Map<String, TableFingerprint> fingerprints) {
+        try {
+            new DataSnapshot(fingerprints, getCourses(), getQuizzes(), getQuestions(), getQuizAttempts(), getUsers(), getApplications())
+                    .write(snapshotFile);
+        } catch (IOException e) {
+            System.out.println("Error writing data snapshot: " + e.getMessage());
+        }
     }
 
     @Override
@@ -106,4 +289,73 @@ public class DataServiceImpl implements DataService{
         }
         System.out.println();
     }
+
+    private interface Loader<T> {
+        T load() throws DAOException;
+    }
+
+    /**
+     * One entity collection, loaded at most once unless it is replaced through its setter. A
+     * collection restored from the snapshot may still have newer rows to fetch and append.
+     */
+    private static final class Entity<T extends Collection<?>> {
+        private final String name;
+        private final Loader<T> loader;
+        private Loader<T> newerRows;
+        private T value;
+        private boolean loaded;
+        private volatile long loadMillis = -1;
+
+        private Entity(String name, Loader<T> loader) {
+            this.name = name;
+            this.loader = loader;
+        }
+
+        private synchronized void restore(T value) {
+            this.value = value;
+            this.loaded = true;
+            this.loadMillis = 0;
+        }
+
+        private synchronized void restoreAndAppend(T value, Loader<T> newerRows) {
+            this.value = value;
+            this.newerRows = newerRows;
+        }
+
+        private synchronized void loadIfNeeded() throws DAOException {
+            if (!loaded) {
+                load();
+            }
+        }
+
+        @SuppressWarnings("unchecked")
+        private synchronized void load() throws DAOException {
+            long start = System.nanoTime();
+            if (newerRows != null) {
+                ((Collection<Object>) value).addAll(newerRows.load());
+                newerRows = null;
+            } else {
+                value = loader.load();
+            }
+            loaded = true;
+            loadMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+        }
+
+        private synchronized T get() {
+            if (!loaded) {
+                try {
+                    load();
+                } catch (DAOException e) {
+                    throw new IllegalStateException("Error loading " + name, e);
+                }
+            }
+            return value;
+        }
+
+        private synchronized void set(T value) {
+            this.value = value;
+            this.newerRows = null;
+            this.loaded = true;
+        }
+    }
 }
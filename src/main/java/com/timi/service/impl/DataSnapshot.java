@@ -0,0 +1,420 @@
+package com.timi.service.impl;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.PosixFilePermissions;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+
+import com.timi.dao.TableFingerprint;
+import com.timi.model.*;
+
+/**
+ * Binary image of the collections loaded by {@link DataServiceImpl}, together with the table
+ * fingerprints taken just before they were loaded. Written with a DataOutputStream and read back
+ * through a memory-mapped buffer; both use the same big-endian layout. Courses referenced by users
+ * are stored once and shared again on read. Passwords are left out, so restored users have none,
+ * and the file is readable by its owner only where the file system supports it.
+ */
+final class DataSnapshot {
+
+    private static final int MAGIC = 0x454c534e;
+    private static final int VERSION = 3;
+
+    private static final byte STUDENT = 0;
+    private static final byte INSTRUCTOR = 1;
+    private static final byte ADMIN = 2;
+
+    final Map<String, TableFingerprint> fingerprints;
+    final List<Course> courses;
+    final List<Quiz> quizzes;
+    final List<Question> questions;
+    final List<QuizAttempt> quizAttempts;
+    final List<User> users;
+    final Queue<Application> applications;
+
+    DataSnapshot(Map<String, TableFingerprint> fingerprints, List<Course> courses, List<Quiz> quizzes, List<Question> questions,
+            List<QuizAttempt> quizAttempts, List<User> users, Queue<Application> applications) {
+        this.fingerprints = fingerprints;
+        this.courses = courses;
+        this.quizzes = quizzes;
+        this.questions = questions;
+        this.quizAttempts = quizAttempts;
+        this.users = users;
+        this.applications = applications;
+    }
+
+    /**
+     * Writes to a temporary file next to the target and moves it into place, so a crash never
+     * leaves a half-written snapshot behind.
+     */
+    void write(Path file) throws IOException {
+        Path tmp = file.resolveSibling(file.getFileName() + ".tmp");
+        Files.deleteIfExists(tmp);
+        if (tmp.getFileSystem().supportedFileAttributeViews().contains("posix")) {
+            Files.createFile(tmp, PosixFilePermissions.asFileAttribute(PosixFilePermissions.fromString("rw-------")));
+        }
+        try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(tmp), 1 << 16))) {
+            out.writeInt(MAGIC);
+            out.writeInt(VERSION);
+
+            out.writeInt(fingerprints.size());
+            for (Map.Entry<String, TableFingerprint> entry : fingerprints.entrySet()) {
+                writeString(out, entry.getKey());
+                out.writeLong(entry.getValue().getRowCount());
+                out.writeInt(entry.getValue().getMaxKey());
+                out.writeLong(entry.getValue().getChecksum());
+            }
+
+            out.writeInt(courses.size());
+            for (Course course : courses) {
+                writeCourse(out, course);
+            }
+            out.writeInt(quizzes.size());
+            for (Quiz quiz : quizzes) {
+                writeQuiz(out, quiz);
+            }
+            writeQuestions(out, questions);
+            out.writeInt(quizAttempts.size());
+            for (QuizAttempt quizAttempt : quizAttempts) {
+                writeQuizAttempt(out, quizAttempt);
+            }
+            writeUsers(out, users);
+            out.writeInt(applications.size());
+            for (Application application : applications) {
+                writeApplication(out, application);
+            }
+        }
+        Files.move(tmp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    static DataSnapshot read(Path file) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            MappedByteBuffer in = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            if (in.getInt() != MAGIC || in.getInt() != VERSION) {
+                throw new IOException("Not a data snapshot or unsupported version: " + file);
+            }
+
+            int tableCount = in.getInt();
+            Map<String, TableFingerprint> fingerprints = new LinkedHashMap<>();
+            for (int i = 0; i < tableCount; i++) {
+                String table = readString(in);
+                fingerprints.put(table, new TableFingerprint(in.getLong(), in.getInt(), in.getLong()));
+            }
+
+            int courseCount = in.getInt();
+            List<Course> courses = new ArrayList<>(courseCount);
+            for (int i = 0; i < courseCount; i++) {
+                courses.add(readCourse(in));
+            }
+            int quizCount = in.getInt();
+            List<Quiz> quizzes = new ArrayList<>(quizCount);
+            for (int i = 0; i < quizCount; i++) {
+                quizzes.add(readQuiz(in));
+            }
+            List<Question> questions = readQuestions(in);
+            int attemptCount = in.getInt();
+            List<QuizAttempt> quizAttempts = new ArrayList<>(attemptCount);
+            for (int i = 0; i < attemptCount; i++) {
+                quizAttempts.add(readQuizAttempt(in));
+            }
+            List<User> users = readUsers(in);
+            int applicationCount = in.getInt();
+            Queue<Application> applications = new LinkedList<>();
+            for (int i = 0; i < applicationCount; i++) {
+                applications.offer(readApplication(in));
+            }
+            return new DataSnapshot(fingerprints, courses, quizzes, questions, quizAttempts, users, applications);
+        } catch (RuntimeException e) {
+            // truncated or corrupted file
+            throw new IOException("Unreadable data snapshot: " + file, e);
+        }
+    }
+
+    private static void writeCourse(DataOutputStream out, Course course) throws IOException {
+        out.writeInt(course.getCourseId());
+        writeString(out, course.getTitle());
+        writeString(out, course.getDescription());
+        out.writeInt(course.getInstructorId());
+        writeString(out, course.getLevel() == null ? null : course.getLevel().name());
+        out.writeBoolean(course.getPrice() != null);
+        out.writeDouble(course.getPrice() != null ? course.getPrice() : 0);
+        out.writeInt(course.getDuration());
+        writeString(out, course.getCategory() == null ? null : course.getCategory().name());
+    }
+
+    private static Course readCourse(ByteBuffer in) {
+        Course course = new Course();
+        course.setCourseId(in.getInt());
+        course.setTitle(readString(in));
+        course.setDescription(readString(in));
+        course.setInstructor(in.getInt());
+        String level = readString(in);
+        course.setLevel(level == null ? null : Level.valueOf(level));
+        boolean hasPrice = in.get() != 0;
+        double price = in.getDouble();
+        course.setPrice(hasPrice ? price : null);
+        course.setDuration(in.getInt());
+        String category = readString(in);
+        course.setCategory(category == null ? null : Category.valueOf(category));
+        return course;
+    }
+
+    private static void writeQuiz(DataOutputStream out, Quiz quiz) throws IOException {
+        out.writeInt(quiz.getQuizId());
+        writeString(out, quiz.getTitle());
+        writeQuestions(out, quiz.getQuestions());
+        out.writeInt(quiz.getCourseId());
+        out.writeFloat(quiz.getDuration());
+    }
+
+    private static Quiz readQuiz(ByteBuffer in) {
+        int quizId = in.getInt();
+        String title = readString(in);
+        List<Question> questions = readQuestions(in);
+        return new Quiz(quizId, title, questions, in.getInt(), in.getFloat());
+    }
+
+    private static void writeQuestions(DataOutputStream out, List<Question> questions) throws IOException {
+        if (questions == null) {
+            out.writeInt(-1);
+            return;
+        }
+        out.writeInt(questions.size());
+        for (Question question : questions) {
+            out.writeInt(question.getQuestionId());
+            writeString(out, question.getContent());
+            List<String> options = question.getOptions();
+            out.writeInt(options == null ? -1 : options.size());
+            if (options != null) {
+                for (String option : options) {
+                    writeString(out, option);
+                }
+            }
+            out.writeInt(question.getCorrectOptionIndex());
+            out.writeInt(question.getSelectedOptionIndex());
+            out.writeInt(question.getQuizId());
+        }
+    }
+
+    private static List<Question> readQuestions(ByteBuffer in) {
+        int count = in.getInt();
+        if (count < 0) {
+            return null;
+        }
+        List<Question> questions = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            int questionId = in.getInt();
+            String content = readString(in);
+            int optionCount = in.getInt();
+            List<String> options = null;
+            if (optionCount >= 0) {
+                options = new ArrayList<>(optionCount);
+                for (int j = 0; j < optionCount; j++) {
+                    options.add(readString(in));
+                }
+            }
+            questions.add(new Question(questionId, content, options, in.getInt(), in.getInt(), in.getInt()));
+        }
+        return questions;
+    }
+
+    private static void writeQuizAttempt(DataOutputStream out, QuizAttempt quizAttempt) throws IOException {
+        out.writeInt(quizAttempt.getAttemptId());
+        out.writeInt(quizAttempt.getUserId());
+        out.writeInt(quizAttempt.getQuizId());
+        LocalDateTime timestamp = quizAttempt.getTimestamp();
+        out.writeBoolean(timestamp != null);
+        out.writeLong(timestamp == null ? 0 : timestamp.toEpochSecond(ZoneOffset.UTC));
+        out.writeInt(timestamp == null ? 0 : timestamp.getNano());
+        out.writeInt(quizAttempt.getScore());
+        writeQuestions(out, quizAttempt.getQuestionsAttempted());
+        out.writeFloat(quizAttempt.getDurationAttempted());
+        writeString(out, quizAttempt.getSubmissionKey());
+    }
+
+    private static QuizAttempt readQuizAttempt(ByteBuffer in) {
+        int attemptId = in.getInt();
+        int userId = in.getInt();
+        int quizId = in.getInt();
+        boolean hasTimestamp = in.get() != 0;
+        long epochSecond = in.getLong();
+        int nano = in.getInt();
+        LocalDateTime timestamp = hasTimestamp ? LocalDateTime.ofEpochSecond(epochSecond, nano, ZoneOffset.UTC) : null;
+        int score = in.getInt();
+        List<Question> questions = readQuestions(in);
+        QuizAttempt quizAttempt = new QuizAttempt(attemptId, userId, quizId, timestamp, score, questions, in.getFloat());
+        quizAttempt.setSubmissionKey(readString(in));
+        return quizAttempt;
+    }
+
+    private static void writeUsers(DataOutputStream out, List<User> users) throws IOException {
+        // every distinct course first, then users refer to them by position
+        Map<Course, Integer> courseIndex = new IdentityHashMap<>();
+        List<Course> distinctCourses = new ArrayList<>();
+        for (User user : users) {
+            for (Course course : coursesOf(user)) {
+                if (!courseIndex.containsKey(course)) {
+                    courseIndex.put(course, distinctCourses.size());
+                    distinctCourses.add(course);
+                }
+            }
+        }
+        out.writeInt(distinctCourses.size());
+        for (Course course : distinctCourses) {
+            writeCourse(out, course);
+        }
+
+        out.writeInt(users.size());
+        for (User user : users) {
+            if (user instanceof Student) {
+                Student student = (Student) user;
+                out.writeByte(STUDENT);
+                writeUserFields(out, user);
+                writeString(out, student.getLevel() == null ? null : student.getLevel().name());
+                out.writeInt(student.getPoints());
+            } else if (user instanceof Instructor) {
+                Instructor instructor = (Instructor) user;
+                out.writeByte(INSTRUCTOR);
+                writeUserFields(out, user);
+                writeString(out, instructor.getDepartment());
+                writeDate(out, instructor.getDateOfEmployment());
+            } else {
+                out.writeByte(ADMIN);
+                writeUserFields(out, user);
+                writeString(out, ((Admin) user).getTelephone());
+            }
+            List<Course> userCourses = coursesOf(user);
+            out.writeInt(userCourses.size());
+            for (Course course : userCourses) {
+                out.writeInt(courseIndex.get(course));
+            }
+        }
+    }
+
+    private static List<User> readUsers(ByteBuffer in) {
+        int courseCount = in.getInt();
+        List<Course> distinctCourses = new ArrayList<>(courseCount);
+        for (int i = 0; i < courseCount; i++) {
+            distinctCourses.add(readCourse(in));
+        }
+
+        int userCount = in.getInt();
+        List<User> users = new ArrayList<>(userCount);
+        for (int i = 0; i < userCount; i++) {
+            byte type = in.get();
+            int id = in.getInt();
+            String email = readString(in);
+            String username = readString(in);
+
+            User user;
+            if (type == STUDENT) {
+                String level = readString(in);
+                user = new Student(id, email, username, null, level == null ? null : Level.valueOf(level), in.getInt());
+            } else if (type == INSTRUCTOR) {
+                String department = readString(in);
+                user = new Instructor(id, email, username, null, readDate(in), department);
+            } else {
+                user = new Admin(id, email, username, null, readString(in));
+            }
+
+            int userCourseCount = in.getInt();
+            List<Course> userCourses = new ArrayList<>(userCourseCount);
+            for (int j = 0; j < userCourseCount; j++) {
+                userCourses.add(distinctCourses.get(in.getInt()));
+            }
+            if (user instanceof Student) {
+                ((Student) user).setEnrolledCourses(userCourses);
+            } else if (user instanceof Instructor) {
+                ((Instructor) user).setTeachingCourses(userCourses);
+            }
+            users.add(user);
+        }
+        return users;
+    }
+
+    private static List<Course> coursesOf(User user) {
+        List<Course> userCourses = null;
+        if (user instanceof Student) {
+            userCourses = ((Student) user).getEnrolledCourses();
+        } else if (user instanceof Instructor) {
+            userCourses = ((Instructor) user).getTeachingCourses();
+        }
+        return userCourses != null ? userCourses : new ArrayList<>();
+    }
+
+    private static void writeUserFields(DataOutputStream out, User user) throws IOException {
+        out.writeInt(user.getId());
+        writeString(out, user.getEmail());
+        writeString(out, user.getUsername());
+    }
+
+    private static void writeApplication(DataOutputStream out, Application application) throws IOException {
+        out.writeInt(application.getApplicationId());
+        out.writeInt(application.getUserId());
+        out.writeInt(application.getCourseId());
+        writeString(out, application.getApplicationLetter());
+        writeString(out, application.getStatus());
+        writeDate(out, application.getApplicationDate());
+    }
+
+    private static Application readApplication(ByteBuffer in) {
+        int applicationId = in.getInt();
+        int userId = in.getInt();
+        int courseId = in.getInt();
+        String applicationLetter = readString(in);
+        String status = readString(in);
+        Date applicationDate = readDate(in);
+        return new Application(applicationId, userId, courseId, applicationLetter, status,
+                applicationDate == null ? null : new Timestamp(applicationDate.getTime()));
+    }
+
+    private static void writeDate(DataOutputStream out, Date date) throws IOException {
+        out.writeBoolean(date != null);
+        out.writeLong(date == null ? 0 : date.getTime());
+    }
+
+    private static Date readDate(ByteBuffer in) {
+        boolean present = in.get() != 0;
+        long time = in.getLong();
+        return present ? new java.sql.Date(time) : null;
+    }
+
+    private static void writeString(DataOutputStream out, String value) throws IOException {
+        if (value == null) {
+            out.writeInt(-1);
+            return;
+        }
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        out.writeInt(bytes.length);
+        out.write(bytes);
+    }
+
+    private static String readString(ByteBuffer in) {
+        int length = in.getInt();
+        if (length < 0) {
+            return null;
+        }
+        byte[] bytes = new byte[length];
+        in.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+}
@@ -1,5 +1,6 @@
 package com.timi.service.impl;
 
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Queue;
 
@@ -8,24 +9,48 @@ import com.timi.dao.impl.*;
 import com.timi.exception.DAOException;
 import com.timi.exception.InvalidEmailException;
 import com.timi.model.*;
+import com.timi.service.CourseSearchService;
 import com.timi.service.ElearningService;
+import com.timi.service.LeaderboardService;
+import com.timi.service.RecommendationService;
 
 public class ElearningServiceImpl implements ElearningService{
-    
+
+    // shared by every service instance, so a retry is recognised whichever menu it comes from
+    private static final RecentSubmissionKeys RECENT_SUBMISSIONS = new RecentSubmissionKeys(
+            Integer.getInteger("attempts.recentKeys.maxEntries", 10_000),
+            Long.getLong("attempts.recentKeys.ttlMs", 600_000));
+
     private UserDAO userDAO;
     private CourseDAO courseDAO;
     private QuizDAO quizDAO;
+    // told about question writes, which change quizzes behind the quiz DAO's back
+    private QuizCache quizCache;
     private QuestionDAO questionDAO;
     private QuizAttemptDAO quizAttemptDAO;
+    private QuizStatisticsDAO quizStatisticsDAO;
     private ApplicationDAO applicationDAO;
+    private LeaderboardService leaderboardService;
+    private CourseSearchService courseSearchService;
+    private RecommendationService recommendationService;
+    // null unless attempts.writeBehind is set
+    private QuizAttemptWriteBehind attemptWriteBehind;
 
     public ElearningServiceImpl() {
         this.userDAO = new UserDAOImpl();
-        this.courseDAO = new CourseDAOImpl();
-        this.quizDAO = new QuizDAOImpl();
+        this.courseDAO = CachingCourseDAO.getInstance();
+        this.quizDAO = CachingQuizDAO.getInstance();
+        this.quizCache = CachingQuizDAO.getInstance();
         this.questionDAO = new QuestionDAOImpl();
         this.quizAttemptDAO = new QuizAttemptDAOImpl();
+        this.quizStatisticsDAO = QuizStatisticsDAOImpl.getInstance();
         this.applicationDAO = new ApplicationDAOImpl();
+        this.leaderboardService = LeaderboardServiceImpl.getInstance();
+        this.courseSearchService = CourseSearchServiceImpl.getInstance();
+        this.recommendationService = RecommendationServiceImpl.getInstance();
+        if (Boolean.getBoolean("attempts.writeBehind")) {
+            this.attemptWriteBehind = QuizAttemptWriteBehind.getInstance();
+        }
     }
 
     public UserDAO getUserDAO() {
@@ -52,6 +77,14 @@ public class ElearningServiceImpl implements ElearningService{
         this.quizDAO = quizDAO;
     }
 
+    public QuizCache getQuizCache() {
+        return quizCache;
+    }
+
+    public void setQuizCache(QuizCache quizCache) {
+        this.quizCache = quizCache;
+    }
+
     public QuestionDAO getQuestionDAO() {
         return questionDAO;
     }
@@ -68,6 +101,38 @@ public class ElearningServiceImpl implements ElearningService{
         this.quizAttemptDAO = quizAttemptDAO;
     }
 
+    public QuizStatisticsDAO getQuizStatisticsDAO() {
+        return quizStatisticsDAO;
+    }
+
+    public void setQuizStatisticsDAO(QuizStatisticsDAO quizStatisticsDAO) {
+        this.quizStatisticsDAO = quizStatisticsDAO;
+    }
+
+    public LeaderboardService getLeaderboardService() {
+        return leaderboardService;
+    }
+
+    public void setLeaderboardService(LeaderboardService leaderboardService) {
+        this.leaderboardService = leaderboardService;
+    }
+
+    public CourseSearchService getCourseSearchService() {
+        return courseSearchService;
+    }
+
+    public void setCourseSearchService(CourseSearchService courseSearchService) {
+        this.courseSearchService = courseSearchService;
+    }
+
+    public QuizAttemptWriteBehind getAttemptWriteBehind() {
+        return attemptWriteBehind;
+    }
+
+    public void setAttemptWriteBehind(QuizAttemptWriteBehind attemptWriteBehind) {
+        this.attemptWriteBehind = attemptWriteBehind;
+    }
+
     @Override
     public List<Course> getAllCourses() throws DAOException {
         return courseDAO.getAllCourses();
@@ -78,6 +143,16 @@ public class ElearningServiceImpl implements ElearningService{
         return quizDAO.getAllQuizzes();
     }
 
+    @Override
+    public Page<Course> getCoursesPage(String pageToken, int pageSize) throws DAOException {
+        return courseDAO.getCoursesPage(pageToken, pageSize);
+    }
+
+    @Override
+    public Page<Quiz> getQuizzesPage(String pageToken, int pageSize) throws DAOException {
+        return quizDAO.getQuizzesPage(pageToken, pageSize);
+    }
+
     @Override
     public List<Question> getAllQuestions() throws DAOException {
         return questionDAO.getAllQuestions();
@@ -88,6 +163,11 @@ public class ElearningServiceImpl implements ElearningService{
         return quizAttemptDAO.getAllQuizAttempts();
     }
 
+    @Override
+    public List<QuizAttempt> getQuizAttemptsAfter(int attemptId) throws DAOException {
+        return quizAttemptDAO.getQuizAttemptsAfter(attemptId);
+    }
+
     @Override
     public List<User> getAllUsers() throws DAOException {
         return userDAO.getAllUsers();
@@ -103,6 +183,11 @@ public class ElearningServiceImpl implements ElearningService{
         return applicationDAO.getAllApplications();
     }
 
+    @Override
+    public Queue<Application> getApplicationsAfter(int applicationId) throws DAOException {
+        return applicationDAO.getApplicationsAfter(applicationId);
+    }
+
     @Override
     public Queue<Application> getPendingApplications() throws DAOException {
         return applicationDAO.getPendingApplications();
@@ -122,6 +207,7 @@ public class ElearningServiceImpl implements ElearningService{
     @Override
     public void updateUser(User user) throws DAOException, InvalidEmailException {
         userDAO.updateUser(user);
+        leaderboardService.recordPoints(user);
     }
 
     @Override
@@ -131,22 +217,51 @@ public class ElearningServiceImpl implements ElearningService{
 
     @Override
     public void deleteUser(int id) throws DAOException {
+        boolean instructor = userDAO.getUserById(id) instanceof Instructor;
+        List<Integer> quizIds = new ArrayList<>();
+        if (instructor) {
+            for (Course course : courseDAO.getCoursesByInstructor(String.valueOf(id))) {
+                quizIds.addAll(getQuizIds(course.getCourseId()));
+            }
+        }
+        // deleted through the DAO rather than the cascade, so the statistics lose them too
+        quizAttemptDAO.deleteQuizAttemptsByUserId(id);
         userDAO.deleteUser(id);
+        if (instructor) {
+            // an instructor's courses and their quizzes went with them
+            quizCache.invalidateAll();
+        }
+        for (int quizId : quizIds) {
+            quizStatisticsDAO.evict(quizId);
+        }
+        leaderboardService.removeUser(id);
     }
 
     @Override
     public void addCourse(Course course) throws DAOException {
         courseDAO.addCourse(course);
+        courseSearchService.indexCourse(course);
+        recommendationService.indexCourse(course);
     }
 
     @Override
     public void updateCourse(Course course) throws DAOException {
         courseDAO.updateCourse(course);
+        courseSearchService.indexCourse(course);
+        recommendationService.indexCourse(course);
     }
 
     @Override
     public void deleteCourse(int id) throws DAOException {
+        List<Integer> quizIds = getQuizIds(id);
         courseDAO.deleteCourse(id);
+        // the course's quizzes and their statistics went with it
+        quizCache.invalidateCourse(id);
+        for (int quizId : quizIds) {
+            quizStatisticsDAO.evict(quizId);
+        }
+        courseSearchService.removeCourse(id);
+        recommendationService.removeCourse(id);
     }
 
     @Override
@@ -154,29 +269,79 @@ public class ElearningServiceImpl implements ElearningService{
         quizDAO.addQuiz(quiz);
     }
 
+    @Override
+    public void deleteQuiz(int quizId) throws DAOException {
+        quizDAO.deleteQuiz(quizId);
+        // the statistics row went with the quiz
+        quizStatisticsDAO.evict(quizId);
+    }
+
     @Override
     public void addQuestion(Question question) throws DAOException {
         questionDAO.addQuestion(question);
+        quizCache.invalidateQuiz(question.getQuizId());
     }
 
     @Override
     public void editQuestion(Question question) throws DAOException {
         questionDAO.updateQuestion(question);
+        // the question may have moved to another quiz
+        quizCache.invalidateQuestion(question.getQuestionId());
+        quizCache.invalidateQuiz(question.getQuizId());
     }
 
     @Override
     public void deleteQuestion(int id) throws DAOException {
         questionDAO.deleteQuestion(id);
+        quizCache.invalidateQuestion(id);
     }
 
     @Override
-    public void searchCoursesByName(String name) throws DAOException {
-        courseDAO.getCourseByName(name);
+    public List<Course> searchCoursesByName(String name) throws DAOException {
+        return courseSearchService.searchCourses(name, null, Page.MAX_PAGE_SIZE).getItems();
+    }
+
+    @Override
+    public Page<Course> searchCourses(String query, String pageToken, int pageSize) throws DAOException {
+        return courseSearchService.searchCourses(query, pageToken, pageSize);
+    }
+
+    @Override
+    public List<String> completeCourseTitle(String prefix, int count) throws DAOException {
+        return courseSearchService.completeCourseTitle(prefix, count);
+    }
+
+    @Override
+    public Page<Course> filterCourses(CourseFilter filter, String pageToken, int pageSize) throws DAOException {
+        return courseSearchService.filterCourses(filter, pageToken, pageSize);
+    }
+
+    @Override
+    public CourseFacetCounts countCourseFacets(CourseFilter filter) throws DAOException {
+        return courseSearchService.countCourseFacets(filter);
     }
 
     @Override
     public void applyForCourse(Application application) throws DAOException {
         applicationDAO.addApplication(application);
+        courseSearchService.recordPopularity(application.getCourseId());
+    }
+
+    @Override
+    public void enrollInCourse(int userId, int courseId) throws DAOException {
+        userDAO.addCourseToUser(userId, courseId);
+        recommendationService.recordEnrollment(userId, courseId);
+        courseSearchService.recordPopularity(courseId);
+    }
+
+    @Override
+    public List<Course> getSimilarCourses(int courseId, int count) throws DAOException {
+        return recommendationService.getSimilarCourses(courseId, count);
+    }
+
+    @Override
+    public List<Course> getRecommendedCourses(Student student, int count) throws DAOException {
+        return recommendationService.recommendCourses(student, count);
     }
 
     @Override
@@ -191,7 +356,29 @@ public class ElearningServiceImpl implements ElearningService{
 
     @Override
     public void takeQuiz(QuizAttempt quizAttempt) throws DAOException {
-        quizAttemptDAO.addQuizAttempt(quizAttempt);
+        String submissionKey = quizAttempt.getSubmissionKey();
+        if (submissionKey != null) {
+            Integer acknowledgedId = RECENT_SUBMISSIONS.get(submissionKey);
+            if (acknowledgedId != null) {
+                // a retry of a submission that already went through
+                quizAttempt.setAttemptId(acknowledgedId);
+                return;
+            }
+        }
+
+        if (attemptWriteBehind != null) {
+            attemptWriteBehind.submit(quizAttempt);
+        } else {
+            quizAttemptDAO.addQuizAttempt(quizAttempt);
+        }
+
+        if (submissionKey != null) {
+            RECENT_SUBMISSIONS.put(submissionKey, quizAttempt.getAttemptId());
+        }
+        // a write-behind attempt reaches the leaderboard once it is committed, under its final id
+        if (attemptWriteBehind == null) {
+            leaderboardService.recordAttempt(quizAttempt);
+        }
     }
 
     @Override
@@ -204,9 +391,46 @@ public class ElearningServiceImpl implements ElearningService{
         return quizDAO.getQuizById(id);
     }
 
+    @Override
+    public QuizStatistics getQuizStatistics(int quizId) throws DAOException {
+        return quizStatisticsDAO.getQuizStatistics(quizId);
+    }
+
+    @Override
+    public List<LeaderboardEntry> getQuizLeaderboard(int quizId, int count) throws DAOException {
+        return leaderboardService.getQuizTop(quizId, count);
+    }
+
+    @Override
+    public List<LeaderboardEntry> getQuizLeaderboardAroundUser(int quizId, int userId, int radius) throws DAOException {
+        return leaderboardService.getQuizAroundUser(quizId, userId, radius);
+    }
+
+    @Override
+    public List<LeaderboardEntry> getGlobalLeaderboard(int count) throws DAOException {
+        return leaderboardService.getGlobalTop(count);
+    }
+
+    @Override
+    public List<LeaderboardEntry> getGlobalLeaderboardAroundUser(int userId, int radius) throws DAOException {
+        return leaderboardService.getGlobalAroundUser(userId, radius);
+    }
+
     @Override
     public List<QuizAttempt> getUserQuizAttempts(int userId) throws DAOException {
-        return quizAttemptDAO.getQuizAttemptsByUserId(userId);
+        List<QuizAttempt> quizAttempts = quizAttemptDAO.getQuizAttemptsByUserId(userId);
+        if (attemptWriteBehind != null) {
+            // attempts still on their way to the database, under their provisional ids
+            quizAttempts.addAll(attemptWriteBehind.getPendingAttempts(userId));
+        }
+        return quizAttempts;
     }
 
+    private List<Integer> getQuizIds(int courseId) throws DAOException {
+        List<Integer> quizIds = new ArrayList<>();
+        for (Quiz quiz : quizDAO.getQuizzesByCourseId(courseId)) {
+            quizIds.add(quiz.getQuizId());
+        }
+        return quizIds;
+    }
 }
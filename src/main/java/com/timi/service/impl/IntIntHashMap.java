@@ -0,0 +1,219 @@
+package com.timi.service.impl;
+
+import java.util.Arrays;
+
+/**
+ * Open-addressing hash map from int to int, with linear probing and no boxing. Absent keys read as
+ * 0, which suits counters. Not thread-safe.
+ */
+public class IntIntHashMap {
+
+    /**
+     * Receives one entry of the map.
+     */
+    public interface EntryConsumer {
+        void accept(int key, int value);
+    }
+
+    private static final int FREE = 0;
+    private static final float LOAD_FACTOR = 0.6f;
+
+    private int[] keys;
+    private int[] values;
+    private int mask;
+    private int size;
+    private int resizeAt;
+    // key 0 marks free cells, so its entry is kept aside
+    private boolean hasFreeKey;
+    private int freeKeyValue;
+
+    public IntIntHashMap() {
+        this(4);
+    }
+
+    public IntIntHashMap(int expectedSize) {
+        int capacity = Integer.highestOneBit(Math.max(4, (int) (expectedSize / LOAD_FACTOR)) - 1) << 1;
+        allocate(capacity);
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    public boolean containsKey(int key) {
+        if (key == FREE) {
+            return hasFreeKey;
+        }
+        return keys[find(key)] == key;
+    }
+
+    /**
+     * Value of the key, or 0 if it is absent.
+     */
+    public int get(int key) {
+        if (key == FREE) {
+            return hasFreeKey ? freeKeyValue : 0;
+        }
+        int index = find(key);
+        return keys[index] == key ? values[index] : 0;
+    }
+
+    /**
+     * Value of the key, or {@code missingValue} if it is absent.
+     */
+    public int getOrDefault(int key, int missingValue) {
+        if (key == FREE) {
+            return hasFreeKey ? freeKeyValue : missingValue;
+        }
+        int index = find(key);
+        return keys[index] == key ? values[index] : missingValue;
+    }
+
+    public void put(int key, int value) {
+        if (key == FREE) {
+            if (!hasFreeKey) {
+                hasFreeKey = true;
+                size++;
+            }
+            freeKeyValue = value;
+            return;
+        }
+        int index = find(key);
+        if (keys[index] == key) {
+            values[index] = value;
+            return;
+        }
+        keys[index] = key;
+        values[index] = value;
+        if (++size > resizeAt) {
+            rehash(keys.length * 2);
+        }
+    }
+
+    /**
+     * Adds {@code delta} to the key's value, treating an absent key as 0, and returns the sum.
+     */
+    public int addTo(int key, int delta) {
+        if (key == FREE) {
+            put(key, get(key) + delta);
+            return freeKeyValue;
+        }
+        int index = find(key);
+        if (keys[index] == key) {
+            values[index] += delta;
+            return values[index];
+        }
+        keys[index] = key;
+        values[index] = delta;
+        if (++size > resizeAt) {
+            rehash(keys.length * 2);
+        }
+        return delta;
+    }
+
+    /**
+     * Removes the key and returns whether it was present.
+     */
+    public boolean remove(int key) {
+        if (key == FREE) {
+            if (!hasFreeKey) {
+                return false;
+            }
+            hasFreeKey = false;
+            freeKeyValue = 0;
+            size--;
+            return true;
+        }
+        int index = find(key);
+        if (keys[index] != key) {
+            return false;
+        }
+        size--;
+        // shift later entries of the probe run back so none becomes unreachable
+        int gap = index;
+        for (int i = (gap + 1) & mask; keys[i] != FREE; i = (i + 1) & mask) {
+            int home = hash(keys[i]) & mask;
+            if (((i - home) & mask) >= ((i - gap) & mask)) {
+                keys[gap] = keys[i];
+                values[gap] = values[i];
+                gap = i;
+            }
+        }
+        keys[gap] = FREE;
+        values[gap] = 0;
+        return true;
+    }
+
+    public void forEach(EntryConsumer consumer) {
+        if (hasFreeKey) {
+            consumer.accept(FREE, freeKeyValue);
+        }
+        for (int i = 0; i < keys.length; i++) {
+            if (keys[i] != FREE) {
+                consumer.accept(keys[i], values[i]);
+            }
+        }
+    }
+
+    public int[] keys() {
+        int[] result = new int[size];
+        int r = 0;
+        if (hasFreeKey) {
+            result[r++] = FREE;
+        }
+        for (int key : keys) {
+            if (key != FREE) {
+                result[r++] = key;
+            }
+        }
+        return result;
+    }
+
+    public void clear() {
+        Arrays.fill(keys, FREE);
+        Arrays.fill(values, 0);
+        hasFreeKey = false;
+        freeKeyValue = 0;
+        size = 0;
+    }
+
+    /**
+     * Index of the key's cell, or of the free cell where it would go.
+     */
+    private int find(int key) {
+        int index = hash(key) & mask;
+        while (keys[index] != FREE && keys[index] != key) {
+            index = (index + 1) & mask;
+        }
+        return index;
+    }
+
+    private static int hash(int key) {
+        int h = key * 0x9E3779B9;
+        return h ^ (h >>> 16);
+    }
+
+    private void allocate(int capacity) {
+        keys = new int[capacity];
+        values = new int[capacity];
+        mask = capacity - 1;
+        resizeAt = (int) (capacity * LOAD_FACTOR);
+    }
+
+    private void rehash(int capacity) {
+        int[] oldKeys = keys;
+        int[] oldValues = values;
+        allocate(capacity);
+        for (int i = 0; i < oldKeys.length; i++) {
+            if (oldKeys[i] != FREE) {
+                int index = find(oldKeys[i]);
+                keys[index] = oldKeys[i];
+                values[index] = oldValues[i];
+            }
+        }
+    }
+}
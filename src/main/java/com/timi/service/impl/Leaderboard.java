@@ -0,0 +1,230 @@
+package com.timi.service.impl;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+
+import com.timi.model.LeaderboardEntry;
+
+/**
+ * Users ranked by score (higher first), then duration (shorter first), then submission time
+ * (earlier first). Backed by a skip list whose links also record how many entries they pass over,
+ * so inserting, removing, finding a user's rank and seeking to a rank all take O(log n) expected
+ * time; reading k entries from there costs O(k) more. Each user holds at most one entry.
+ */
+public class Leaderboard {
+
+    private static final int MAX_LEVEL = 32;
+
+    private final Node head = new Node(0, 0, 0, 0, 0, MAX_LEVEL);
+    private final Map<Integer, Node> nodesByUser = new HashMap<>();
+    private int level = 1;
+    private int size;
+
+    /**
+     * Records a result for the user if it beats the one on the board, and returns whether it did.
+     */
+    public synchronized boolean offer(int userId, int score, float durationAttempted, long submittedAt, int attemptId) {
+        Node current = nodesByUser.get(userId);
+        Node candidate = new Node(userId, score, durationAttempted, submittedAt, attemptId, randomLevel());
+        if (current != null) {
+            if (compare(candidate, current) >= 0) {
+                return false;
+            }
+            delete(current);
+        }
+        insert(candidate);
+        return true;
+    }
+
+    /**
+     * Sets the user's score whether or not it is better than the current one.
+     */
+    public synchronized void put(int userId, int score) {
+        Node current = nodesByUser.get(userId);
+        if (current != null) {
+            delete(current);
+        }
+        insert(new Node(userId, score, 0, 0, 0, randomLevel()));
+    }
+
+    public synchronized boolean remove(int userId) {
+        Node current = nodesByUser.get(userId);
+        if (current == null) {
+            return false;
+        }
+        delete(current);
+        return true;
+    }
+
+    /**
+     * 1-based rank of the user, or 0 if the user is not on the board.
+     */
+    public synchronized int rankOf(int userId) {
+        Node target = nodesByUser.get(userId);
+        if (target == null) {
+            return 0;
+        }
+        int rank = 0;
+        Node node = head;
+        for (int i = level - 1; i >= 0; i--) {
+            while (node.next[i] != null && compare(node.next[i], target) <= 0) {
+                rank += node.span[i];
+                node = node.next[i];
+            }
+            if (node == target) {
+                return rank;
+            }
+        }
+        return 0;
+    }
+
+    public synchronized List<LeaderboardEntry> top(int count) {
+        return range(1, count);
+    }
+
+    /**
+     * The user's entry with up to {@code radius} entries on either side of it; empty if the user is
+     * not on the board.
+     */
+    public synchronized List<LeaderboardEntry> around(int userId, int radius) {
+        int rank = rankOf(userId);
+        if (rank == 0) {
+            return new ArrayList<>();
+        }
+        int first = Math.max(1, rank - radius);
+        return range(first, rank + radius - first + 1);
+    }
+
+    public synchronized int size() {
+        return size;
+    }
+
+    private List<LeaderboardEntry> range(int firstRank, int count) {
+        List<LeaderboardEntry> entries = new ArrayList<>();
+        Node node = firstRank <= size ? nodeAt(firstRank) : null;
+        for (int rank = firstRank; node != null && entries.size() < count; rank++, node = node.next[0]) {
+            entries.add(new LeaderboardEntry(rank, node.userId, node.score, node.durationAttempted, node.attemptId));
+        }
+        return entries;
+    }
+
+    private Node nodeAt(int rank) {
+        int traversed = 0;
+        Node node = head;
+        for (int i = level - 1; i >= 0; i--) {
+            while (node.next[i] != null && traversed + node.span[i] <= rank) {
+                traversed += node.span[i];
+                node = node.next[i];
+            }
+            if (traversed == rank) {
+                return node;
+            }
+        }
+        return null;
+    }
+
+    private void insert(Node inserted) {
+        Node[] update = new Node[MAX_LEVEL];
+        int[] rank = new int[MAX_LEVEL];
+        Node node = head;
+        for (int i = level - 1; i >= 0; i--) {
+            rank[i] = i == level - 1 ? 0 : rank[i + 1];
+            while (node.next[i] != null && compare(node.next[i], inserted) < 0) {
+                rank[i] += node.span[i];
+                node = node.next[i];
+            }
+            update[i] = node;
+        }
+
+        int insertedLevel = inserted.next.length;
+        if (insertedLevel > level) {
+            for (int i = level; i < insertedLevel; i++) {
+                rank[i] = 0;
+                update[i] = head;
+                head.span[i] = size;
+            }
+            level = insertedLevel;
+        }
+
+        for (int i = 0; i < insertedLevel; i++) {
+            inserted.next[i] = update[i].next[i];
+            update[i].next[i] = inserted;
+            // rank[0] - rank[i] is how far update[i] is behind the new node's predecessor
+            inserted.span[i] = update[i].span[i] - (rank[0] - rank[i]);
+            update[i].span[i] = rank[0] - rank[i] + 1;
+        }
+        for (int i = insertedLevel; i < level; i++) {
+            update[i].span[i]++;
+        }
+
+        size++;
+        nodesByUser.put(inserted.userId, inserted);
+    }
+
+    private void delete(Node deleted) {
+        Node node = head;
+        for (int i = level - 1; i >= 0; i--) {
+            while (node.next[i] != null && compare(node.next[i], deleted) < 0) {
+                node = node.next[i];
+            }
+            if (node.next[i] == deleted) {
+                node.span[i] += deleted.span[i] - 1;
+                node.next[i] = deleted.next[i];
+            } else {
+                node.span[i]--;
+            }
+        }
+        while (level > 1 && head.next[level - 1] == null) {
+            level--;
+        }
+
+        size--;
+        nodesByUser.remove(deleted.userId);
+    }
+
+    private static int compare(Node a, Node b) {
+        if (a.score != b.score) {
+            return Integer.compare(b.score, a.score);
+        }
+        int byDuration = Float.compare(a.durationAttempted, b.durationAttempted);
+        if (byDuration != 0) {
+            return byDuration;
+        }
+        if (a.submittedAt != b.submittedAt) {
+            return Long.compare(a.submittedAt, b.submittedAt);
+        }
+        return Integer.compare(a.userId, b.userId);
+    }
+
+    private static int randomLevel() {
+        int level = 1;
+        while (level < MAX_LEVEL && ThreadLocalRandom.current().nextInt(4) == 0) {
+            level++;
+        }
+        return level;
+    }
+
+    private static final class Node {
+        private final int userId;
+        private final int score;
+        private final float durationAttempted;
+        private final long submittedAt;
+        private final int attemptId;
+        private final Node[] next;
+        // span[i]: how many ranks next[i] is ahead of this node, or the rest of the list if it is null
+        private final int[] span;
+
+        private Node(int userId, int score, float durationAttempted, long submittedAt, int attemptId, int level) {
+            this.userId = userId;
+            this.score = score;
+            this.durationAttempted = durationAttempted;
+            this.submittedAt = submittedAt;
+            this.attemptId = attemptId;
+            this.next = new Node[level];
+            this.span = new int[level];
+        }
+    }
+}
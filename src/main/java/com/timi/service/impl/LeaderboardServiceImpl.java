@@ -0,0 +1,211 @@
+package com.timi.service.impl;
+
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.BiConsumer;
+import java.util.stream.Stream;
+
+import com.timi.dao.QuizAttemptDAO;
+import com.timi.dao.UserDAO;
+import com.timi.dao.impl.QuizAttemptDAOImpl;
+import com.timi.dao.impl.UserDAOImpl;
+import com.timi.exception.DAOException;
+import com.timi.exception.UncheckedDAOException;
+import com.timi.model.LeaderboardEntry;
+import com.timi.model.QuizAttempt;
+import com.timi.model.Student;
+import com.timi.model.User;
+import com.timi.service.LeaderboardService;
+
+/**
+ * In-memory leaderboards: one per quiz ranking each student's best attempt, and a global one
+ * ranking students by points. They are built from the database on startup (or on first use) and
+ * then kept current by {@link ElearningServiceImpl} as quizzes are taken and users change, without
+ * going back to the database. Every board has its own lock, so submissions to different quizzes
+ * never wait on each other. Changes recorded while a rebuild reads the database are also queued
+ * and replayed onto the new boards before they replace the old ones, so none is lost to a rebuild
+ * that read the tables before the change was committed.
+ */
+public class LeaderboardServiceImpl implements LeaderboardService {
+
+    private static LeaderboardServiceImpl instance;
+
+    private QuizAttemptDAO quizAttemptDAO;
+    private UserDAO userDAO;
+    // both null until the first build
+    private volatile Map<Integer, Leaderboard> quizLeaderboards;
+    private volatile Leaderboard globalLeaderboard;
+    // changes take the read lock, publishing rebuilt boards the write lock
+    private final ReadWriteLock publishLock = new ReentrantReadWriteLock();
+    // changes recorded since the running rebuild started; null when none is running
+    private Queue<BiConsumer<Map<Integer, Leaderboard>, Leaderboard>> changesDuringRebuild;
+
+    public LeaderboardServiceImpl(QuizAttemptDAO quizAttemptDAO, UserDAO userDAO) {
+        this.quizAttemptDAO = quizAttemptDAO;
+        this.userDAO = userDAO;
+    }
+
+    public static synchronized LeaderboardServiceImpl getInstance() {
+        if (instance == null) {
+            instance = new LeaderboardServiceImpl(new QuizAttemptDAOImpl(), new UserDAOImpl());
+        }
+        return instance;
+    }
+
+    /**
+     * Replaces every board with one built from the attempts and users in the database.
+     */
+    @Override
+    public synchronized void rebuild() throws DAOException {
+        Queue<BiConsumer<Map<Integer, Leaderboard>, Leaderboard>> changes = new ConcurrentLinkedQueue<>();
+        publishLock.writeLock().lock();
+        changesDuringRebuild = changes;
+        publishLock.writeLock().unlock();
+
+        Map<Integer, Leaderboard> quizzes = new ConcurrentHashMap<>();
+        Leaderboard global = new Leaderboard();
+        boolean built = false;
+        try {
+            try (Stream<QuizAttempt> quizAttempts = quizAttemptDAO.streamQuizAttemptScores()) {
+                quizAttempts.forEach(quizAttempt -> offer(quizzes, quizAttempt));
+            } catch (UncheckedDAOException e) {
+                throw e.getCause();
+            }
+
+            try (Stream<Student> students = userDAO.streamStudentPoints()) {
+                students.forEach(student -> global.put(student.getId(), student.getPoints()));
+            } catch (UncheckedDAOException e) {
+                throw e.getCause();
+            }
+            built = true;
+        } finally {
+            publishLock.writeLock().lock();
+            try {
+                if (built) {
+                    // a change the database already had is applied twice, which leaves the same board
+                    for (BiConsumer<Map<Integer, Leaderboard>, Leaderboard> change : changes) {
+                        change.accept(quizzes, global);
+                    }
+                    quizLeaderboards = quizzes;
+                    globalLeaderboard = global;
+                }
+                changesDuringRebuild = null;
+            } finally {
+                publishLock.writeLock().unlock();
+            }
+        }
+    }
+
+    @Override
+    public void recordAttempt(QuizAttempt quizAttempt) {
+        record((quizzes, global) -> offer(quizzes, quizAttempt));
+    }
+
+    @Override
+    public void recordPoints(User user) {
+        if (user instanceof Student) {
+            int points = ((Student) user).getPoints();
+            record((quizzes, global) -> global.put(user.getId(), points));
+        }
+    }
+
+    @Override
+    public void removeUser(int userId) {
+        record((quizzes, global) -> {
+            for (Leaderboard leaderboard : quizzes.values()) {
+                leaderboard.remove(userId);
+            }
+            global.remove(userId);
+        });
+    }
+
+    @Override
+    public List<LeaderboardEntry> getQuizTop(int quizId, int count) throws DAOException {
+        Leaderboard leaderboard = quizLeaderboard(quizId);
+        return leaderboard == null ? new ArrayList<>() : leaderboard.top(count);
+    }
+
+    @Override
+    public int getQuizRank(int quizId, int userId) throws DAOException {
+        Leaderboard leaderboard = quizLeaderboard(quizId);
+        return leaderboard == null ? 0 : leaderboard.rankOf(userId);
+    }
+
+    @Override
+    public List<LeaderboardEntry> getQuizAroundUser(int quizId, int userId, int radius) throws DAOException {
+        Leaderboard leaderboard = quizLeaderboard(quizId);
+        return leaderboard == null ? new ArrayList<>() : leaderboard.around(userId, radius);
+    }
+
+    @Override
+    public List<LeaderboardEntry> getGlobalTop(int count) throws DAOException {
+        return globalLeaderboard().top(count);
+    }
+
+    @Override
+    public int getGlobalRank(int userId) throws DAOException {
+        return globalLeaderboard().rankOf(userId);
+    }
+
+    @Override
+    public List<LeaderboardEntry> getGlobalAroundUser(int userId, int radius) throws DAOException {
+        return globalLeaderboard().around(userId, radius);
+    }
+
+    private Leaderboard quizLeaderboard(int quizId) throws DAOException {
+        Map<Integer, Leaderboard> quizzes = quizLeaderboards;
+        if (quizzes == null) {
+            buildOnFirstUse();
+            quizzes = quizLeaderboards;
+        }
+        return quizzes.get(quizId);
+    }
+
+    private Leaderboard globalLeaderboard() throws DAOException {
+        Leaderboard global = globalLeaderboard;
+        if (global == null) {
+            buildOnFirstUse();
+            global = globalLeaderboard;
+        }
+        return global;
+    }
+
+    /**
+     * Applies the change to the current boards, if they are built, and queues it for the rebuild
+     * in progress, if any. Boards built later without a rebuild running already saw the change in
+     * the database.
+     */
+    private void record(BiConsumer<Map<Integer, Leaderboard>, Leaderboard> change) {
+        publishLock.readLock().lock();
+        try {
+            Map<Integer, Leaderboard> quizzes = quizLeaderboards;
+            if (quizzes != null) {
+                change.accept(quizzes, globalLeaderboard);
+            }
+            if (changesDuringRebuild != null) {
+                changesDuringRebuild.add(change);
+            }
+        } finally {
+            publishLock.readLock().unlock();
+        }
+    }
+
+    private synchronized void buildOnFirstUse() throws DAOException {
+        if (quizLeaderboards == null) {
+            rebuild();
+        }
+    }
+
+    private static void offer(Map<Integer, Leaderboard> quizzes, QuizAttempt quizAttempt) {
+        long submittedAt = quizAttempt.getTimestamp() == null ? Long.MAX_VALUE : quizAttempt.getTimestamp().toInstant(ZoneOffset.UTC).toEpochMilli();
+        quizzes.computeIfAbsent(quizAttempt.getQuizId(), quizId -> new Leaderboard())
+                .offer(quizAttempt.getUserId(), quizAttempt.getScore(), quizAttempt.getDurationAttempted(), submittedAt, quizAttempt.getAttemptId());
+    }
+}
@@ -0,0 +1,509 @@
+package com.timi.service.impl;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.sql.SQLException;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+import com.google.gson.Gson;
+import com.google.gson.GsonBuilder;
+import com.google.gson.JsonDeserializer;
+import com.google.gson.JsonParseException;
+import com.google.gson.JsonPrimitive;
+import com.google.gson.JsonSerializer;
+import com.timi.dao.QuizAttemptDAO;
+import com.timi.dao.impl.QuizAttemptDAOImpl;
+import com.timi.exception.DAOException;
+import com.timi.model.Question;
+import com.timi.model.QuizAttempt;
+
+/**
+ * Write-behind path for quiz attempt submissions. {@link #submit(QuizAttempt)} appends the attempt
+ * to a local JSON-lines journal, forces it to disk and returns at once with a provisional negative
+ * attempt id. A background committer inserts whatever is pending in groups of up to
+ * {@code batchSize}, one transaction per group, and then appends a commit marker for the group and
+ * hands the stored attempts, under their final ids, to the commit listener.
+ * On startup every journaled attempt without a marker is queued again, so nothing acknowledged is
+ * lost in a crash. The journal is truncated whenever nothing is pending, so the sequence behind
+ * the provisional ids is reserved in blocks in a {@code .seq} file next to it; ids are not reused
+ * after a restart.
+ */
+public class QuizAttemptWriteBehind {
+
+    private static final Gson GSON = new GsonBuilder()
+            .registerTypeAdapter(LocalDateTime.class, (JsonSerializer<LocalDateTime>) (value, type, context) -> new JsonPrimitive(value.toString()))
+            .registerTypeAdapter(LocalDateTime.class, (JsonDeserializer<LocalDateTime>) (json, type, context) -> LocalDateTime.parse(json.getAsString()))
+            .create();
+
+    private static final int SEQ_BLOCK = 10_000;
+
+    private static QuizAttemptWriteBehind instance;
+
+    private final QuizAttemptDAO quizAttemptDAO;
+    private final Path journalPath;
+    private final Path rejectedPath;
+    private final Path seqPath;
+    private final int batchSize;
+    private final long retryDelayMs;
+
+    // guards pending, journal, nextSeq and reservedSeq
+    private final Object lock = new Object();
+    private final Map<Integer, PendingAttempt> pending = new LinkedHashMap<>();
+    private FileOutputStream journalOut;
+    private Writer journal;
+    private int nextSeq = 1;
+    // sequence numbers below this one are reserved in the seq file
+    private int reservedSeq;
+    private boolean journalClosed;
+    // set when a failed write could not be cut out of the journal; nothing more is appended to it
+    private boolean journalBroken;
+
+    private volatile Consumer<QuizAttempt> commitListener = quizAttempt -> { };
+    private final Thread committerThread;
+    private volatile boolean running = true;
+
+    public QuizAttemptWriteBehind(QuizAttemptDAO quizAttemptDAO, Path journalPath, int batchSize, long retryDelayMs) throws IOException {
+        this.quizAttemptDAO = quizAttemptDAO;
+        this.journalPath = journalPath;
+        this.rejectedPath = Paths.get(journalPath + ".rejected");
+        this.seqPath = Paths.get(journalPath + ".seq");
+        this.batchSize = batchSize;
+        this.retryDelayMs = retryDelayMs;
+
+        replay();
+        readReservedSeq();
+        rewriteJournal();
+
+        committerThread = new Thread(this::commitLoop, "attempt-committer");
+        committerThread.setDaemon(true);
+        committerThread.start();
+    }
+
+    public static synchronized QuizAttemptWriteBehind getInstance() {
+        if (instance == null) {
+            try {
+                instance = new QuizAttemptWriteBehind(new QuizAttemptDAOImpl(),
+                        Paths.get(System.getProperty("attempts.journalFile", "attempt_journal.jsonl")),
+                        Integer.getInteger("attempts.batchSize", 100),
+                        Long.getLong("attempts.retryDelayMs", 1000));
+            } catch (IOException e) {
+                throw new UncheckedIOException("Cannot open quiz attempt journal", e);
+            }
+            instance.setCommitListener(LeaderboardServiceImpl.getInstance()::recordAttempt);
+            Runtime.getRuntime().addShutdownHook(new Thread(instance::close, "attempt-committer-shutdown"));
+        }
+        return instance;
+    }
+
+    /**
+     * Receives every attempt once it is in the database, on the committer thread.
+     */
+    public void setCommitListener(Consumer<QuizAttempt> commitListener) {
+        this.commitListener = commitListener;
+    }
+
+    /**
+     * Durably records the attempt and sets its provisional id. The attempt reaches the database
+     * shortly afterwards, under a new id.
+     */
+    public void submit(QuizAttempt quizAttempt) throws DAOException {
+        synchronized (lock) {
+            if (!running) {
+                throw new DAOException("Quiz attempt journal is closed");
+            }
+            if (journalBroken) {
+                throw new DAOException("Quiz attempt journal cannot be written");
+            }
+            if (nextSeq == reservedSeq) {
+                try {
+                    reserveSeq();
+                } catch (IOException e) {
+                    throw new DAOException("Error reserving quiz attempt ids", e);
+                }
+            }
+            int seq = nextSeq++;
+            PendingAttempt entry = new PendingAttempt(seq, copyOf(quizAttempt, provisionalId(seq)));
+            try {
+                append(entry);
+            } catch (IOException e) {
+                nextSeq--;
+                throw new DAOException("Error writing quiz attempt to the journal", e);
+            }
+            pending.put(seq, entry);
+            quizAttempt.setAttemptId(provisionalId(seq));
+            lock.notifyAll();
+        }
+    }
+
+    /**
+     * Attempts of the given user that are acknowledged but not yet in the database.
+     */
+    public List<QuizAttempt> getPendingAttempts(int userId) {
+        List<QuizAttempt> attempts = new ArrayList<>();
+        synchronized (lock) {
+            for (PendingAttempt entry : pending.values()) {
+                if (entry.attempt.getUserId() == userId) {
+                    attempts.add(copyOf(entry.attempt, entry.attempt.getAttemptId()));
+                }
+            }
+        }
+        return attempts;
+    }
+
+    public int getPendingCount() {
+        synchronized (lock) {
+            return pending.size();
+        }
+    }
+
+    /**
+     * Stops accepting submissions and gives the committer a few seconds to drain the queue.
+     * Anything still pending stays in the journal for the next start.
+     */
+    public void close() {
+        synchronized (lock) {
+            running = false;
+            lock.notifyAll();
+        }
+        try {
+            committerThread.join(TimeUnit.SECONDS.toMillis(5));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        synchronized (lock) {
+            journalClosed = true;
+            try {
+                journal.close();
+            } catch (IOException e) {
+                e.printStackTrace();
+            }
+        }
+    }
+
+    private void commitLoop() {
+        while (true) {
+            List<PendingAttempt> batch = new ArrayList<>();
+            synchronized (lock) {
+                while (pending.isEmpty() && running) {
+                    try {
+                        lock.wait();
+                    } catch (InterruptedException e) {
+                        return;
+                    }
+                }
+                if (pending.isEmpty() || journalClosed) {
+                    return;
+                }
+                for (PendingAttempt entry : pending.values()) {
+                    if (batch.size() == batchSize) {
+                        break;
+                    }
+                    batch.add(entry);
+                }
+            }
+
+            if (!commit(batch)) {
+                if (!running) {
+                    return;
+                }
+                pause();
+            }
+        }
+    }
+
+    /**
+     * Inserts the batch in one transaction. If the database rejects the data itself, the
+     * attempts are retried one at a time so a single bad attempt cannot hold back the others.
+     * Returns false if anything is still pending afterwards.
+     */
+    private boolean commit(List<PendingAttempt> batch) {
+        try {
+            List<QuizAttempt> stored = insert(batch);
+            markCommitted(batch);
+            notifyCommitted(stored);
+            return true;
+        } catch (DAOException e) {
+            if (!isRejected(e)) {
+                System.err.println("Could not save " + batch.size() + " quiz attempt(s), will retry: " + e.getMessage());
+                return false;
+            }
+            if (batch.size() == 1) {
+                return reject(batch.get(0), e);
+            }
+        }
+
+        boolean allCommitted = true;
+        for (PendingAttempt entry : batch) {
+            try {
+                List<QuizAttempt> stored = insert(List.of(entry));
+                markCommitted(List.of(entry));
+                notifyCommitted(stored);
+            } catch (DAOException e) {
+                allCommitted &= isRejected(e) && reject(entry, e);
+            }
+        }
+        return allCommitted;
+    }
+
+    private List<QuizAttempt> insert(List<PendingAttempt> batch) throws DAOException {
+        List<QuizAttempt> attempts = new ArrayList<>(batch.size());
+        for (PendingAttempt entry : batch) {
+            attempts.add(copyOf(entry.attempt, 0));
+        }
+        quizAttemptDAO.addQuizAttempts(attempts);
+        return attempts;
+    }
+
+    private void notifyCommitted(List<QuizAttempt> stored) {
+        for (QuizAttempt quizAttempt : stored) {
+            try {
+                commitListener.accept(quizAttempt);
+            } catch (RuntimeException e) {
+                // the attempt is safely stored; a failing listener must not stop the committer
+                e.printStackTrace();
+            }
+        }
+    }
+
+    /**
+     * Data exceptions (SQLState class 22) and constraint violations (class 23) will fail the same
+     * way on every retry; anything else, such as a lost connection, is worth retrying.
+     */
+    private static boolean isRejected(DAOException e) {
+        if (!(e.getCause() instanceof SQLException)) {
+            return false;
+        }
+        String sqlState = ((SQLException) e.getCause()).getSQLState();
+        return sqlState != null && (sqlState.startsWith("22") || sqlState.startsWith("23"));
+    }
+
+    /**
+     * Moves an attempt the database will never accept to the rejected file. Returns false if it
+     * could not be written there and stays pending.
+     */
+    private boolean reject(PendingAttempt entry, DAOException e) {
+        System.err.println("Quiz attempt " + entry.attempt.getAttemptId() + " was rejected, moved to " + rejectedPath + ": " + e.getMessage());
+        try {
+            Files.writeString(rejectedPath, GSON.toJson(entry) + System.lineSeparator(), StandardCharsets.UTF_8,
+                    StandardOpenOption.CREATE, StandardOpenOption.APPEND);
+        } catch (IOException ioe) {
+            ioe.printStackTrace();
+            return false;
+        }
+        markCommitted(List.of(entry));
+        return true;
+    }
+
+    private void markCommitted(List<PendingAttempt> batch) {
+        synchronized (lock) {
+            int[] seqs = new int[batch.size()];
+            for (int i = 0; i < seqs.length; i++) {
+                seqs[i] = batch.get(i).seq;
+                pending.remove(seqs[i]);
+            }
+            if (journalClosed || journalBroken) {
+                return;
+            }
+            try {
+                if (pending.isEmpty()) {
+                    journal.flush();
+                    journalOut.getChannel().truncate(0);
+                } else {
+                    append(new CommitMarker(seqs));
+                }
+            } catch (IOException e) {
+                // the attempts are in the database; at worst they are replayed after a restart
+                e.printStackTrace();
+            }
+        }
+    }
+
+    /**
+     * Waits before the next retry; {@link #close()} cuts the wait short.
+     */
+    private void pause() {
+        synchronized (lock) {
+            if (!running) {
+                return;
+            }
+            try {
+                lock.wait(retryDelayMs);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
+    private void append(Object record) throws IOException {
+        long length = journalOut.getChannel().size();
+        try {
+            journal.write(GSON.toJson(record));
+            journal.write('\n');
+            journal.flush();
+            journalOut.getChannel().force(false);
+        } catch (IOException e) {
+            discardFailedWrite(length);
+            throw e;
+        }
+    }
+
+    /**
+     * Cuts a failed write back out of the journal and drops the writer along with whatever it
+     * still buffers, so half a record cannot end up in front of the next one, where it would make
+     * the replay stop early. If the journal cannot be cut, nothing more is written to it.
+     */
+    private void discardFailedWrite(long length) {
+        try {
+            journalOut.getChannel().truncate(length);
+            journalOut.getChannel().force(false);
+            journal = new BufferedWriter(new OutputStreamWriter(journalOut, StandardCharsets.UTF_8));
+        } catch (IOException e) {
+            e.printStackTrace();
+            journalBroken = true;
+        }
+    }
+
+    /**
+     * Rebuilds the pending queue from the journal. A line cut short by a crash ends the replay.
+     */
+    private void replay() throws IOException {
+        if (!Files.exists(journalPath)) {
+            return;
+        }
+        try (BufferedReader reader = Files.newBufferedReader(journalPath, StandardCharsets.UTF_8)) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                if (line.isBlank()) {
+                    continue;
+                }
+                JournalRecord record;
+                try {
+                    record = GSON.fromJson(line, JournalRecord.class);
+                } catch (JsonParseException e) {
+                    break;
+                }
+                if (record.committed != null) {
+                    for (int seq : record.committed) {
+                        pending.remove(seq);
+                    }
+                } else if (record.attempt != null) {
+                    pending.put(record.seq, new PendingAttempt(record.seq, record.attempt));
+                    nextSeq = Math.max(nextSeq, record.seq + 1);
+                }
+            }
+        }
+    }
+
+    /**
+     * Continues after the last reserved block, in case its ids were handed out before a restart.
+     */
+    private void readReservedSeq() throws IOException {
+        if (Files.exists(seqPath)) {
+            try {
+                nextSeq = Math.max(nextSeq, Integer.parseInt(Files.readString(seqPath, StandardCharsets.UTF_8).trim()));
+            } catch (NumberFormatException e) {
+                throw new IOException("Unreadable quiz attempt sequence in " + seqPath, e);
+            }
+        }
+        reservedSeq = nextSeq;
+    }
+
+    /**
+     * Durably reserves the next {@code SEQ_BLOCK} sequence numbers before any of them is used.
+     */
+    private void reserveSeq() throws IOException {
+        Path tmp = Paths.get(seqPath + ".tmp");
+        int reserved = nextSeq + SEQ_BLOCK;
+        try (FileChannel channel = FileChannel.open(tmp, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING)) {
+            channel.write(ByteBuffer.wrap(Integer.toString(reserved).getBytes(StandardCharsets.UTF_8)));
+            channel.force(true);
+        }
+        Files.move(tmp, seqPath, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        reservedSeq = reserved;
+    }
+
+    /**
+     * Writes the pending attempts to a fresh journal, dropping commit markers and any torn tail,
+     * and opens it for appending.
+     */
+    private void rewriteJournal() throws IOException {
+        Path parent = journalPath.toAbsolutePath().getParent();
+        if (parent != null) {
+            Files.createDirectories(parent);
+        }
+        Path tmp = Paths.get(journalPath + ".tmp");
+        try (Writer writer = Files.newBufferedWriter(tmp, StandardCharsets.UTF_8)) {
+            for (PendingAttempt entry : pending.values()) {
+                writer.write(GSON.toJson(entry));
+                writer.write('\n');
+            }
+        }
+        Files.move(tmp, journalPath, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+
+        journalOut = new FileOutputStream(journalPath.toFile(), true);
+        journal = new BufferedWriter(new OutputStreamWriter(journalOut, StandardCharsets.UTF_8));
+    }
+
+    private static int provisionalId(int seq) {
+        return -seq;
+    }
+
+    private static QuizAttempt copyOf(QuizAttempt quizAttempt, int attemptId) {
+        List<Question> questions = null;
+        if (quizAttempt.getQuestionsAttempted() != null) {
+            questions = new ArrayList<>();
+            for (Question question : quizAttempt.getQuestionsAttempted()) {
+                Question copy = new Question(question);
+                copy.setQuizId(question.getQuizId());
+                questions.add(copy);
+            }
+        }
+        QuizAttempt copy = new QuizAttempt(attemptId, quizAttempt.getUserId(), quizAttempt.getQuizId(), quizAttempt.getTimestamp(),
+                quizAttempt.getScore(), questions, quizAttempt.getDurationAttempted());
+        copy.setSubmissionKey(quizAttempt.getSubmissionKey());
+        return copy;
+    }
+
+    /**
+     * Journal line: either an attempt with its sequence number, or the sequence numbers of
+     * attempts that have been committed.
+     */
+    private static class JournalRecord {
+        int seq;
+        QuizAttempt attempt;
+        int[] committed;
+    }
+
+    private static final class PendingAttempt extends JournalRecord {
+        private PendingAttempt(int seq, QuizAttempt attempt) {
+            this.seq = seq;
+            this.attempt = attempt;
+        }
+    }
+
+    private static final class CommitMarker extends JournalRecord {
+        private CommitMarker(int[] committed) {
+            this.committed = committed;
+        }
+    }
+}
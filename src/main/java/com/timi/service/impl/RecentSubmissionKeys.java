@@ -0,0 +1,77 @@
+package com.timi.service.impl;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Submission keys seen recently, with the attempt id each one was acknowledged with. Entries
+ * expire after a fixed time and the oldest are dropped beyond {@code maxEntries}, so the map stays
+ * small; anything it no longer remembers is still caught by the unique key in the database.
+ */
+public class RecentSubmissionKeys {
+
+    private final int maxEntries;
+    private final long ttlMillis;
+    // insertion order is also expiry order, since every entry lives for the same time
+    private final LinkedHashMap<String, Entry> entries = new LinkedHashMap<>();
+    private long hits;
+
+    public RecentSubmissionKeys(int maxEntries, long ttlMillis) {
+        this.maxEntries = maxEntries;
+        this.ttlMillis = ttlMillis;
+    }
+
+    /**
+     * Attempt id acknowledged for this key, or null if the key has not been seen recently.
+     */
+    public synchronized Integer get(String submissionKey) {
+        expire(System.currentTimeMillis());
+        Entry entry = entries.get(submissionKey);
+        if (entry == null) {
+            return null;
+        }
+        hits++;
+        return entry.attemptId;
+    }
+
+    public synchronized void put(String submissionKey, int attemptId) {
+        long now = System.currentTimeMillis();
+        expire(now);
+        entries.remove(submissionKey);
+        entries.put(submissionKey, new Entry(attemptId, now + ttlMillis));
+        if (entries.size() > maxEntries) {
+            Iterator<Entry> eldest = entries.values().iterator();
+            eldest.next();
+            eldest.remove();
+        }
+    }
+
+    public synchronized int size() {
+        return entries.size();
+    }
+
+    /**
+     * Number of submissions answered from memory as duplicates.
+     */
+    public synchronized long getHits() {
+        return hits;
+    }
+
+    private void expire(long now) {
+        Iterator<Map.Entry<String, Entry>> oldestFirst = entries.entrySet().iterator();
+        while (oldestFirst.hasNext() && oldestFirst.next().getValue().expiresAt <= now) {
+            oldestFirst.remove();
+        }
+    }
+
+    private static final class Entry {
+        private final int attemptId;
+        private final long expiresAt;
+
+        private Entry(int attemptId, long expiresAt) {
+            this.attemptId = attemptId;
+            this.expiresAt = expiresAt;
+        }
+    }
+}
@@ -0,0 +1,131 @@
+package com.timi.service.impl;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Stream;
+
+import com.timi.dao.CourseDAO;
+import com.timi.dao.UserDAO;
+import com.timi.dao.impl.CachingCourseDAO;
+import com.timi.dao.impl.UserDAOImpl;
+import com.timi.exception.DAOException;
+import com.timi.exception.UncheckedDAOException;
+import com.timi.model.Course;
+import com.timi.model.Enrollment;
+import com.timi.model.Student;
+import com.timi.service.RecommendationService;
+
+/**
+ * "Students who took this also took" recommendations from a {@link CoEnrollmentIndex} over the
+ * UserCourses table. The index is built from the database on startup (or on first use) and then
+ * kept current by {@link ElearningServiceImpl} as students enroll and courses change. A student
+ * is recommended courses of their own level that are similar to the ones they already take; the
+ * index keeps every course's level so it can filter while ranking.
+ */
+public class RecommendationServiceImpl implements RecommendationService {
+
+    static final int SIMILAR_COURSES = 20;
+
+    private static RecommendationServiceImpl instance;
+
+    private UserDAO userDAO;
+    private CourseDAO courseDAO;
+    // null until the first build
+    private volatile CoEnrollmentIndex index;
+
+    public RecommendationServiceImpl(UserDAO userDAO, CourseDAO courseDAO) {
+        this.userDAO = userDAO;
+        this.courseDAO = courseDAO;
+    }
+
+    public static synchronized RecommendationServiceImpl getInstance() {
+        if (instance == null) {
+            instance = new RecommendationServiceImpl(new UserDAOImpl(), CachingCourseDAO.getInstance());
+        }
+        return instance;
+    }
+
+    /**
+     * Replaces the index with one built from the enrollments in the database.
+     */
+    @Override
+    public synchronized void rebuild() throws DAOException {
+        CoEnrollmentIndex rebuilt = new CoEnrollmentIndex(SIMILAR_COURSES);
+        for (Course course : courseDAO.getAllCourses()) {
+            rebuilt.setCourseLevel(course.getCourseId(), course.getLevel());
+        }
+        try (Stream<Enrollment> enrollments = userDAO.streamEnrollments()) {
+            enrollments.forEach(enrollment -> rebuilt.recordEnrollment(enrollment.getUserId(), enrollment.getCourseId()));
+        } catch (UncheckedDAOException e) {
+            throw e.getCause();
+        }
+        index = rebuilt;
+    }
+
+    @Override
+    public void recordEnrollment(int userId, int courseId) {
+        CoEnrollmentIndex current = index;
+        // an index not built yet will pick the enrollment up from the database
+        if (current != null) {
+            current.recordEnrollment(userId, courseId);
+        }
+    }
+
+    @Override
+    public void indexCourse(Course course) {
+        CoEnrollmentIndex current = index;
+        if (current != null) {
+            current.setCourseLevel(course.getCourseId(), course.getLevel());
+        }
+    }
+
+    @Override
+    public void removeCourse(int courseId) {
+        CoEnrollmentIndex current = index;
+        if (current != null) {
+            current.removeCourse(courseId);
+        }
+    }
+
+    @Override
+    public List<Course> getSimilarCourses(int courseId, int count) throws DAOException {
+        return loadCourses(index().similarCourses(courseId, count));
+    }
+
+    /**
+     * Up to {@code count} courses of the student's level that students taking the same courses
+     * also took, best first, leaving out the student's own courses.
+     */
+    @Override
+    public List<Course> recommendCourses(Student student, int count) throws DAOException {
+        List<Course> enrolledCourses = student.getEnrolledCourses();
+        int[] enrolledCourseIds = enrolledCourses == null ? new int[0] : enrolledCourses.stream().mapToInt(Course::getCourseId).toArray();
+        return loadCourses(index().recommend(student.getId(), enrolledCourseIds, student.getLevel(), count));
+    }
+
+    private List<Course> loadCourses(int[] courseIds) throws DAOException {
+        List<Course> courses = new ArrayList<>();
+        for (int courseId : courseIds) {
+            Course course = courseDAO.getCourseById(courseId);
+            if (course != null) {
+                courses.add(course);
+            }
+        }
+        return courses;
+    }
+
+    private CoEnrollmentIndex index() throws DAOException {
+        CoEnrollmentIndex current = index;
+        if (current == null) {
+            current = buildOnFirstUse();
+        }
+        return current;
+    }
+
+    private synchronized CoEnrollmentIndex buildOnFirstUse() throws DAOException {
+        if (index == null) {
+            rebuild();
+        }
+        return index;
+    }
+}
@@ -0,0 +1,11 @@
+-- getCourseByName
+CREATE INDEX idx_courses_title ON Courses (title);
+
+-- getPendingApplications
+CREATE INDEX idx_applications_status ON Applications (status);
+
+-- authenticateUser
+CREATE INDEX idx_users_email_password ON Users (email, password);
+
+-- getQuizAttemptsByUserIdAndQuizId (InnoDB appends attemptId, so matches come back already in attemptId order)
+CREATE INDEX idx_quizattempts_user_quiz ON QuizAttempts (userId, quizId);
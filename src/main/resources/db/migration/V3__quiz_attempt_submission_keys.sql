@@ -0,0 +1,4 @@
+-- client-generated key that makes resubmitting the same attempt a no-op; existing rows keep NULL
+ALTER TABLE QuizAttempts ADD COLUMN submissionKey VARCHAR(64) NULL;
+
+CREATE UNIQUE INDEX uq_quizattempts_submission_key ON QuizAttempts (submissionKey);
@@ -0,0 +1,14 @@
+-- running per-quiz aggregates maintained by QuizAttemptDAOImpl; a quiz without a row is
+-- summarised from its attempts the first time it is needed
+CREATE TABLE IF NOT EXISTS QuizStatistics (
+    quizId INT PRIMARY KEY,
+    revision BIGINT NOT NULL,
+    attemptCount INT NOT NULL,
+    scoreSum BIGINT NOT NULL,
+    scoreSumOfSquares BIGINT NOT NULL,
+    minScore INT NULL,
+    maxScore INT NULL,
+    scoreHistogram TEXT NOT NULL,
+    durationHistogram VARCHAR(255) NOT NULL,
+    FOREIGN KEY (quizId) REFERENCES Quizzes(quizId) ON DELETE CASCADE
+);
@@ -1,4 +1,4 @@
-DROP TABLE IF EXISTS Applications, Users, Courses, Questions, Quizzes, UserCourses, QuizAttempts, QuizAttemptQuestions;
+DROP TABLE IF EXISTS Applications, Users, Courses, Questions, Quizzes, UserCourses, QuizAttempts, QuizAttemptQuestions, QuizStatistics, schema_version;
 
 CREATE TABLE IF NOT EXISTS Users (
     id INT PRIMARY KEY AUTO_INCREMENT,
@@ -1,5 +1,7 @@
 package com.timi;
 
+import com.timi.dao.StatementCacheTest;
+import com.timi.service.impl.DataSnapshotTest;
 import org.junit.runner.RunWith;
 import org.junit.runners.Suite;
 
@@ -10,7 +12,26 @@ import org.junit.runners.Suite;
     CourseDAOImplTest.class,
     QuizDAOImplTest.class,
     QuestionDAOImplTest.class,
-    QuizAttemptDAOImplTest.class
+    QuizAttemptDAOImplTest.class,
+    CachingCourseDAOTest.class,
+    CachingQuizDAOTest.class,
+    OptionsCodecTest.class,
+    PageTest.class,
+    SchemaMigratorTest.class,
+    QuizAttemptWriteBehindTest.class,
+    RecentSubmissionKeysTest.class,
+    QuizStatisticsTest.class,
+    QuizStatisticsDAOImplTest.class,
+    LeaderboardTest.class,
+    CourseSearchIndexTest.class,
+    CourseTitleTrieTest.class,
+    CourseFacetIndexTest.class,
+    IntIntHashMapTest.class,
+    CoEnrollmentIndexTest.class,
+    DataSnapshotTest.class,
+    ConnectionPoolTest.class,
+    StatementCacheTest.class,
+    TableFingerprintDAOImplTest.class
 })
 public class AppTest {
     
@@ -0,0 +1,188 @@
+package com.timi;
+
+import com.timi.dao.CourseDAO;
+import com.timi.dao.Page;
+import com.timi.dao.impl.CachingCourseDAO;
+import com.timi.model.Category;
+import com.timi.model.Course;
+import com.timi.model.Level;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class CachingCourseDAOTest {
+
+    private InMemoryCourseDAO delegate;
+    private CachingCourseDAO courseDAO;
+
+    @BeforeEach
+    void setUp() {
+        delegate = new InMemoryCourseDAO();
+        delegate.addCourse(new Course(1, "Java for beginners", "Learn Java from scratch", 3, Level.BEGINNER, 100.0, 30, Category.JAVA, null));
+        delegate.addCourse(new Course(2, "Java for experts", "Advanced Java concepts", 3, Level.EXPERT, 200.0, 30, Category.JAVA, null));
+        delegate.queries = 0;
+        courseDAO = new CachingCourseDAO(delegate, 100, 60_000);
+    }
+
+    @Test
+    @DisplayName("Repeated Lookups Are Served From Cache Test")
+    void repeatedLookupsTest() throws Exception {
+        assertEquals(2, courseDAO.getAllCourses().size());
+        assertEquals(2, courseDAO.getAllCourses().size());
+        assertEquals("Java for experts", courseDAO.getCourseById(2).getTitle());
+        assertEquals(1, courseDAO.getCoursesByLevel("Beginner").size());
+        assertEquals(1, courseDAO.getCoursesByLevel("BEGINNER").size());
+        assertEquals(2, delegate.queries);
+        assertEquals(3, courseDAO.getStats().getHits());
+    }
+
+    @Test
+    @DisplayName("Returned Courses Are Copies Test")
+    void returnedCoursesAreCopiesTest() throws Exception {
+        courseDAO.getCourseById(1).setTitle("changed");
+        assertEquals("Java for beginners", courseDAO.getCourseById(1).getTitle());
+    }
+
+    @Test
+    @DisplayName("Writes Invalidate Cached Entries Test")
+    void writesInvalidateTest() throws Exception {
+        courseDAO.getCoursesByCategory("Java");
+        courseDAO.addCourse(new Course(3, "Java streams", "Streams in depth", 3, Level.INTERMEDIATE, 50.0, 10, Category.JAVA, null));
+        assertEquals(3, courseDAO.getCoursesByCategory("Java").size());
+
+        Course updated = courseDAO.getCourseById(1);
+        updated.setTitle("Java basics");
+        courseDAO.updateCourse(updated);
+        assertEquals("Java basics", courseDAO.getCourseById(1).getTitle());
+        assertNotNull(courseDAO.getCourseByName("java basics"));
+
+        courseDAO.deleteCourse(2);
+        assertNull(courseDAO.getCourseById(2));
+    }
+
+    @Test
+    @DisplayName("Least Recently Used Entries Are Evicted Test")
+    void evictionTest() throws Exception {
+        CachingCourseDAO smallCache = new CachingCourseDAO(delegate, 1, 60_000);
+        smallCache.getCourseById(1);
+        smallCache.getCourseById(2);
+        smallCache.getCourseById(1);
+        assertEquals(3, delegate.queries);
+        assertTrue(smallCache.getStats().getEvictions() >= 1);
+    }
+
+    @Test
+    @DisplayName("Results Larger Than The Cache Are Not Cached Test")
+    void oversizedResultTest() throws Exception {
+        CachingCourseDAO smallCache = new CachingCourseDAO(delegate, 1, 60_000);
+        smallCache.getCourseById(1);
+        assertEquals(2, smallCache.getAllCourses().size());
+        assertEquals(2, smallCache.getAllCourses().size());
+        assertEquals(3, delegate.queries);
+        // the catalog did not push the cached course out
+        assertEquals("Java for beginners", smallCache.getCourseById(1).getTitle());
+        assertEquals(3, delegate.queries);
+        assertEquals(0, smallCache.getStats().getEvictions());
+    }
+
+    private static class InMemoryCourseDAO implements CourseDAO {
+        private final Map<Integer, Course> courses = new LinkedHashMap<>();
+        private int queries;
+
+        @Override
+        public void addCourse(Course course) {
+            courses.put(course.getCourseId(), new Course(course));
+        }
+
+        @Override
+        public Course getCourseById(int courseId) {
+            queries++;
+            Course course = courses.get(courseId);
+            return course == null ? null : new Course(course);
+        }
+
+        @Override
+        public List<Course> getAllCourses() {
+            queries++;
+            return filter(null, null);
+        }
+
+        @Override
+        public Page<Course> getCoursesPage(String pageToken, int pageSize) {
+            queries++;
+            int afterId = Page.decodeToken(pageToken);
+            List<Course> rows = filter(null, null);
+            rows.removeIf(course -> course.getCourseId() <= afterId);
+            return Page.of(rows.subList(0, Math.min(rows.size(), pageSize + 1)), pageSize, Course::getCourseId);
+        }
+
+        @Override
+        public List<Course> getCoursesByInstructor(String instructor) {
+            queries++;
+            return new ArrayList<>();
+        }
+
+        @Override
+        public List<Course> getCoursesByLevel(String level) {
+            queries++;
+            return filter(Level.valueOf(level.toUpperCase()), null);
+        }
+
+        @Override
+        public List<Course> getCoursesByCategory(String category) {
+            queries++;
+            return filter(null, Category.valueOf(category.toUpperCase()));
+        }
+
+        @Override
+        public List<Course> getUserCourses(int userId) {
+            queries++;
+            return new ArrayList<>();
+        }
+
+        @Override
+        public Map<Integer, Integer> getCoursePopularity() {
+            queries++;
+            return new LinkedHashMap<>();
+        }
+
+        @Override
+        public void updateCourse(Course course) {
+            courses.put(course.getCourseId(), new Course(course));
+        }
+
+        @Override
+        public void deleteCourse(int courseId) {
+            courses.remove(courseId);
+        }
+
+        @Override
+        public Course getCourseByName(String name) {
+            queries++;
+            for (Course course : courses.values()) {
+                if (course.getTitle().equalsIgnoreCase(name)) {
+                    return new Course(course);
+                }
+            }
+            return null;
+        }
+
+        private List<Course> filter(Level level, Category category) {
+            List<Course> result = new ArrayList<>();
+            for (Course course : courses.values()) {
+                if ((level == null || course.getLevel() == level) && (category == null || course.getCategory() == category)) {
+                    result.add(new Course(course));
+                }
+            }
+            return result;
+        }
+    }
+}
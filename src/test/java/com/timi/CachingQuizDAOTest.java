@@ -0,0 +1,117 @@
+package com.timi;
+
+import com.timi.dao.Page;
+import com.timi.dao.QuizDAO;
+import com.timi.dao.impl.CachingQuizDAO;
+import com.timi.model.Question;
+import com.timi.model.Quiz;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class CachingQuizDAOTest {
+
+    private StubQuizDAO delegate;
+    private CachingQuizDAO quizDAO;
+
+    @BeforeEach
+    void setUp() {
+        delegate = new StubQuizDAO();
+        quizDAO = new CachingQuizDAO(delegate);
+    }
+
+    @Test
+    @DisplayName("Quiz Is Loaded Once Test")
+    void quizIsLoadedOnceTest() throws Exception {
+        assertNotNull(quizDAO.getQuizById(1));
+        assertNotNull(quizDAO.getQuizById(1));
+        assertEquals(1, quizDAO.getQuizzesByCourseId(1).size());
+        assertEquals(1, quizDAO.getQuizzesByCourseId(1).size());
+        assertEquals(2, delegate.loads);
+    }
+
+    @Test
+    @DisplayName("Answering A Copy Does Not Change The Cache Test")
+    void answeringCopyTest() throws Exception {
+        Quiz attemptCopy = quizDAO.getQuizById(1);
+        attemptCopy.getQuestions().get(0).setSelectedOptionIndex(3);
+        assertEquals(0, quizDAO.getQuizById(1).getQuestions().get(0).getSelectedOptionIndex());
+    }
+
+    @Test
+    @DisplayName("Question Changes Invalidate The Quiz Test")
+    void invalidationTest() throws Exception {
+        quizDAO.getQuizById(1);
+        quizDAO.invalidateQuestion(10);
+        quizDAO.getQuizById(1);
+        quizDAO.updateQuiz(new Quiz(1, "Renamed", 1, 10));
+        quizDAO.getQuizById(1);
+        assertEquals(3, delegate.loads);
+    }
+
+    @Test
+    @DisplayName("Deleting A Course Invalidates Its Quizzes Test")
+    void courseInvalidationTest() throws Exception {
+        quizDAO.getQuizzesByCourseId(1);
+        quizDAO.invalidateCourse(2);
+        assertNotNull(quizDAO.getQuizById(1));
+        assertEquals(1, delegate.loads);
+
+        quizDAO.invalidateCourse(1);
+        quizDAO.getQuizById(1);
+        quizDAO.getQuizzesByCourseId(1);
+        assertEquals(3, delegate.loads);
+    }
+
+    private static class StubQuizDAO implements QuizDAO {
+        private int loads;
+
+        private Quiz newQuiz() {
+            List<Question> questions = new ArrayList<>();
+            questions.add(new Question(10, "What is Java?", new ArrayList<>(List.of("Language", "Database")), 0, 1));
+            return new Quiz(1, "Java Basics Quiz", questions, 1, 10);
+        }
+
+        @Override
+        public void addQuiz(Quiz quiz) {
+        }
+
+        @Override
+        public Quiz getQuizById(int quizId) {
+            loads++;
+            return quizId == 1 ? newQuiz() : null;
+        }
+
+        @Override
+        public List<Quiz> getAllQuizzes() {
+            loads++;
+            return new ArrayList<>(List.of(newQuiz()));
+        }
+
+        @Override
+        public Page<Quiz> getQuizzesPage(String pageToken, int pageSize) {
+            loads++;
+            return new Page<>(new ArrayList<>(List.of(newQuiz())), null);
+        }
+
+        @Override
+        public List<Quiz> getQuizzesByCourseId(int courseId) {
+            loads++;
+            return courseId == 1 ? new ArrayList<>(List.of(newQuiz())) : new ArrayList<>();
+        }
+
+        @Override
+        public void updateQuiz(Quiz quiz) {
+        }
+
+        @Override
+        public void deleteQuiz(int quizId) {
+        }
+    }
+}
@@ -0,0 +1,157 @@
+package com.timi;
+
+import com.timi.model.Level;
+import com.timi.service.impl.CoEnrollmentIndex;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class CoEnrollmentIndexTest {
+
+    @Test
+    @DisplayName("Similar Courses Test")
+    void similarCoursesTest() {
+        CoEnrollmentIndex index = new CoEnrollmentIndex(10);
+        enroll(index, 1, 10, 20, 30);
+        enroll(index, 2, 10, 20);
+        enroll(index, 3, 10, 40);
+
+        assertEquals(3, index.enrollmentCount(10));
+        assertEquals(2, index.coEnrollmentCount(10, 20));
+        assertFalse(index.recordEnrollment(1, 10));
+        assertEquals(3, index.enrollmentCount(10));
+
+        // 20: 2/sqrt(3*2), 30 and 40: 1/sqrt(3*1); ties by id
+        assertArrayEquals(new int[] {20, 30, 40}, index.similarCourses(10, 10));
+        assertArrayEquals(new int[] {20}, index.similarCourses(10, 1));
+        assertArrayEquals(new int[0], index.similarCourses(99, 10));
+
+        // the cached list follows later enrollments
+        enroll(index, 4, 10, 40);
+        enroll(index, 5, 10, 40);
+        assertArrayEquals(new int[] {40, 20, 30}, index.similarCourses(10, 10));
+    }
+
+    @Test
+    @DisplayName("Recommend Test")
+    void recommendTest() {
+        CoEnrollmentIndex index = new CoEnrollmentIndex(10);
+        enroll(index, 1, 10, 20, 30);
+        enroll(index, 2, 10, 20);
+        enroll(index, 3, 20, 50);
+        enroll(index, 4, 10);
+
+        assertArrayEquals(new int[] {20, 30}, index.recommend(4, new int[0], null, 10));
+        // courses the student already takes are never recommended
+        assertArrayEquals(new int[] {30, 50}, index.recommend(4, new int[] {20}, null, 10));
+        assertArrayEquals(new int[] {10, 30, 50}, index.recommend(99, new int[] {20}, null, 10));
+        assertArrayEquals(new int[] {10, 30}, index.recommend(99, new int[] {20}, null, 2));
+        assertArrayEquals(new int[0], index.recommend(99, new int[0], null, 10));
+    }
+
+    @Test
+    @DisplayName("Recommend Filters By Level While Ranking Test")
+    void recommendLevelTest() {
+        // each course keeps only its single most similar course
+        CoEnrollmentIndex index = new CoEnrollmentIndex(1);
+        enroll(index, 1, 10, 20, 30);
+        enroll(index, 2, 10, 20);
+        enroll(index, 3, 10, 40);
+        enroll(index, 4, 10);
+        index.setCourseLevel(20, Level.EXPERT);
+        index.setCourseLevel(30, Level.BEGINNER);
+        index.setCourseLevel(40, Level.BEGINNER);
+
+        assertArrayEquals(new int[] {20}, index.similarCourses(10, 10));
+        // 30 and 40 are ranked although neither is in 10's cached list
+        assertArrayEquals(new int[] {30, 40}, index.recommend(4, new int[0], Level.BEGINNER, 10));
+        assertArrayEquals(new int[] {20}, index.recommend(4, new int[0], Level.EXPERT, 10));
+        assertArrayEquals(new int[0], index.recommend(4, new int[0], Level.INTERMEDIATE, 10));
+        assertArrayEquals(new int[] {20, 30, 40}, index.recommend(4, new int[0], null, 10));
+
+        index.setCourseLevel(20, Level.BEGINNER);
+        index.setCourseLevel(40, null);
+        assertArrayEquals(new int[] {20, 30}, index.recommend(4, new int[0], Level.BEGINNER, 10));
+        index.removeCourse(30);
+        assertArrayEquals(new int[] {20}, index.recommend(4, new int[0], Level.BEGINNER, 10));
+    }
+
+    @Test
+    @DisplayName("Remove Course Test")
+    void removeCourseTest() {
+        CoEnrollmentIndex index = new CoEnrollmentIndex(10);
+        enroll(index, 1, 10, 20, 30);
+        assertArrayEquals(new int[] {20, 30}, index.similarCourses(10, 10));
+
+        index.removeCourse(20);
+        assertArrayEquals(new int[] {30}, index.similarCourses(10, 10));
+        assertArrayEquals(new int[0], index.similarCourses(20, 10));
+        assertFalse(index.recordEnrollment(2, 20));
+        enroll(index, 2, 10, 30);
+        assertEquals(0, index.coEnrollmentCount(10, 20));
+        assertEquals(2, index.coEnrollmentCount(10, 30));
+    }
+
+    @Test
+    @DisplayName("Random Enrollments Match Brute Force Test")
+    void randomEnrollmentsTest() {
+        Random random = new Random(11);
+        int k = 5;
+        CoEnrollmentIndex index = new CoEnrollmentIndex(k);
+        Map<Integer, Set<Integer>> coursesByUser = new HashMap<>();
+
+        for (int step = 0; step < 3000; step++) {
+            int userId = random.nextInt(200);
+            int courseId = random.nextInt(40);
+            boolean added = coursesByUser.computeIfAbsent(userId, id -> new HashSet<>()).add(courseId);
+            assertEquals(added, index.recordEnrollment(userId, courseId));
+
+            if (step % 100 == 0) {
+                for (int course = 0; course < 40; course++) {
+                    assertArrayEquals(expectedSimilar(coursesByUser, course, k), index.similarCourses(course, k), "course " + course);
+                }
+            }
+        }
+    }
+
+    private static int[] expectedSimilar(Map<Integer, Set<Integer>> coursesByUser, int courseId, int k) {
+        Map<Integer, Integer> enrolled = new HashMap<>();
+        Map<Integer, Integer> both = new HashMap<>();
+        for (Set<Integer> courses : coursesByUser.values()) {
+            for (int course : courses) {
+                enrolled.merge(course, 1, Integer::sum);
+            }
+            if (courses.contains(courseId)) {
+                for (int course : courses) {
+                    if (course != courseId) {
+                        both.merge(course, 1, Integer::sum);
+                    }
+                }
+            }
+        }
+        List<Integer> similar = new ArrayList<>(both.keySet());
+        Map<Integer, Float> scores = new HashMap<>();
+        for (int course : similar) {
+            scores.put(course, (float) (both.get(course) / Math.sqrt((double) enrolled.get(courseId) * enrolled.get(course))));
+        }
+        similar.sort(Comparator.comparing((Integer course) -> -scores.get(course)).thenComparing(course -> course));
+        return similar.stream().limit(k).mapToInt(Integer::intValue).toArray();
+    }
+
+    private static void enroll(CoEnrollmentIndex index, int userId, int... courseIds) {
+        for (int courseId : courseIds) {
+            assertTrue(index.recordEnrollment(userId, courseId));
+        }
+    }
+}
@@ -0,0 +1,253 @@
+package com.timi;
+
+import com.timi.dao.ConnectionPool;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.Driver;
+import java.sql.DriverManager;
+import java.sql.DriverPropertyInfo;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.SQLFeatureNotSupportedException;
+import java.sql.SQLTimeoutException;
+import java.sql.Statement;
+import java.util.List;
+import java.util.Properties;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.logging.Logger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ConnectionPoolTest {
+
+    private FakeDriver driver;
+    private ConnectionPool pool;
+
+    @BeforeEach
+    void setUp() throws SQLException {
+        driver = new FakeDriver("jdbc:fake:" + System.nanoTime());
+        DriverManager.registerDriver(driver);
+    }
+
+    @AfterEach
+    void tearDown() throws SQLException {
+        if (pool != null) {
+            pool.shutdown();
+        }
+        DriverManager.deregisterDriver(driver);
+    }
+
+    @Test
+    @DisplayName("Borrow Times Out When The Pool Is Exhausted Test")
+    void acquireTimeoutTest() throws SQLException {
+        pool = newPool(1, 100);
+        Connection held = pool.borrow();
+
+        long start = System.nanoTime();
+        assertThrows(SQLTimeoutException.class, () -> pool.borrow());
+        assertTrue(System.nanoTime() - start >= 90_000_000L);
+        assertEquals(1, pool.getMetrics().getTimeouts());
+
+        held.close();
+        try (Connection connection = pool.borrow()) {
+            assertFalse(connection.isClosed());
+        }
+        assertEquals(1, driver.connections.size());
+        assertEquals(1, pool.getMetrics().getTimeouts());
+    }
+
+    @Test
+    @DisplayName("Broken Idle Connections Are Replaced On Borrow Test")
+    void validationOnBorrowTest() throws Exception {
+        pool = newPool(2, 1000);
+        pool.borrow().close();
+        FakeConnection first = driver.connections.get(0);
+
+        // returned moments ago, so it is handed out again without asking the driver
+        first.valid = false;
+        try (Connection connection = pool.borrow()) {
+            assertFalse(connection.isClosed());
+            assertEquals(1, driver.connections.size());
+        }
+        assertEquals(0, first.validations);
+
+        Thread.sleep(600);
+        try (Connection connection = pool.borrow()) {
+            assertFalse(connection.isClosed());
+            assertEquals(2, driver.connections.size());
+            assertFalse(driver.connections.get(1).closed);
+        }
+        assertEquals(1, first.validations);
+        assertTrue(first.closed);
+        assertEquals(1, pool.getMetrics().getTotal());
+    }
+
+    @Test
+    @DisplayName("Leaked Statements And Transactions Are Reclaimed On Return Test")
+    void reclaimTest() throws SQLException {
+        pool = newPool(1, 1000);
+        Connection connection = pool.borrow();
+        connection.setAutoCommit(false);
+        PreparedStatement cached = connection.prepareStatement("SELECT 1");
+        Statement uncached = connection.createStatement();
+        connection.close();
+
+        FakeConnection physical = driver.connections.get(0);
+        assertTrue(cached.isClosed());
+        assertTrue(uncached.isClosed());
+        assertEquals(2, physical.statements.size());
+        assertFalse(physical.statements.get(0).closed);
+        assertTrue(physical.statements.get(1).closed);
+        assertEquals(1, physical.rollbacks);
+        assertTrue(physical.autoCommit);
+        assertEquals(2, pool.getMetrics().getStatementsReclaimed());
+        assertThrows(SQLException.class, () -> connection.prepareStatement("SELECT 1"));
+
+        try (Connection again = pool.borrow();
+             PreparedStatement statement = again.prepareStatement("SELECT 1")) {
+            assertFalse(statement.isClosed());
+        }
+        assertEquals(2, physical.statements.size());
+        assertEquals(1, pool.getMetrics().getStatementCacheHits());
+        assertEquals(2, pool.getMetrics().getStatementsReclaimed());
+    }
+
+    private ConnectionPool newPool(int maxSize, long acquireTimeoutMs) throws SQLException {
+        Properties props = new Properties();
+        props.setProperty("db.pool.minSize", "0");
+        props.setProperty("db.pool.maxSize", String.valueOf(maxSize));
+        props.setProperty("db.pool.acquireTimeoutMs", String.valueOf(acquireTimeoutMs));
+        return new ConnectionPool(driver.url, "user", "secret", props);
+    }
+
+    /**
+     * Stands in for every JDBC method the test does not care about.
+     */
+    private static Object defaultValue(Class<?> type) {
+        if (type == boolean.class) {
+            return false;
+        }
+        if (type == int.class) {
+            return 0;
+        }
+        if (type == long.class) {
+            return 0L;
+        }
+        return null;
+    }
+
+    /**
+     * Driver for one {@code jdbc:fake:} URL whose connections only record what is done to them.
+     */
+    private static final class FakeDriver implements Driver {
+        private final String url;
+        private final List<FakeConnection> connections = new CopyOnWriteArrayList<>();
+
+        private FakeDriver(String url) {
+            this.url = url;
+        }
+
+        @Override
+        public Connection connect(String url, Properties info) {
+            if (!acceptsURL(url)) {
+                return null;
+            }
+            FakeConnection connection = new FakeConnection();
+            connections.add(connection);
+            return (Connection) Proxy.newProxyInstance(Connection.class.getClassLoader(), new Class<?>[] { Connection.class }, connection);
+        }
+
+        @Override
+        public boolean acceptsURL(String url) {
+            return this.url.equals(url);
+        }
+
+        @Override
+        public DriverPropertyInfo[] getPropertyInfo(String url, Properties info) {
+            return new DriverPropertyInfo[0];
+        }
+
+        @Override
+        public int getMajorVersion() {
+            return 1;
+        }
+
+        @Override
+        public int getMinorVersion() {
+            return 0;
+        }
+
+        @Override
+        public boolean jdbcCompliant() {
+            return false;
+        }
+
+        @Override
+        public Logger getParentLogger() throws SQLFeatureNotSupportedException {
+            throw new SQLFeatureNotSupportedException();
+        }
+    }
+
+    private static final class FakeConnection implements InvocationHandler {
+        private final List<FakeStatement> statements = new CopyOnWriteArrayList<>();
+        private volatile boolean closed;
+        private volatile boolean valid = true;
+        private volatile boolean autoCommit = true;
+        private volatile int rollbacks;
+        private volatile int validations;
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) {
+            switch (method.getName()) {
+                case "close":
+                    closed = true;
+                    return null;
+                case "isClosed":
+                    return closed;
+                case "isValid":
+                    validations++;
+                    return valid && !closed;
+                case "getAutoCommit":
+                    return autoCommit;
+                case "setAutoCommit":
+                    autoCommit = (Boolean) args[0];
+                    return null;
+                case "rollback":
+                    rollbacks++;
+                    return null;
+                case "prepareStatement":
+                case "createStatement":
+                    FakeStatement statement = new FakeStatement();
+                    statements.add(statement);
+                    return Proxy.newProxyInstance(PreparedStatement.class.getClassLoader(), new Class<?>[] { PreparedStatement.class }, statement);
+                default:
+                    return defaultValue(method.getReturnType());
+            }
+        }
+    }
+
+    private static final class FakeStatement implements InvocationHandler {
+        private volatile boolean closed;
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) {
+            switch (method.getName()) {
+                case "close":
+                    closed = true;
+                    return null;
+                case "isClosed":
+                    return closed;
+                default:
+                    return defaultValue(method.getReturnType());
+            }
+        }
+    }
+}
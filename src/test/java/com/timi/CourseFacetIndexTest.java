@@ -0,0 +1,135 @@
+package com.timi;
+
+import com.timi.model.Category;
+import com.timi.model.Course;
+import com.timi.model.CourseFacetCounts;
+import com.timi.model.CourseFilter;
+import com.timi.model.DurationRange;
+import com.timi.model.Level;
+import com.timi.model.PriceRange;
+import com.timi.service.impl.CourseFacetIndex;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.TreeMap;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class CourseFacetIndexTest {
+
+    @Test
+    @DisplayName("Filter Test")
+    void filterTest() {
+        CourseFacetIndex index = new CourseFacetIndex();
+        index.index(course(1, Level.BEGINNER, Category.JAVA, 0.0, 5));
+        index.index(course(2, Level.EXPERT, Category.JAVA, 150.0, 40));
+        index.index(course(3, Level.BEGINNER, Category.PYTHON, 60.0, 20));
+        index.index(course(4, Level.INTERMEDIATE, Category.SQL, null, 80));
+
+        assertEquals(List.of(1, 2, 3, 4), ids(index.filter(new CourseFilter(), 0, 10)));
+        assertEquals(List.of(1, 3), ids(index.filter(filter(EnumSet.of(Level.BEGINNER), EnumSet.noneOf(Category.class)), 0, 10)));
+        // OR within a facet, AND across facets
+        CourseFilter javaOrSql = filter(EnumSet.of(Level.BEGINNER, Level.EXPERT), EnumSet.of(Category.JAVA, Category.SQL));
+        assertEquals(List.of(1, 2), ids(index.filter(javaOrSql, 0, 10)));
+        assertEquals(List.of(2), ids(index.filter(javaOrSql, 1, 10)));
+
+        CourseFilter free = new CourseFilter();
+        free.setPriceRanges(EnumSet.of(PriceRange.FREE));
+        assertEquals(List.of(1, 4), ids(index.filter(free, 0, 10)));
+        free.setDurationRanges(EnumSet.of(DurationRange.FROM_60));
+        assertEquals(List.of(4), ids(index.filter(free, 0, 10)));
+    }
+
+    @Test
+    @DisplayName("Facet Counts Test")
+    void facetCountsTest() {
+        CourseFacetIndex index = new CourseFacetIndex();
+        index.index(course(1, Level.BEGINNER, Category.JAVA, 0.0, 5));
+        index.index(course(2, Level.EXPERT, Category.JAVA, 150.0, 40));
+        index.index(course(3, Level.BEGINNER, Category.PYTHON, 60.0, 20));
+
+        CourseFacetCounts counts = index.count(filter(EnumSet.of(Level.BEGINNER), EnumSet.of(Category.JAVA)));
+        assertEquals(1, counts.getTotal());
+        // a facet's own selection does not narrow its counts
+        assertEquals(1, counts.getLevels().get(Level.BEGINNER));
+        assertEquals(1, counts.getLevels().get(Level.EXPERT));
+        assertEquals(1, counts.getCategories().get(Category.JAVA));
+        assertEquals(1, counts.getCategories().get(Category.PYTHON));
+        assertEquals(1, counts.getPriceRanges().get(PriceRange.FREE));
+        assertEquals(0, counts.getPriceRanges().get(PriceRange.FROM_100_TO_200));
+    }
+
+    @Test
+    @DisplayName("Update, Remove And Out Of Order Insert Test")
+    void updateAndRemoveTest() {
+        CourseFacetIndex index = new CourseFacetIndex();
+        for (int courseId = 1; courseId <= 200; courseId++) {
+            index.index(course(courseId, Level.BEGINNER, Category.JAVA, 10.0, 5));
+        }
+        index.index(course(7, Level.EXPERT, Category.JAVA, 10.0, 5));
+        assertEquals(List.of(7), ids(index.filter(filter(EnumSet.of(Level.EXPERT), EnumSet.noneOf(Category.class)), 0, 10)));
+
+        for (int courseId = 1; courseId <= 150; courseId++) {
+            index.remove(courseId);
+        }
+        assertEquals(50, index.size());
+        assertTrue(index.filter(filter(EnumSet.of(Level.EXPERT), EnumSet.noneOf(Category.class)), 0, 10).isEmpty());
+
+        index.index(course(3, Level.EXPERT, Category.PYTHON, 10.0, 5));
+        assertEquals(List.of(3, 151, 152), ids(index.filter(new CourseFilter(), 0, 3)));
+        assertEquals(List.of(152, 153), ids(index.filter(new CourseFilter(), 151, 2)));
+    }
+
+    @Test
+    @DisplayName("Random Operations Match Brute Force Test")
+    void randomOperationsTest() {
+        Random random = new Random(7);
+        CourseFacetIndex index = new CourseFacetIndex();
+        Map<Integer, Course> courses = new TreeMap<>();
+        Level[] levels = Level.values();
+        Category[] categories = {Category.JAVA, Category.PYTHON, Category.SQL};
+
+        for (int step = 0; step < 2000; step++) {
+            int courseId = 1 + random.nextInt(300);
+            if (random.nextInt(3) == 0) {
+                index.remove(courseId);
+                courses.remove(courseId);
+            } else {
+                Course course = course(courseId, levels[random.nextInt(levels.length)], categories[random.nextInt(categories.length)],
+                        random.nextInt(5) * 60.0, random.nextInt(100));
+                index.index(course);
+                courses.put(courseId, course);
+            }
+
+            CourseFilter filter = filter(EnumSet.of(levels[random.nextInt(levels.length)]),
+                    random.nextBoolean() ? EnumSet.noneOf(Category.class) : EnumSet.of(categories[random.nextInt(categories.length)], Category.SQL));
+            List<Integer> expected = new ArrayList<>();
+            for (Course course : courses.values()) {
+                if (filter.getLevels().contains(course.getLevel())
+                        && (filter.getCategories().isEmpty() || filter.getCategories().contains(course.getCategory()))) {
+                    expected.add(course.getCourseId());
+                }
+            }
+            assertEquals(expected, ids(index.filter(filter, 0, Integer.MAX_VALUE)));
+            assertEquals(expected.size(), index.count(filter).getTotal());
+        }
+    }
+
+    private static CourseFilter filter(EnumSet<Level> levels, EnumSet<Category> categories) {
+        return new CourseFilter(levels, categories, EnumSet.noneOf(PriceRange.class), EnumSet.noneOf(DurationRange.class));
+    }
+
+    private static Course course(int courseId, Level level, Category category, Double price, int duration) {
+        return new Course(courseId, "Course " + courseId, "", 1, level, price, duration, category, null);
+    }
+
+    private static List<Integer> ids(List<Course> courses) {
+        return courses.stream().map(Course::getCourseId).toList();
+    }
+}
@@ -0,0 +1,72 @@
+package com.timi;
+
+import com.timi.model.Category;
+import com.timi.model.Course;
+import com.timi.model.Level;
+import com.timi.service.impl.CourseSearchIndex;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class CourseSearchIndexTest {
+
+    @Test
+    @DisplayName("Ranked Search Test")
+    void rankedSearchTest() {
+        CourseSearchIndex index = new CourseSearchIndex();
+        index.index(course(1, "Cooking basics", "Learn to cook pasta, also some Java trivia"));
+        index.index(course(2, "Java for beginners", "Variables, loops and classes"));
+        index.index(course(3, "Painting", "Watercolours"));
+
+        assertEquals(List.of(2, 1), ids(index.search("JAVA", 0, 10)));
+        assertEquals(List.of(2), ids(index.search("java loops", 0, 1)));
+        assertEquals(List.of(1), ids(index.search("java loops", 1, 10)));
+        assertTrue(index.search("haskell", 0, 10).isEmpty());
+        assertTrue(index.search("  ", 0, 10).isEmpty());
+    }
+
+    @Test
+    @DisplayName("Prefix Search Test")
+    void prefixSearchTest() {
+        CourseSearchIndex index = new CourseSearchIndex();
+        index.index(course(1, "Programming in Java", ""));
+        index.index(course(2, "Project management", ""));
+
+        // equally good matches, the shorter title ranks first
+        assertEquals(List.of(2, 1), ids(index.search("pro", 0, 10)));
+        assertEquals(List.of(1), ids(index.search("java progr", 0, 10)));
+        // only the last term is a prefix
+        assertTrue(index.search("jav management", 0, 10).stream().noneMatch(course -> course.getCourseId() == 1));
+    }
+
+    @Test
+    @DisplayName("Update And Remove Test")
+    void updateAndRemoveTest() {
+        CourseSearchIndex index = new CourseSearchIndex();
+        index.index(course(1, "Java", ""));
+        index.index(course(2, "Python", ""));
+
+        index.index(course(1, "Rust", ""));
+        assertTrue(index.search("java", 0, 10).isEmpty());
+        assertEquals(List.of(1), ids(index.search("rust", 0, 10)));
+
+        index.remove(2);
+        assertTrue(index.search("python", 0, 10).isEmpty());
+        assertEquals(1, index.size());
+
+        index.index(course(3, "Python again", ""));
+        assertEquals(List.of(3), ids(index.search("python", 0, 10)));
+    }
+
+    private static Course course(int courseId, String title, String description) {
+        return new Course(courseId, title, description, 1, Level.BEGINNER, 10.0, 5, Category.JAVA, null);
+    }
+
+    private static List<Integer> ids(List<Course> courses) {
+        return courses.stream().map(Course::getCourseId).toList();
+    }
+}
@@ -0,0 +1,122 @@
+package com.timi;
+
+import com.timi.service.impl.CourseTitleTrie;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class CourseTitleTrieTest {
+
+    @Test
+    @DisplayName("Prefix Completion Test")
+    void prefixCompletionTest() {
+        CourseTitleTrie trie = new CourseTitleTrie(5);
+        trie.put(1, "Java Basics", 0);
+        trie.put(2, "Java Streams", 0);
+        trie.put(3, "JavaScript", 0);
+        trie.put(4, "Python", 0);
+
+        assertEquals(List.of("Java Basics", "Java Streams", "JavaScript"), trie.complete("jav", 10));
+        assertEquals(List.of("Java Basics", "Java Streams"), trie.complete("  JAVA ", 10).subList(0, 2));
+        assertEquals(List.of("JavaScript"), trie.complete("javas", 10));
+        assertEquals(List.of("Java Basics"), trie.complete("java", 1));
+        assertTrue(trie.complete("javax", 10).isEmpty());
+        assertTrue(trie.complete("rust", 10).isEmpty());
+        assertEquals(4, trie.complete("", 10).size());
+    }
+
+    @Test
+    @DisplayName("Popularity Ranking Test")
+    void popularityRankingTest() {
+        CourseTitleTrie trie = new CourseTitleTrie(2);
+        trie.put(1, "Java Basics", 1);
+        trie.put(2, "Java Streams", 5);
+        trie.put(3, "JavaScript", 3);
+
+        assertEquals(List.of("Java Streams", "JavaScript"), trie.complete("java", 10));
+
+        trie.addPopularity(1, 10);
+        assertEquals(List.of("Java Basics", "Java Streams"), trie.complete("java", 10));
+
+        // renaming keeps the popularity
+        trie.put(1, "Kotlin Basics");
+        assertEquals(List.of("Java Streams", "JavaScript"), trie.complete("java", 10));
+        assertEquals(List.of("Kotlin Basics", "Java Streams"), trie.complete("", 10));
+    }
+
+    @Test
+    @DisplayName("Remove Test")
+    void removeTest() {
+        CourseTitleTrie trie = new CourseTitleTrie(5);
+        trie.put(1, "Java", 0);
+        trie.put(2, "Java Basics", 0);
+        trie.put(3, "Javelin", 0);
+
+        trie.remove(1);
+        assertEquals(List.of("Java Basics"), trie.complete("java", 10));
+        trie.remove(3);
+        assertEquals(List.of("Java Basics"), trie.complete("jav", 10));
+        trie.remove(2);
+        assertTrue(trie.complete("", 10).isEmpty());
+        assertEquals(0, trie.size());
+
+        trie.put(4, "Javelin", 0);
+        assertEquals(List.of("Javelin"), trie.complete("j", 10));
+    }
+
+    @Test
+    @DisplayName("Random Operations Match Brute Force Test")
+    void randomOperationsTest() {
+        Random random = new Random(42);
+        String[] words = {"java", "javascript", "jazz", "python", "py", "pyramid", "art", "arts", "a"};
+        CourseTitleTrie trie = new CourseTitleTrie(4);
+        Map<Integer, String> titles = new HashMap<>();
+        Map<Integer, Integer> popularity = new HashMap<>();
+
+        for (int step = 0; step < 3000; step++) {
+            int courseId = random.nextInt(60);
+            int operation = random.nextInt(4);
+            if (operation == 0) {
+                trie.remove(courseId);
+                titles.remove(courseId);
+                popularity.remove(courseId);
+            } else if (operation == 1 && titles.containsKey(courseId)) {
+                trie.addPopularity(courseId, 1);
+                popularity.merge(courseId, 1, Integer::sum);
+            } else {
+                String title = words[random.nextInt(words.length)] + " " + words[random.nextInt(words.length)];
+                int points = random.nextInt(5);
+                trie.put(courseId, title, points);
+                titles.put(courseId, title);
+                popularity.put(courseId, points);
+            }
+
+            String word = words[random.nextInt(words.length)];
+            String prefix = word.substring(0, 1 + random.nextInt(word.length()));
+            assertEquals(expected(titles, popularity, prefix, 4), trie.complete(prefix, 10), "prefix " + prefix);
+        }
+        assertEquals(titles.size(), trie.size());
+    }
+
+    private static List<String> expected(Map<Integer, String> titles, Map<Integer, Integer> popularity, String prefix, int count) {
+        List<Integer> matching = new ArrayList<>();
+        for (Map.Entry<Integer, String> entry : titles.entrySet()) {
+            if (entry.getValue().startsWith(prefix)) {
+                matching.add(entry.getKey());
+            }
+        }
+        matching.sort(Comparator.comparingInt((Integer courseId) -> -popularity.get(courseId))
+                .thenComparing(titles::get)
+                .thenComparingInt(courseId -> courseId));
+        return matching.stream().limit(count).map(titles::get).toList();
+    }
+}
@@ -0,0 +1,60 @@
+package com.timi;
+
+import com.timi.service.impl.IntIntHashMap;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class IntIntHashMapTest {
+
+    @Test
+    @DisplayName("Put, Get And Add Test")
+    void putGetAndAddTest() {
+        IntIntHashMap map = new IntIntHashMap();
+        assertEquals(0, map.get(7));
+        assertEquals(-1, map.getOrDefault(7, -1));
+        map.put(7, 3);
+        assertEquals(5, map.addTo(7, 2));
+        assertEquals(4, map.addTo(9, 4));
+        assertEquals(1, map.addTo(0, 1));
+        assertTrue(map.containsKey(0));
+        assertEquals(3, map.size());
+        assertTrue(map.remove(0));
+        assertFalse(map.remove(0));
+        assertEquals(2, map.size());
+    }
+
+    @Test
+    @DisplayName("Random Operations Match HashMap Test")
+    void randomOperationsTest() {
+        Random random = new Random(3);
+        IntIntHashMap map = new IntIntHashMap();
+        Map<Integer, Integer> expected = new HashMap<>();
+
+        for (int step = 0; step < 200000; step++) {
+            // a small key range keeps probe runs long, so removals have entries to shift back
+            int key = random.nextInt(2000) - 100;
+            int operation = random.nextInt(3);
+            if (operation == 0) {
+                assertEquals(expected.remove(key) != null, map.remove(key));
+            } else if (operation == 1) {
+                assertEquals((int) expected.merge(key, 1, Integer::sum), map.addTo(key, 1));
+            } else {
+                assertEquals(expected.getOrDefault(key, 0), map.get(key));
+                assertEquals(expected.containsKey(key), map.containsKey(key));
+            }
+        }
+
+        assertEquals(expected.size(), map.size());
+        Map<Integer, Integer> seen = new HashMap<>();
+        map.forEach(seen::put);
+        assertEquals(expected, seen);
+        assertEquals(expected.size(), map.keys().length);
+    }
+}
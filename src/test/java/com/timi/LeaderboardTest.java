@@ -0,0 +1,126 @@
+package com.timi;
+
+import com.timi.dao.QuizAttemptDAO;
+import com.timi.dao.UserDAO;
+import com.timi.model.LeaderboardEntry;
+import com.timi.model.Level;
+import com.timi.model.QuizAttempt;
+import com.timi.model.Student;
+import com.timi.service.impl.Leaderboard;
+import com.timi.service.impl.LeaderboardServiceImpl;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.lang.reflect.Proxy;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class LeaderboardTest {
+
+    @Test
+    @DisplayName("Best Attempt Ranking Test")
+    void bestAttemptRankingTest() {
+        Leaderboard leaderboard = new Leaderboard();
+        assertTrue(leaderboard.offer(1, 5, 60, 100, 1));
+        assertTrue(leaderboard.offer(2, 7, 90, 200, 2));
+        assertTrue(leaderboard.offer(3, 7, 30, 300, 3));
+        assertFalse(leaderboard.offer(1, 4, 10, 400, 4));
+        assertTrue(leaderboard.offer(1, 7, 30, 500, 5));
+
+        List<LeaderboardEntry> top = leaderboard.top(10);
+        assertEquals(3, top.size());
+        assertEquals(3, top.get(0).getUserId());
+        assertEquals(1, top.get(1).getUserId());
+        assertEquals(5, top.get(1).getAttemptId());
+        assertEquals(2, top.get(2).getUserId());
+        assertEquals(3, top.get(2).getRank());
+        assertEquals(2, leaderboard.rankOf(1));
+        assertEquals(0, leaderboard.rankOf(9));
+    }
+
+    @Test
+    @DisplayName("Around User Test")
+    void aroundUserTest() {
+        Leaderboard leaderboard = new Leaderboard();
+        for (int userId = 1; userId <= 10; userId++) {
+            leaderboard.put(userId, 100 - userId);
+        }
+
+        List<LeaderboardEntry> around = leaderboard.around(5, 2);
+        assertEquals(List.of(3, 4, 5, 6, 7), around.stream().map(LeaderboardEntry::getUserId).toList());
+        assertEquals(3, around.get(0).getRank());
+        assertEquals(List.of(1, 2, 3), leaderboard.around(1, 2).stream().map(LeaderboardEntry::getUserId).toList());
+        assertTrue(leaderboard.around(42, 2).isEmpty());
+
+        assertTrue(leaderboard.remove(1));
+        assertEquals(1, leaderboard.rankOf(2));
+        assertEquals(9, leaderboard.size());
+    }
+
+    @Test
+    @DisplayName("Changes During A Rebuild Are Kept Test")
+    void changesDuringRebuildTest() throws Exception {
+        LeaderboardServiceImpl[] service = new LeaderboardServiceImpl[1];
+        QuizAttempt stored = new QuizAttempt(1, 1, 5, LocalDateTime.of(2024, 1, 1, 10, 0), 3, null, 30);
+        // committed after the cursor opened, so the rebuild does not read it
+        QuizAttempt committedMeanwhile = new QuizAttempt(2, 2, 5, LocalDateTime.of(2024, 1, 1, 10, 5), 4, null, 30);
+        QuizAttemptDAO quizAttemptDAO = stub(QuizAttemptDAO.class, "streamQuizAttemptScores",
+                Stream.of(stored).peek(quizAttempt -> service[0].recordAttempt(committedMeanwhile)));
+        UserDAO userDAO = stub(UserDAO.class, "streamStudentPoints",
+                Stream.of(new Student(1, "a@gmail.com", "a", null, Level.BEGINNER, 10))
+                        .peek(student -> service[0].recordPoints(new Student(2, "b@gmail.com", "b", null, Level.BEGINNER, 20))));
+        service[0] = new LeaderboardServiceImpl(quizAttemptDAO, userDAO);
+
+        service[0].rebuild();
+        assertEquals(List.of(2, 1), service[0].getQuizTop(5, 10).stream().map(LeaderboardEntry::getUserId).toList());
+        assertEquals(1, service[0].getGlobalRank(2));
+        assertEquals(2, service[0].getGlobalRank(1));
+    }
+
+    @Test
+    @DisplayName("Random Updates Match Sorted Order Test")
+    void randomUpdatesMatchSortedOrderTest() {
+        Leaderboard leaderboard = new Leaderboard();
+        Map<Integer, Integer> points = new HashMap<>();
+        Random random = new Random(42);
+        for (int i = 0; i < 20_000; i++) {
+            int userId = random.nextInt(500);
+            if (random.nextInt(10) == 0) {
+                assertEquals(points.remove(userId) != null, leaderboard.remove(userId));
+            } else {
+                int score = random.nextInt(100);
+                leaderboard.put(userId, score);
+                points.put(userId, score);
+            }
+        }
+
+        List<Integer> expected = new ArrayList<>(points.keySet());
+        expected.sort(Comparator.comparing((Integer userId) -> -points.get(userId)).thenComparing(userId -> userId));
+        List<LeaderboardEntry> top = leaderboard.top(expected.size() + 1);
+        assertEquals(expected, top.stream().map(LeaderboardEntry::getUserId).toList());
+        for (int rank = 1; rank <= expected.size(); rank++) {
+            assertEquals(rank, leaderboard.rankOf(expected.get(rank - 1)));
+        }
+    }
+
+    /**
+     * DAO whose {@code method} returns {@code result} and whose other methods are never called.
+     */
+    private static <T> T stub(Class<T> type, String method, Object result) {
+        return type.cast(Proxy.newProxyInstance(type.getClassLoader(), new Class<?>[] { type }, (proxy, called, args) -> {
+            if (!called.getName().equals(method)) {
+                throw new UnsupportedOperationException(called.getName());
+            }
+            return result;
+        }));
+    }
+}
@@ -0,0 +1,42 @@
+package com.timi;
+
+import com.timi.dao.impl.OptionsCodec;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class OptionsCodecTest {
+
+    @Test
+    @DisplayName("Decode Simple Options Test")
+    void decodeSimpleOptionsTest() {
+        assertEquals(List.of("Java 8", "Java 9", "Java 10", "Java 11"), OptionsCodec.decode("[\"Java 8\", \"Java 9\", \"Java 10\", \"Java 11\"]"));
+        assertEquals(List.of(), OptionsCodec.decode(" [ ] "));
+        assertNull(OptionsCodec.decode(null));
+    }
+
+    @Test
+    @DisplayName("Decode Escaped Options Test")
+    void decodeEscapedOptionsTest() {
+        assertEquals(List.of("Say \"hi\"", "a\\b", "line\nbreak", "café", "x=1"),
+                OptionsCodec.decode("[\"Say \\\"hi\\\"\",\"a\\\\b\",\"line\\nbreak\",\"caf\\u00e9\",\"x\\u003d1\"]"));
+    }
+
+    @Test
+    @DisplayName("Decode Falls Back To Gson Test")
+    void decodeFallbackTest() {
+        assertEquals(List.of("1", "2"), OptionsCodec.decode("[1, 2]"));
+        assertNull(OptionsCodec.decode("null"));
+    }
+
+    @Test
+    @DisplayName("Encode Round Trip Test")
+    void encodeRoundTripTest() {
+        List<String> options = List.of("A reusable solution", "Quote \" and backslash \\", "<html>");
+        assertEquals(options, OptionsCodec.decode(OptionsCodec.encode(options)));
+    }
+}
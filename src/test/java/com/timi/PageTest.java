@@ -0,0 +1,47 @@
+package com.timi;
+
+import com.timi.dao.Page;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.function.ToIntFunction;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class PageTest {
+
+    @Test
+    @DisplayName("Page Token Round Trip Test")
+    void pageTokenRoundTripTest() {
+        assertEquals(0, Page.decodeToken(null));
+        assertEquals(0, Page.decodeToken(""));
+        assertEquals(42, Page.decodeToken(Page.encodeToken(42)));
+        assertEquals(Integer.MAX_VALUE, Page.decodeToken(Page.encodeToken(Integer.MAX_VALUE)));
+    }
+
+    @Test
+    @DisplayName("Invalid Page Token Test")
+    void invalidPageTokenTest() {
+        assertThrows(IllegalArgumentException.class, () -> Page.decodeToken("not a token!"));
+        assertThrows(IllegalArgumentException.class, () -> Page.decodeToken("MTIz"));
+        assertThrows(IllegalArgumentException.class, () -> Page.checkPageSize(0));
+        assertThrows(IllegalArgumentException.class, () -> Page.checkPageSize(Page.MAX_PAGE_SIZE + 1));
+    }
+
+    @Test
+    @DisplayName("Page Of Rows Test")
+    void pageOfRowsTest() {
+        ToIntFunction<Integer> key = Integer::intValue;
+
+        Page<Integer> last = Page.of(List.of(7, 8), 2, key);
+        assertEquals(List.of(7, 8), last.getItems());
+        assertFalse(last.hasNextPage());
+
+        Page<Integer> first = Page.of(List.of(3, 5, 9), 2, key);
+        assertEquals(List.of(3, 5), first.getItems());
+        assertTrue(first.hasNextPage());
+        assertEquals(5, Page.decodeToken(first.getNextPageToken()));
+    }
+}
@@ -3,6 +3,7 @@ package com.timi;
 import static org.junit.jupiter.api.Assertions.*;
 
 import java.util.List;
+import java.util.stream.Stream;
 
 import org.junit.jupiter.api.*;
 import com.timi.dao.QuestionDAO;
@@ -40,6 +41,18 @@ public class QuestionDAOImplTest {
         assertNotNull(questions);
     }
 
+    @Test
+    @DisplayName("Stream All Questions")
+    void streamAllQuestionsTest() {
+        long count = assertDoesNotThrow(() -> {
+            try (Stream<Question> questions = questionDAO.streamAllQuestions()) {
+                return questions.count();
+            }
+        });
+        List<Question> questions = assertDoesNotThrow(questionDAO::getAllQuestions);
+        assertEquals(questions.size(), count);
+    }
+
     @Test
     @DisplayName("Update Question Test")
     void updateQuestionTest() {
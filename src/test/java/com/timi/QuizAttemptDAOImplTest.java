@@ -2,12 +2,17 @@ package com.timi;
 
 import com.timi.dao.QuizAttemptDAO;
 import com.timi.dao.impl.QuizAttemptDAOImpl;
+import com.timi.model.Question;
 import com.timi.model.QuizAttempt;
 import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.stream.Stream;
 
 import org.junit.jupiter.api.*;
 import static org.junit.jupiter.api.Assertions.assertDoesNotThrow;
+import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
 
 
@@ -27,6 +32,20 @@ public class QuizAttemptDAOImplTest {
         assertDoesNotThrow(() -> quizAttemptDAO.addQuizAttempt(quiz));
     }
 
+    @Test
+    @DisplayName("Add Quiz Attempt Twice With Same Submission Key Test")
+    void addQuizAttemptTwiceWithSameSubmissionKeyTest() {
+        String submissionKey = UUID.randomUUID().toString();
+        QuizAttempt first = new QuizAttempt(1, 1, LocalDateTime.now(), 0, null, 30);
+        first.setSubmissionKey(submissionKey);
+        QuizAttempt retry = new QuizAttempt(1, 1, LocalDateTime.now(), 0, null, 30);
+        retry.setSubmissionKey(submissionKey);
+
+        assertDoesNotThrow(() -> quizAttemptDAO.addQuizAttempt(first));
+        assertDoesNotThrow(() -> quizAttemptDAO.addQuizAttempt(retry));
+        assertEquals(first.getAttemptId(), retry.getAttemptId());
+    }
+
     @Test
     @DisplayName("Get Quiz Attempt By Id Test")
     void getQuizAttemptByIdTest() {
@@ -42,6 +61,16 @@ public class QuizAttemptDAOImplTest {
         assertNotNull(quizzes);
     }
 
+    @Test
+    @DisplayName("Stream All Quiz Attempts Test")
+    void streamAllQuizAttemptsTest() {
+        assertDoesNotThrow(() -> {
+            try (Stream<QuizAttempt> quizzes = quizAttemptDAO.streamAllQuizAttempts()) {
+                quizzes.forEach(quiz -> assertNotNull(quiz.getQuestionsAttempted()));
+            }
+        });
+    }
+
     @Test
     @DisplayName("Get Quiz Attempts By User Id Test")
     void getQuizAttemptsByUserIdTest() {
@@ -67,6 +96,22 @@ public class QuizAttemptDAOImplTest {
         assertNotNull(quizzes);
     }
 
+    @Test
+    @DisplayName("Get Questions By Attempt Id Test")
+    void getQuestionsByAttemptIdTest() {
+        int attemptId = 1;
+        List<Question> questions = assertDoesNotThrow(() -> quizAttemptDAO.getQuestionsByAttemptId(attemptId));
+        assertNotNull(questions);
+    }
+
+    @Test
+    @DisplayName("Get Questions By Attempt Ids Test")
+    void getQuestionsByAttemptIdsTest() {
+        Map<Integer, List<Question>> questions = assertDoesNotThrow(() -> quizAttemptDAO.getQuestionsByAttemptIds(List.of(1, 2)));
+        assertNotNull(questions.get(1));
+        assertNotNull(questions.get(2));
+    }
+
     @Test
     @DisplayName("Update Quiz Attempt Test")
     void updateQuizAttemptTest() {
@@ -0,0 +1,257 @@
+package com.timi;
+
+import com.timi.dao.Page;
+import com.timi.dao.QuizAttemptDAO;
+import com.timi.exception.DAOException;
+import com.timi.model.Question;
+import com.timi.model.QuizAttempt;
+import com.timi.service.impl.QuizAttemptWriteBehind;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.SQLException;
+import java.sql.SQLIntegrityConstraintViolationException;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class QuizAttemptWriteBehindTest {
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    @DisplayName("Submissions Are Acknowledged And Committed Test")
+    void submitTest() throws Exception {
+        RecordingQuizAttemptDAO dao = new RecordingQuizAttemptDAO();
+        Path journal = tempDir.resolve("journal.jsonl");
+        QuizAttemptWriteBehind writeBehind = new QuizAttemptWriteBehind(dao, journal, 8, 10);
+
+        Set<Integer> provisionalIds = new HashSet<>();
+        for (int i = 0; i < 20; i++) {
+            QuizAttempt attempt = newAttempt(i);
+            writeBehind.submit(attempt);
+            assertTrue(attempt.getAttemptId() < 0);
+            provisionalIds.add(attempt.getAttemptId());
+        }
+        assertEquals(20, provisionalIds.size());
+
+        awaitDrained(writeBehind);
+        writeBehind.close();
+        assertEquals(20, dao.stored.size());
+        assertTrue(dao.stored.stream().allMatch(attempt -> attempt.getAttemptId() > 0));
+        assertEquals(3, dao.stored.get(0).getQuestionsAttempted().size());
+        assertEquals(0, Files.size(journal));
+    }
+
+    @Test
+    @DisplayName("Committed Attempts Reach The Listener Under Their Final Ids Test")
+    void commitListenerTest() throws Exception {
+        RecordingQuizAttemptDAO dao = new RecordingQuizAttemptDAO();
+        dao.failing = true;
+        QuizAttemptWriteBehind writeBehind = new QuizAttemptWriteBehind(dao, tempDir.resolve("journal.jsonl"), 8, 10);
+        List<QuizAttempt> committed = new CopyOnWriteArrayList<>();
+        writeBehind.setCommitListener(committed::add);
+        for (int i = 0; i < 3; i++) {
+            writeBehind.submit(newAttempt(i));
+        }
+        assertTrue(committed.isEmpty());
+
+        dao.failing = false;
+        awaitDrained(writeBehind);
+        writeBehind.close();
+        assertEquals(3, committed.size());
+        assertTrue(committed.stream().allMatch(attempt -> attempt.getAttemptId() > 0));
+        assertEquals(2, committed.get(2).getScore());
+    }
+
+    @Test
+    @DisplayName("Pending Attempts Are Replayed After A Restart Test")
+    void replayTest() throws Exception {
+        Path journal = tempDir.resolve("journal.jsonl");
+        RecordingQuizAttemptDAO failing = new RecordingQuizAttemptDAO();
+        failing.failing = true;
+        QuizAttemptWriteBehind first = new QuizAttemptWriteBehind(failing, journal, 8, 60_000);
+        for (int i = 0; i < 3; i++) {
+            first.submit(newAttempt(i));
+        }
+        assertEquals(3, first.getPendingAttempts(7).size());
+        first.close();
+        assertEquals(0, failing.stored.size());
+
+        // a crash in the middle of a write leaves a torn last line behind
+        Files.writeString(journal, "{\"seq\":99,\"attempt\":{\"userId\"", java.nio.file.StandardOpenOption.APPEND);
+
+        RecordingQuizAttemptDAO working = new RecordingQuizAttemptDAO();
+        QuizAttemptWriteBehind second = new QuizAttemptWriteBehind(working, journal, 8, 10);
+        awaitDrained(second);
+        second.close();
+        assertEquals(3, working.stored.size());
+        assertEquals(LocalDateTime.of(2024, 1, 1, 10, 0), working.stored.get(0).getTimestamp());
+        assertEquals(7, working.stored.get(2).getUserId());
+        assertEquals(2, working.stored.get(2).getScore());
+    }
+
+    @Test
+    @DisplayName("Provisional Ids Are Not Reused After A Restart Test")
+    void restartTest() throws Exception {
+        Path journal = tempDir.resolve("journal.jsonl");
+        Set<Integer> provisionalIds = new HashSet<>();
+        for (int run = 0; run < 2; run++) {
+            QuizAttemptWriteBehind writeBehind = new QuizAttemptWriteBehind(new RecordingQuizAttemptDAO(), journal, 8, 10);
+            for (int i = 0; i < 3; i++) {
+                QuizAttempt attempt = newAttempt(i);
+                writeBehind.submit(attempt);
+                assertTrue(provisionalIds.add(attempt.getAttemptId()));
+            }
+            awaitDrained(writeBehind);
+            writeBehind.close();
+            // nothing is pending, so the journal no longer holds the last sequence number
+            assertEquals(0, Files.size(journal));
+        }
+        assertEquals(6, provisionalIds.size());
+    }
+
+    @Test
+    @DisplayName("A Rejected Attempt Does Not Block The Others Test")
+    void rejectedAttemptTest() throws Exception {
+        RecordingQuizAttemptDAO dao = new RecordingQuizAttemptDAO();
+        dao.rejectedScore = 1;
+        dao.failing = true;
+        Path journal = tempDir.resolve("journal.jsonl");
+        QuizAttemptWriteBehind writeBehind = new QuizAttemptWriteBehind(dao, journal, 8, 10);
+        for (int i = 0; i < 4; i++) {
+            writeBehind.submit(newAttempt(i));
+        }
+        dao.failing = false;
+
+        awaitDrained(writeBehind);
+        writeBehind.close();
+        assertEquals(3, dao.stored.size());
+        assertEquals(1, Files.readAllLines(tempDir.resolve("journal.jsonl.rejected")).size());
+    }
+
+    private static void awaitDrained(QuizAttemptWriteBehind writeBehind) throws InterruptedException {
+        for (int i = 0; i < 500 && writeBehind.getPendingCount() > 0; i++) {
+            Thread.sleep(10);
+        }
+        assertEquals(0, writeBehind.getPendingCount());
+    }
+
+    private static QuizAttempt newAttempt(int score) {
+        List<Question> questions = new ArrayList<>();
+        for (int i = 0; i < 3; i++) {
+            Question question = new Question(i + 1, "Question " + i, new ArrayList<>(List.of("A", "B")), 0, 1);
+            question.setSelectedOptionIndex(i % 2);
+            questions.add(question);
+        }
+        return new QuizAttempt(7, 1, LocalDateTime.of(2024, 1, 1, 10, 0), score, questions, 30);
+    }
+
+    private static class RecordingQuizAttemptDAO implements QuizAttemptDAO {
+        private final List<QuizAttempt> stored = new ArrayList<>();
+        private volatile boolean failing;
+        private int rejectedScore = -1;
+
+        @Override
+        public synchronized void addQuizAttempts(List<QuizAttempt> quizAttempts) throws DAOException {
+            if (failing) {
+                throw new DAOException("Database is down", new SQLException("Connection refused", "08001"));
+            }
+            for (QuizAttempt quizAttempt : quizAttempts) {
+                if (quizAttempt.getScore() == rejectedScore) {
+                    throw new DAOException("Error adding quiz attempts", new SQLIntegrityConstraintViolationException("Duplicate entry", "23000"));
+                }
+            }
+            for (QuizAttempt quizAttempt : quizAttempts) {
+                assertEquals(0, quizAttempt.getAttemptId());
+                quizAttempt.setAttemptId(stored.size() + 1);
+                stored.add(quizAttempt);
+            }
+        }
+
+        @Override
+        public void addQuizAttempt(QuizAttempt quizAttempt) throws DAOException {
+            addQuizAttempts(List.of(quizAttempt));
+        }
+
+        @Override
+        public QuizAttempt getQuizAttemptById(int attemptId) {
+            return null;
+        }
+
+        @Override
+        public List<QuizAttempt> getAllQuizAttempts() {
+            return new ArrayList<>(stored);
+        }
+
+        @Override
+        public List<QuizAttempt> getQuizAttemptsAfter(int attemptId) {
+            return new ArrayList<>();
+        }
+
+        @Override
+        public Page<QuizAttempt> getQuizAttemptsPage(String pageToken, int pageSize) {
+            return new Page<>(new ArrayList<>(), null);
+        }
+
+        @Override
+        public Stream<QuizAttempt> streamAllQuizAttempts() {
+            return new ArrayList<>(stored).stream();
+        }
+
+        @Override
+        public Stream<QuizAttempt> streamQuizAttemptScores() {
+            return new ArrayList<>(stored).stream();
+        }
+
+        @Override
+        public List<QuizAttempt> getQuizAttemptsByUserId(int userId) {
+            return new ArrayList<>();
+        }
+
+        @Override
+        public List<QuizAttempt> getQuizAttemptsByQuizId(int quizId) {
+            return new ArrayList<>();
+        }
+
+        @Override
+        public List<QuizAttempt> getQuizAttemptsByUserIdAndQuizId(int userId, int quizId) {
+            return new ArrayList<>();
+        }
+
+        @Override
+        public List<Question> getQuestionsByAttemptId(int attemptId) {
+            return new ArrayList<>();
+        }
+
+        @Override
+        public Map<Integer, List<Question>> getQuestionsByAttemptIds(Collection<Integer> attemptIds) {
+            return Map.of();
+        }
+
+        @Override
+        public void updateQuizAttempt(QuizAttempt quizAttempt) {
+        }
+
+        @Override
+        public void deleteQuizAttempt(int attemptId) {
+        }
+
+        @Override
+        public void deleteQuizAttemptsByUserId(int userId) {
+        }
+    }
+}
@@ -0,0 +1,78 @@
+package com.timi;
+
+import com.timi.dao.QuizAttemptDAO;
+import com.timi.dao.QuizStatisticsDAO;
+import com.timi.dao.UserDAO;
+import com.timi.dao.impl.QuizAttemptDAOImpl;
+import com.timi.dao.impl.QuizStatisticsDAOImpl;
+import com.timi.dao.impl.UserDAOImpl;
+import com.timi.model.Level;
+import com.timi.model.QuizAttempt;
+import com.timi.model.QuizStatistics;
+import com.timi.model.Student;
+import java.time.LocalDateTime;
+
+import org.junit.jupiter.api.*;
+import static org.junit.jupiter.api.Assertions.assertDoesNotThrow;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+
+
+public class QuizStatisticsDAOImplTest {
+
+    private QuizStatisticsDAO quizStatisticsDAO;
+    private QuizAttemptDAO quizAttemptDAO;
+
+    @BeforeEach
+    void setUp() {
+        quizStatisticsDAO = QuizStatisticsDAOImpl.getInstance();
+        quizAttemptDAO = new QuizAttemptDAOImpl();
+    }
+
+    @Test
+    @DisplayName("Get Quiz Statistics Test")
+    void getQuizStatisticsTest() {
+        int quizId = 1;
+        QuizStatistics statistics = assertDoesNotThrow(() -> quizStatisticsDAO.getQuizStatistics(quizId));
+        assertNotNull(statistics);
+    }
+
+    @Test
+    @DisplayName("Quiz Statistics Follow Attempts Test")
+    void quizStatisticsFollowAttemptsTest() {
+        int quizId = 1;
+        QuizStatistics before = assertDoesNotThrow(() -> quizStatisticsDAO.getQuizStatistics(quizId));
+        QuizAttempt quizAttempt = new QuizAttempt(1, quizId, LocalDateTime.now(), 2, null, 30);
+        assertDoesNotThrow(() -> quizAttemptDAO.addQuizAttempt(quizAttempt));
+
+        QuizStatistics added = assertDoesNotThrow(() -> quizStatisticsDAO.getQuizStatistics(quizId));
+        assertEquals(before.getAttemptCount() + 1, added.getAttemptCount());
+        assertEquals(before.getScoreSum() + 2, added.getScoreSum());
+
+        assertDoesNotThrow(() -> quizAttemptDAO.deleteQuizAttempt(quizAttempt.getAttemptId()));
+        QuizStatistics deleted = assertDoesNotThrow(() -> quizStatisticsDAO.getQuizStatistics(quizId));
+        assertEquals(before.getAttemptCount(), deleted.getAttemptCount());
+        assertEquals(before.getScoreSum(), deleted.getScoreSum());
+    }
+
+    @Test
+    @DisplayName("Quiz Statistics Lose A Deleted User's Attempts Test")
+    void quizStatisticsLoseUserAttemptsTest() {
+        int quizId = 1;
+        UserDAO userDAO = new UserDAOImpl();
+        int userId = 5000 + (int)(Math.random() * 1000);
+        assertDoesNotThrow(() -> userDAO.addUser(new Student(userId, "statistics" + userId + "@gmail.com", "statistics", "password", Level.BEGINNER, 0)));
+        QuizStatistics before = assertDoesNotThrow(() -> quizStatisticsDAO.getQuizStatistics(quizId));
+        for (int score = 1; score <= 2; score++) {
+            QuizAttempt quizAttempt = new QuizAttempt(userId, quizId, LocalDateTime.now(), score, null, 30);
+            assertDoesNotThrow(() -> quizAttemptDAO.addQuizAttempt(quizAttempt));
+        }
+        assertEquals(before.getAttemptCount() + 2, assertDoesNotThrow(() -> quizStatisticsDAO.getQuizStatistics(quizId)).getAttemptCount());
+
+        assertDoesNotThrow(() -> quizAttemptDAO.deleteQuizAttemptsByUserId(userId));
+        QuizStatistics deleted = assertDoesNotThrow(() -> quizStatisticsDAO.getQuizStatistics(quizId));
+        assertEquals(before.getAttemptCount(), deleted.getAttemptCount());
+        assertEquals(before.getScoreSum(), deleted.getScoreSum());
+        assertDoesNotThrow(() -> userDAO.deleteUser(userId));
+    }
+}
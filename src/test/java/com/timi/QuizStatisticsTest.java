@@ -0,0 +1,69 @@
+package com.timi;
+
+import com.timi.model.QuizStatistics;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class QuizStatisticsTest {
+
+    @Test
+    @DisplayName("Add Attempts Test")
+    void addAttemptsTest() {
+        QuizStatistics statistics = new QuizStatistics(1);
+        statistics.addAttempt(2, 20);
+        statistics.addAttempt(4, 45);
+        statistics.addAttempt(4, 4000);
+
+        assertEquals(3, statistics.getAttemptCount());
+        assertEquals(10, statistics.getScoreSum());
+        assertEquals(36, statistics.getScoreSumOfSquares());
+        assertEquals(10.0 / 3, statistics.getAverageScore(), 1e-9);
+        assertEquals(Math.sqrt(12.0 - 100.0 / 9), statistics.getScoreStandardDeviation(), 1e-9);
+        assertEquals(2, statistics.getMinScore());
+        assertEquals(4, statistics.getMaxScore());
+        assertEquals(Map.of(2, 1, 4, 2), statistics.getScoreHistogram());
+
+        int[] durations = statistics.getDurationHistogram();
+        assertEquals(1, durations[0]);
+        assertEquals(1, durations[1]);
+        assertEquals(1, durations[durations.length - 1]);
+    }
+
+    @Test
+    @DisplayName("Remove Attempt Test")
+    void removeAttemptTest() {
+        QuizStatistics statistics = new QuizStatistics(1);
+        statistics.addAttempt(1, 10);
+        statistics.addAttempt(5, 10);
+        statistics.addAttempt(3, 10);
+
+        statistics.removeAttempt(5, 10);
+        assertEquals(2, statistics.getAttemptCount());
+        assertEquals(3, statistics.getMaxScore());
+        assertEquals(2, statistics.getDurationHistogram()[0]);
+
+        statistics.removeAttempt(1, 10);
+        statistics.removeAttempt(3, 10);
+        assertEquals(0, statistics.getAttemptCount());
+        assertNull(statistics.getMinScore());
+        assertEquals(0, statistics.getAverageScore());
+    }
+
+    @Test
+    @DisplayName("Copy Is Independent Test")
+    void copyIsIndependentTest() {
+        QuizStatistics statistics = new QuizStatistics(1);
+        statistics.addAttempt(1, 10);
+        QuizStatistics copy = new QuizStatistics(statistics);
+        copy.addAttempt(2, 10);
+
+        assertEquals(1, statistics.getAttemptCount());
+        assertEquals(1, statistics.getScoreHistogram().size());
+        assertEquals(1, statistics.getDurationHistogram()[0]);
+    }
+}
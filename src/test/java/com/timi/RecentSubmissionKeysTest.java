@@ -0,0 +1,47 @@
+package com.timi;
+
+import com.timi.service.impl.RecentSubmissionKeys;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class RecentSubmissionKeysTest {
+
+    @Test
+    @DisplayName("Repeated Submission Key Test")
+    void repeatedSubmissionKeyTest() {
+        RecentSubmissionKeys keys = new RecentSubmissionKeys(10, 60_000);
+        assertNull(keys.get("a"));
+
+        keys.put("a", 7);
+        assertEquals(7, keys.get("a"));
+        assertEquals(1, keys.getHits());
+    }
+
+    @Test
+    @DisplayName("Expired Submission Key Test")
+    void expiredSubmissionKeyTest() throws InterruptedException {
+        RecentSubmissionKeys keys = new RecentSubmissionKeys(10, 20);
+        keys.put("a", 7);
+        Thread.sleep(50);
+
+        assertNull(keys.get("a"));
+        assertEquals(0, keys.size());
+    }
+
+    @Test
+    @DisplayName("Bounded Submission Keys Test")
+    void boundedSubmissionKeysTest() {
+        RecentSubmissionKeys keys = new RecentSubmissionKeys(3, 60_000);
+        for (int i = 0; i < 5; i++) {
+            keys.put("key" + i, i);
+        }
+
+        assertEquals(3, keys.size());
+        assertNull(keys.get("key0"));
+        assertNull(keys.get("key1"));
+        assertEquals(4, keys.get("key4"));
+    }
+}
@@ -0,0 +1,33 @@
+package com.timi;
+
+import com.timi.dao.IndexChecker;
+import com.timi.dao.SchemaMigrator;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class SchemaMigratorTest {
+
+    @Test
+    @DisplayName("Migrate Is Idempotent Test")
+    void migrateIsIdempotentTest() {
+        SchemaMigrator migrator = SchemaMigrator.getInstance();
+        assertDoesNotThrow(migrator::migrate);
+        int version = assertDoesNotThrow(migrator::getCurrentVersion);
+        assertTrue(version >= 2);
+        assertEquals(0, assertDoesNotThrow(migrator::migrate));
+        assertEquals(version, assertDoesNotThrow(migrator::getCurrentVersion));
+    }
+
+    @Test
+    @DisplayName("No Missing Indexes After Migration Test")
+    void noMissingIndexesTest() {
+        assertDoesNotThrow(SchemaMigrator.getInstance()::migrate);
+        List<String> missing = assertDoesNotThrow(IndexChecker.getInstance()::findMissingIndexes);
+        assertTrue(missing.isEmpty(), missing.toString());
+    }
+}
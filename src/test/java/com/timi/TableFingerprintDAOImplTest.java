@@ -0,0 +1,91 @@
+package com.timi;
+
+import com.timi.dao.DatabaseConnection;
+import com.timi.dao.TableFingerprint;
+import com.timi.dao.TableFingerprintDAO;
+import com.timi.dao.impl.TableFingerprintDAOImpl;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TableFingerprintDAOImplTest {
+
+    private static final int FIRST_ID = 990001;
+    private static final int SECOND_ID = 990002;
+
+    private TableFingerprintDAO fingerprintDAO;
+
+    @BeforeEach
+    void setUp() throws SQLException {
+        fingerprintDAO = new TableFingerprintDAOImpl();
+        deleteUsers();
+        try (Connection connection = DatabaseConnection.getInstance().getConnection();
+             PreparedStatement ps = connection.prepareStatement("INSERT INTO Users (id, email, username, password, role, level, points) VALUES (?, ?, ?, 'password', 'STUDENT', 'BEGINNER', ?)")) {
+            for (int id : new int[] {FIRST_ID, SECOND_ID}) {
+                ps.setInt(1, id);
+                ps.setString(2, "fingerprint" + id + "@gmail.com");
+                ps.setString(3, "fingerprint" + id);
+                ps.setInt(4, id == FIRST_ID ? 10 : 90);
+                ps.addBatch();
+            }
+            ps.executeBatch();
+        }
+    }
+
+    @AfterEach
+    void tearDown() throws SQLException {
+        deleteUsers();
+    }
+
+    @Test
+    @DisplayName("Fingerprint Is Stable Test")
+    void stableTest() throws Exception {
+        assertEquals(fingerprintDAO.getFingerprints().get("Users"), fingerprintDAO.getFingerprints().get("Users"));
+    }
+
+    @Test
+    @DisplayName("Fingerprint Notices Swapped Values Test")
+    void swappedValuesTest() throws Exception {
+        TableFingerprint before = fingerprintDAO.getFingerprints().get("Users");
+        TableFingerprint prefixBefore = fingerprintDAO.getFingerprint("Users", SECOND_ID);
+        setPoints(FIRST_ID, 90);
+        setPoints(SECOND_ID, 10);
+        assertNotEquals(before, fingerprintDAO.getFingerprints().get("Users"));
+        assertNotEquals(prefixBefore, fingerprintDAO.getFingerprint("Users", SECOND_ID));
+    }
+
+    @Test
+    @DisplayName("Fingerprint Notices Matching Edits Test")
+    void matchingEditsTest() throws Exception {
+        TableFingerprint before = fingerprintDAO.getFingerprints().get("Users");
+        setPoints(FIRST_ID, 11);
+        setPoints(SECOND_ID, 91);
+        assertNotEquals(before, fingerprintDAO.getFingerprints().get("Users"));
+    }
+
+    private static void setPoints(int userId, int points) throws SQLException {
+        try (Connection connection = DatabaseConnection.getInstance().getConnection();
+             PreparedStatement ps = connection.prepareStatement("UPDATE Users SET points = ? WHERE id = ?")) {
+            ps.setInt(1, points);
+            ps.setInt(2, userId);
+            ps.executeUpdate();
+        }
+    }
+
+    private static void deleteUsers() throws SQLException {
+        try (Connection connection = DatabaseConnection.getInstance().getConnection();
+             PreparedStatement ps = connection.prepareStatement("DELETE FROM Users WHERE id IN (?, ?)")) {
+            ps.setInt(1, FIRST_ID);
+            ps.setInt(2, SECOND_ID);
+            ps.executeUpdate();
+        }
+    }
+}
@@ -0,0 +1,159 @@
+package com.timi.dao;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class StatementCacheTest {
+
+    private final List<FakeStatement> prepared = new ArrayList<>();
+    private Connection physical;
+    private Connection handle;
+    private StatementCache.Counters counters;
+
+    @BeforeEach
+    void setUp() {
+        physical = (Connection) Proxy.newProxyInstance(Connection.class.getClassLoader(), new Class<?>[] { Connection.class },
+                (proxy, method, args) -> {
+                    if (method.getName().equals("prepareStatement")) {
+                        FakeStatement statement = new FakeStatement((String) args[0]);
+                        prepared.add(statement);
+                        return Proxy.newProxyInstance(PreparedStatement.class.getClassLoader(), new Class<?>[] { PreparedStatement.class }, statement);
+                    }
+                    return defaultValue(method.getReturnType());
+                });
+        handle = (Connection) Proxy.newProxyInstance(Connection.class.getClassLoader(), new Class<?>[] { Connection.class },
+                (proxy, method, args) -> defaultValue(method.getReturnType()));
+        counters = new StatementCache.Counters();
+    }
+
+    @Test
+    @DisplayName("Closed Statements Are Checked In And Reused Test")
+    void checkInTest() throws SQLException {
+        StatementCache cache = new StatementCache(physical, 4, counters);
+        PreparedStatement first = cache.prepare(handle, "SELECT 1", Statement.NO_GENERATED_KEYS);
+        assertSame(handle, first.getConnection());
+        first.setInt(1, 42);
+        first.close();
+        assertTrue(first.isClosed());
+        assertThrows(SQLException.class, () -> first.setInt(1, 7));
+        assertEquals(1, prepared.get(0).clearedParameters);
+        assertFalse(prepared.get(0).closed);
+
+        try (PreparedStatement second = cache.prepare(handle, "SELECT 1", Statement.NO_GENERATED_KEYS)) {
+            assertFalse(second.isClosed());
+            second.setInt(1, 7);
+        }
+        assertEquals(1, prepared.size());
+        assertEquals(1, counters.hits.get());
+        assertEquals(1, counters.misses.get());
+
+        // generated keys make it a different statement
+        cache.prepare(handle, "SELECT 1", Statement.RETURN_GENERATED_KEYS).close();
+        assertEquals(2, prepared.size());
+        assertEquals(2, counters.misses.get());
+    }
+
+    @Test
+    @DisplayName("Checked Out Statements Are Never Shared Test")
+    void checkOutTest() throws SQLException {
+        StatementCache cache = new StatementCache(physical, 4, counters);
+        PreparedStatement first = cache.prepare(handle, "SELECT 1", Statement.NO_GENERATED_KEYS);
+        PreparedStatement second = cache.prepare(handle, "SELECT 1", Statement.NO_GENERATED_KEYS);
+        assertEquals(2, prepared.size());
+
+        first.close();
+        second.close();
+        // only one copy is kept for the SQL, the other is closed
+        assertTrue(prepared.get(0).closed);
+        assertFalse(prepared.get(1).closed);
+
+        cache.prepare(handle, "SELECT 1", Statement.NO_GENERATED_KEYS).close();
+        assertEquals(2, prepared.size());
+        assertEquals(1, counters.hits.get());
+    }
+
+    @Test
+    @DisplayName("Statements Left Open Are Reclaimed Test")
+    void reclaimTest() throws SQLException {
+        StatementCache cache = new StatementCache(physical, 4, counters);
+        PreparedStatement leaked = cache.prepare(handle, "SELECT 1", Statement.NO_GENERATED_KEYS);
+        PreparedStatement closed = cache.prepare(handle, "SELECT 2", Statement.NO_GENERATED_KEYS);
+        closed.close();
+
+        cache.reclaim();
+        assertEquals(1, counters.reclaimed.get());
+        assertTrue(leaked.isClosed());
+        assertThrows(SQLException.class, leaked::executeQuery);
+        assertFalse(prepared.get(0).closed);
+
+        cache.prepare(handle, "SELECT 1", Statement.NO_GENERATED_KEYS).close();
+        assertEquals(1, counters.hits.get());
+        cache.reclaim();
+        assertEquals(1, counters.reclaimed.get());
+    }
+
+    @Test
+    @DisplayName("Least Recently Used Statements Are Evicted Test")
+    void evictionTest() throws SQLException {
+        StatementCache cache = new StatementCache(physical, 2, counters);
+        cache.prepare(handle, "SELECT 1", Statement.NO_GENERATED_KEYS).close();
+        cache.prepare(handle, "SELECT 2", Statement.NO_GENERATED_KEYS).close();
+        cache.prepare(handle, "SELECT 1", Statement.NO_GENERATED_KEYS).close();
+        cache.prepare(handle, "SELECT 3", Statement.NO_GENERATED_KEYS).close();
+
+        assertEquals(1, counters.evictions.get());
+        assertEquals("SELECT 2", prepared.get(1).sql);
+        assertTrue(prepared.get(1).closed);
+        assertFalse(prepared.get(0).closed);
+        assertFalse(prepared.get(2).closed);
+    }
+
+    private static Object defaultValue(Class<?> type) {
+        if (type == boolean.class) {
+            return false;
+        }
+        if (type == int.class) {
+            return 0;
+        }
+        return null;
+    }
+
+    private static final class FakeStatement implements InvocationHandler {
+        private final String sql;
+        private boolean closed;
+        private int clearedParameters;
+
+        private FakeStatement(String sql) {
+            this.sql = sql;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) {
+            switch (method.getName()) {
+                case "close":
+                    closed = true;
+                    return null;
+                case "isClosed":
+                    return closed;
+                case "clearParameters":
+                    clearedParameters++;
+                    return null;
+                default:
+                    return defaultValue(method.getReturnType());
+            }
+        }
+    }
+}
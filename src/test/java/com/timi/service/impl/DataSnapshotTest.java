@@ -0,0 +1,129 @@
+package com.timi.service.impl;
+
+import com.timi.dao.TableFingerprint;
+import com.timi.model.Admin;
+import com.timi.model.Application;
+import com.timi.model.Category;
+import com.timi.model.Course;
+import com.timi.model.Instructor;
+import com.timi.model.Level;
+import com.timi.model.Question;
+import com.timi.model.Quiz;
+import com.timi.model.QuizAttempt;
+import com.timi.model.Student;
+import com.timi.model.User;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.PosixFilePermissions;
+import java.sql.Date;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class DataSnapshotTest {
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    @DisplayName("Snapshot Round Trip Test")
+    void roundTripTest() throws Exception {
+        Map<String, TableFingerprint> fingerprints = new LinkedHashMap<>();
+        fingerprints.put("Courses", new TableFingerprint(2, 7, -123456789L));
+        fingerprints.put("Users", new TableFingerprint(0, 0, 0));
+
+        Course java = new Course(1, "Java", "Ünïcode description", 3, Level.BEGINNER, 49.5, 12, Category.JAVA, null);
+        Course bare = new Course(7, "Bare", null, 0, null, null, 0, null, null);
+        List<Course> courses = List.of(java, bare);
+
+        Question question = new Question(11, "2 + 2?", Arrays.asList("3", "4", null), 1, -1, 5);
+        Question openQuestion = new Question(12, null, null, 0, 2, 5);
+        List<Question> questions = List.of(question, openQuestion);
+        List<Quiz> quizzes = List.of(new Quiz(5, "Basics", new ArrayList<>(questions), 1, 10.5f),
+                new Quiz(6, "Empty", null, 7, 0f));
+
+        List<QuizAttempt> quizAttempts = List.of(
+                new QuizAttempt(21, 2, 5, LocalDateTime.of(2024, 3, 1, 12, 30, 15, 123456789), 80, new ArrayList<>(questions), 9.25f),
+                new QuizAttempt(22, 2, 6, null, 0, null, 0f));
+        quizAttempts.get(0).setSubmissionKey("2f1c9a7e-submission");
+
+        Student student = new Student(2, "student@example.com", "student", "secret-student", Level.INTERMEDIATE, 40);
+        student.setEnrolledCourses(new ArrayList<>(courses));
+        Student newcomer = new Student(4, "new@example.com", "newcomer", "secret-newcomer", null, 0);
+        Instructor instructor = new Instructor(3, "teacher@example.com", "teacher", "secret-teacher", Date.valueOf("2020-09-01"), "CS");
+        instructor.setTeachingCourses(new ArrayList<>(List.of(java)));
+        Instructor unemployed = new Instructor(5, "guest@example.com", "guest", "secret-guest", null, null);
+        Admin admin = new Admin(1, "admin@example.com", "admin", "secret-admin", null);
+        List<User> users = List.of(admin, student, newcomer, instructor, unemployed);
+
+        Queue<Application> applications = new LinkedList<>();
+        applications.offer(new Application(31, 2, 1, "Please", "PENDING", new Timestamp(1_700_000_000_000L)));
+        applications.offer(new Application(32, 4, 7, null, null, null));
+
+        Path file = tempDir.resolve("data_snapshot.bin");
+        new DataSnapshot(fingerprints, courses, quizzes, questions, quizAttempts, users, applications).write(file);
+        DataSnapshot read = DataSnapshot.read(file);
+
+        assertEquals(fingerprints, read.fingerprints);
+        assertEquals(courses, read.courses);
+        assertEquals(quizzes, read.quizzes);
+        assertEquals(questions, read.questions);
+        assertEquals(quizAttempts, read.quizAttempts);
+        assertEquals("2f1c9a7e-submission", read.quizAttempts.get(0).getSubmissionKey());
+        assertNull(read.quizAttempts.get(1).getSubmissionKey());
+        assertEquals(new ArrayList<>(applications), new ArrayList<>(read.applications));
+
+        assertEquals(users.size(), read.users.size());
+        for (int i = 0; i < users.size(); i++) {
+            User expected = users.get(i);
+            User actual = read.users.get(i);
+            assertNull(actual.getPassword());
+            actual.setPassword(expected.getPassword());
+            assertEquals(expected, actual);
+        }
+        // a course shared by several users is restored as one object
+        Course studentJava = ((Student) read.users.get(1)).getEnrolledCourses().get(0);
+        assertSame(studentJava, ((Instructor) read.users.get(3)).getTeachingCourses().get(0));
+    }
+
+    @Test
+    @DisplayName("Snapshot Keeps Passwords Out Test")
+    void passwordTest() throws Exception {
+        Student student = new Student(2, "student@example.com", "student", "secret-student", Level.BEGINNER, 0);
+        Path file = tempDir.resolve("data_snapshot.bin");
+        new DataSnapshot(new LinkedHashMap<>(), List.of(), List.of(), List.of(), List.of(), List.of(student), new LinkedList<>())
+                .write(file);
+
+        String contents = new String(Files.readAllBytes(file), StandardCharsets.ISO_8859_1);
+        assertFalse(contents.contains("secret-student"));
+        assertTrue(contents.contains("student@example.com"));
+        if (file.getFileSystem().supportedFileAttributeViews().contains("posix")) {
+            assertEquals(PosixFilePermissions.fromString("rw-------"), Files.getPosixFilePermissions(file));
+        }
+    }
+
+    @Test
+    @DisplayName("Unreadable Snapshot Test")
+    void unreadableTest() throws Exception {
+        Path file = tempDir.resolve("data_snapshot.bin");
+        new DataSnapshot(new LinkedHashMap<>(), List.of(), List.of(), List.of(), List.of(), List.of(), new LinkedList<>()).write(file);
+        byte[] bytes = Files.readAllBytes(file);
+        Files.write(file, Arrays.copyOf(bytes, bytes.length - 2));
+        assertThrows(IOException.class, () -> DataSnapshot.read(file));
+    }
+}